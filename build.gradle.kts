@@ -8,6 +8,7 @@ import org.gradle.internal.os.OperatingSystem
 
 plugins {
     id("java")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 // Sets the Java version to use for compiling your library.
@@ -109,6 +110,34 @@ tasks.test {
     useJUnitPlatform()
 }
 
+// Pixel kernels in ImgVector use the incubating Vector API. The module must be
+// added to compile. At run time it is optional; without it, Img falls back to
+// scalar loops. In Processing, add "--add-modules jdk.incubator.vector" to the
+// JVM options of a sketch to enable the kernels.
+tasks.withType<JavaCompile>().configureEach {
+    options.compilerArgs.addAll(listOf("--add-modules", "jdk.incubator.vector"))
+}
+
+tasks.withType<Javadoc>().configureEach {
+    (options as StandardJavadocDocletOptions).addStringOption(
+        "-add-modules", "jdk.incubator.vector")
+}
+
+tasks.withType<Test>().configureEach {
+    jvmArgs("--add-modules", "jdk.incubator.vector")
+}
+
+// Benchmarks for hot paths are in src/jmh/java. Run them with the task jmh.
+// Results are written as JSON to build/results/jmh/results.json; to record a
+// new baseline, copy that file over src/jmh/results/baseline.json, removing
+// the "jvm" and "jvmArgs" fields, which hold paths local to the machine. The
+// pooled benchmarks only show a speedup on a machine with several cores.
+jmh {
+    jmhVersion = "1.37"
+    resultFormat = "JSON"
+    jvmArgsAppend = listOf("--add-modules", "jdk.incubator.vector")
+}
+
 //==============================
 // END USER BUILD CONFIGURATIONS
 //==============================
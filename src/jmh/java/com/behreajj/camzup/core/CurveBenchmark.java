@@ -0,0 +1,95 @@
+package com.behreajj.camzup.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks evaluation of curves and gradients over a number of steps.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurveBenchmark {
+
+    /**
+     * The number of evaluations per invocation.
+     */
+    @Param({"256", "4096"})
+    public int steps;
+
+    /**
+     * The output color.
+     */
+    private final Lab clr = new Lab();
+
+    /**
+     * The output coordinate.
+     */
+    private final Vec2 coord = new Vec2();
+
+    /**
+     * The curve.
+     */
+    private Curve2 curve;
+
+    /**
+     * The gradient.
+     */
+    private Gradient gradient;
+
+    /**
+     * The output tangent.
+     */
+    private final Vec2 tangent = new Vec2();
+
+    /**
+     * Creates a random curve and a gradient.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+
+        this.curve = Curve2.random(new Random(0x5eedL), 16, -1.0f, 1.0f,
+            true, new Curve2());
+        this.gradient = new Gradient(
+            Lab.black(new Lab()),
+            new Lab(53.0f, 80.0f, 67.0f, 1.0f),
+            new Lab(88.0f, -86.0f, 83.0f, 1.0f),
+            new Lab(30.0f, 68.0f, -112.0f, 1.0f),
+            Lab.white(new Lab()));
+    }
+
+    /**
+     * Evaluates a coordinate and tangent on the curve at each step.
+     *
+     * @return the last coordinate
+     */
+    @Benchmark
+    public Vec2 curveEval() {
+
+        final float toStep = 1.0f / this.steps;
+        for (int i = 0; i < this.steps; ++i) {
+            Curve2.eval(this.curve, i * toStep, this.coord, this.tangent);
+        }
+        return this.coord;
+    }
+
+    /**
+     * Evaluates a color from the gradient at each step.
+     *
+     * @return the last color
+     */
+    @Benchmark
+    public Lab gradientEval() {
+
+        final float toStep = 1.0f / this.steps;
+        for (int i = 0; i < this.steps; ++i) {
+            Gradient.eval(this.gradient, i * toStep, this.clr);
+        }
+        return this.clr;
+    }
+}
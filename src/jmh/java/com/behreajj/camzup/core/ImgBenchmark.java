@@ -0,0 +1,149 @@
+package com.behreajj.camzup.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks image conversion and filter methods over square images of
+ * varying size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImgBenchmark {
+
+    /**
+     * The image width and height.
+     */
+    @Param({"64", "256", "1024"})
+    public int size;
+
+    /**
+     * The adjustment for LCH.
+     */
+    private Lch adjust;
+
+    /**
+     * The source pixels in 0xAARRGGBB.
+     */
+    private int[] argb32s;
+
+    /**
+     * The palette for dithering.
+     */
+    private Lab[] palette;
+
+    /**
+     * The source image.
+     */
+    private Img source;
+
+    /**
+     * The target image.
+     */
+    private Img target;
+
+    /**
+     * The tone mapping function.
+     */
+    private Rgb.AbstrToneMap toneMap;
+
+    /**
+     * Creates random pixels, then converts them to an image.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+
+        final Random rng = new Random(0x5eedL);
+        final int len = this.size * this.size;
+        this.argb32s = new int[len];
+        for (int i = 0; i < len; ++i) {
+            this.argb32s[i] = 0xff000000 | rng.nextInt(0x01000000);
+        }
+
+        this.source = Img.fromArgb32(this.size, this.size, this.argb32s,
+            false, new Img());
+        this.target = new Img(this.size, this.size);
+        this.adjust = new Lch(5.0f, 10.0f, 0.125f, 0.0f);
+        this.palette = new Lab[]{
+            Lab.black(new Lab()),
+            Lab.white(new Lab()),
+            new Lab(53.0f, 80.0f, 67.0f, 1.0f),
+            new Lab(88.0f, -86.0f, 83.0f, 1.0f),
+            new Lab(30.0f, 68.0f, -112.0f, 1.0f)};
+        this.toneMap = new Rgb.ToneMapClamp();
+    }
+
+    /**
+     * Adjusts the lightness, chroma and hue of the source image.
+     *
+     * @return the adjusted image
+     */
+    @Benchmark
+    public Img adjustLch() {
+
+        return Img.adjustLch(this.source, this.adjust,
+            Img.GrayPolicy.OMIT, this.target);
+    }
+
+    /**
+     * Blurs the source image with a step of 2.
+     *
+     * @return the blurred image
+     */
+    @Benchmark
+    public Img blur() {
+
+        return Img.blur(this.source, 2, this.target);
+    }
+
+    /**
+     * Dithers the source image to the palette.
+     *
+     * @return the dithered image
+     */
+    @Benchmark
+    public Img dither() {
+
+        return Img.dither(this.source, 1.0f, this.palette, this.target);
+    }
+
+    /**
+     * Converts 32-bit pixels to an image.
+     *
+     * @return the image
+     */
+    @Benchmark
+    public Img fromArgb32() {
+
+        return Img.fromArgb32(this.size, this.size, this.argb32s, false,
+            this.target);
+    }
+
+    /**
+     * Extracts a palette of up to 256 colors from the source image.
+     *
+     * @return the palette
+     */
+    @Benchmark
+    public Lab[] paletteExtract() {
+
+        return Img.paletteExtract(this.source, 256);
+    }
+
+    /**
+     * Converts the source image to 32-bit pixels.
+     *
+     * @return the pixels
+     */
+    @Benchmark
+    public int[] toArgb32() {
+
+        return Img.toArgb32(this.source, this.toneMap, false);
+    }
+}
@@ -0,0 +1,91 @@
+package com.behreajj.camzup.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks mesh methods over UV spheres of varying density.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeshBenchmark {
+
+    /**
+     * The number of sphere longitudes. Latitudes are half as many.
+     */
+    @Param({"32", "128", "512"})
+    public int density;
+
+    /**
+     * The mesh to be shaded.
+     */
+    private Mesh3 mesh;
+
+    /**
+     * The source mesh.
+     */
+    private Mesh3 source;
+
+    /**
+     * Creates the source mesh and a copy to be shaded.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+
+        this.source = Mesh3.uvSphere(this.density, this.density / 2,
+            new Mesh3());
+        this.mesh = new Mesh3(this.source);
+    }
+
+    /**
+     * Copies then cleans the source mesh. Cleaning changes a mesh in place,
+     * so each invocation needs a fresh copy; see {@link #copy()} for the cost
+     * of the copy alone.
+     *
+     * @return the cleaned mesh
+     */
+    @Benchmark
+    public Mesh3 clean() {
+
+        return new Mesh3(this.source).clean();
+    }
+
+    /**
+     * Copies then cleans the source mesh without sorting faces.
+     *
+     * @return the cleaned mesh
+     */
+    @Benchmark
+    public Mesh3 cleanUnsorted() {
+
+        return new Mesh3(this.source).clean(false);
+    }
+
+    /**
+     * Copies the source mesh. Serves as a baseline for the clean benchmarks.
+     *
+     * @return the copy
+     */
+    @Benchmark
+    public Mesh3 copy() {
+
+        return new Mesh3(this.source);
+    }
+
+    /**
+     * Calculates smooth normals for the mesh. Shading replaces the normals
+     * by the same amount of work each time, so the mesh is not copied.
+     *
+     * @return the shaded mesh
+     */
+    @Benchmark
+    public Mesh3 shadeSmooth() {
+
+        return this.mesh.shadeSmooth();
+    }
+}
@@ -0,0 +1,110 @@
+package com.behreajj.camzup.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks per-vertex mesh methods with and without a fork join pool over
+ * UV spheres of varying density. At the highest density, a sphere has about
+ * one million coordinates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeshPoolBenchmark {
+
+    /**
+     * The number of sphere longitudes. Latitudes are half as many.
+     */
+    @Param({"256", "1448"})
+    public int density;
+
+    /**
+     * Whether to use the common pool.
+     */
+    @Param({"false", "true"})
+    public boolean pooled;
+
+    /**
+     * The matrix inverse.
+     */
+    private Mat4 inverse;
+
+    /**
+     * The transform matrix.
+     */
+    private Mat4 matrix;
+
+    /**
+     * The mesh to be modified.
+     */
+    private Mesh3 mesh;
+
+    /**
+     * The fork join pool, or <code>null</code>.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Creates the mesh and matrices.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+
+        this.mesh = Mesh3.uvSphere(this.density, this.density / 2,
+            new Mesh3());
+        this.mesh.shadeSmooth();
+        this.matrix = Mat4.fromRotX(0.01f, new Mat4());
+        this.inverse = Mat4.inverse(this.matrix, new Mat4());
+        this.pool = this.pooled ? ForkJoinPool.commonPool() : null;
+    }
+
+    /**
+     * Rotates the mesh about the x axis.
+     *
+     * @return the rotated mesh
+     */
+    @Benchmark
+    public Mesh3 rotateX() {
+
+        return this.mesh.rotateX(0.01f, this.pool);
+    }
+
+    /**
+     * Calculates flat normals for the mesh.
+     *
+     * @return the shaded mesh
+     */
+    @Benchmark
+    public Mesh3 shadeFlat() {
+
+        return this.mesh.shadeFlat(this.pool);
+    }
+
+    /**
+     * Calculates smooth normals for the mesh.
+     *
+     * @return the shaded mesh
+     */
+    @Benchmark
+    public Mesh3 shadeSmooth() {
+
+        return this.mesh.shadeSmooth(this.pool);
+    }
+
+    /**
+     * Transforms the coordinates and normals of the mesh by a matrix.
+     *
+     * @return the transformed mesh
+     */
+    @Benchmark
+    public Mesh3 transform() {
+
+        return this.mesh.transform(this.matrix, this.inverse, this.pool);
+    }
+}
@@ -0,0 +1,112 @@
+package com.behreajj.camzup.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks octree insertion and queries over random points in the unit
+ * cube.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OctreeBenchmark {
+
+    /**
+     * The number of points.
+     */
+    @Param({"1000", "100000"})
+    public int count;
+
+    /**
+     * The query center.
+     */
+    private final Vec3 center = new Vec3();
+
+    /**
+     * The output coordinates of a query.
+     */
+    private float[] coords;
+
+    /**
+     * The output distances of a query.
+     */
+    private float[] distSqs;
+
+    /**
+     * The octree with all points inserted.
+     */
+    private Octree filled;
+
+    /**
+     * The points.
+     */
+    private Vec3[] points;
+
+    /**
+     * The query range.
+     */
+    private Bounds3 range;
+
+    /**
+     * Creates random points and a filled octree.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+
+        final Random rng = new Random(0x5eedL);
+        this.points = new Vec3[this.count];
+        for (int i = 0; i < this.count; ++i) {
+            this.points[i] = Vec3.randomCartesian(rng, -1.0f, 1.0f, new Vec3());
+        }
+
+        this.filled = new Octree(this.points);
+        this.range = new Bounds3(-0.25f, 0.25f);
+        this.coords = new float[this.count * 3];
+        this.distSqs = new float[this.count];
+    }
+
+    /**
+     * Inserts the points one at a time into an empty octree.
+     *
+     * @return the octree
+     */
+    @Benchmark
+    public Octree insert() {
+
+        final Octree o = new Octree(new Bounds3(-1.0f, 1.0f));
+        for (final Vec3 point : this.points) {
+            o.insert(point);
+        }
+        return o;
+    }
+
+    /**
+     * Finds the points of the filled octree in a box.
+     *
+     * @return the points
+     */
+    @Benchmark
+    public Vec3[] queryBounds() {
+
+        return Octree.query(this.filled, this.range);
+    }
+
+    /**
+     * Finds the points of the filled octree in a sphere, without
+     * allocation.
+     *
+     * @return the number of points found
+     */
+    @Benchmark
+    public int querySphere() {
+
+        return Octree.query(this.filled, this.center, 0.25f, this.coords,
+            this.distSqs);
+    }
+}
@@ -0,0 +1,137 @@
+package com.behreajj.camzup.core;
+
+/**
+ * A lookup table of cumulative arc lengths along a composite Bézier curve,
+ * sampled at regular steps within each segment. Maps a distance along the
+ * curve to a fractional sample index by binary search. Holds a snapshot of
+ * the knots from which it was built, so that a curve can tell whether the
+ * table is stale.
+ */
+final class ArcLengthTable {
+
+    /**
+     * The number of samples per curve segment.
+     */
+    static final int SAMPLES = 32;
+
+    /**
+     * Whether the curve was a closed loop when the table was built.
+     */
+    final boolean closedLoop;
+
+    /**
+     * The knot components from which the table was built.
+     */
+    final float[] knots;
+
+    /**
+     * The cumulative arc length at each sample. The first element is zero;
+     * the last is the length of the curve.
+     */
+    final float[] lengths;
+
+    /**
+     * The number of curve segments.
+     */
+    final int segments;
+
+    /**
+     * Constructs a table.
+     *
+     * @param closedLoop whether the curve is closed
+     * @param knots      the knot snapshot
+     * @param lengths    the cumulative lengths
+     * @param segments   the segment count
+     */
+    ArcLengthTable(
+        final boolean closedLoop,
+        final float[] knots,
+        final float[] lengths,
+        final int segments) {
+
+        this.closedLoop = closedLoop;
+        this.knots = knots;
+        this.lengths = lengths;
+        this.segments = segments;
+    }
+
+    /**
+     * Gets the length of the curve.
+     *
+     * @return the length
+     */
+    float getLength() {
+        return this.lengths[this.lengths.length - 1];
+    }
+
+    /**
+     * Finds the fractional sample index at a distance along the curve. For
+     * closed loops, the distance wraps around the length; otherwise, it is
+     * clamped. The search begins at a lower bound, so that callers which
+     * query increasing distances may pass the previous result.
+     *
+     * @param distance the distance
+     * @param from     the lower bound
+     * @return the sample index
+     */
+    float locate(final float distance, final int from) {
+
+        final float[] lens = this.lengths;
+        final int last = lens.length - 1;
+        final float total = lens[last];
+        if (total <= 0.0f) {
+            return 0.0f;
+        }
+
+        final float d = this.closedLoop
+            ? Utils.mod(distance, total)
+            : Utils.clamp(distance, 0.0f, total);
+        if (d >= total) {
+            return last;
+        }
+
+        /* Find the last sample whose length is less than or equal to d. */
+        int lo = Math.max(0, Math.min(from, last - 1));
+        if (lens[lo] > d) {
+            lo = 0;
+        }
+        int hi = last;
+        while (hi - lo > 1) {
+            final int mid = lo + hi >>> 1;
+            if (lens[mid] <= d) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+
+        final float span = lens[lo + 1] - lens[lo];
+        return span > 0.0f ? lo + (d - lens[lo]) / span : lo;
+    }
+
+    /**
+     * Gets the segment index of a fractional sample index. The final sample
+     * belongs to the last segment.
+     *
+     * @param index the sample index
+     * @return the segment index
+     */
+    int segmentOf(final float index) {
+
+        return Math.min((int) (index / ArcLengthTable.SAMPLES),
+            this.segments - 1);
+    }
+
+    /**
+     * Gets the step within a segment of a fractional sample index.
+     *
+     * @param index   the sample index
+     * @param segment the segment index
+     * @return the local step
+     */
+    static float stepOf(final float index, final int segment) {
+
+        return Utils.clamp01((index - segment * ArcLengthTable.SAMPLES)
+            / ArcLengthTable.SAMPLES);
+    }
+}
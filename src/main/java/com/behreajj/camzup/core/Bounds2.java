@@ -645,6 +645,30 @@ public class Bounds2 implements Comparable<Bounds2> {
         return target.set(bxMin, byMin, bxMax, byMax);
     }
 
+    /**
+     * Finds the distance squared from a point to the nearest point on or in
+     * a bounds. Returns zero if the point is inside the bounds.
+     *
+     * @param a     the bounds
+     * @param point the point
+     * @return the distance squared
+     */
+    static float distSq(final Bounds2 a, final Vec2 point) {
+
+        final float yd = point.y < a.min.y
+            ? point.y - a.min.y
+            : point.y > a.max.y
+            ? point.y - a.max.y
+            : 0.0f;
+        final float xd = point.x < a.min.x
+            ? point.x - a.min.x
+            : point.x > a.max.x
+            ? point.x - a.max.x
+            : 0.0f;
+
+        return xd * xd + yd * yd;
+    }
+
     /**
      * Evaluates whether a bounding area intersects a circle.
      *
@@ -655,18 +679,7 @@ public class Bounds2 implements Comparable<Bounds2> {
      */
     static boolean intersectSq(final Bounds2 a, final Vec2 center, final float rsq) {
 
-        final float yd = center.y < a.min.y
-            ? center.y - a.min.y
-            : center.y > a.max.y
-            ? center.y - a.max.y
-            : 0.0f;
-        final float xd = center.x < a.min.x
-            ? center.x - a.min.x
-            : center.x > a.max.x
-            ? center.x - a.max.x
-            : 0.0f;
-
-        return xd * xd + yd * yd < rsq;
+        return Bounds2.distSq(a, center) < rsq;
     }
 
     /**
@@ -728,6 +728,35 @@ public class Bounds3 implements Comparable<Bounds3> {
         return Utils.abs(Bounds3.volumeSigned(b));
     }
 
+    /**
+     * Finds the distance squared from a point to the nearest point on or in
+     * a bounds. Returns zero if the point is inside the bounds.
+     *
+     * @param a     the bounds
+     * @param point the point
+     * @return the distance squared
+     */
+    static float distSq(final Bounds3 a, final Vec3 point) {
+
+        final float zd = point.z < a.min.z
+            ? point.z - a.min.z
+            : point.z > a.max.z
+            ? point.z - a.max.z
+            : 0.0f;
+        final float yd = point.y < a.min.y
+            ? point.y - a.min.y
+            : point.y > a.max.y
+            ? point.y - a.max.y
+            : 0.0f;
+        final float xd = point.x < a.min.x
+            ? point.x - a.min.x
+            : point.x > a.max.x
+            ? point.x - a.max.x
+            : 0.0f;
+
+        return xd * xd + yd * yd + zd * zd;
+    }
+
     /**
      * Evaluates whether a bounding volume intersects a sphere.
      *
@@ -741,23 +770,7 @@ public class Bounds3 implements Comparable<Bounds3> {
         final Vec3 center,
         final float rsq) {
 
-        final float zd = center.z < a.min.z
-            ? center.z - a.min.z
-            : center.z > a.max.z
-            ? center.z - a.max.z
-            : 0.0f;
-        final float yd = center.y < a.min.y
-            ? center.y - a.min.y
-            : center.y > a.max.y
-            ? center.y - a.max.y
-            : 0.0f;
-        final float xd = center.x < a.min.x
-            ? center.x - a.min.x
-            : center.x > a.max.x
-            ? center.x - a.max.x
-            : 0.0f;
-
-        return xd * xd + yd * yd + zd * zd < rsq;
+        return Bounds3.distSq(a, center) < rsq;
     }
 
     /**
@@ -0,0 +1,245 @@
+package com.behreajj.camzup.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes bytes to a channel through a fixed-size block, so that a file can
+ * be written without holding all of it in memory. Numbers are formatted
+ * directly to bytes, without an intermediate string. Binary numbers are
+ * little endian.
+ */
+final class ByteSink {
+
+    /**
+     * The number of bytes held before they are written to the channel.
+     */
+    static final int BLOCK_SIZE = 1 << 16;
+
+    /**
+     * The block.
+     */
+    private final ByteBuffer buf;
+
+    /**
+     * The channel.
+     */
+    private final WritableByteChannel ch;
+
+    /**
+     * Scratch bytes for the digits of an integer.
+     */
+    private final byte[] digits = new byte[11];
+
+    /**
+     * The number of bytes written to the channel.
+     */
+    private long written;
+
+    /**
+     * Constructs a sink.
+     *
+     * @param ch the channel
+     */
+    ByteSink(final WritableByteChannel ch) {
+
+        this.ch = ch;
+        this.buf = ByteBuffer.allocate(ByteSink.BLOCK_SIZE);
+        this.buf.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Writes the bytes held in the block to the channel.
+     *
+     * @return the total number of bytes written
+     * @throws IOException if the channel cannot be written
+     */
+    long flush() throws IOException {
+
+        this.buf.flip();
+        while (this.buf.hasRemaining()) {
+            this.written += this.ch.write(this.buf);
+        }
+        this.buf.clear();
+        return this.written;
+    }
+
+    /**
+     * Puts a byte, such as an ASCII character.
+     *
+     * @param b the byte
+     * @throws IOException if the channel cannot be written
+     */
+    void put(final int b) throws IOException {
+
+        if (!this.buf.hasRemaining()) {
+            this.flush();
+        }
+        this.buf.put((byte) b);
+    }
+
+    /**
+     * Puts an integer as decimal digits.
+     *
+     * @param v the integer
+     * @throws IOException if the channel cannot be written
+     */
+    void putDecimal(final int v) throws IOException {
+
+        this.reserve(11);
+
+        /* Work with negative values so that the minimum integer is valid. */
+        int n = v < 0 ? v : -v;
+        int len = 0;
+        do {
+            this.digits[len++] = (byte) ('0' - n % 10);
+            n /= 10;
+        } while (n != 0);
+
+        if (v < 0) {
+            this.buf.put((byte) '-');
+        }
+        while (len > 0) {
+            this.buf.put(this.digits[--len]);
+        }
+    }
+
+    /**
+     * Puts a real number truncated to a number of decimal places. Matches
+     * {@link Utils#toFixed(float, int)} for places greater than zero.
+     *
+     * @param v      the real number
+     * @param places the number of places
+     * @throws IOException if the channel cannot be written
+     */
+    void putFixed(final float v, final int places) throws IOException {
+
+        final int raw = Float.floatToRawIntBits(v);
+        switch (raw) {
+            case 0x0:
+            case 0x80000000:
+            case 0x7fc00000:
+                this.putString("0.0");
+                return;
+
+            case 0xff800000:
+            case 0xff7fffff:
+                this.putString("-3.4028235E38");
+                return;
+
+            case 0x1:
+                this.putString("1.4E-45");
+                return;
+
+            case 0x7f800000:
+            case 0x7f7fffff:
+                this.putString("3.4028235E38");
+                return;
+
+            default:
+        }
+
+        final float abs = Float.intBitsToFloat(raw & 0x7fffffff);
+        final int trunc = (int) abs;
+        if (raw < 0) {
+            this.put('-');
+        }
+        this.putDecimal(trunc);
+        this.put('.');
+
+        int len = 1;
+        for (int t = trunc; t > 9; t /= 10) {
+            ++len;
+        }
+        final int maxPlaces = 9 - len;
+        if (maxPlaces < 1) {
+            this.putString(Float.toString(v));
+            return;
+        }
+
+        final int vetPlaces = Math.min(places, maxPlaces);
+        this.reserve(vetPlaces);
+        float frac = abs - trunc;
+        for (int i = 0; i < vetPlaces; ++i) {
+            frac *= 10.0f;
+            final int tr = (int) frac;
+            frac -= tr;
+            this.buf.put((byte) ('0' + tr));
+        }
+    }
+
+    /**
+     * Puts a real number as four little endian bytes. Not a number is
+     * written in its canonical form, as with
+     * {@link Utils#byteslm(float, byte[], int)}.
+     *
+     * @param v the real number
+     * @throws IOException if the channel cannot be written
+     */
+    void putFloat(final float v) throws IOException {
+
+        this.reserve(4);
+        this.buf.putInt(Float.floatToIntBits(v));
+    }
+
+    /**
+     * Puts an integer as four little endian bytes.
+     *
+     * @param v the integer
+     * @throws IOException if the channel cannot be written
+     */
+    void putInt(final int v) throws IOException {
+
+        this.reserve(4);
+        this.buf.putInt(v);
+    }
+
+    /**
+     * Puts a string encoded as UTF-8.
+     *
+     * @param s the string
+     * @throws IOException if the channel cannot be written
+     */
+    void putString(final String s) throws IOException {
+
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        int i = 0;
+        while (i < bytes.length) {
+            if (!this.buf.hasRemaining()) {
+                this.flush();
+            }
+            final int len = Math.min(bytes.length - i, this.buf.remaining());
+            this.buf.put(bytes, i, len);
+            i += len;
+        }
+    }
+
+    /**
+     * Puts a number of zero bytes.
+     *
+     * @param count the count
+     * @throws IOException if the channel cannot be written
+     */
+    void putZeros(final int count) throws IOException {
+
+        for (int i = 0; i < count; ++i) {
+            this.put(0);
+        }
+    }
+
+    /**
+     * Flushes the block if it has less room than a number of bytes.
+     *
+     * @param count the number of bytes
+     * @throws IOException if the channel cannot be written
+     */
+    private void reserve(final int count) throws IOException {
+
+        if (this.buf.remaining() < count) {
+            this.flush();
+        }
+    }
+}
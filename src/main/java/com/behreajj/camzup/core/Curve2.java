@@ -18,6 +18,12 @@ public class Curve2 extends Curve implements Iterable<Knot2>, ISvgWritable {
      */
     private final ArrayList<Knot2> knots = new ArrayList<>(Curve.KNOT_CAPACITY);
 
+    /**
+     * The arc length lookup table, built on demand and cached until the knots
+     * change.
+     */
+    private ArcLengthTable arcLengths;
+
     /**
      * The default constructor.
      */
@@ -310,6 +316,20 @@ public class Curve2 extends Curve implements Iterable<Knot2>, ISvgWritable {
         return Curve2.arc(startAngle, stopAngle, radius, ArcMode.OPEN, target);
     }
 
+    /**
+     * Finds the arc length of a curve, i.e., the distance traveled from its
+     * first to its last coordinate. Approximated by a lookup table of
+     * samples, which is built once and cached by the curve until its knots
+     * change.
+     *
+     * @param curve the curve
+     * @return the arc length
+     */
+    public static float arcLength(final Curve2 curve) {
+
+        return Curve2.arcLengthTable(curve).getLength();
+    }
+
     /**
      * Calculates an Axis-Aligned Bounding Box (AABB) encompassing the curve.
      * Does so by taking the minimum and maximum of each knot's coordinate,
@@ -520,6 +540,33 @@ public class Curve2 extends Curve implements Iterable<Knot2>, ISvgWritable {
         return coord;
     }
 
+    /**
+     * Evaluates a point and tangent at a distance along a curve, rather than
+     * at a step. If the curve is a closed loop, the distance wraps around
+     * its arc length; otherwise, the distance is clamped to the arc length.
+     * The tangent will be normalized, to be of unit length.
+     *
+     * @param curve    the curve
+     * @param distance the distance
+     * @param coord    the output coordinate
+     * @param tangent  the output tangent
+     * @return the coordinate
+     * @see Curve2#arcLength(Curve2)
+     */
+    public static Vec2 evalByDistance(
+        final Curve2 curve,
+        final float distance,
+        final Vec2 coord,
+        final Vec2 tangent) {
+
+        final ArcLengthTable lut = Curve2.arcLengthTable(curve);
+        if (lut.segments < 1) {
+            return Curve2.evalFirst(curve, coord, tangent);
+        }
+        return Curve2.evalSample(curve, lut, lut.locate(distance, 0), coord,
+            tangent);
+    }
+
     /**
      * Evaluates the first knot in the curve.
      *
@@ -678,6 +725,260 @@ public class Curve2 extends Curve implements Iterable<Knot2>, ISvgWritable {
         return coord;
     }
 
+    /**
+     * Evaluates a number of points on a curve, spaced by evenly incrementing
+     * steps, as by {@link Curve2#eval(Curve2, float, Vec2, Vec2)}. Points are
+     * written to an array as interleaved x and y components. If the array is
+     * too short, a new one is created. If the curve is a closed loop, the
+     * last point is not a duplicate of the first.
+     *
+     * @param curve  the curve
+     * @param count  the number of points
+     * @param target the output array
+     * @return the array
+     * @see Curve2#evalRange(Curve2, int, float[], float[], float[])
+     */
+    public static float[] evalRange(
+        final Curve2 curve,
+        final int count,
+        final float[] target) {
+
+        final int vCount = Math.max(count, 1);
+        final int len2 = vCount + vCount;
+        final float[] trg = target != null && target.length >= len2
+            ? target
+            : new float[len2];
+        Curve2.evalRange(curve, vCount, trg, null, null);
+        return trg;
+    }
+
+    /**
+     * Evaluates a number of points, tangents and normals on a curve, spaced
+     * by evenly incrementing steps, as by
+     * {@link Curve2#eval(Curve2, float, Vec2, Vec2)}. Each is written to an
+     * array as interleaved x and y components. Tangents are normalized;
+     * normals are tangents rotated counter-clockwise. Arrays which are
+     * <code>null</code> are skipped; others must hold at least twice the
+     * count.
+     * <br>
+     * <br>
+     * Segments are walked in order. Within a segment, the cubic polynomial
+     * is stepped by forward differencing, so each sample costs a few
+     * additions rather than a full evaluation.
+     *
+     * @param curve    the curve
+     * @param count    the number of points
+     * @param coords   the output coordinates
+     * @param tangents the output tangents
+     * @param normals  the output normals
+     * @return the coordinates
+     */
+    public static float[] evalRange(
+        final Curve2 curve,
+        final int count,
+        final float[] coords,
+        final float[] tangents,
+        final float[] normals) {
+
+        if (count < 1) {
+            return coords;
+        }
+
+        final ArrayList<Knot2> knots = curve.knots;
+        final int knotLength = knots.size();
+        final boolean cl = curve.closedLoop;
+        final int segments = cl ? knotLength : knotLength - 1;
+
+        if (segments < 1 || count < 2) {
+            final Knot2 first = knots.get(0);
+            final float cox = first.coord.x;
+            final float coy = first.coord.y;
+            final float dx = first.foreHandle.x - cox;
+            final float dy = first.foreHandle.y - coy;
+            final double mSq = dx * (double) dx + dy * (double) dy;
+            final float mInv = mSq > 0.0d ? (float) (1.0d / Math.sqrt(mSq)) : 0.0f;
+            final float tx = dx * mInv;
+            final float ty = dy * mInv;
+            for (int j = 0, jEnd = count + count; j < jEnd; j += 2) {
+                if (coords != null) {
+                    coords[j] = cox;
+                    coords[j + 1] = coy;
+                }
+                if (tangents != null) {
+                    tangents[j] = tx;
+                    tangents[j + 1] = ty;
+                }
+                if (normals != null) {
+                    normals[j] = -ty;
+                    normals[j + 1] = tx;
+                }
+            }
+            return coords;
+        }
+
+        final double h = segments / (double) (cl ? count : count - 1);
+        final int last = segments - 1;
+        int i = 0;
+        for (int s = 0; s < segments && i < count; ++s) {
+            final int iEnd = s < last
+                ? Math.min(count, (int) Math.ceil((s + 1) / h))
+                : count;
+            if (iEnd > i) {
+                final Knot2 a = knots.get(s);
+                final Knot2 b = knots.get(s < knotLength - 1 ? s + 1 : 0);
+                Curve2.evalSegment(a, b, i * h - s, h, i, iEnd, coords,
+                    tangents, normals);
+                i = iEnd;
+            }
+        }
+
+        return coords;
+    }
+
+    /**
+     * Evaluates a number of points spaced evenly by arc length along a curve.
+     * Points are written to an array as interleaved x and y components. If
+     * the array is too short, a new one is created. If the curve is a closed
+     * loop, the last point is not a duplicate of the first. Because steps
+     * increase, the lookup table is searched from the previous sample rather
+     * than from the start.
+     *
+     * @param curve  the curve
+     * @param count  the number of points
+     * @param target the output array
+     * @return the array
+     */
+    public static float[] evalUniform(
+        final Curve2 curve,
+        final int count,
+        final float[] target) {
+
+        final int vCount = Math.max(count, 1);
+        final int len2 = vCount + vCount;
+        final float[] trg = target != null && target.length >= len2
+            ? target
+            : new float[len2];
+
+        final ArcLengthTable lut = Curve2.arcLengthTable(curve);
+        final Vec2 coord = new Vec2();
+        final Vec2 tangent = new Vec2();
+        if (lut.segments < 1) {
+            Curve2.evalFirst(curve, coord, tangent);
+            for (int j = 0; j < len2; j += 2) {
+                trg[j] = coord.x;
+                trg[j + 1] = coord.y;
+            }
+            return trg;
+        }
+
+        final float total = lut.getLength();
+        final int div = curve.closedLoop || vCount < 2 ? vCount : vCount - 1;
+        final float toDist = total / div;
+        float index = 0.0f;
+        for (int i = 0, j = 0; i < vCount; ++i, j += 2) {
+            index = lut.locate(Math.min(i * toDist, total), (int) index);
+            Curve2.evalSample(curve, lut, index, coord, tangent);
+            trg[j] = coord.x;
+            trg[j + 1] = coord.y;
+        }
+
+        return trg;
+    }
+
+    /**
+     * Evaluates a step in the range [0.0, 1.0] such that equal increments in
+     * step travel equal distances along the curve. Differs from
+     * {@link Curve2#eval(Curve2, float, Vec2, Vec2)}, which divides the step
+     * evenly among segments regardless of their length. The tangent will be
+     * normalized, to be of unit length.
+     *
+     * @param curve   the curve
+     * @param step    the step
+     * @param coord   the output coordinate
+     * @param tangent the output tangent
+     * @return the coordinate
+     * @see Curve2#evalByDistance(Curve2, float, Vec2, Vec2)
+     */
+    public static Vec2 evalUniform(
+        final Curve2 curve,
+        final float step,
+        final Vec2 coord,
+        final Vec2 tangent) {
+
+        final ArcLengthTable lut = Curve2.arcLengthTable(curve);
+        if (lut.segments < 1) {
+            return Curve2.evalFirst(curve, coord, tangent);
+        }
+        final float total = lut.getLength();
+        final float d = curve.closedLoop
+            ? Utils.mod1(step) * total
+            : Utils.clamp01(step) * total;
+        return Curve2.evalSample(curve, lut, lut.locate(d, 0), coord, tangent);
+    }
+
+    /**
+     * Flattens a curve to a polyline, such that no point on the curve is
+     * farther than a tolerance from the polyline. Points are written to a new
+     * array as interleaved x and y components. If the curve is a closed loop,
+     * the last point is not a duplicate of the first.
+     * <br>
+     * <br>
+     * The number of subdivisions of each segment is found with Wang's
+     * formula, which bounds the distance between a cubic and its polyline by
+     * the magnitude of its second differences. Straight segments are not
+     * subdivided; tight segments receive as many points as they need. The
+     * subdivisions are then evaluated by forward differencing. For drawing,
+     * the tolerance should be in screen space, e.g., a quarter pixel divided
+     * by the scale of the view.
+     *
+     * @param curve     the curve
+     * @param tolerance the tolerance
+     * @return the polyline
+     * @see Curve2#evalSegment(Knot2, Knot2, double, double, int, int, float[],
+     * float[], float[])
+     */
+    public static float[] flatten(final Curve2 curve, final float tolerance) {
+
+        final ArrayList<Knot2> knots = curve.knots;
+        final int knotLength = knots.size();
+        final boolean cl = curve.closedLoop;
+        final int segments = cl ? knotLength : knotLength - 1;
+
+        if (segments < 1) {
+            final Vec2 co = knots.get(0).coord;
+            return new float[]{co.x, co.y};
+        }
+
+        final float tol = Math.max(tolerance, Utils.EPSILON);
+        final int[] counts = new int[segments];
+        int total = cl ? 0 : 1;
+        for (int s = 0; s < segments; ++s) {
+            final Knot2 a = knots.get(s);
+            final Knot2 b = knots.get(s < knotLength - 1 ? s + 1 : 0);
+            counts[s] = Curve2.flattenCount(a, b, tol);
+            total += counts[s];
+        }
+
+        final float[] target = new float[total + total];
+        int i = 0;
+        for (int s = 0; s < segments; ++s) {
+            final Knot2 a = knots.get(s);
+            final Knot2 b = knots.get(s < knotLength - 1 ? s + 1 : 0);
+            final int n = counts[s];
+            Curve2.evalSegment(a, b, 0.0d, 1.0d / n, i, i + n, target, null,
+                null);
+            i += n;
+        }
+
+        if (!cl) {
+            final Vec2 co = knots.get(knotLength - 1).coord;
+            target[i + i] = co.x;
+            target[i + i + 1] = co.y;
+        }
+
+        return target;
+    }
+
     /**
      * Converts a set of points on a Catmull-Rom spline to a Bézier curve. The
      * default tightness is 0.0. There must be at least 4 points in the array.
@@ -1215,6 +1516,83 @@ public class Curve2 extends Curve implements Iterable<Knot2>, ISvgWritable {
         return target;
     }
 
+    /**
+     * Gets the arc length lookup table of a curve. If the curve has no table,
+     * or if its knots or closed loop flag differ from those the table was
+     * built with, a new table is built and cached. Comparing knots is linear
+     * in the knot count, which is small relative to the sample count.
+     *
+     * @param curve the curve
+     * @return the table
+     */
+    static ArcLengthTable arcLengthTable(final Curve2 curve) {
+
+        final ArrayList<Knot2> knots = curve.knots;
+        final int knotLength = knots.size();
+        final int snapLen = knotLength * 6;
+
+        final ArcLengthTable cached = curve.arcLengths;
+        if (cached != null
+            && cached.closedLoop == curve.closedLoop
+            && cached.knots.length == snapLen) {
+            final float[] snap = cached.knots;
+            boolean same = true;
+            int j = 0;
+            for (final Knot2 kn : knots) {
+                if (snap[j] != kn.coord.x
+                    || snap[j + 1] != kn.coord.y
+                    || snap[j + 2] != kn.foreHandle.x
+                    || snap[j + 3] != kn.foreHandle.y
+                    || snap[j + 4] != kn.rearHandle.x
+                    || snap[j + 5] != kn.rearHandle.y) {
+                    same = false;
+                    break;
+                }
+                j += 6;
+            }
+            if (same) {
+                return cached;
+            }
+        }
+
+        final float[] snap = new float[snapLen];
+        int j = 0;
+        for (final Knot2 kn : knots) {
+            snap[j] = kn.coord.x;
+            snap[j + 1] = kn.coord.y;
+            snap[j + 2] = kn.foreHandle.x;
+            snap[j + 3] = kn.foreHandle.y;
+            snap[j + 4] = kn.rearHandle.x;
+            snap[j + 5] = kn.rearHandle.y;
+            j += 6;
+        }
+
+        final int segments = curve.closedLoop ? knotLength : knotLength - 1;
+        final int samples = ArcLengthTable.SAMPLES;
+        final float toStep = 1.0f / samples;
+        final float[] lengths = new float[Math.max(segments, 0) * samples + 1];
+
+        final Vec2 prev = new Vec2();
+        final Vec2 curr = new Vec2();
+        double sum = 0.0d;
+        for (int i = 0, k = 1; i < segments; ++i) {
+            final Knot2 a = knots.get(i);
+            final Knot2 b = knots.get((i + 1) % knotLength);
+            prev.set(a.coord);
+            for (int m = 1; m <= samples; ++m, ++k) {
+                Knot2.bezierPoint(a, b, m * toStep, curr);
+                sum += Vec2.distEuclidean(prev, curr);
+                lengths[k] = (float) sum;
+                prev.set(curr);
+            }
+        }
+
+        final ArcLengthTable lut = new ArcLengthTable(curve.closedLoop, snap,
+            lengths, segments);
+        curve.arcLengths = lut;
+        return lut;
+    }
+
     /**
      * An internal helper function to accumulate the minimum and maximum points
      * in a curve.
@@ -1490,6 +1868,173 @@ public class Curve2 extends Curve implements Iterable<Knot2>, ISvgWritable {
         return target;
     }
 
+    /**
+     * Evaluates a point and tangent on a curve at a fractional sample index
+     * of its arc length lookup table.
+     *
+     * @param curve   the curve
+     * @param lut     the lookup table
+     * @param index   the sample index
+     * @param coord   the output coordinate
+     * @param tangent the output tangent
+     * @return the coordinate
+     */
+    static Vec2 evalSample(
+        final Curve2 curve,
+        final ArcLengthTable lut,
+        final float index,
+        final Vec2 coord,
+        final Vec2 tangent) {
+
+        final ArrayList<Knot2> knots = curve.knots;
+        final int seg = lut.segmentOf(index);
+        final float t = ArcLengthTable.stepOf(index, seg);
+        final Knot2 a = knots.get(seg);
+        final Knot2 b = knots.get((seg + 1) % knots.size());
+        Knot2.bezierPoint(a, b, t, coord);
+        Knot2.bezierTanUnit(a, b, t, tangent);
+        return coord;
+    }
+
+    /**
+     * Evaluates evenly spaced steps along a segment between two knots by
+     * forward differencing. The segment is expressed as a cubic polynomial,
+     * then its value and differences are found at the first step. Each
+     * further step adds the differences. Accumulates in double precision to
+     * limit drift.
+     *
+     * @param a        the origin knot
+     * @param b        the destination knot
+     * @param t0       the first step
+     * @param h        the step increment
+     * @param iStart   the first sample index, inclusive
+     * @param iEnd     the last sample index, exclusive
+     * @param coords   the output coordinates
+     * @param tangents the output tangents
+     * @param normals  the output normals
+     */
+    static void evalSegment(
+        final Knot2 a,
+        final Knot2 b,
+        final double t0,
+        final double h,
+        final int iStart,
+        final int iEnd,
+        final float[] coords,
+        final float[] tangents,
+        final float[] normals) {
+
+        final double p0x = a.coord.x;
+        final double p0y = a.coord.y;
+        final double p1x = a.foreHandle.x;
+        final double p1y = a.foreHandle.y;
+        final double p2x = b.rearHandle.x;
+        final double p2y = b.rearHandle.y;
+        final double p3x = b.coord.x;
+        final double p3y = b.coord.y;
+
+        /* Power basis: P(t) = A t^3 + B t^2 + C t + p0. */
+        final double cx = 3.0d * (p1x - p0x);
+        final double cy = 3.0d * (p1y - p0y);
+        final double bx = 3.0d * (p2x - p1x - p1x + p0x);
+        final double by = 3.0d * (p2y - p1y - p1y + p0y);
+        final double ax = p3x - p0x + 3.0d * (p1x - p2x);
+        final double ay = p3y - p0y + 3.0d * (p1y - p2y);
+
+        final double h2 = h * h;
+        final double h3 = h2 * h;
+        final double t0sq = t0 * t0;
+
+        double fx = ((ax * t0 + bx) * t0 + cx) * t0 + p0x;
+        double fy = ((ay * t0 + by) * t0 + cy) * t0 + p0y;
+        final double k1a = 3.0d * t0sq * h + 3.0d * t0 * h2 + h3;
+        final double k1b = 2.0d * t0 * h + h2;
+        double d1x = ax * k1a + bx * k1b + cx * h;
+        double d1y = ay * k1a + by * k1b + cy * h;
+        final double k2a = 6.0d * t0 * h2 + 6.0d * h3;
+        final double k2b = 2.0d * h2;
+        double d2x = ax * k2a + bx * k2b;
+        double d2y = ay * k2a + by * k2b;
+        final double d3x = 6.0d * ax * h3;
+        final double d3y = 6.0d * ay * h3;
+
+        /* Derivative: P'(t) = 3A t^2 + 2B t + C. */
+        double gx = (3.0d * ax * t0 + 2.0d * bx) * t0 + cx;
+        double gy = (3.0d * ay * t0 + 2.0d * by) * t0 + cy;
+        double e1x = 3.0d * ax * k1b + 2.0d * bx * h;
+        double e1y = 3.0d * ay * k1b + 2.0d * by * h;
+        final double e2x = 6.0d * ax * h2;
+        final double e2y = 6.0d * ay * h2;
+
+        final boolean useTan = tangents != null || normals != null;
+        for (int k = iStart, j = iStart + iStart; k < iEnd; ++k, j += 2) {
+            if (coords != null) {
+                coords[j] = (float) fx;
+                coords[j + 1] = (float) fy;
+            }
+
+            if (useTan) {
+                final double mSq = gx * gx + gy * gy;
+                final double mInv = mSq > 0.0d ? 1.0d / Math.sqrt(mSq) : 0.0d;
+                final float tx = (float) (gx * mInv);
+                final float ty = (float) (gy * mInv);
+                if (tangents != null) {
+                    tangents[j] = tx;
+                    tangents[j + 1] = ty;
+                }
+                if (normals != null) {
+                    normals[j] = -ty;
+                    normals[j + 1] = tx;
+                }
+            }
+
+            fx += d1x;
+            fy += d1y;
+            d1x += d2x;
+            d1y += d2y;
+            d2x += d3x;
+            d2y += d3y;
+
+            gx += e1x;
+            gy += e1y;
+            e1x += e2x;
+            e1y += e2y;
+        }
+    }
+
+    /**
+     * Finds the number of subdivisions of a segment between two knots needed
+     * for its polyline to be within a tolerance of the curve. Uses Wang's
+     * formula for a cubic, n = ceil ( sqrt ( 3 * m / ( 4 * tolerance ) ) ),
+     * where m is the greater magnitude of the second differences of the
+     * control points. Returns at least one.
+     *
+     * @param a         the origin knot
+     * @param b         the destination knot
+     * @param tolerance the tolerance
+     * @return the subdivision count
+     */
+    static int flattenCount(
+        final Knot2 a,
+        final Knot2 b,
+        final float tolerance) {
+
+        final Vec2 p0 = a.coord;
+        final Vec2 p1 = a.foreHandle;
+        final Vec2 p2 = b.rearHandle;
+        final Vec2 p3 = b.coord;
+
+        final float d0x = p0.x - (p1.x + p1.x) + p2.x;
+        final float d0y = p0.y - (p1.y + p1.y) + p2.y;
+        final float d1x = p1.x - (p2.x + p2.x) + p3.x;
+        final float d1y = p1.y - (p2.y + p2.y) + p3.y;
+        final double m = Math.sqrt(Math.max(
+            d0x * (double) d0x + d0y * (double) d0y,
+            d1x * (double) d1x + d1y * (double) d1y));
+
+        return Math.max(1, (int) Math.ceil(Math.sqrt(0.75d * m / tolerance)));
+    }
+
     /**
      * A utility function for setting the handles of knots on straight curve
      * segments. Finds unclamped linear interpolation from origin to
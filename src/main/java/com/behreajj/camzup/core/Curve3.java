@@ -14,6 +14,12 @@ public class Curve3 extends Curve implements Iterable<Knot3> {
      */
     private final ArrayList<Knot3> knots = new ArrayList<>();
 
+    /**
+     * The arc length lookup table, built on demand and cached until the knots
+     * change.
+     */
+    private ArcLengthTable arcLengths;
+
     /**
      * The default constructor.
      */
@@ -125,6 +131,20 @@ public class Curve3 extends Curve implements Iterable<Knot3> {
         this.appendAll(knots);
     }
 
+    /**
+     * Finds the arc length of a curve, i.e., the distance traveled from its
+     * first to its last coordinate. Approximated by a lookup table of
+     * samples, which is built once and cached by the curve until its knots
+     * change.
+     *
+     * @param curve the curve
+     * @return the arc length
+     */
+    public static float arcLength(final Curve3 curve) {
+
+        return Curve3.arcLengthTable(curve).getLength();
+    }
+
     /**
      * Calculates an Axis-Aligned Bounding Box (AABB) encompassing the curve.
      * Does so by taking the minimum and maximum of each knot's coordinate,
@@ -312,6 +332,33 @@ public class Curve3 extends Curve implements Iterable<Knot3> {
         return coord;
     }
 
+    /**
+     * Evaluates a point and tangent at a distance along a curve, rather than
+     * at a step. If the curve is a closed loop, the distance wraps around
+     * its arc length; otherwise, the distance is clamped to the arc length.
+     * The tangent will be normalized, to be of unit length.
+     *
+     * @param curve    the curve
+     * @param distance the distance
+     * @param coord    the output coordinate
+     * @param tangent  the output tangent
+     * @return the coordinate
+     * @see Curve3#arcLength(Curve3)
+     */
+    public static Vec3 evalByDistance(
+        final Curve3 curve,
+        final float distance,
+        final Vec3 coord,
+        final Vec3 tangent) {
+
+        final ArcLengthTable lut = Curve3.arcLengthTable(curve);
+        if (lut.segments < 1) {
+            return Curve3.evalFirst(curve, coord, tangent);
+        }
+        return Curve3.evalSample(curve, lut, lut.locate(distance, 0), coord,
+            tangent);
+    }
+
     /**
      * Evaluates the first knot in the curve.
      *
@@ -463,6 +510,249 @@ public class Curve3 extends Curve implements Iterable<Knot3> {
         return coord;
     }
 
+    /**
+     * Evaluates a number of points on a curve, spaced by evenly incrementing
+     * steps, as by {@link Curve3#eval(Curve3, float, Vec3, Vec3)}. Points are
+     * written to an array as interleaved x, y and z components. If the array
+     * is too short, a new one is created. If the curve is a closed loop, the
+     * last point is not a duplicate of the first.
+     *
+     * @param curve  the curve
+     * @param count  the number of points
+     * @param target the output array
+     * @return the array
+     * @see Curve3#evalRange(Curve3, int, float[], float[])
+     */
+    public static float[] evalRange(
+        final Curve3 curve,
+        final int count,
+        final float[] target) {
+
+        final int vCount = Math.max(count, 1);
+        final int len3 = vCount * 3;
+        final float[] trg = target != null && target.length >= len3
+            ? target
+            : new float[len3];
+        Curve3.evalRange(curve, vCount, trg, null);
+        return trg;
+    }
+
+    /**
+     * Evaluates a number of points and tangents on a curve, spaced by evenly
+     * incrementing steps, as by {@link Curve3#eval(Curve3, float, Vec3, Vec3)}.
+     * Each is written to an array as interleaved x, y and z components.
+     * Tangents are normalized. Arrays which are <code>null</code> are
+     * skipped; others must hold at least three times the count.
+     * <br>
+     * <br>
+     * Segments are walked in order. Within a segment, the cubic polynomial
+     * is stepped by forward differencing, so each sample costs a few
+     * additions rather than a full evaluation.
+     *
+     * @param curve    the curve
+     * @param count    the number of points
+     * @param coords   the output coordinates
+     * @param tangents the output tangents
+     * @return the coordinates
+     */
+    public static float[] evalRange(
+        final Curve3 curve,
+        final int count,
+        final float[] coords,
+        final float[] tangents) {
+
+        if (count < 1) {
+            return coords;
+        }
+
+        final ArrayList<Knot3> knots = curve.knots;
+        final int knotLength = knots.size();
+        final boolean cl = curve.closedLoop;
+        final int segments = cl ? knotLength : knotLength - 1;
+
+        if (segments < 1 || count < 2) {
+            final Knot3 first = knots.get(0);
+            final float cox = first.coord.x;
+            final float coy = first.coord.y;
+            final float coz = first.coord.z;
+            final float dx = first.foreHandle.x - cox;
+            final float dy = first.foreHandle.y - coy;
+            final float dz = first.foreHandle.z - coz;
+            final double mSq = dx * (double) dx + dy * (double) dy
+                + dz * (double) dz;
+            final float mInv = mSq > 0.0d ? (float) (1.0d / Math.sqrt(mSq)) : 0.0f;
+            for (int j = 0, jEnd = count * 3; j < jEnd; j += 3) {
+                if (coords != null) {
+                    coords[j] = cox;
+                    coords[j + 1] = coy;
+                    coords[j + 2] = coz;
+                }
+                if (tangents != null) {
+                    tangents[j] = dx * mInv;
+                    tangents[j + 1] = dy * mInv;
+                    tangents[j + 2] = dz * mInv;
+                }
+            }
+            return coords;
+        }
+
+        final double h = segments / (double) (cl ? count : count - 1);
+        final int last = segments - 1;
+        int i = 0;
+        for (int s = 0; s < segments && i < count; ++s) {
+            final int iEnd = s < last
+                ? Math.min(count, (int) Math.ceil((s + 1) / h))
+                : count;
+            if (iEnd > i) {
+                final Knot3 a = knots.get(s);
+                final Knot3 b = knots.get(s < knotLength - 1 ? s + 1 : 0);
+                Curve3.evalSegment(a, b, i * h - s, h, i, iEnd, coords,
+                    tangents);
+                i = iEnd;
+            }
+        }
+
+        return coords;
+    }
+
+    /**
+     * Evaluates a number of points spaced evenly by arc length along a curve.
+     * Points are written to an array as interleaved x, y and z components. If
+     * the array is too short, a new one is created. If the curve is a closed
+     * loop, the last point is not a duplicate of the first. Because steps
+     * increase, the lookup table is searched from the previous sample rather
+     * than from the start.
+     *
+     * @param curve  the curve
+     * @param count  the number of points
+     * @param target the output array
+     * @return the array
+     */
+    public static float[] evalUniform(
+        final Curve3 curve,
+        final int count,
+        final float[] target) {
+
+        final int vCount = Math.max(count, 1);
+        final int len3 = vCount * 3;
+        final float[] trg = target != null && target.length >= len3
+            ? target
+            : new float[len3];
+
+        final ArcLengthTable lut = Curve3.arcLengthTable(curve);
+        final Vec3 coord = new Vec3();
+        final Vec3 tangent = new Vec3();
+        if (lut.segments < 1) {
+            Curve3.evalFirst(curve, coord, tangent);
+            for (int j = 0; j < len3; j += 3) {
+                trg[j] = coord.x;
+                trg[j + 1] = coord.y;
+                trg[j + 2] = coord.z;
+            }
+            return trg;
+        }
+
+        final float total = lut.getLength();
+        final int div = curve.closedLoop || vCount < 2 ? vCount : vCount - 1;
+        final float toDist = total / div;
+        float index = 0.0f;
+        for (int i = 0, j = 0; i < vCount; ++i, j += 3) {
+            index = lut.locate(Math.min(i * toDist, total), (int) index);
+            Curve3.evalSample(curve, lut, index, coord, tangent);
+            trg[j] = coord.x;
+            trg[j + 1] = coord.y;
+            trg[j + 2] = coord.z;
+        }
+
+        return trg;
+    }
+
+    /**
+     * Evaluates a step in the range [0.0, 1.0] such that equal increments in
+     * step travel equal distances along the curve. Differs from
+     * {@link Curve3#eval(Curve3, float, Vec3, Vec3)}, which divides the step
+     * evenly among segments regardless of their length. The tangent will be
+     * normalized, to be of unit length.
+     *
+     * @param curve   the curve
+     * @param step    the step
+     * @param coord   the output coordinate
+     * @param tangent the output tangent
+     * @return the coordinate
+     * @see Curve3#evalByDistance(Curve3, float, Vec3, Vec3)
+     */
+    public static Vec3 evalUniform(
+        final Curve3 curve,
+        final float step,
+        final Vec3 coord,
+        final Vec3 tangent) {
+
+        final ArcLengthTable lut = Curve3.arcLengthTable(curve);
+        if (lut.segments < 1) {
+            return Curve3.evalFirst(curve, coord, tangent);
+        }
+        final float total = lut.getLength();
+        final float d = curve.closedLoop
+            ? Utils.mod1(step) * total
+            : Utils.clamp01(step) * total;
+        return Curve3.evalSample(curve, lut, lut.locate(d, 0), coord, tangent);
+    }
+
+    /**
+     * Flattens a curve to a polyline, such that no point on the curve is
+     * farther than a tolerance from the polyline. Points are written to a new
+     * array as interleaved x, y and z components. If the curve is a closed
+     * loop, the last point is not a duplicate of the first. The number of
+     * subdivisions of each segment is found with Wang's formula.
+     *
+     * @param curve     the curve
+     * @param tolerance the tolerance
+     * @return the polyline
+     * @see Curve2#flatten(Curve2, float)
+     */
+    public static float[] flatten(final Curve3 curve, final float tolerance) {
+
+        final ArrayList<Knot3> knots = curve.knots;
+        final int knotLength = knots.size();
+        final boolean cl = curve.closedLoop;
+        final int segments = cl ? knotLength : knotLength - 1;
+
+        if (segments < 1) {
+            final Vec3 co = knots.get(0).coord;
+            return new float[]{co.x, co.y, co.z};
+        }
+
+        final float tol = Math.max(tolerance, Utils.EPSILON);
+        final int[] counts = new int[segments];
+        int total = cl ? 0 : 1;
+        for (int s = 0; s < segments; ++s) {
+            final Knot3 a = knots.get(s);
+            final Knot3 b = knots.get(s < knotLength - 1 ? s + 1 : 0);
+            counts[s] = Curve3.flattenCount(a, b, tol);
+            total += counts[s];
+        }
+
+        final float[] target = new float[total * 3];
+        int i = 0;
+        for (int s = 0; s < segments; ++s) {
+            final Knot3 a = knots.get(s);
+            final Knot3 b = knots.get(s < knotLength - 1 ? s + 1 : 0);
+            final int n = counts[s];
+            Curve3.evalSegment(a, b, 0.0d, 1.0d / n, i, i + n, target, null);
+            i += n;
+        }
+
+        if (!cl) {
+            final Vec3 co = knots.get(knotLength - 1).coord;
+            final int j = i * 3;
+            target[j] = co.x;
+            target[j + 1] = co.y;
+            target[j + 2] = co.z;
+        }
+
+        return target;
+    }
+
     /**
      * Converts a set of points on a Catmull-Rom spline to a Bézier curve. The
      * default tightness is 0.0. There must be at least 4 points in the array.
@@ -892,6 +1182,89 @@ public class Curve3 extends Curve implements Iterable<Knot3> {
         return target;
     }
 
+    /**
+     * Gets the arc length lookup table of a curve. If the curve has no table,
+     * or if its knots or closed loop flag differ from those the table was
+     * built with, a new table is built and cached. Comparing knots is linear
+     * in the knot count, which is small relative to the sample count.
+     *
+     * @param curve the curve
+     * @return the table
+     */
+    static ArcLengthTable arcLengthTable(final Curve3 curve) {
+
+        final ArrayList<Knot3> knots = curve.knots;
+        final int knotLength = knots.size();
+        final int snapLen = knotLength * 9;
+
+        final ArcLengthTable cached = curve.arcLengths;
+        if (cached != null
+            && cached.closedLoop == curve.closedLoop
+            && cached.knots.length == snapLen) {
+            final float[] snap = cached.knots;
+            boolean same = true;
+            int j = 0;
+            for (final Knot3 kn : knots) {
+                if (snap[j] != kn.coord.x
+                    || snap[j + 1] != kn.coord.y
+                    || snap[j + 2] != kn.coord.z
+                    || snap[j + 3] != kn.foreHandle.x
+                    || snap[j + 4] != kn.foreHandle.y
+                    || snap[j + 5] != kn.foreHandle.z
+                    || snap[j + 6] != kn.rearHandle.x
+                    || snap[j + 7] != kn.rearHandle.y
+                    || snap[j + 8] != kn.rearHandle.z) {
+                    same = false;
+                    break;
+                }
+                j += 9;
+            }
+            if (same) {
+                return cached;
+            }
+        }
+
+        final float[] snap = new float[snapLen];
+        int j = 0;
+        for (final Knot3 kn : knots) {
+            snap[j] = kn.coord.x;
+            snap[j + 1] = kn.coord.y;
+            snap[j + 2] = kn.coord.z;
+            snap[j + 3] = kn.foreHandle.x;
+            snap[j + 4] = kn.foreHandle.y;
+            snap[j + 5] = kn.foreHandle.z;
+            snap[j + 6] = kn.rearHandle.x;
+            snap[j + 7] = kn.rearHandle.y;
+            snap[j + 8] = kn.rearHandle.z;
+            j += 9;
+        }
+
+        final int segments = curve.closedLoop ? knotLength : knotLength - 1;
+        final int samples = ArcLengthTable.SAMPLES;
+        final float toStep = 1.0f / samples;
+        final float[] lengths = new float[Math.max(segments, 0) * samples + 1];
+
+        final Vec3 prev = new Vec3();
+        final Vec3 curr = new Vec3();
+        double sum = 0.0d;
+        for (int i = 0, k = 1; i < segments; ++i) {
+            final Knot3 a = knots.get(i);
+            final Knot3 b = knots.get((i + 1) % knotLength);
+            prev.set(a.coord);
+            for (int m = 1; m <= samples; ++m, ++k) {
+                Knot3.bezierPoint(a, b, m * toStep, curr);
+                sum += Vec3.distEuclidean(prev, curr);
+                lengths[k] = (float) sum;
+                prev.set(curr);
+            }
+        }
+
+        final ArcLengthTable lut = new ArcLengthTable(curve.closedLoop, snap,
+            lengths, segments);
+        curve.arcLengths = lut;
+        return lut;
+    }
+
     /**
      * An internal helper function to accumulate the minimum and maximum points
      * in a curve. This may be called either by a single curve, or by a curve
@@ -1053,6 +1426,184 @@ public class Curve3 extends Curve implements Iterable<Knot3> {
         return target;
     }
 
+    /**
+     * Evaluates a point and tangent on a curve at a fractional sample index
+     * of its arc length lookup table.
+     *
+     * @param curve   the curve
+     * @param lut     the lookup table
+     * @param index   the sample index
+     * @param coord   the output coordinate
+     * @param tangent the output tangent
+     * @return the coordinate
+     */
+    static Vec3 evalSample(
+        final Curve3 curve,
+        final ArcLengthTable lut,
+        final float index,
+        final Vec3 coord,
+        final Vec3 tangent) {
+
+        final ArrayList<Knot3> knots = curve.knots;
+        final int seg = lut.segmentOf(index);
+        final float t = ArcLengthTable.stepOf(index, seg);
+        final Knot3 a = knots.get(seg);
+        final Knot3 b = knots.get((seg + 1) % knots.size());
+        Knot3.bezierPoint(a, b, t, coord);
+        Knot3.bezierTanUnit(a, b, t, tangent);
+        return coord;
+    }
+
+    /**
+     * Evaluates evenly spaced steps along a segment between two knots by
+     * forward differencing. The segment is expressed as a cubic polynomial,
+     * then its value and differences are found at the first step. Each
+     * further step adds the differences. Accumulates in double precision to
+     * limit drift.
+     *
+     * @param a        the origin knot
+     * @param b        the destination knot
+     * @param t0       the first step
+     * @param h        the step increment
+     * @param iStart   the first sample index, inclusive
+     * @param iEnd     the last sample index, exclusive
+     * @param coords   the output coordinates
+     * @param tangents the output tangents
+     */
+    static void evalSegment(
+        final Knot3 a,
+        final Knot3 b,
+        final double t0,
+        final double h,
+        final int iStart,
+        final int iEnd,
+        final float[] coords,
+        final float[] tangents) {
+
+        final double p0x = a.coord.x;
+        final double p0y = a.coord.y;
+        final double p0z = a.coord.z;
+        final double p1x = a.foreHandle.x;
+        final double p1y = a.foreHandle.y;
+        final double p1z = a.foreHandle.z;
+        final double p2x = b.rearHandle.x;
+        final double p2y = b.rearHandle.y;
+        final double p2z = b.rearHandle.z;
+        final double p3x = b.coord.x;
+        final double p3y = b.coord.y;
+        final double p3z = b.coord.z;
+
+        /* Power basis: P(t) = A t^3 + B t^2 + C t + p0. */
+        final double cx = 3.0d * (p1x - p0x);
+        final double cy = 3.0d * (p1y - p0y);
+        final double cz = 3.0d * (p1z - p0z);
+        final double bx = 3.0d * (p2x - p1x - p1x + p0x);
+        final double by = 3.0d * (p2y - p1y - p1y + p0y);
+        final double bz = 3.0d * (p2z - p1z - p1z + p0z);
+        final double ax = p3x - p0x + 3.0d * (p1x - p2x);
+        final double ay = p3y - p0y + 3.0d * (p1y - p2y);
+        final double az = p3z - p0z + 3.0d * (p1z - p2z);
+
+        final double h2 = h * h;
+        final double h3 = h2 * h;
+        final double t0sq = t0 * t0;
+
+        double fx = ((ax * t0 + bx) * t0 + cx) * t0 + p0x;
+        double fy = ((ay * t0 + by) * t0 + cy) * t0 + p0y;
+        double fz = ((az * t0 + bz) * t0 + cz) * t0 + p0z;
+        final double k1a = 3.0d * t0sq * h + 3.0d * t0 * h2 + h3;
+        final double k1b = 2.0d * t0 * h + h2;
+        double d1x = ax * k1a + bx * k1b + cx * h;
+        double d1y = ay * k1a + by * k1b + cy * h;
+        double d1z = az * k1a + bz * k1b + cz * h;
+        final double k2a = 6.0d * t0 * h2 + 6.0d * h3;
+        final double k2b = 2.0d * h2;
+        double d2x = ax * k2a + bx * k2b;
+        double d2y = ay * k2a + by * k2b;
+        double d2z = az * k2a + bz * k2b;
+        final double d3x = 6.0d * ax * h3;
+        final double d3y = 6.0d * ay * h3;
+        final double d3z = 6.0d * az * h3;
+
+        /* Derivative: P'(t) = 3A t^2 + 2B t + C. */
+        double gx = (3.0d * ax * t0 + 2.0d * bx) * t0 + cx;
+        double gy = (3.0d * ay * t0 + 2.0d * by) * t0 + cy;
+        double gz = (3.0d * az * t0 + 2.0d * bz) * t0 + cz;
+        double e1x = 3.0d * ax * k1b + 2.0d * bx * h;
+        double e1y = 3.0d * ay * k1b + 2.0d * by * h;
+        double e1z = 3.0d * az * k1b + 2.0d * bz * h;
+        final double e2x = 6.0d * ax * h2;
+        final double e2y = 6.0d * ay * h2;
+        final double e2z = 6.0d * az * h2;
+
+        for (int k = iStart, j = iStart * 3; k < iEnd; ++k, j += 3) {
+            if (coords != null) {
+                coords[j] = (float) fx;
+                coords[j + 1] = (float) fy;
+                coords[j + 2] = (float) fz;
+            }
+
+            if (tangents != null) {
+                final double mSq = gx * gx + gy * gy + gz * gz;
+                final double mInv = mSq > 0.0d ? 1.0d / Math.sqrt(mSq) : 0.0d;
+                tangents[j] = (float) (gx * mInv);
+                tangents[j + 1] = (float) (gy * mInv);
+                tangents[j + 2] = (float) (gz * mInv);
+            }
+
+            fx += d1x;
+            fy += d1y;
+            fz += d1z;
+            d1x += d2x;
+            d1y += d2y;
+            d1z += d2z;
+            d2x += d3x;
+            d2y += d3y;
+            d2z += d3z;
+
+            gx += e1x;
+            gy += e1y;
+            gz += e1z;
+            e1x += e2x;
+            e1y += e2y;
+            e1z += e2z;
+        }
+    }
+
+    /**
+     * Finds the number of subdivisions of a segment between two knots needed
+     * for its polyline to be within a tolerance of the curve. Uses Wang's
+     * formula. Returns at least one.
+     *
+     * @param a         the origin knot
+     * @param b         the destination knot
+     * @param tolerance the tolerance
+     * @return the subdivision count
+     * @see Curve2#flattenCount(Knot2, Knot2, float)
+     */
+    static int flattenCount(
+        final Knot3 a,
+        final Knot3 b,
+        final float tolerance) {
+
+        final Vec3 p0 = a.coord;
+        final Vec3 p1 = a.foreHandle;
+        final Vec3 p2 = b.rearHandle;
+        final Vec3 p3 = b.coord;
+
+        final float d0x = p0.x - (p1.x + p1.x) + p2.x;
+        final float d0y = p0.y - (p1.y + p1.y) + p2.y;
+        final float d0z = p0.z - (p1.z + p1.z) + p2.z;
+        final float d1x = p1.x - (p2.x + p2.x) + p3.x;
+        final float d1y = p1.y - (p2.y + p2.y) + p3.y;
+        final float d1z = p1.z - (p2.z + p2.z) + p3.z;
+        final double m = Math.sqrt(Math.max(
+            d0x * (double) d0x + d0y * (double) d0y + d0z * (double) d0z,
+            d1x * (double) d1x + d1y * (double) d1y + d1z * (double) d1z));
+
+        return Math.max(1, (int) Math.ceil(Math.sqrt(0.75d * m / tolerance)));
+    }
+
     /**
      * A utility function for setting the handles of knots on straight curve
      * segments. Finds unclamped linear interpolation from origin to
@@ -192,6 +192,74 @@ public class CurveEntity2 extends Entity2 implements Iterable<Curve2>, IVolume2,
         return coWorld;
     }
 
+    /**
+     * Evaluates a number of points on a curve in the entity, spaced by evenly
+     * incrementing steps, then transforms them to world space. Points are
+     * written to an array as interleaved x and y components. If the array is
+     * too short, a new one is created.
+     *
+     * @param ce         the curve entity
+     * @param curveIndex the curve index
+     * @param count      the number of points
+     * @param target     the output array
+     * @return the array
+     * @see Curve2#evalRange(Curve2, int, float[])
+     * @see Transform2#mulPoint(Transform2, Vec2, Vec2)
+     */
+    public static float[] evalRange(
+        final CurveEntity2 ce,
+        final int curveIndex,
+        final int count,
+        final float[] target) {
+
+        final float[] trg = Curve2.evalRange(ce.get(curveIndex), count, target);
+        final Transform2 tr = ce.transform;
+        final Vec2 v = new Vec2();
+        for (int j = 0, jEnd = Math.max(count, 1) * 2; j < jEnd; j += 2) {
+            v.set(trg[j], trg[j + 1]);
+            Transform2.mulPoint(tr, v, v);
+            trg[j] = v.x;
+            trg[j + 1] = v.y;
+        }
+        return trg;
+    }
+
+    /**
+     * Flattens each curve in the entity to a polyline in world space, such
+     * that no point on a curve is farther than a tolerance from its polyline.
+     * The tolerance is divided by the entity's greatest scale before the
+     * curves are flattened in local space.
+     *
+     * @param ce        the curve entity
+     * @param tolerance the tolerance in world space
+     * @return the polylines
+     * @see Curve2#flatten(Curve2, float)
+     * @see Transform2#mulPoint(Transform2, Vec2, Vec2)
+     */
+    public static float[][] flatten(
+        final CurveEntity2 ce,
+        final float tolerance) {
+
+        final Transform2 tr = ce.transform;
+        final float maxDim = Transform2.maxDimension(tr);
+        final float tolLocal = Utils.div(tolerance, maxDim);
+        final Vec2 v = new Vec2();
+
+        final int len = ce.curves.size();
+        final float[][] target = new float[len][];
+        for (int i = 0; i < len; ++i) {
+            final float[] pts = Curve2.flatten(ce.curves.get(i), tolLocal);
+            for (int j = 0, jEnd = pts.length; j < jEnd; j += 2) {
+                v.set(pts[j], pts[j + 1]);
+                Transform2.mulPoint(tr, v, v);
+                pts[j] = v.x;
+                pts[j + 1] = v.y;
+            }
+            target[i] = pts;
+        }
+        return target;
+    }
+
     /**
      * Appends a curve to this curve entity. The curve must not be
      * <code>null</code>.
@@ -173,6 +173,39 @@ public class CurveEntity3 extends Entity3 implements Iterable<Curve3>, IVolume3
         return coWorld;
     }
 
+    /**
+     * Evaluates a number of points on a curve in the entity, spaced by evenly
+     * incrementing steps, then transforms them to world space. Points are
+     * written to an array as interleaved x, y and z components. If the array
+     * is too short, a new one is created.
+     *
+     * @param ce         the curve entity
+     * @param curveIndex the curve index
+     * @param count      the number of points
+     * @param target     the output array
+     * @return the array
+     * @see Curve3#evalRange(Curve3, int, float[])
+     * @see Transform3#mulPoint(Transform3, Vec3, Vec3)
+     */
+    public static float[] evalRange(
+        final CurveEntity3 ce,
+        final int curveIndex,
+        final int count,
+        final float[] target) {
+
+        final float[] trg = Curve3.evalRange(ce.get(curveIndex), count, target);
+        final Transform3 tr = ce.transform;
+        final Vec3 v = new Vec3();
+        for (int j = 0, jEnd = Math.max(count, 1) * 3; j < jEnd; j += 3) {
+            v.set(trg[j], trg[j + 1], trg[j + 2]);
+            Transform3.mulPoint(tr, v, v);
+            trg[j] = v.x;
+            trg[j + 1] = v.y;
+            trg[j + 2] = v.z;
+        }
+        return trg;
+    }
+
     /**
      * Appends a curve to this curve entity. The curve must not be
      * <code>null</code>.
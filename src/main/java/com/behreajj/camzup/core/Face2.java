@@ -3,7 +3,6 @@ package com.behreajj.camzup.core;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.TreeSet;
 
 /**
  * Organizes components of a 2D mesh into a list of vertices that form a face.
@@ -227,21 +226,36 @@ public class Face2 implements Iterable<Edge2>, Comparable<Face2> {
      */
     public static Vec2[] sharedCoords(final Face2 a, final Face2 b) {
 
-        final TreeSet<Vec2> aList = new TreeSet<>(Mesh.SORT_2);
+        /*
+         * Faces have few vertices, so comparing each pair is quicker than
+         * building sorted sets.
+         */
         final Vert2[] aVerts = a.vertices;
+        final Vert2[] bVerts = b.vertices;
+        final int bLen = bVerts.length;
+        final Vec2[] result = new Vec2[Math.min(aVerts.length, bLen)];
+        int count = 0;
+
         for (final Vert2 aVert : aVerts) {
-            aList.add(aVert.coord);
-        }
+            final Vec2 aCoord = aVert.coord;
 
-        final TreeSet<Vec2> bList = new TreeSet<>(Mesh.SORT_2);
-        final Vert2[] bVerts = b.vertices;
-        for (final Vert2 bVert : bVerts) {
-            bList.add(bVert.coord);
-        }
+            boolean shared = false;
+            for (int j = 0; !shared && j < bLen; ++j) {
+                shared = Mesh.SORT_2.compare(aCoord, bVerts[j].coord) == 0;
+            }
+            for (int k = 0; shared && k < count; ++k) {
+                shared = Mesh.SORT_2.compare(aCoord, result[k]) != 0;
+            }
 
-        aList.retainAll(bList);
+            if (shared) {
+                result[count] = aCoord;
+                ++count;
+            }
+        }
 
-        return aList.toArray(new Vec2[0]);
+        final Vec2[] trimmed = Arrays.copyOf(result, count);
+        Arrays.sort(trimmed, Mesh.SORT_2);
+        return trimmed;
     }
 
     /**
@@ -3,7 +3,6 @@ package com.behreajj.camzup.core;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.TreeSet;
 
 /**
  * Organizes components of a 3D mesh into a list of vertices that form a face.
@@ -214,21 +213,36 @@ public class Face3 implements Iterable<Edge3>, Comparable<Face3> {
      */
     public static Vec3[] sharedCoords(final Face3 a, final Face3 b) {
 
-        final TreeSet<Vec3> aList = new TreeSet<>(Mesh.SORT_3);
+        /*
+         * Faces have few vertices, so comparing each pair is quicker than
+         * building sorted sets.
+         */
         final Vert3[] aVerts = a.vertices;
+        final Vert3[] bVerts = b.vertices;
+        final int bLen = bVerts.length;
+        final Vec3[] result = new Vec3[Math.min(aVerts.length, bLen)];
+        int count = 0;
+
         for (final Vert3 aVert : aVerts) {
-            aList.add(aVert.coord);
-        }
+            final Vec3 aCoord = aVert.coord;
 
-        final TreeSet<Vec3> bList = new TreeSet<>(Mesh.SORT_3);
-        final Vert3[] bVerts = b.vertices;
-        for (final Vert3 bVert : bVerts) {
-            bList.add(bVert.coord);
-        }
+            boolean shared = false;
+            for (int j = 0; !shared && j < bLen; ++j) {
+                shared = Mesh.SORT_3.compare(aCoord, bVerts[j].coord) == 0;
+            }
+            for (int k = 0; shared && k < count; ++k) {
+                shared = Mesh.SORT_3.compare(aCoord, result[k]) != 0;
+            }
 
-        aList.retainAll(bList);
+            if (shared) {
+                result[count] = aCoord;
+                ++count;
+            }
+        }
 
-        return aList.toArray(new Vec3[0]);
+        final Vec3[] trimmed = Arrays.copyOf(result, count);
+        Arrays.sort(trimmed, Mesh.SORT_3);
+        return trimmed;
     }
 
     /**
@@ -0,0 +1,209 @@
+package com.behreajj.camzup.core;
+
+import java.util.Arrays;
+
+/**
+ * An immutable, baked form of a {@link Gradient}. Holds the steps of the
+ * gradient's keys as a sorted array and a lookup table of colors, packed as
+ * in {@link Lab#toHexLongSat()}, evaluated at evenly spaced steps.
+ * <br>
+ * <br>
+ * Unlike {@link Gradient#eval(Gradient, float, Lab.AbstrEasing, Lab)}, which
+ * writes to the gradient's query key and searches its tree of keys, lookups
+ * are constant time and do not mutate the table, so one table may be shared
+ * by many threads. Steps are rounded to the nearest entry in the table, so
+ * the resolution should be high enough that neighboring entries are not
+ * distinguishable. Changes to the source gradient after baking are not
+ * reflected in the table.
+ */
+public class GradientLut {
+
+    /**
+     * The default number of entries in the lookup table.
+     */
+    public static final int DEFAULT_RESOLUTION = 4096;
+
+    /**
+     * The maximum number of entries in the lookup table.
+     */
+    public static final int MAX_RESOLUTION = 1 << 20;
+
+    /**
+     * The colors, packed, at evenly spaced steps in [0.0, 1.0].
+     */
+    protected final long[] lut;
+
+    /**
+     * The number of entries less one, used to scale a step to an index.
+     */
+    protected final float scale;
+
+    /**
+     * The steps of the source gradient's keys, in ascending order.
+     */
+    protected final float[] steps;
+
+    /**
+     * Bakes a gradient with the default resolution and easing.
+     *
+     * @param grd the gradient
+     */
+    public GradientLut(final Gradient grd) {
+
+        this(grd, GradientLut.DEFAULT_RESOLUTION, new Lab.MixLab());
+    }
+
+    /**
+     * Bakes a gradient with a resolution and the default easing.
+     *
+     * @param grd        the gradient
+     * @param resolution the number of entries
+     */
+    public GradientLut(final Gradient grd, final int resolution) {
+
+        this(grd, resolution, new Lab.MixLab());
+    }
+
+    /**
+     * Bakes a gradient with a resolution and an easing function. The easing
+     * function is used only while baking, so it may hold temporary values.
+     * The resolution is clamped to [2, {@link GradientLut#MAX_RESOLUTION}].
+     *
+     * @param grd        the gradient
+     * @param resolution the number of entries
+     * @param easing     the easing function
+     */
+    public GradientLut(
+        final Gradient grd,
+        final int resolution,
+        final Lab.AbstrEasing easing) {
+
+        final int keyLen = grd.keys.size();
+        final float[] keySteps = new float[keyLen];
+        final Lab[] keyClrs = new Lab[keyLen];
+        int k = 0;
+        for (final ColorKey key : grd.keys) {
+            keySteps[k] = key.step;
+            keyClrs[k] = new Lab(key.clr);
+            ++k;
+        }
+        this.steps = keySteps;
+
+        final int vRes = Utils.clamp(resolution, 2, GradientLut.MAX_RESOLUTION);
+        final float toStep = 1.0f / (vRes - 1.0f);
+        this.lut = new long[vRes];
+        this.scale = vRes - 1.0f;
+
+        /*
+         * Steps increase, so the floor key is found by walking forward. This
+         * matches the floor and ceiling searches of Gradient.eval.
+         */
+        final Lab lab = new Lab();
+        final int last = keyLen - 1;
+        int floor = 0;
+        for (int i = 0; i < vRes; ++i) {
+            final float step = i * toStep;
+            while (floor < last && keySteps[floor + 1] <= step) {
+                ++floor;
+            }
+
+            final int prev;
+            final int next;
+            if (keySteps[floor] > step) {
+                prev = 0;
+                next = 0;
+            } else if (keySteps[floor] == step || floor == last) {
+                prev = floor;
+                next = floor;
+            } else {
+                prev = floor;
+                next = floor + 1;
+            }
+
+            easing.applyUnclamped(
+                keyClrs[next], keyClrs[prev],
+                Utils.div(step - keySteps[next],
+                    keySteps[prev] - keySteps[next]),
+                lab);
+            this.lut[i] = lab.toHexLongSat();
+        }
+    }
+
+    /**
+     * Finds a color given a step in the range [0.0, 1.0]. The step is
+     * clamped, then rounded to the nearest entry in the table.
+     *
+     * @param lut    the lookup table
+     * @param step   the step
+     * @param target the output color
+     * @return the color
+     * @see GradientLut#evalHex(GradientLut, float)
+     */
+    public static Lab eval(
+        final GradientLut lut,
+        final float step,
+        final Lab target) {
+
+        return Lab.fromHex(GradientLut.evalHex(lut, step), target);
+    }
+
+    /**
+     * Finds a packed color given a step in the range [0.0, 1.0]. The step is
+     * clamped, then rounded to the nearest entry in the table. Steps which
+     * are not a number return the first entry.
+     *
+     * @param lut  the lookup table
+     * @param step the step
+     * @return the packed color
+     */
+    public static long evalHex(final GradientLut lut, final float step) {
+
+        final float s = step > 0.0f ? step < 1.0f ? step : 1.0f : 0.0f;
+        return lut.lut[(int) (s * lut.scale + 0.5f)];
+    }
+
+    /**
+     * Gets the number of entries in the lookup table.
+     *
+     * @return the resolution
+     */
+    public int getResolution() {
+        return this.lut.length;
+    }
+
+    /**
+     * Gets the step of a key in the source gradient.
+     *
+     * @param i the index
+     * @return the step
+     */
+    public float getStep(final int i) {
+        return this.steps[i];
+    }
+
+    /**
+     * Gets the number of keys in the source gradient.
+     *
+     * @return the key count
+     */
+    public int length() {
+        return this.steps.length;
+    }
+
+    /**
+     * Returns a string representation of this lookup table.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+
+        final StringBuilder sb = new StringBuilder(64 + this.steps.length * 8);
+        sb.append("{\"resolution\":");
+        sb.append(this.lut.length);
+        sb.append(",\"steps\":");
+        sb.append(Arrays.toString(this.steps));
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -3,7 +3,9 @@ package com.behreajj.camzup.core;
 import java.math.BigInteger;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 /**
  * An image class for images in the LAB color format. The bytes per pixel is 64,
@@ -184,6 +186,18 @@ public class Img {
         | Img.A_MASK
         | Img.B_MASK;
 
+    /**
+     * Whether channel-wise kernels, such as {@link Img#invert(Img, Img)},
+     * {@link Img#mix(Img, Img, float, Img)} and
+     * {@link Img#tint(Img, Lab, float, Img)}, use the incubating JDK Vector
+     * API. True when the module <code>jdk.incubator.vector</code> is in the
+     * boot layer, e.g., when the JVM is launched with
+     * <code>--add-modules jdk.incubator.vector</code>, unless the system
+     * property <code>camzup.vector</code> is "false". Results are the same
+     * either way.
+     */
+    public static final boolean USE_VECTOR = Img.vectorSupported();
+
     /**
      * The image height in pixels.
      */
@@ -343,7 +357,8 @@ public class Img {
             return target;
         }
 
-        final HashMap<Long, Lab> uniques = new HashMap<>(512, 0.75f);
+        final LongIntMap uniques = new LongIntMap();
+        final ArrayList<Lab> uniqueLabs = new ArrayList<>(512);
 
         double minSat = Double.MAX_VALUE;
         double maxSat = -Double.MAX_VALUE;
@@ -357,8 +372,8 @@ public class Img {
 
         for (int i = 0; i < len; ++i) {
             final long srcPixel = source.pixels[i];
-            final Long srcPixelObj = srcPixel;
-            if (!uniques.containsKey(srcPixelObj)) {
+            final int idx = uniques.indexOf(srcPixel);
+            if (idx < 0) {
                 final Lab lab = Lab.fromHex(srcPixel, new Lab());
                 if (lab.alpha > 0.0f) {
                     final double l = lab.l;
@@ -387,7 +402,8 @@ public class Img {
 
                     ++sumTally;
                 }
-                uniques.put(srcPixelObj, lab);
+                uniques.putAt(idx, srcPixel, uniqueLabs.size());
+                uniqueLabs.add(lab);
             }
         }
 
@@ -416,17 +432,19 @@ public class Img {
         }
 
         final Lab defLab = Lab.clearBlack(new Lab());
-        final HashMap<Long, Long> convert = new HashMap<>(512, 0.75f);
+        final LongLongMap convert = new LongLongMap();
         convert.put(Img.CLEAR_PIXEL, Img.CLEAR_PIXEL);
 
         for (int j = 0; j < len; ++j) {
-            final Long srcPixelObj = source.pixels[j];
+            final long srcPixel = source.pixels[j];
+            final int idx = convert.indexOf(srcPixel);
             final long trgPixel;
 
-            if (convert.containsKey(srcPixelObj)) {
-                trgPixel = convert.get(srcPixelObj);
+            if (idx > -1) {
+                trgPixel = convert.valueAt(idx);
             } else {
-                final Lab lab = uniques.getOrDefault(srcPixelObj, defLab);
+                final int uIdx = uniques.getOrDefault(srcPixel, -1);
+                final Lab lab = uIdx > -1 ? uniqueLabs.get(uIdx) : defLab;
 
                 final double lSrc = lab.l;
                 final double aSrc = lab.a;
@@ -452,7 +470,7 @@ public class Img {
                 lab.a = (float) aAdj;
                 lab.b = (float) bAdj;
                 trgPixel = lab.toHexLongSat();
-                convert.put(srcPixelObj, trgPixel);
+                convert.putAt(idx, srcPixel, trgPixel);
             }
 
             target.pixels[j] = trgPixel;
@@ -547,7 +565,8 @@ public class Img {
         }
 
         final Lab lab = new Lab();
-        final HashMap<Long, Lch> uniques = new HashMap<>(512, 0.75f);
+        final LongIntMap uniques = new LongIntMap();
+        final ArrayList<Lch> uniqueLchs = new ArrayList<>(512);
 
         float minChroma = Float.MAX_VALUE;
         float maxChroma = -Float.MAX_VALUE;
@@ -556,8 +575,8 @@ public class Img {
 
         for (int i = 0; i < len; ++i) {
             final long srcPixel = source.pixels[i];
-            final Long srcPixelObj = srcPixel;
-            if (!uniques.containsKey(srcPixelObj)) {
+            final int idx = uniques.indexOf(srcPixel);
+            if (idx < 0) {
                 Lab.fromHex(srcPixel, lab);
                 final Lch lch = Lch.fromLab(lab, new Lch());
                 if (lab.alpha > 0.0f) {
@@ -570,7 +589,8 @@ public class Img {
                     sumChroma += lch.c;
                     ++sumTally;
                 }
-                uniques.put(srcPixelObj, lch);
+                uniques.putAt(idx, srcPixel, uniqueLchs.size());
+                uniqueLchs.add(lch);
             }
         }
 
@@ -594,21 +614,23 @@ public class Img {
         }
 
         final Lch defLch = Lch.clearBlack(new Lch());
-        final HashMap<Long, Long> convert = new HashMap<>(512, 0.75f);
+        final LongLongMap convert = new LongLongMap();
         convert.put(Img.CLEAR_PIXEL, Img.CLEAR_PIXEL);
 
         for (int j = 0; j < len; ++j) {
-            final Long srcPixelObj = source.pixels[j];
+            final long srcPixel = source.pixels[j];
+            final int idx = convert.indexOf(srcPixel);
             final long trgPixel;
 
-            if (convert.containsKey(srcPixelObj)) {
-                trgPixel = convert.get(srcPixelObj);
+            if (idx > -1) {
+                trgPixel = convert.valueAt(idx);
             } else {
-                final Lch lch = uniques.getOrDefault(srcPixelObj, defLch);
+                final int uIdx = uniques.getOrDefault(srcPixel, -1);
+                final Lch lch = uIdx > -1 ? uniqueLchs.get(uIdx) : defLch;
                 lch.c = (lch.c - pivotChroma) * adjVerif + pivotChroma;
                 Lab.fromLch(lch, lab);
                 trgPixel = lab.toHexLongSat();
-                convert.put(srcPixelObj, trgPixel);
+                convert.putAt(idx, srcPixel, trgPixel);
             }
 
             target.pixels[j] = trgPixel;
@@ -649,21 +671,21 @@ public class Img {
 
         final float pivotLight = 50.0f;
         final Lab lab = new Lab();
-        final HashMap<Long, Long> convert = new HashMap<>(512, 0.75f);
+        final LongLongMap convert = new LongLongMap();
         convert.put(Img.CLEAR_PIXEL, Img.CLEAR_PIXEL);
 
         for (int i = 0; i < len; ++i) {
             final long srcPixel = source.pixels[i];
-            final Long srcPixelObj = srcPixel;
+            final int idx = convert.indexOf(srcPixel);
             final long trgPixel;
 
-            if (convert.containsKey(srcPixelObj)) {
-                trgPixel = convert.get(srcPixelObj);
+            if (idx > -1) {
+                trgPixel = convert.valueAt(idx);
             } else {
                 Lab.fromHex(srcPixel, lab);
                 lab.l = (lab.l - pivotLight) * adjVerif + pivotLight;
                 trgPixel = lab.toHexLongSat();
-                convert.put(srcPixelObj, trgPixel);
+                convert.putAt(idx, srcPixel, trgPixel);
             }
 
             target.pixels[i] = trgPixel;
@@ -709,16 +731,16 @@ public class Img {
         }
 
         final Lab lab = new Lab();
-        final HashMap<Long, Long> convert = new HashMap<>(512, 0.75f);
+        final LongLongMap convert = new LongLongMap();
         /* Do not put in clear pixel right away, as with other functions. */
 
         for (int i = 0; i < len; ++i) {
             final long srcPixel = source.pixels[i];
-            final Long srcPixelObj = srcPixel;
+            final int idx = convert.indexOf(srcPixel);
             final long trgPixel;
 
-            if (convert.containsKey(srcPixelObj)) {
-                trgPixel = convert.get(srcPixelObj);
+            if (idx > -1) {
+                trgPixel = convert.valueAt(idx);
             } else {
                 Lab.fromHex(srcPixel, lab);
                 if (lab.alpha <= 0.0f) {
@@ -730,7 +752,7 @@ public class Img {
                     lab.alpha += adjust.alpha;
                 }
                 trgPixel = lab.toHexLongSat();
-                convert.put(srcPixelObj, trgPixel);
+                convert.putAt(idx, srcPixel, trgPixel);
             }
 
             target.pixels[i] = trgPixel;
@@ -754,6 +776,26 @@ public class Img {
         final GrayPolicy policy,
         final Img target) {
 
+        return Img.adjustLch(source, adjust, policy, null, target);
+    }
+
+    /**
+     * Adjusts a source image's pixels in LCH.
+     *
+     * @param source the source image
+     * @param adjust the adjustment
+     * @param policy the gray policy
+     * @param pool   the fork join pool
+     * @param target the target image
+     * @return the adjusted image
+     */
+    public static Img adjustLch(
+        final Img source,
+        final Lch adjust,
+        final GrayPolicy policy,
+        final ForkJoinPool pool,
+        final Img target) {
+
         final int len = source.pixels.length;
         if (!Img.similar(source, target)) {
             target.width = source.width;
@@ -769,83 +811,31 @@ public class Img {
             return target;
         }
 
-        final float hZero = 0.0f;
-        final float hVio = Lch.SR_HUE_SHADE;
-        final float hYel = Lch.SR_HUE_LIGHT;
-
-        final Lab lab = new Lab();
-        final Lch lch = new Lch();
-        final HashMap<Long, Long> convert = new HashMap<>(512, 0.75f);
-        /* Do not put in clear pixel right away, as with other functions. */
-
-        for (int i = 0; i < len; ++i) {
-            final long srcPixel = source.pixels[i];
-            final Long srcPixelObj = srcPixel;
-            final long trgPixel;
-
-            if (convert.containsKey(srcPixelObj)) {
-                trgPixel = convert.get(srcPixelObj);
-            } else {
-                Lab.fromHex(srcPixel, lab);
-                if (lab.alpha <= 0.0f) {
-                    Lab.clearBlack(lab);
+        final int w = source.width;
+        final int h = source.height;
+        Parallel.forRange(pool, 0, h, Parallel.rowGrain(w), (yStart, yEnd) -> {
+            final Lab lab = new Lab();
+            final Lch lch = new Lch();
+            final LongLongMap convert = new LongLongMap();
+            /* Do not put in clear pixel right away, as with other functions. */
+
+            for (int i = yStart * w, iEnd = yEnd * w; i < iEnd; ++i) {
+                final long srcPixel = source.pixels[i];
+                final int idx = convert.indexOf(srcPixel);
+                final long trgPixel;
+
+                if (idx > -1) {
+                    trgPixel = convert.valueAt(idx);
                 } else {
-                    Lch.fromLab(lab, lch);
-
-                    final float cTrg;
-                    final float hTrg;
-                    final boolean isGray = lch.c < Utils.EPSILON;
-                    if (isGray) {
-                        switch (policy) {
-                            case COOL: {
-                                final float t = lch.l * 0.01f;
-                                final float u = 1.0f - t;
-                                final float hg = u * hVio + t * hYel;
-                                cTrg = lch.c + adjust.c;
-                                hTrg = hg + adjust.h;
-                            }
-                            break;
-
-                            case WARM: {
-                                final float t = lch.l * 0.01f;
-                                final float u = 1.0f - t;
-                                final float hg = u * hVio + t * (hYel + 1.0f);
-                                cTrg = lch.c + adjust.c;
-                                hTrg = hg + adjust.h;
-                            }
-                            break;
-
-                            case ZERO: {
-                                cTrg = lch.c + adjust.c;
-                                hTrg = hZero + adjust.h;
-                            }
-                            break;
-
-                            case OMIT:
-
-                            default: {
-                                cTrg = 0.0f;
-                                hTrg = 0.0f;
-                            }
-                        }
-                    } else {
-                        cTrg = lch.c + adjust.c;
-                        hTrg = lch.h + adjust.h;
-                    }
-
-                    lch.l += adjust.l;
-                    lch.c = cTrg;
-                    lch.h = hTrg;
-                    lch.alpha += adjust.alpha;
-
-                    Lab.fromLch(lch, lab);
+                    Lab.fromHex(srcPixel, lab);
+                    Img.adjustLch(lab, adjust, policy, lch);
+                    trgPixel = lab.toHexLongSat();
+                    convert.putAt(idx, srcPixel, trgPixel);
                 }
-                trgPixel = lab.toHexLongSat();
-                convert.put(srcPixelObj, trgPixel);
-            }
 
-            target.pixels[i] = trgPixel;
-        }
+                target.pixels[i] = trgPixel;
+            }
+        });
 
         return target;
     }
@@ -895,7 +885,8 @@ public class Img {
         }
 
         final Lab lab = new Lab();
-        final HashMap<Long, Lch> uniques = new HashMap<>(512, 0.75f);
+        final LongIntMap uniques = new LongIntMap();
+        final ArrayList<Lch> uniqueLchs = new ArrayList<>(512);
 
         float minChannel = Float.MAX_VALUE;
         float maxChannel = -Float.MAX_VALUE;
@@ -903,8 +894,8 @@ public class Img {
 
         for (int i = 0; i < len; ++i) {
             final long srcPixel = source.pixels[i];
-            final Long srcPixelObj = srcPixel;
-            if (!uniques.containsKey(srcPixelObj)) {
+            final int idx = uniques.indexOf(srcPixel);
+            if (idx < 0) {
                 Lab.fromHex(srcPixel, lab);
                 final Lch lch = Lch.fromLab(lab, new Lch());
                 if (lch.alpha > 0.0f) {
@@ -934,11 +925,12 @@ public class Img {
                     }
                     ++sumTally;
                 }
-                uniques.put(srcPixelObj, lch);
+                uniques.putAt(idx, srcPixel, uniqueLchs.size());
+                uniqueLchs.add(lch);
             }
         }
 
-        final HashMap<Long, Long> convert = new HashMap<>(512, 0.75f);
+        final LongLongMap convert = new LongLongMap();
         convert.put(Img.CLEAR_PIXEL, Img.CLEAR_PIXEL);
 
         final boolean notHue = channel != MapChannel.H;
@@ -953,12 +945,13 @@ public class Img {
 
         for (int j = 0; j < len; ++j) {
             final long srcPixel = source.pixels[j];
-            final Long srcPixelObj = srcPixel;
+            final int idx = convert.indexOf(srcPixel);
             final long trgPixel;
-            if (convert.containsKey(srcPixelObj)) {
-                trgPixel = convert.get(srcPixelObj);
+            if (idx > -1) {
+                trgPixel = convert.valueAt(idx);
             } else {
-                final Lch lch = uniques.getOrDefault(srcPixelObj, defLch);
+                final int uIdx = uniques.getOrDefault(srcPixel, -1);
+                final Lch lch = uIdx > -1 ? uniqueLchs.get(uIdx) : defLch;
 
                 float fac = 0.0f;
                 switch (channel) {
@@ -1032,6 +1025,7 @@ public class Img {
                     ? (srcPixel & Img.LAB_MASK)
                     : fillMask;
                 trgPixel = tMask | labMask;
+                convert.putAt(idx, srcPixel, trgPixel);
             }
 
             target.pixels[j] = trgPixel;
@@ -1184,6 +1178,39 @@ public class Img {
         final BlendMode.AB bmAb,
         final Img target, final Vec2 tl) {
 
+        return Img.blend(
+            imgUnder, xUnder, yUnder,
+            imgOver, xOver, yOver,
+            bmAlpha, bmLight, bmAb,
+            null, target, tl);
+    }
+
+    /**
+     * Blends an under and over image.
+     *
+     * @param imgUnder the under image
+     * @param xUnder   the under x offset
+     * @param yUnder   the under y offset
+     * @param imgOver  the over image
+     * @param xOver    the over x offset
+     * @param yOver    the over y offset
+     * @param bmAlpha  the alpha blend mode
+     * @param bmLight  the light blend mode
+     * @param bmAb     the ab blend mode
+     * @param pool     the fork join pool
+     * @param target   the output image
+     * @param tl       the composite offset
+     * @return the blended image
+     */
+    public static Img blend(
+        final Img imgUnder, final int xUnder, final int yUnder,
+        final Img imgOver, final int xOver, final int yOver,
+        final BlendMode.Alpha bmAlpha,
+        final BlendMode.L bmLight,
+        final BlendMode.AB bmAb,
+        final ForkJoinPool pool,
+        final Img target, final Vec2 tl) {
+
         final int aw = imgUnder.width;
         final int ah = imgUnder.height;
         final long[] pxUnder = imgUnder.pixels;
@@ -1285,273 +1312,275 @@ public class Img {
         final int bxud = xOver - cx;
         final int byud = yOver - cy;
 
-        final Lab cLab = new Lab();
         final long[] trgPixels = new long[cLen];
-        for (int i = 0; i < cLen; ++i) {
-            final int x = i % cw;
-            final int y = i / cw;
-
-            long hexUnder = Img.CLEAR_PIXEL;
-            final int axs = x - axud;
-            final int ays = y - ayud;
-            if (ays >= 0 && ays < ah && axs >= 0 && axs < aw) {
-                hexUnder = pxUnder[ays * aw + axs];
-            }
-
-            long hexOver = Img.CLEAR_PIXEL;
-            final int bxs = x - bxud;
-            final int bys = y - byud;
-            if (bys >= 0 && bys < bh && bxs >= 0 && bxs < bw) {
-                hexOver = pxOver[bys * bw + bxs];
-            }
+        Parallel.forRange(pool, 0, ch, Parallel.rowGrain(cw), (yStart, yEnd) -> {
+            final Lab cLab = new Lab();
+            for (int i = yStart * cw, iEnd = yEnd * cw; i < iEnd; ++i) {
+                final int x = i % cw;
+                final int y = i / cw;
+
+                long hexUnder = Img.CLEAR_PIXEL;
+                final int axs = x - axud;
+                final int ays = y - ayud;
+                if (ays >= 0 && ays < ah && axs >= 0 && axs < aw) {
+                    hexUnder = pxUnder[ays * aw + axs];
+                }
 
-            final Lab labUnder = dict.getOrDefault(hexUnder, clearLab);
-            final Lab labOver = dict.getOrDefault(hexOver, clearLab);
+                long hexOver = Img.CLEAR_PIXEL;
+                final int bxs = x - bxud;
+                final int bys = y - byud;
+                if (bys >= 0 && bys < bh && bxs >= 0 && bxs < bw) {
+                    hexOver = pxOver[bys * bw + bxs];
+                }
 
-            final double t = labOver.alpha;
-            final double v = labUnder.alpha;
-            final double u = 1.0d - t;
-            double tuv = v;
+                final Lab labUnder = dict.getOrDefault(hexUnder, clearLab);
+                final Lab labOver = dict.getOrDefault(hexOver, clearLab);
 
-            switch (bmAlpha) {
-                case BLEND: {
-                    tuv = t + u * v;
-                }
-                break;
-                case MAX: {
-                    tuv = Math.max(t, v);
-                }
-                break;
-                case MIN: {
-                    tuv = Math.min(t, v);
-                }
-                break;
-                case MULTIPLY: {
-                    tuv = t * v;
-                }
-                break;
-                case OVER: {
-                    tuv = t;
-                }
-                break;
-                case UNDER: {
-                    tuv = v;
-                }
-                break;
-                default:
-            }
+                final double t = labOver.alpha;
+                final double v = labUnder.alpha;
+                final double u = 1.0d - t;
+                double tuv = v;
 
-            long hexComp = Img.CLEAR_PIXEL;
-            if (tuv > 0.0d) {
-                // TODO: If you swap over and under in the example sketch for
-                // this method, vgt0 might not be a sufficient test for using
-                // modes like add, subtract, etc. Maybe it needs to be both
-                // vgt0 and tgt0?
-                final boolean vgt0 = v > 0.0d;
-                final boolean tgt0 = t > 0.0d;
-
-                final double lOver = labOver.l;
-                final double aOver = labOver.a;
-                final double bOver = labOver.b;
-
-                final double lUnder = labUnder.l;
-                final double aUnder = labUnder.a;
-                final double bUnder = labUnder.b;
-
-                final double uLUnder = u * lUnder;
-                final double uAUnder = u * aUnder;
-                final double uBUnder = u * bUnder;
-
-                double lComp = uLUnder;
-                double aComp = uAUnder;
-                double bComp = uBUnder;
-
-                switch (bmLight) {
-                    case ADD: {
-                        if (vgt0) {
-                            lComp = uLUnder + t * (lUnder + lOver);
-                        }
+                switch (bmAlpha) {
+                    case BLEND: {
+                        tuv = t + u * v;
                     }
                     break;
-
-                    case AVERAGE: {
-                        if (vgt0) {
-                            lComp = uLUnder + t * ((lUnder + lOver) * 0.5d);
-                        }
+                    case MAX: {
+                        tuv = Math.max(t, v);
                     }
                     break;
-
-                    case BLEND: {
-                        lComp = uLUnder + t * lOver;
+                    case MIN: {
+                        tuv = Math.min(t, v);
                     }
                     break;
-
-                    case BURN: {
-                        if (vgt0) {
-                            final double quo = lOver != 0.0d
-                                ? (100.0 - lUnder) / lOver * 100.0d
-                                : 0.0d;
-                            lComp = uLUnder + t * quo;
-                        }
+                    case MULTIPLY: {
+                        tuv = t * v;
                     }
                     break;
-
-                    case DIVIDE: {
-                        if (vgt0) {
-                            final double quo = lOver != 0.0d
-                                ? lUnder / lOver * 100.0d
-                                : 100.0d;
-                            lComp = uLUnder + t * quo;
-                        }
+                    case OVER: {
+                        tuv = t;
                     }
                     break;
-
-                    case DODGE: {
-                        if (vgt0) {
-                            final double quo = lOver != 100.0d
-                                ? lUnder / (100.0d - lOver) * 100.0d
-                                : 100.0d;
-                            lComp = uLUnder + t * quo;
-                        }
+                    case UNDER: {
+                        tuv = v;
                     }
                     break;
+                    default:
+                }
 
-                    case MULTIPLY: {
-                        if (vgt0) {
-                            final double prod = lUnder * lOver * 0.01d;
-                            lComp = uLUnder + t * prod;
+                long hexComp = Img.CLEAR_PIXEL;
+                if (tuv > 0.0d) {
+                    // TODO: If you swap over and under in the example sketch for
+                    // this method, vgt0 might not be a sufficient test for using
+                    // modes like add, subtract, etc. Maybe it needs to be both
+                    // vgt0 and tgt0?
+                    final boolean vgt0 = v > 0.0d;
+                    final boolean tgt0 = t > 0.0d;
+
+                    final double lOver = labOver.l;
+                    final double aOver = labOver.a;
+                    final double bOver = labOver.b;
+
+                    final double lUnder = labUnder.l;
+                    final double aUnder = labUnder.a;
+                    final double bUnder = labUnder.b;
+
+                    final double uLUnder = u * lUnder;
+                    final double uAUnder = u * aUnder;
+                    final double uBUnder = u * bUnder;
+
+                    double lComp = uLUnder;
+                    double aComp = uAUnder;
+                    double bComp = uBUnder;
+
+                    switch (bmLight) {
+                        case ADD: {
+                            if (vgt0) {
+                                lComp = uLUnder + t * (lUnder + lOver);
+                            }
                         }
-                    }
-                    break;
+                        break;
 
-                    case OVER: {
-                        lComp = lOver;
-                    }
-                    break;
+                        case AVERAGE: {
+                            if (vgt0) {
+                                lComp = uLUnder + t * ((lUnder + lOver) * 0.5d);
+                            }
+                        }
+                        break;
 
-                    case SCREEN: {
-                        if (vgt0) {
-                            final double scr = lUnder + lOver - lUnder * lOver * 0.01d;
-                            lComp = uLUnder + t * scr;
+                        case BLEND: {
+                            lComp = uLUnder + t * lOver;
                         }
-                    }
-                    break;
+                        break;
 
-                    case SUBTRACT: {
-                        /*
-                         * Unlike AB subtract, there's not a great case when
-                         * the under alpha is zero. 100 - lOver is too bright.
-                         * 50 - lOver might be better if lOver were divided by
-                         * half, but both feel arbitrary.
-                         */
-                        if (vgt0) {
-                            lComp = uLUnder + t * (lUnder - lOver);
+                        case BURN: {
+                            if (vgt0) {
+                                final double quo = lOver != 0.0d
+                                    ? (100.0 - lUnder) / lOver * 100.0d
+                                    : 0.0d;
+                                lComp = uLUnder + t * quo;
+                            }
                         }
-                    }
-                    break;
+                        break;
 
-                    case UNDER: {
-                        lComp = lUnder;
-                    }
-                    break;
+                        case DIVIDE: {
+                            if (vgt0) {
+                                final double quo = lOver != 0.0d
+                                    ? lUnder / lOver * 100.0d
+                                    : 100.0d;
+                                lComp = uLUnder + t * quo;
+                            }
+                        }
+                        break;
 
-                    default:
-                } /* End light blend mode. */
+                        case DODGE: {
+                            if (vgt0) {
+                                final double quo = lOver != 100.0d
+                                    ? lUnder / (100.0d - lOver) * 100.0d
+                                    : 100.0d;
+                                lComp = uLUnder + t * quo;
+                            }
+                        }
+                        break;
 
-                switch (bmAb) {
-                    case ADD: {
-                        if (vgt0) {
-                            aComp = uAUnder + t * (aUnder + aOver);
-                            bComp = uBUnder + t * (bUnder + bOver);
+                        case MULTIPLY: {
+                            if (vgt0) {
+                                final double prod = lUnder * lOver * 0.01d;
+                                lComp = uLUnder + t * prod;
+                            }
                         }
-                    }
-                    break;
+                        break;
 
-                    case AVERAGE: {
-                        if (vgt0) {
-                            aComp = uAUnder + t * ((aUnder + aOver) * 0.5d);
-                            bComp = uBUnder + t * ((bUnder + bOver) * 0.5d);
+                        case OVER: {
+                            lComp = lOver;
                         }
-                    }
-                    break;
+                        break;
 
-                    case BLEND: {
-                        aComp = uAUnder + t * aOver;
-                        bComp = uBUnder + t * bOver;
-                    }
-                    break;
+                        case SCREEN: {
+                            if (vgt0) {
+                                final double scr = lUnder + lOver - lUnder * lOver * 0.01d;
+                                lComp = uLUnder + t * scr;
+                            }
+                        }
+                        break;
 
-                    case CHROMA: {
-                        if (vgt0 && tgt0) {
-                            final double csqUnder = aUnder * aUnder + bUnder * bUnder;
-                            if (csqUnder > Utils.EPSILON_D) {
-                                final double s = t * Math.sqrt(
-                                    aOver * aOver + bOver * bOver)
-                                    / Math.sqrt(csqUnder);
-                                aComp = uAUnder + s * aUnder;
-                                bComp = uBUnder + s * bUnder;
-                            } else {
-                                aComp = uAUnder;
-                                bComp = uBUnder;
-                            } /* End chroma under is greater than zero. */
-                        } /* End alpha is greater than zero. */
-                    }
-                    break;
+                        case SUBTRACT: {
+                            /*
+                             * Unlike AB subtract, there's not a great case when
+                             * the under alpha is zero. 100 - lOver is too bright.
+                             * 50 - lOver might be better if lOver were divided by
+                             * half, but both feel arbitrary.
+                             */
+                            if (vgt0) {
+                                lComp = uLUnder + t * (lUnder - lOver);
+                            }
+                        }
+                        break;
 
-                    case HUE: {
-                        if (vgt0 && tgt0) {
-                            final double csqOver = aOver * aOver + bOver * bOver;
-                            if (csqOver > Utils.EPSILON_D) {
-                                final double s = t * Math.sqrt(
-                                    aUnder * aUnder + bUnder * bUnder)
-                                    / Math.sqrt(csqOver);
-                                aComp = uAUnder + s * aOver;
-                                bComp = uBUnder + s * bOver;
-                            } else {
-                                aComp = uAUnder;
-                                bComp = uBUnder;
-                            } /* End chroma over is greater than zero. */
-                        } /* End alpha is greater than zero. */
-                    }
-                    break;
+                        case UNDER: {
+                            lComp = lUnder;
+                        }
+                        break;
 
-                    case OVER: {
-                        aComp = aOver;
-                        bComp = bOver;
-                    }
-                    break;
+                        default:
+                    } /* End light blend mode. */
 
-                    case SUBTRACT: {
-                        /*
-                         * Since A and B are signed, it's easier to handle the
-                         * exception case when the under alpha is zero: A and
-                         * B over are inverted.
-                         */
-                        if (vgt0) {
-                            aComp = uAUnder + t * (aUnder - aOver);
-                            bComp = uBUnder + t * (bUnder - bOver);
-                        } else {
-                            aComp = uAUnder - t * aOver;
-                            bComp = uBUnder - t * bOver;
+                    switch (bmAb) {
+                        case ADD: {
+                            if (vgt0) {
+                                aComp = uAUnder + t * (aUnder + aOver);
+                                bComp = uBUnder + t * (bUnder + bOver);
+                            }
                         }
-                    }
-                    break;
+                        break;
 
-                    case UNDER: {
-                        aComp = aUnder;
-                        bComp = bUnder;
-                    }
-                    break;
+                        case AVERAGE: {
+                            if (vgt0) {
+                                aComp = uAUnder + t * ((aUnder + aOver) * 0.5d);
+                                bComp = uBUnder + t * ((bUnder + bOver) * 0.5d);
+                            }
+                        }
+                        break;
 
-                    default:
-                } /* End ab blend mode. */
+                        case BLEND: {
+                            aComp = uAUnder + t * aOver;
+                            bComp = uBUnder + t * bOver;
+                        }
+                        break;
+
+                        case CHROMA: {
+                            if (vgt0 && tgt0) {
+                                final double csqUnder = aUnder * aUnder + bUnder * bUnder;
+                                if (csqUnder > Utils.EPSILON_D) {
+                                    final double s = t * Math.sqrt(
+                                        aOver * aOver + bOver * bOver)
+                                        / Math.sqrt(csqUnder);
+                                    aComp = uAUnder + s * aUnder;
+                                    bComp = uBUnder + s * bUnder;
+                                } else {
+                                    aComp = uAUnder;
+                                    bComp = uBUnder;
+                                } /* End chroma under is greater than zero. */
+                            } /* End alpha is greater than zero. */
+                        }
+                        break;
 
-                cLab.set((float) lComp, (float) aComp, (float) bComp, (float) tuv);
-                hexComp = cLab.toHexLongSat();
-            } /* End alpha is greater than zero. */
+                        case HUE: {
+                            if (vgt0 && tgt0) {
+                                final double csqOver = aOver * aOver + bOver * bOver;
+                                if (csqOver > Utils.EPSILON_D) {
+                                    final double s = t * Math.sqrt(
+                                        aUnder * aUnder + bUnder * bUnder)
+                                        / Math.sqrt(csqOver);
+                                    aComp = uAUnder + s * aOver;
+                                    bComp = uBUnder + s * bOver;
+                                } else {
+                                    aComp = uAUnder;
+                                    bComp = uBUnder;
+                                } /* End chroma over is greater than zero. */
+                            } /* End alpha is greater than zero. */
+                        }
+                        break;
 
-            trgPixels[i] = hexComp;
-        } /* End pixels loop. */
+                        case OVER: {
+                            aComp = aOver;
+                            bComp = bOver;
+                        }
+                        break;
+
+                        case SUBTRACT: {
+                            /*
+                             * Since A and B are signed, it's easier to handle the
+                             * exception case when the under alpha is zero: A and
+                             * B over are inverted.
+                             */
+                            if (vgt0) {
+                                aComp = uAUnder + t * (aUnder - aOver);
+                                bComp = uBUnder + t * (bUnder - bOver);
+                            } else {
+                                aComp = uAUnder - t * aOver;
+                                bComp = uBUnder - t * bOver;
+                            }
+                        }
+                        break;
+
+                        case UNDER: {
+                            aComp = aUnder;
+                            bComp = bUnder;
+                        }
+                        break;
+
+                        default:
+                    } /* End ab blend mode. */
+
+                    cLab.set((float) lComp, (float) aComp, (float) bComp, (float) tuv);
+                    hexComp = cLab.toHexLongSat();
+                } /* End alpha is greater than zero. */
+
+                trgPixels[i] = hexComp;
+            } /* End pixels loop. */
+        });
 
         if (tl != null) {
             tl.set(dx, dy);
@@ -1579,6 +1608,31 @@ public class Img {
         final int step,
         final Img target) {
 
+        return Img.blur(source, step, null, target);
+    }
+
+    /**
+     * Blurs an image by averaging each pixel with its neighbors in 8
+     * directions. The step determines the size of the kernel, where the
+     * minimum step of 1 will make a 3x3, 9 pixel kernel.
+     * <br>
+     * <br>
+     * The kernel is separated into a horizontal and a vertical pass of
+     * running sums, so the cost per pixel does not grow with the step.
+     *
+     * @param source the input image
+     * @param step   the kernel step
+     * @param pool   the fork join pool
+     * @param target the output image
+     * @return the blurred image
+     * @see Img#blurBox(long[], int, int, int, ForkJoinPool, long[])
+     */
+    public static Img blur(
+        final Img source,
+        final int step,
+        final ForkJoinPool pool,
+        final Img target) {
+
         final int wSrc = source.width;
         final int hSrc = source.height;
         final long[] srcPixels = source.pixels;
@@ -1596,48 +1650,101 @@ public class Img {
             return target;
         }
 
-        final Lab labCenter = new Lab();
-        final Lab labNgbr = new Lab();
-        final Lab labAvg = new Lab();
+        /*
+         * When the source and target are the same, read from a copy so that
+         * blurred pixels are not sampled again.
+         */
+        final long[] readPixels = srcPixels == trgPixels
+            ? srcPixels.clone()
+            : srcPixels;
+        Img.blurBox(readPixels, wSrc, hSrc, step, pool, trgPixels);
 
-        final int wKrn = 1 + step * 2;
-        final int krnLen = wKrn * wKrn;
-        final float toAvg = 1.0f / krnLen;
+        return target;
+    }
 
-        for (int i = 0; i < srcLen; ++i) {
-            final long tlab64Src = srcPixels[i];
-            Lab.fromHex(tlab64Src, labCenter);
-
-            final int xSrc = i % wSrc - step;
-            final int ySrc = i / wSrc - step;
-
-            float lSum = 0.0f;
-            float aSum = 0.0f;
-            float bSum = 0.0f;
-            float tSum = 0.0f;
-
-            for (int j = 0; j < krnLen; ++j) {
-                final int xComp = xSrc + j % wKrn;
-                final int yComp = ySrc + j / wKrn;
-                if (yComp >= 0 && yComp < hSrc && xComp >= 0 && xComp < wSrc) {
-                    Lab.fromHex(srcPixels[xComp + yComp * wSrc], labNgbr);
-                    lSum += labNgbr.l;
-                    aSum += labNgbr.a;
-                    bSum += labNgbr.b;
-                    tSum += labNgbr.alpha;
-                } else {
-                    /*
-                     * When the kernel is out of bounds, sample the central
-                     * color but do not tally alpha.
-                     */
-                    lSum += labCenter.l;
-                    aSum += labCenter.a;
-                    bSum += labCenter.b;
-                } /* End pixel is in bounds. */
-            } /* End kernel loop. */
+    /**
+     * Blurs an image with an approximate Gaussian kernel. The kernel is
+     * approximated by three successive box blurs whose steps are chosen to
+     * match the standard deviation, sigma. Sigma is in pixels.
+     *
+     * @param source the input image
+     * @param sigma  the standard deviation
+     * @param target the output image
+     * @return the blurred image
+     */
+    public static Img blurGaussian(
+        final Img source,
+        final float sigma,
+        final Img target) {
+
+        return Img.blurGaussian(source, sigma, null, target);
+    }
+
+    /**
+     * Blurs an image with an approximate Gaussian kernel. The kernel is
+     * approximated by three successive box blurs whose steps are chosen to
+     * match the standard deviation, sigma. Sigma is in pixels.
+     *
+     * @param source the input image
+     * @param sigma  the standard deviation
+     * @param pool   the fork join pool
+     * @param target the output image
+     * @return the blurred image
+     * @see Img#blurBox(long[], int, int, int, ForkJoinPool, long[])
+     */
+    public static Img blurGaussian(
+        final Img source,
+        final float sigma,
+        final ForkJoinPool pool,
+        final Img target) {
+
+        final int wSrc = source.width;
+        final int hSrc = source.height;
+        final long[] srcPixels = source.pixels;
+        final int srcLen = srcPixels.length;
 
-            labAvg.set(lSum * toAvg, aSum * toAvg, bSum * toAvg, tSum * toAvg);
-            trgPixels[i] = labAvg.toHexLong();
+        if (!Img.similar(source, target)) {
+            target.width = wSrc;
+            target.height = hSrc;
+            target.pixels = new long[srcLen];
+        }
+
+        final long[] trgPixels = target.pixels;
+        if (sigma <= 0.0f) {
+            System.arraycopy(srcPixels, 0, trgPixels, 0, srcLen);
+            return target;
+        }
+
+        /*
+         * Find the widths of three box filters which, when applied in
+         * sequence, approximate a Gaussian. Widths are odd, the lower width
+         * is used m times and the upper width for the remainder.
+         */
+        final int passes = 3;
+        final float var12 = 12.0f * sigma * sigma;
+        int wLower = Utils.floor((float) Math.sqrt(var12 / passes + 1.0f));
+        if (wLower % 2 == 0) {
+            --wLower;
+        }
+        final int wUpper = wLower + 2;
+        final int m = Math.round((var12
+            - passes * wLower * wLower
+            - 4 * passes * wLower
+            - 3 * passes) / (-4.0f * wLower - 4.0f));
+
+        long[] readPixels = srcPixels == trgPixels
+            ? srcPixels.clone()
+            : srcPixels;
+        final long[][] temps = { new long[srcLen], new long[srcLen] };
+        for (int i = 0; i < passes; ++i) {
+            final int step = ((i < m ? wLower : wUpper) - 1) / 2;
+            final long[] writePixels = i == passes - 1 ? trgPixels : temps[i % 2];
+            if (step < 1) {
+                System.arraycopy(readPixels, 0, writePixels, 0, srcLen);
+            } else {
+                Img.blurBox(readPixels, wSrc, hSrc, step, pool, writePixels);
+            }
+            readPixels = writePixels;
         }
 
         return target;
@@ -1891,8 +1998,8 @@ public class Img {
 
 
     /**
-     * Dithers an image according to the nearest match in a palette. Uses an
-     * octree to match source color to palette.
+     * Dithers an image according to the nearest match in a palette. Uses a
+     * {@link PaletteMatcher} to match source color to palette.
      *
      * @param source  the input image
      * @param factor  the dither factor
@@ -1905,19 +2012,25 @@ public class Img {
         final float factor,
         final Lab[] palette,
         final Img target) {
-        return Img.dither(source, factor, palette, Octree.DEFAULT_CAPACITY,
-            Img.DEFAULT_OCTREE_QUERY_RADIUS, target);
+
+        return Img.dither(source, factor, new PaletteMatcher(palette),
+            palette, Float.POSITIVE_INFINITY, target);
     }
 
     /**
-     * Dithers an image according to the nearest match in a palette. Uses an
-     * octree to match source color to palette.
+     * Dithers an image according to the nearest match in a palette. Uses a
+     * {@link PaletteMatcher} to match source color to palette. Source colors
+     * farther than the radius from any swatch become clear black.
+     * <br>
+     * <br>
+     * The capacity is no longer used; it is retained for compatibility with
+     * the octree based matcher this replaced.
      *
      * @param source   the input image
      * @param factor   the dither factor
      * @param palette  the palette
      * @param capacity the octree node capacity
-     * @param radius   the octree query radius
+     * @param radius   the query radius
      * @param target   the output image
      * @return the dithered image
      */
@@ -1929,29 +2042,48 @@ public class Img {
         final float radius,
         final Img target) {
 
+        return Img.dither(source, factor, new PaletteMatcher(palette),
+            palette, radius, target);
+    }
+
+    /**
+     * Dithers an image according to the nearest match in a palette. The
+     * matcher should have been constructed from the palette. Source colors
+     * farther than the radius from any swatch become clear black.
+     *
+     * @param source  the input image
+     * @param factor  the dither factor
+     * @param matcher the palette matcher
+     * @param palette the palette
+     * @param radius  the query radius
+     * @param target  the output image
+     * @return the dithered image
+     */
+    public static Img dither(
+        final Img source,
+        final float factor,
+        final PaletteMatcher matcher,
+        final Lab[] palette,
+        final float radius,
+        final Img target) {
+
         final float rVrf = Math.max(Utils.EPSILON, Utils.abs(radius));
-        final Octree oct = new Octree(Bounds3.lab(new Bounds3()), capacity);
-        oct.subdivide(1, capacity);
+        final float rsq = rVrf * rVrf;
 
-        for (final Lab swatch : palette) {
-            if (Lab.any(swatch)) {
-                final Vec3 point = new Vec3(swatch.a, swatch.b, swatch.l);
-                oct.insert(point);
+        final BiFunction<Lab, Lab, Lab> func = (src, trg) -> {
+            final int idx = matcher.nearestIndex(src.toHexLongSat());
+            if (idx < 0) {
+                return Lab.clearBlack(trg);
             }
-        }
-        oct.cull();
 
-        final BiFunction<Lab, Lab, Lab> func = (src, trg) -> {
-            final Vec3 query = new Vec3(src.a, src.b, src.l);
-            final TreeMap<Float, Vec3> found = new TreeMap<>();
-            Octree.query(oct, query, rVrf * rVrf, 0, found);
-            if (found.isEmpty()) {
-                Lab.clearBlack(trg);
-            } else {
-                final Vec3 near = found.values().iterator().next();
-                trg.set(near.z, near.x, near.y, src.alpha);
+            final Lab near = palette[idx];
+            final float dl = src.l - near.l;
+            final float da = src.a - near.a;
+            final float db = src.b - near.b;
+            if (dl * dl + da * da + db * db > rsq) {
+                return Lab.clearBlack(trg);
             }
-            return trg;
+            return trg.set(near.l, near.a, near.b, src.alpha);
         };
 
         return Img.dither(source, factor, func, target);
@@ -2041,10 +2173,7 @@ public class Img {
      */
     public static Img fill(final long fill, final Img target) {
 
-        final int len = target.pixels.length;
-        for (int i = 0; i < len; ++i) {
-            target.pixels[i] = fill;
-        }
+        Arrays.fill(target.pixels, fill);
         return target;
     }
 
@@ -2107,21 +2236,23 @@ public class Img {
     /**
      * Hashes an image according to the <a href=
      * "https://en.wikipedia.org/wiki/Fowler%E2%80%93Noll%E2%80%93Vo_hash_function">
-     * Fowler–Noll–Vo</a> method.
+     * Fowler–Noll–Vo</a> method. The 64-bit FNV-1a hash is found on each
+     * pixel as a whole, then returned as an unsigned integer. For a faster
+     * hash, see {@link Img#hash(Img)}.
      *
      * @param source the image
      * @return the hash
      */
     public static BigInteger fnvHash(final Img source) {
 
-        final BigInteger fnvPrime = BigInteger.valueOf(1099511628211L);
-        BigInteger hash = new BigInteger("14695981039346656037");
+        final long fnvPrime = 1099511628211L;
+        long hash = 0xcbf2_9ce4_8422_2325L;
         final long[] srcPixels = source.pixels;
         for (final long srcPixel : srcPixels) {
-            hash = hash.xor(BigInteger.valueOf(srcPixel)).multiply(fnvPrime);
+            hash = (hash ^ srcPixel) * fnvPrime;
         }
 
-        return hash;
+        return new BigInteger(Long.toUnsignedString(hash));
     }
 
     /**
@@ -2153,34 +2284,8 @@ public class Img {
             return target;
         }
 
-        final Rgb srgb = new Rgb();
-        final Rgb lrgb = new Rgb();
-        final Vec4 xyz = new Vec4();
-        final Lab lab = new Lab();
-
-        final long[] tlab64s = new long[len];
-        final HashMap<Integer, Long> convert = new HashMap<>(512, 0.75f);
-        convert.put(0, Img.CLEAR_PIXEL);
-
-        for (int i = 0; i < len; ++i) {
-            final int argb32 = argb32s[i];
-            final Integer argb32Obj = argb32;
-            final long tlab64;
-
-            if (convert.containsKey(argb32Obj)) {
-                tlab64 = convert.get(argb32Obj);
-            } else {
-                Rgb.fromHex(argb32, srgb);
-                if (useUnpremul) {
-                    Rgb.unpremul(srgb, srgb);
-                }
-                Rgb.sRgbToSrLab2(srgb, lab, xyz, lrgb);
-                tlab64 = lab.toHexLongSat();
-                convert.put(argb32Obj, tlab64);
-            }
-
-            tlab64s[i] = tlab64;
-        }
+        final long[] tlab64s = LabLut.fromArgb32(argb32s, useUnpremul,
+            new long[len]);
 
         target.width = wVerif;
         target.height = hVerif;
@@ -2397,6 +2502,39 @@ public class Img {
         final Lab.AbstrEasing easing,
         final Img target) {
 
+        return Img.gradientLinear(grd, xOrig, yOrig, xDest, yDest, () -> easing, null, target);
+    }
+
+    /**
+     * Generates a linear gradient from an origin point to a destination point.
+     * The origin and destination should be in the range [-1.0, 1.0].
+     * The scalar projection is clamped to [0.0, 1.0].
+     * <br>
+     * <br>
+     * The gradient is baked once to a {@link GradientLut}, which all bands
+     * of rows processed by the pool share. Steps are rounded to the nearest
+     * of {@link GradientLut#DEFAULT_RESOLUTION} entries.
+     *
+     * @param grd    the gradient
+     * @param xOrig  the origin x coordinate
+     * @param yOrig  the origin y coordinate
+     * @param xDest  the destination x coordinate
+     * @param yDest  the destination y coordinate
+     * @param easing the easing function supplier
+     * @param pool   the fork join pool
+     * @param target the output image
+     * @return the gradient image
+     * @see GradientLut#evalHex(GradientLut, float)
+     * @see Utils#clamp01(float)
+     */
+    public static Img gradientLinear(
+        final Gradient grd,
+        final float xOrig, final float yOrig,
+        final float xDest, final float yDest,
+        final Supplier<? extends Lab.AbstrEasing> easing,
+        final ForkJoinPool pool,
+        final Img target) {
+
         final int wTrg = target.width;
         final int hTrg = target.height;
 
@@ -2413,15 +2551,16 @@ public class Img {
         final float bxwInv2 = 2.0f / (wTrg - 1.0f) * bxbbinv;
         final float byhInv2 = 2.0f / (hTrg - 1.0f) * bybbinv;
 
-        final Lab trgLab = new Lab();
-        final int len = target.pixels.length;
-        for (int i = 0; i < len; ++i) {
-            final float fac = Utils.clamp01(xobx + bxbbinv
-                - bxwInv2 * (i % wTrg) + (yoby + byhInv2
-                * (float) (i / wTrg) - bybbinv));
-            Gradient.eval(grd, fac, easing, trgLab);
-            target.pixels[i] = trgLab.toHexLongSat();
-        }
+        final GradientLut lut = new GradientLut(grd,
+            GradientLut.DEFAULT_RESOLUTION, easing.get());
+        Parallel.forRange(pool, 0, hTrg, Parallel.rowGrain(wTrg), (yStart, yEnd) -> {
+            for (int i = yStart * wTrg, iEnd = yEnd * wTrg; i < iEnd; ++i) {
+                final float fac = Utils.clamp01(xobx + bxbbinv
+                    - bxwInv2 * (i % wTrg) + (yoby + byhInv2
+                    * (float) (i / wTrg) - bybbinv));
+                target.pixels[i] = GradientLut.evalHex(lut, fac);
+            }
+        });
 
         return target;
     }
@@ -2564,7 +2703,8 @@ public class Img {
 
         final Lab lab = new Lab();
         final int len = source.pixels.length;
-        final HashMap<Long, Lch> uniques = new HashMap<>(512, 0.75f);
+        final LongIntMap uniques = new LongIntMap();
+        final ArrayList<Lch> uniqueLchs = new ArrayList<>(512);
 
         float minChannel = Float.MAX_VALUE;
         float maxChannel = -Float.MAX_VALUE;
@@ -2572,8 +2712,8 @@ public class Img {
 
         for (int i = 0; i < len; ++i) {
             final long srcPixel = source.pixels[i];
-            final Long srcPixelObj = srcPixel;
-            if (!uniques.containsKey(srcPixelObj)) {
+            final int idx = uniques.indexOf(srcPixel);
+            if (idx < 0) {
                 Lab.fromHex(srcPixel, lab);
                 final Lch lch = Lch.fromLab(lab, new Lch());
                 if (lch.alpha > 0.0f) {
@@ -2604,11 +2744,12 @@ public class Img {
                     }
                     ++sumTally;
                 }
-                uniques.put(srcPixelObj, lch);
+                uniques.putAt(idx, srcPixel, uniqueLchs.size());
+                uniqueLchs.add(lch);
             }
         }
 
-        final HashMap<Long, Long> convert = new HashMap<>(512, 0.75f);
+        final LongLongMap convert = new LongLongMap();
         convert.put(Img.CLEAR_PIXEL, Img.CLEAR_PIXEL);
 
         final boolean notHue = channel != MapChannel.H;
@@ -2619,14 +2760,18 @@ public class Img {
         final float dff = Utils.diff(maxChannel, minChannel);
         final float denom = Utils.div(1.0f, dff);
         final Lch defLch = Lch.clearBlack(new Lch());
+        final GradientLut lut = new GradientLut(grd,
+            GradientLut.DEFAULT_RESOLUTION, easing);
 
         for (int j = 0; j < len; ++j) {
-            final Long srcPixelObj = source.pixels[j];
+            final long srcPixel = source.pixels[j];
+            final int idx = convert.indexOf(srcPixel);
             final long trgPixel;
-            if (convert.containsKey(srcPixelObj)) {
-                trgPixel = convert.get(srcPixelObj);
+            if (idx > -1) {
+                trgPixel = convert.valueAt(idx);
             } else {
-                final Lch lch = uniques.getOrDefault(srcPixelObj, defLch);
+                final int uIdx = uniques.getOrDefault(srcPixel, -1);
+                final Lch lch = uIdx > -1 ? uniqueLchs.get(uIdx) : defLch;
 
                 float fac = 0.0f;
                 switch (channel) {
@@ -2653,10 +2798,10 @@ public class Img {
                     }
                 }
 
-                Gradient.eval(grd, fac, easing, lab);
+                GradientLut.eval(lut, fac, lab);
                 lab.alpha = lab.alpha * lch.alpha;
                 trgPixel = lab.toHexLongSat();
-                convert.put(srcPixelObj, trgPixel);
+                convert.putAt(idx, srcPixel, trgPixel);
             }
 
             target.pixels[j] = trgPixel;
@@ -2682,17 +2827,41 @@ public class Img {
         final Img.MapChannel channel,
         final Img target) {
 
-        return Img.gradientMap(grd, source, easing, channel, false, target);
+        return Img.gradientMap(grd, source, easing, channel, false, target);
+    }
+
+    /**
+     * Generates a radial gradient from an origin point. The origin should be
+     * in the range [-1.0, 1.0].
+     *
+     * @param grd    the gradient
+     * @param xOrig  the origin x coordinate
+     * @param yOrig  the origin y coordinate
+     * @param radius the radius
+     * @param target the output image
+     * @return the gradient image
+     * @see Gradient#eval(Gradient, float, Lab.AbstrEasing, Lab)
+     */
+    public static Img gradientRadial(
+        final Gradient grd,
+        final float xOrig,
+        final float yOrig,
+        final float radius,
+        final Img target) {
+
+        return Img.gradientRadial(grd, xOrig, yOrig, radius, new Lab.MixLab(), target);
     }
 
     /**
      * Generates a radial gradient from an origin point. The origin should be
-     * in the range [-1.0, 1.0].
+     * in the range [-1.0, 1.0]. Does not account for aspect ratio, so an image
+     * that isn't 1:1 will result in an ellipsoid.
      *
      * @param grd    the gradient
      * @param xOrig  the origin x coordinate
      * @param yOrig  the origin y coordinate
      * @param radius the radius
+     * @param easing the easing function
      * @param target the output image
      * @return the gradient image
      * @see Gradient#eval(Gradient, float, Lab.AbstrEasing, Lab)
@@ -2702,31 +2871,39 @@ public class Img {
         final float xOrig,
         final float yOrig,
         final float radius,
+        final Lab.AbstrEasing easing,
         final Img target) {
 
-        return Img.gradientRadial(grd, xOrig, yOrig, radius, new Lab.MixLab(), target);
+        return Img.gradientRadial(grd, xOrig, yOrig, radius, () -> easing, null, target);
     }
 
     /**
      * Generates a radial gradient from an origin point. The origin should be
      * in the range [-1.0, 1.0]. Does not account for aspect ratio, so an image
      * that isn't 1:1 will result in an ellipsoid.
+     * <br>
+     * <br>
+     * The gradient is baked once to a {@link GradientLut}, which all bands
+     * of rows processed by the pool share. Steps are rounded to the nearest
+     * of {@link GradientLut#DEFAULT_RESOLUTION} entries.
      *
      * @param grd    the gradient
      * @param xOrig  the origin x coordinate
      * @param yOrig  the origin y coordinate
      * @param radius the radius
-     * @param easing the easing function
+     * @param easing the easing function supplier
+     * @param pool   the fork join pool
      * @param target the output image
      * @return the gradient image
-     * @see Gradient#eval(Gradient, float, Lab.AbstrEasing, Lab)
+     * @see GradientLut#evalHex(GradientLut, float)
      */
     public static Img gradientRadial(
         final Gradient grd,
         final float xOrig,
         final float yOrig,
         final float radius,
-        final Lab.AbstrEasing easing,
+        final Supplier<? extends Lab.AbstrEasing> easing,
+        final ForkJoinPool pool,
         final Img target) {
 
         final int wTrg = target.width;
@@ -2741,15 +2918,16 @@ public class Img {
         final float yon1 = yOrig - 1.0f;
         final float xop1 = xOrig + 1.0f;
 
-        final Lab trgLab = new Lab();
-        final int len = target.pixels.length;
-        for (int i = 0; i < len; ++i) {
-            final float ay = yon1 + hInv2 * (float) (i / wTrg);
-            final float ax = xop1 - wInv2 * (i % wTrg);
-            final float fac = 1.0f - (ax * ax + ay * ay) * rsqInv;
-            Gradient.eval(grd, fac, easing, trgLab);
-            target.pixels[i] = trgLab.toHexLongSat();
-        }
+        final GradientLut lut = new GradientLut(grd,
+            GradientLut.DEFAULT_RESOLUTION, easing.get());
+        Parallel.forRange(pool, 0, hTrg, Parallel.rowGrain(wTrg), (yStart, yEnd) -> {
+            for (int i = yStart * wTrg, iEnd = yEnd * wTrg; i < iEnd; ++i) {
+                final float ay = yon1 + hInv2 * (float) (i / wTrg);
+                final float ax = xop1 - wInv2 * (i % wTrg);
+                final float fac = 1.0f - (ax * ax + ay * ay) * rsqInv;
+                target.pixels[i] = GradientLut.evalHex(lut, fac);
+            }
+        });
 
         return target;
     }
@@ -2833,6 +3011,39 @@ public class Img {
         final Lab.AbstrEasing easing,
         final Img target) {
 
+        return Img.gradientSweep(grd, xOrig, yOrig, radians, () -> easing, null, target);
+    }
+
+    /**
+     * Generates a conic gradient, where the factor rotates on the z axis
+     * around an origin point. Best used with square images; for other aspect
+     * ratios, the origin should be adjusted accordingly.
+     * <br>
+     * <br>
+     * The gradient is baked once to a {@link GradientLut}, which all bands
+     * of rows processed by the pool share. Steps are rounded to the nearest
+     * of {@link GradientLut#DEFAULT_RESOLUTION} entries.
+     *
+     * @param grd     the gradient
+     * @param xOrig   the origin x coordinate
+     * @param yOrig   the origin y coordinate
+     * @param radians the angle in radians
+     * @param easing  the easing function supplier
+     * @param pool    the fork join pool
+     * @param target  the target image
+     * @return the gradient image
+     * @see GradientLut#evalHex(GradientLut, float)
+     * @see Utils#mod1(float)
+     */
+    public static Img gradientSweep(
+        final Gradient grd,
+        final float xOrig,
+        final float yOrig,
+        final float radians,
+        final Supplier<? extends Lab.AbstrEasing> easing,
+        final ForkJoinPool pool,
+        final Img target) {
+
         final int wTrg = target.width;
         final int hTrg = target.height;
 
@@ -2841,17 +3052,18 @@ public class Img {
         final double hInv = 1.0d / (hTrg - 1.0d);
         final double xo = (xOrig * 0.5d + 0.5d) * aspect * 2.0d - 1.0d;
 
-        final Lab trgLab = new Lab();
-        final int len = target.pixels.length;
-        for (int i = 0; i < len; ++i) {
-            final double xn = wInv * (i % wTrg);
-            final double yn = hInv * (float) (i / wTrg);
-            final float fac = Utils.mod1((float) ((Math.atan2(1.0d
-                - (yn + yn + (double) yOrig), xn + xn - xo - 1.0d)
-                - (double) radians) * Utils.ONE_TAU_D));
-            Gradient.eval(grd, fac, easing, trgLab);
-            target.pixels[i] = trgLab.toHexLongSat();
-        }
+        final GradientLut lut = new GradientLut(grd,
+            GradientLut.DEFAULT_RESOLUTION, easing.get());
+        Parallel.forRange(pool, 0, hTrg, Parallel.rowGrain(wTrg), (yStart, yEnd) -> {
+            for (int i = yStart * wTrg, iEnd = yEnd * wTrg; i < iEnd; ++i) {
+                final double xn = wInv * (i % wTrg);
+                final double yn = hInv * (float) (i / wTrg);
+                final float fac = Utils.mod1((float) ((Math.atan2(1.0d
+                    - (yn + yn + (double) yOrig), xn + xn - xo - 1.0d)
+                    - (double) radians) * Utils.ONE_TAU_D));
+                target.pixels[i] = GradientLut.evalHex(lut, fac);
+            }
+        });
 
         return target;
     }
@@ -2930,23 +3142,28 @@ public class Img {
         }
 
         final float u = 1.0f - fac;
+        if (Img.USE_VECTOR) {
+            ImgVector.grayscale(source.pixels, u, 0, len, target.pixels);
+            return target;
+        }
+
         final Lab lab = new Lab();
-        final HashMap<Long, Long> convert = new HashMap<>(512, 0.75f);
+        final LongLongMap convert = new LongLongMap();
         convert.put(Img.CLEAR_PIXEL, Img.CLEAR_PIXEL);
 
         for (int i = 0; i < len; ++i) {
             final long srcPixel = source.pixels[i];
-            final Long srcPixelObj = srcPixel;
+            final int idx = convert.indexOf(srcPixel);
             final long trgPixel;
 
-            if (convert.containsKey(srcPixelObj)) {
-                trgPixel = convert.get(srcPixelObj);
+            if (idx > -1) {
+                trgPixel = convert.valueAt(idx);
             } else {
                 Lab.fromHex(srcPixel, lab);
                 lab.a *= u;
                 lab.b *= u;
                 trgPixel = lab.toHexLongSat();
-                convert.put(srcPixelObj, trgPixel);
+                convert.putAt(idx, srcPixel, trgPixel);
             }
 
             target.pixels[i] = trgPixel;
@@ -2971,6 +3188,12 @@ public class Img {
         }
 
         final int len = source.pixels.length;
+        if (Img.USE_VECTOR) {
+            ImgVector.andOr(source.pixels, Img.TL_MASK, Img.CLEAR_PIXEL, 0, len,
+                target.pixels);
+            return target;
+        }
+
         for (int i = 0; i < len; ++i) {
             target.pixels[i] = source.pixels[i] & Img.TL_MASK | Img.CLEAR_PIXEL;
         }
@@ -2978,6 +3201,68 @@ public class Img {
         return target;
     }
 
+    /**
+     * Hashes an image's width, height and pixels to a 64-bit integer. Pixels
+     * are read in four interleaved lanes, mixed and merged in the manner of
+     * <a href="https://github.com/Cyan4973/xxHash">xxHash64</a>, though the
+     * result does not match that of xxHash64 over the image's bytes.
+     * Intended to identify an image, e.g., as a key in {@link ImgCache}, not
+     * for security.
+     *
+     * @param source the image
+     * @return the hash
+     */
+    public static long hash(final Img source) {
+
+        final long p1 = 0x9e37_79b1_85eb_ca87L;
+        final long p2 = 0xc2b2_ae3d_27d4_eb4fL;
+        final long p3 = 0x1656_67b1_9e37_79f9L;
+        final long p4 = 0x85eb_ca77_c2b2_ae63L;
+        final long p5 = 0x27d4_eb2f_1656_67c5L;
+
+        final long[] srcPixels = source.pixels;
+        final int len = srcPixels.length;
+        final int len4 = len - len % 4;
+
+        long h;
+        int i = 0;
+        if (len4 > 0) {
+            long v1 = p1 + p2;
+            long v2 = p2;
+            long v3 = 0L;
+            long v4 = -p1;
+            for (; i < len4; i += 4) {
+                v1 = Long.rotateLeft(v1 + srcPixels[i] * p2, 31) * p1;
+                v2 = Long.rotateLeft(v2 + srcPixels[i + 1] * p2, 31) * p1;
+                v3 = Long.rotateLeft(v3 + srcPixels[i + 2] * p2, 31) * p1;
+                v4 = Long.rotateLeft(v4 + srcPixels[i + 3] * p2, 31) * p1;
+            }
+
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7)
+                + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = (h ^ Long.rotateLeft(v1 * p2, 31) * p1) * p1 + p4;
+            h = (h ^ Long.rotateLeft(v2 * p2, 31) * p1) * p1 + p4;
+            h = (h ^ Long.rotateLeft(v3 * p2, 31) * p1) * p1 + p4;
+            h = (h ^ Long.rotateLeft(v4 * p2, 31) * p1) * p1 + p4;
+        } else {
+            h = p5;
+        }
+
+        h += (long) source.width << 0x20L | source.height & 0xffff_ffffL;
+        for (; i < len; ++i) {
+            h ^= Long.rotateLeft(srcPixels[i] * p2, 31) * p1;
+            h = Long.rotateLeft(h, 27) * p1 + p4;
+        }
+
+        /* Avalanche. */
+        h ^= h >>> 33;
+        h *= p2;
+        h ^= h >>> 29;
+        h *= p3;
+        h ^= h >>> 32;
+        return h;
+    }
+
     /**
      * Inverts all channels of an image.
      *
@@ -3356,6 +3641,30 @@ public class Img {
         final Lab.AbstrEasing mixer,
         final Img target) {
 
+        return Img.mix(orig, dest, fac, () -> mixer, null, target);
+    }
+
+    /**
+     * Mixes between two images by a factor. Mixing functions may hold
+     * temporary colors, so a new one is supplied for each band of rows
+     * processed by the pool.
+     *
+     * @param orig   the origin image
+     * @param dest   the destination image
+     * @param fac    the factor
+     * @param mixer  the mixing function supplier
+     * @param pool   the fork join pool
+     * @param target the output image
+     * @return the mixed image
+     */
+    public static Img mix(
+        final Img orig,
+        final Img dest,
+        final float fac,
+        final Supplier<? extends Lab.AbstrEasing> mixer,
+        final ForkJoinPool pool,
+        final Img target) {
+
         if (!Img.similar(orig, dest)) {
             System.err.println("Cannot mix between two images of unequal sizes.");
             return target;
@@ -3381,16 +3690,27 @@ public class Img {
         }
 
         final Float tObj = t;
-        final Lab oLab = new Lab();
-        final Lab dLab = new Lab();
-        final Lab tLab = new Lab();
+        final int w = target.width;
+        final int h = target.height;
+        Parallel.forRange(pool, 0, h, Parallel.rowGrain(w), (yStart, yEnd) -> {
+            final Lab.AbstrEasing bandMixer = mixer.get();
+            if (Img.USE_VECTOR && bandMixer.getClass() == Lab.MixLab.class) {
+                ImgVector.mix(orig.pixels, dest.pixels, tObj, yStart * w,
+                    yEnd * w, target.pixels);
+                return;
+            }
 
-        for (int i = 0; i < len; ++i) {
-            Lab.fromHex(dest.pixels[i], dLab);
-            Lab.fromHex(orig.pixels[i], oLab);
-            mixer.applyUnclamped(oLab, dLab, tObj, tLab);
-            target.pixels[i] = tLab.toHexLongSat();
-        }
+            final Lab oLab = new Lab();
+            final Lab dLab = new Lab();
+            final Lab tLab = new Lab();
+
+            for (int i = yStart * w, iEnd = yEnd * w; i < iEnd; ++i) {
+                Lab.fromHex(dest.pixels[i], dLab);
+                Lab.fromHex(orig.pixels[i], oLab);
+                bandMixer.applyUnclamped(oLab, dLab, tObj, tLab);
+                target.pixels[i] = tLab.toHexLongSat();
+            }
+        });
 
         return target;
     }
@@ -3438,6 +3758,11 @@ public class Img {
         }
 
         final long alpha = Utils.round(Utils.abs(a01) * 0xffff);
+        if (Img.USE_VECTOR && alpha <= 0xffffL) {
+            ImgVector.mulAlpha(source.pixels, alpha, 0, len, target.pixels);
+            return target;
+        }
+
         for (int i = 0; i < len; ++i) {
             final long c = source.pixels[i];
             final long t16Src = c >> Img.T_SHIFT & 0xffffL;
@@ -3480,7 +3805,8 @@ public class Img {
             return target;
         }
 
-        final HashMap<Long, Lab> uniques = new HashMap<>(512, 0.75f);
+        final LongIntMap uniques = new LongIntMap();
+        final ArrayList<Lab> uniqueLabs = new ArrayList<>(512);
 
         float minLight = Float.MAX_VALUE;
         float maxLight = -Float.MAX_VALUE;
@@ -3489,8 +3815,8 @@ public class Img {
 
         for (int i = 0; i < len; ++i) {
             final long srcPixel = source.pixels[i];
-            final Long srcPixelObj = srcPixel;
-            if (!uniques.containsKey(srcPixelObj)) {
+            final int idx = uniques.indexOf(srcPixel);
+            if (idx < 0) {
                 final Lab lab = Lab.fromHex(srcPixel, new Lab());
                 if (lab.alpha > 0.0f) {
                     final float light = lab.l;
@@ -3503,7 +3829,8 @@ public class Img {
                     sumLight += light;
                     ++sumTally;
                 }
-                uniques.put(srcPixelObj, lab);
+                uniques.putAt(idx, srcPixel, uniqueLabs.size());
+                uniqueLabs.add(lab);
             }
         }
 
@@ -3523,17 +3850,19 @@ public class Img {
         final float lumMintDenom = minLight * tDenom;
 
         final Lab defLab = Lab.clearBlack(new Lab());
-        final HashMap<Long, Long> convert = new HashMap<>(512, 0.75f);
+        final LongLongMap convert = new LongLongMap();
         convert.put(Img.CLEAR_PIXEL, Img.CLEAR_PIXEL);
 
         for (int j = 0; j < len; ++j) {
-            final Long srcPixelObj = source.pixels[j];
+            final long srcPixel = source.pixels[j];
+            final int idx = convert.indexOf(srcPixel);
             final long trgPixel;
 
-            if (convert.containsKey(srcPixelObj)) {
-                trgPixel = convert.get(srcPixelObj);
+            if (idx > -1) {
+                trgPixel = convert.valueAt(idx);
             } else {
-                final Lab lab = uniques.getOrDefault(srcPixelObj, defLab);
+                final int uIdx = uniques.getOrDefault(srcPixel, -1);
+                final Lab lab = uIdx > -1 ? uniqueLabs.get(uIdx) : defLab;
 
                 if (gtZero) {
                     lab.l = u * lab.l + lab.l * tDenom - lumMintDenom;
@@ -3542,7 +3871,7 @@ public class Img {
                 }
 
                 trgPixel = lab.toHexLongSat();
-                convert.put(srcPixelObj, trgPixel);
+                convert.putAt(idx, srcPixel, trgPixel);
             }
 
             target.pixels[j] = trgPixel;
@@ -3580,6 +3909,11 @@ public class Img {
             target.pixels = new long[len];
         }
 
+        if (Img.USE_VECTOR) {
+            ImgVector.andOr(source.pixels, -1L, Img.T_MASK, 0, len, target.pixels);
+            return target;
+        }
+
         for (int i = 0; i < len; ++i) {
             target.pixels[i] = source.pixels[i] | Img.T_MASK;
         }
@@ -3660,6 +3994,34 @@ public class Img {
         final int capacity,
         final boolean inclAlpha) {
 
+        return Img.paletteExtract(source, threshold, capacity, inclAlpha, null);
+    }
+
+    /**
+     * Extracts a palette from an image. If there are more colors than the
+     * threshold, engages an octree to reduce the number of colors. The higher
+     * the octree node capacity, the fewer colors will be in the palette. Alpha
+     * is no longer supported once the octree is engaged. The octree is built
+     * in bulk with a fork join pool.
+     * <br>
+     * <br>
+     * Clear black is always the first entry in the palette.
+     *
+     * @param source    the input image
+     * @param threshold the threshold
+     * @param capacity  the octree capacity
+     * @param inclAlpha whether to include alpha
+     * @param pool      the fork join pool
+     * @return the palette
+     * @see Octree#insertAll(Vec3[], ForkJoinPool)
+     */
+    public static Lab[] paletteExtract(
+        final Img source,
+        final int threshold,
+        final int capacity,
+        final boolean inclAlpha,
+        final ForkJoinPool pool) {
+
         final long mask = inclAlpha ? 0 : Img.T_MASK;
         final long[] srcPixels = source.pixels;
         final HashMap<Long, Integer> uniqueOpaques = new HashMap<>(512, 0.75f);
@@ -3694,11 +4056,13 @@ public class Img {
         final Lab lab = new Lab();
 
         /* Place colors in octree. */
-        while (uniquesItr.hasNext()) {
+        final Vec3[] points = new Vec3[uniquesLen];
+        for (int i = 0; uniquesItr.hasNext(); ++i) {
             final Entry<Long, Integer> entry = uniquesItr.next();
             Lab.fromHex(entry.getKey(), lab);
-            oct.insert(new Vec3(lab.a, lab.b, lab.l));
+            points[i] = new Vec3(lab.a, lab.b, lab.l);
         }
+        oct.insertAll(points, pool);
         oct.cull();
 
         /* Trying to use package level with an array list throws an exception. */
@@ -3715,6 +4079,85 @@ public class Img {
         return arr;
     }
 
+    /**
+     * Maps each pixel in an image to its nearest match in a palette, without
+     * dithering. The source alpha is retained. If the palette has no opaque
+     * swatches, pixels become clear black.
+     *
+     * @param source  the input image
+     * @param palette the palette
+     * @param target  the output image
+     * @return the mapped image
+     */
+    public static Img paletteMap(
+        final Img source,
+        final Lab[] palette,
+        final Img target) {
+
+        return Img.paletteMap(source, palette, null, target);
+    }
+
+    /**
+     * Maps each pixel in an image to its nearest match in a palette, without
+     * dithering. The source alpha is retained. If the palette has no opaque
+     * swatches, pixels become clear black.
+     * <br>
+     * <br>
+     * The palette's k-d tree is built once. Because a {@link PaletteMatcher}
+     * holds temporary values, each band of rows gets a copy with its own
+     * cache.
+     *
+     * @param source  the input image
+     * @param palette the palette
+     * @param pool    the fork join pool
+     * @param target  the output image
+     * @return the mapped image
+     */
+    public static Img paletteMap(
+        final Img source,
+        final Lab[] palette,
+        final ForkJoinPool pool,
+        final Img target) {
+
+        final int wSrc = source.width;
+        final int hSrc = source.height;
+        final long[] srcPixels = source.pixels;
+        final int srcLen = srcPixels.length;
+
+        if (!Img.similar(source, target)) {
+            target.width = wSrc;
+            target.height = hSrc;
+            target.pixels = new long[srcLen];
+        }
+
+        final int palLen = palette.length;
+        final long[] swatches = new long[palLen];
+        for (int j = 0; j < palLen; ++j) {
+            final Lab swatch = palette[j];
+            swatches[j] = swatch != null
+                ? swatch.toHexLongSat() & Img.LAB_MASK
+                : Img.CLEAR_PIXEL;
+        }
+
+        final long[] trgPixels = target.pixels;
+        final PaletteMatcher shared = new PaletteMatcher(palette);
+        if (shared.length() < 1) {
+            Arrays.fill(trgPixels, 0, srcLen, Img.CLEAR_PIXEL);
+            return target;
+        }
+
+        Parallel.forRange(pool, 0, hSrc, Parallel.rowGrain(wSrc), (yStart, yEnd) -> {
+            final PaletteMatcher matcher = new PaletteMatcher(shared);
+            for (int i = yStart * wSrc, iEnd = yEnd * wSrc; i < iEnd; ++i) {
+                final long srcPixel = srcPixels[i];
+                final int idx = matcher.nearestIndex(srcPixel);
+                trgPixels[i] = srcPixel & Img.T_MASK | swatches[idx];
+            }
+        });
+
+        return target;
+    }
+
     /**
      * Generates an image with random pixels for diagnostic purposes.
      *
@@ -3802,17 +4245,17 @@ public class Img {
 
         final long toPixel = toColor.toHexLongSat();
         final Lab lab = new Lab();
-        final HashMap<Long, Long> convert = new HashMap<>(512, 0.75f);
+        final LongLongMap convert = new LongLongMap();
         for (int i = 0; i < len; ++i) {
             final long srcPixel = source.pixels[i];
-            final Long srcPixelObj = srcPixel;
+            final int idx = convert.indexOf(srcPixel);
             final long trgPixel;
-            if (convert.containsKey(srcPixelObj)) {
-                trgPixel = convert.get(srcPixelObj);
+            if (idx > -1) {
+                trgPixel = convert.valueAt(idx);
             } else {
                 Lab.fromHex(srcPixel, lab);
                 trgPixel = Lab.dist(lab, fromColor, alphaScalar) <= tolerance ? toPixel : srcPixel;
-                convert.put(srcPixelObj, trgPixel);
+                convert.putAt(idx, srcPixel, trgPixel);
             }
             target.pixels[i] = trgPixel;
         }
@@ -3869,6 +4312,26 @@ public class Img {
         final int hTrg,
         final Img target) {
 
+        return Img.resizeBilinear(source, wTrg, hTrg, null, target);
+    }
+
+    /**
+     * Resizes a source image and places the pixels into a target image.
+     *
+     * @param source the source image
+     * @param wTrg   the target width
+     * @param hTrg   the target height
+     * @param pool   the fork join pool
+     * @param target the target image
+     * @return the resized image
+     */
+    public static Img resizeBilinear(
+        final Img source,
+        final int wTrg,
+        final int hTrg,
+        final ForkJoinPool pool,
+        final Img target) {
+
         final int wTrgVerif = Utils.clamp(Math.abs(wTrg), 1, Img.MAX_DIMENSION);
         final int hTrgVerif = Utils.clamp(Math.abs(hTrg), 1, Img.MAX_DIMENSION);
 
@@ -3894,11 +4357,13 @@ public class Img {
         final int trgLen = wTrgVerif * hTrgVerif;
         final long[] trgPixels = new long[trgLen];
 
-        for (int i = 0; i < trgLen; ++i) {
-            trgPixels[i] = Img.sampleBilinear(source,
-                tx * (i % wTrgVerif) + ox,
-                ty * ((float) (i / wTrgVerif)) + oy);
-        }
+        Parallel.forRange(pool, 0, hTrgVerif, Parallel.rowGrain(wTrgVerif), (yStart, yEnd) -> {
+            for (int i = yStart * wTrgVerif, iEnd = yEnd * wTrgVerif; i < iEnd; ++i) {
+                trgPixels[i] = Img.sampleBilinear(source,
+                    tx * (i % wTrgVerif) + ox,
+                    ty * ((float) (i / wTrgVerif)) + oy);
+            }
+        });
 
         target.width = wTrgVerif;
         target.height = hTrgVerif;
@@ -4094,6 +4559,28 @@ public class Img {
         final float angle,
         final Img target) {
 
+        return Img.rotateBilinear(source, angle, null, target);
+    }
+
+    /**
+     * Rotates the pixels of a source image around the image center by an angle
+     * in radians. Where the angle is approximately 0, 90, 180 and 270 degrees,
+     * resorts to faster methods. Uses bilinear filtering.
+     *
+     * @param source the source pixels
+     * @param angle  the angle in radians
+     * @param pool   the fork join pool
+     * @param target the target pixels
+     * @return rotated pixels
+     * @see Utils#mod(int, int)
+     * @see Utils#round(float)
+     */
+    public static Img rotateBilinear(
+        final Img source,
+        final float angle,
+        final ForkJoinPool pool,
+        final Img target) {
+
         final long[] srcPixels = source.pixels;
         final int srcLen = srcPixels.length;
         final int deg = Utils.mod(Utils.round(angle * Utils.RAD_TO_DEG), 360);
@@ -4124,7 +4611,7 @@ public class Img {
                     source,
                     (float) Math.cos(angle),
                     (float) Math.sin(angle),
-                    target);
+                    pool, target);
             }
         }
     }
@@ -4379,6 +4866,27 @@ public class Img {
         final float angle,
         final Img target) {
 
+        return Img.skewXBilinear(source, angle, null, target);
+    }
+
+    /**
+     * Skews the pixels of a source image vertically. If the angle is
+     * approximately zero, copies the source array. If the angle is
+     * approximately {@link Utils#HALF_PI}, {@value Utils#HALF_PI},
+     * returns a clear image.
+     *
+     * @param source the source image
+     * @param angle  the angle in radians
+     * @param pool   the fork join pool
+     * @param target the target image
+     * @return the skewed array
+     */
+    public static Img skewXBilinear(
+        final Img source,
+        final float angle,
+        final ForkJoinPool pool,
+        final Img target) {
+
         final int wSrc = source.width;
         final int hSrc = source.height;
         final int srcLen = source.pixels.length;
@@ -4415,18 +4923,39 @@ public class Img {
 
                 final int trgLen = wTrg * hSrc;
                 final long[] trgPixels = new long[trgLen];
-                for (int i = 0; i < trgLen; ++i) {
-                    final float yTrg = (float) (i / wTrg);
-                    trgPixels[i] = Img.sampleBilinear(source,
-                        xDiff + i % wTrg + tana * (yTrg - yCenter), yTrg);
-                }
+                Parallel.forRange(pool, 0, hSrc, Parallel.rowGrain(wTrg), (yStart, yEnd) -> {
+                    for (int i = yStart * wTrg, iEnd = yEnd * wTrg; i < iEnd; ++i) {
+                        final float yTrg = (float) (i / wTrg);
+                        trgPixels[i] = Img.sampleBilinear(source,
+                            xDiff + i % wTrg + tana * (yTrg - yCenter), yTrg);
+                    }
+                });
 
                 target.width = wTrg;
                 target.pixels = trgPixels;
 
-                return target;
-            }
-        }
+                return target;
+            }
+        }
+    }
+
+    /**
+     * Skews the pixels of a source image vertically. If the angle is
+     * approximately zero, copies the source array. If the angle is
+     * approximately {@link Utils#HALF_PI}, {@value Utils#HALF_PI},
+     * returns a clear image.
+     *
+     * @param source the source image
+     * @param angle  the angle in radians
+     * @param target the target image
+     * @return the skewed array
+     */
+    public static Img skewYBilinear(
+        final Img source,
+        final float angle,
+        final Img target) {
+
+        return Img.skewYBilinear(source, angle, null, target);
     }
 
     /**
@@ -4437,12 +4966,14 @@ public class Img {
      *
      * @param source the source image
      * @param angle  the angle in radians
+     * @param pool   the fork join pool
      * @param target the target image
      * @return the skewed array
      */
     public static Img skewYBilinear(
         final Img source,
         final float angle,
+        final ForkJoinPool pool,
         final Img target) {
 
         final int wSrc = source.width;
@@ -4481,11 +5012,13 @@ public class Img {
 
                 final int trgLen = wSrc * hTrg;
                 final long[] trgPixels = new long[trgLen];
-                for (int i = 0; i < trgLen; ++i) {
-                    final float xTrg = i % wSrc;
-                    trgPixels[i] = Img.sampleBilinear(source,
-                        xTrg, yDiff + (float) (i / wSrc) + tana * (xTrg - xCenter));
-                }
+                Parallel.forRange(pool, 0, hTrg, Parallel.rowGrain(wSrc), (yStart, yEnd) -> {
+                    for (int i = yStart * wSrc, iEnd = yEnd * wSrc; i < iEnd; ++i) {
+                        final float xTrg = i % wSrc;
+                        trgPixels[i] = Img.sampleBilinear(source,
+                            xTrg, yDiff + (float) (i / wSrc) + tana * (xTrg - xCenter));
+                    }
+                });
 
                 target.height = hTrg;
                 target.pixels = trgPixels;
@@ -4520,6 +5053,21 @@ public class Img {
             target.pixels = new long[len];
         }
 
+        if (Img.USE_VECTOR) {
+
+            /* Find the least 16-bit alpha that passes the threshold. */
+            long t16 = Math.min((long) (a01 * 65535.0f), 0x10000L);
+            while (t16 > 0L && (t16 - 1L) / 65535.0f >= a01) {
+                --t16;
+            }
+            while (t16 <= 0xffffL && t16 / 65535.0f < a01) {
+                ++t16;
+            }
+
+            ImgVector.thresholdAlpha(source.pixels, t16, 0, len, target.pixels);
+            return target;
+        }
+
         for (int i = 0; i < len; ++i) {
             final long c = source.pixels[i];
             final float t01Src = (c >> Img.T_SHIFT & 0xffffL) / 65535.0f;
@@ -4549,6 +5097,29 @@ public class Img {
         final boolean preserveLight,
         final Img target) {
 
+        return Img.tint(source, tint, fac, preserveLight, null, target);
+    }
+
+    /**
+     * Tints an image with a color according to a factor. If the preserveLight
+     * flag is true, the source image's original lightness is retained.
+     *
+     * @param source        the source pixels
+     * @param tint          the tint color
+     * @param fac           the factor
+     * @param preserveLight the preserve light flag
+     * @param pool          the fork join pool
+     * @param target        the target pixels
+     * @return the tinted pixels
+     */
+    public static Img tint(
+        final Img source,
+        final Lab tint,
+        final float fac,
+        final boolean preserveLight,
+        final ForkJoinPool pool,
+        final Img target) {
+
         final int wSrc = source.width;
         final int hSrc = source.height;
         final int srcLen = source.pixels.length;
@@ -4559,30 +5130,38 @@ public class Img {
             target.pixels = new long[srcLen];
         }
 
-        final Lab lab = new Lab();
         final float t = Float.isNaN(fac) ? 1.0f : Utils.clamp01(fac);
         final float u = 1.0f - t;
-        final HashMap<Long, Long> convert = new HashMap<>(512, 0.75f);
+        Parallel.forRange(pool, 0, hSrc, Parallel.rowGrain(wSrc), (yStart, yEnd) -> {
+            if (Img.USE_VECTOR) {
+                ImgVector.tint(source.pixels, tint, t, preserveLight,
+                    yStart * wSrc, yEnd * wSrc, target.pixels);
+                return;
+            }
 
-        for (int i = 0; i < srcLen; ++i) {
-            final long srcPixel = source.pixels[i];
-            final Long srcPixelObj = srcPixel;
-            final long trgPixel;
+            final Lab lab = new Lab();
+            final LongLongMap convert = new LongLongMap();
 
-            if (convert.containsKey(srcPixelObj)) {
-                trgPixel = convert.get(srcPixelObj);
-            } else {
-                Lab.fromHex(srcPixel, lab);
-                lab.l = preserveLight ? lab.l : u * lab.l + t * tint.l;
-                lab.a = u * lab.a + t * tint.a;
-                lab.b = u * lab.b + t * tint.b;
-                lab.alpha = u * lab.alpha + t * (lab.alpha * tint.alpha);
-                trgPixel = lab.toHexLongSat();
-                convert.put(srcPixelObj, trgPixel);
-            }
+            for (int i = yStart * wSrc, iEnd = yEnd * wSrc; i < iEnd; ++i) {
+                final long srcPixel = source.pixels[i];
+                final int idx = convert.indexOf(srcPixel);
+                final long trgPixel;
 
-            target.pixels[i] = trgPixel;
-        }
+                if (idx > -1) {
+                    trgPixel = convert.valueAt(idx);
+                } else {
+                    Lab.fromHex(srcPixel, lab);
+                    lab.l = preserveLight ? lab.l : u * lab.l + t * tint.l;
+                    lab.a = u * lab.a + t * tint.a;
+                    lab.b = u * lab.b + t * tint.b;
+                    lab.alpha = u * lab.alpha + t * (lab.alpha * tint.alpha);
+                    trgPixel = lab.toHexLongSat();
+                    convert.putAt(idx, srcPixel, trgPixel);
+                }
+
+                target.pixels[i] = trgPixel;
+            }
+        });
 
         return target;
     }
@@ -4633,39 +5212,8 @@ public class Img {
         final Rgb.AbstrToneMap mapFunc,
         final boolean usePremul) {
 
-        final int len = source.pixels.length;
-        final int[] argb32s = new int[len];
-        final HashMap<Long, Integer> convert = new HashMap<>(512, 0.75f);
-        convert.put(Img.CLEAR_PIXEL, 0);
-
-        final Rgb mapped = new Rgb();
-        final Rgb srgb = new Rgb();
-        final Rgb lrgb = new Rgb();
-        final Vec4 xyz = new Vec4();
-        final Lab lab = new Lab();
-
-        for (int i = 0; i < len; ++i) {
-            final long tlab64 = source.pixels[i];
-            final Long tlab64Obj = tlab64;
-            final int argb32;
-
-            if (convert.containsKey(tlab64Obj)) {
-                argb32 = convert.get(tlab64Obj);
-            } else {
-                Lab.fromHex(tlab64, lab);
-                Rgb.srLab2TosRgb(lab, srgb, lrgb, xyz);
-                mapFunc.apply(srgb, mapped);
-                if (usePremul) {
-                    Rgb.premul(mapped, mapped);
-                }
-                argb32 = mapped.toHexIntSat();
-                convert.put(tlab64Obj, argb32);
-            }
-
-            argb32s[i] = argb32;
-        }
-
-        return argb32s;
+        return LabLut.toArgb32(source.pixels, mapFunc, usePremul,
+            new int[source.pixels.length]);
     }
 
     /**
@@ -4705,6 +5253,58 @@ public class Img {
         return result;
     }
 
+    /**
+     * Creates an array of materials from the swatches of a palette that are
+     * the nearest match to at least one non-transparent pixel of an image.
+     * Materials are in palette order.
+     *
+     * @param source  the source image
+     * @param palette the palette
+     * @return the materials
+     * @see Img#paletteMap(Img, Lab[], Img)
+     */
+    public static MaterialSolid[] toMaterials(
+        final Img source,
+        final Lab[] palette) {
+
+        final PaletteMatcher matcher = new PaletteMatcher(palette);
+        final int palLen = palette.length;
+        final boolean[] used = new boolean[palLen];
+        int usedCount = 0;
+        if (matcher.length() > 0) {
+            final long[] srcPixels = source.pixels;
+            for (final long srcPixel : srcPixels) {
+                if ((srcPixel & Img.T_MASK) != 0L) {
+                    final int idx = matcher.nearestIndex(srcPixel);
+                    if (!used[idx]) {
+                        used[idx] = true;
+                        ++usedCount;
+                    }
+                }
+            }
+        }
+
+        final Rgb srgb = new Rgb();
+        final Rgb lrgb = new Rgb();
+        final Vec4 xyz = new Vec4();
+
+        final MaterialSolid[] result = new MaterialSolid[usedCount];
+        for (int i = 0, j = 0; i < palLen; ++i) {
+            if (used[i]) {
+                Rgb.srLab2TosRgb(palette[i], srgb, lrgb, xyz);
+
+                final MaterialSolid material = new MaterialSolid();
+                material.setStroke(false);
+                material.setFill(srgb);
+                material.setName("Material." + Rgb.toHexString(srgb));
+                result[j] = material;
+                ++j;
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Creates a mesh from the non-transparent pixels of an image. Intended for
      * smaller images with relatively few colors.
@@ -4719,21 +5319,44 @@ public class Img {
         final PolyType poly,
         final Mesh2 target) {
 
+        return Img.toMesh(source, poly, MeshPolicy.PIXEL, target);
+    }
+
+    /**
+     * Creates a mesh from the non-transparent pixels of an image. When the
+     * policy is {@link MeshPolicy#GREEDY}, adjacent pixels are merged into
+     * rectangles, so an image with large opaque areas yields far fewer
+     * faces. Texture coordinates span each rectangle, so the image still
+     * maps onto the mesh.
+     *
+     * @param source the source pixels
+     * @param poly   the polygon type
+     * @param policy the mesh policy
+     * @param target the output mesh
+     * @return the mesh
+     */
+    public static Mesh2 toMesh(
+        final Img source,
+        final PolyType poly,
+        final MeshPolicy policy,
+        final Mesh2 target) {
+
         final long[] srcPixels = source.pixels;
         final int srcLen = srcPixels.length;
-        final ArrayList<Integer> nonZeroIdcs = new ArrayList<>(srcLen);
+        final int[] labels = new int[srcLen];
         for (int i = 0; i < srcLen; ++i) {
-            if ((srcPixels[i] & Img.T_MASK) != 0L) {
-                nonZeroIdcs.add(i);
-            }
+            labels[i] = (srcPixels[i] & Img.T_MASK) != 0L ? 0 : -1;
         }
 
         final int wSrc = source.width;
         final int hSrc = source.height;
+        final IntList[] rects = {new IntList()};
+        Img.toRects(labels, wSrc, hSrc, policy, rects);
+
         final float right = wSrc > hSrc ? 0.5f : 0.5f * ((float) wSrc / (float) hSrc);
         final float top = wSrc <= hSrc ? 0.5f : 0.5f * ((float) hSrc / (float) wSrc);
         return Img.toMesh(
-            nonZeroIdcs, wSrc,
+            rects[0],
             -right, top, right, -top,
             1.0f / (float) wSrc, 1.0f / (float) hSrc,
             poly, target);
@@ -4751,25 +5374,68 @@ public class Img {
      */
     public static Mesh2[] toMeshes(final Img source, final PolyType poly) {
 
+        return Img.toMeshes(source, poly, MeshPolicy.PIXEL);
+    }
+
+    /**
+     * Creates an array of meshes from the non-transparent pixels of an image.
+     * Each unique color is assigned a mesh. Each mesh's
+     * {@link Mesh#materialIndex} corresponds to its index in the array, which
+     * follows the ascending order of colors. When the policy is
+     * {@link MeshPolicy#GREEDY}, adjacent pixels of the same color are merged
+     * into rectangles.
+     *
+     * @param source the source image
+     * @param poly   the polygon type
+     * @param policy the mesh policy
+     * @return the meshes
+     */
+    public static Mesh2[] toMeshes(
+        final Img source,
+        final PolyType poly,
+        final MeshPolicy policy) {
+
         final long[] srcPixels = source.pixels;
         final int srcLen = srcPixels.length;
-        final TreeMap<Long, ArrayList<Integer>> islands = new TreeMap<>();
+
+        /* Find unique opaque colors, then number them in ascending order. */
+        final LongIntMap uniques = new LongIntMap();
+        long[] colors = new long[LongIntMap.DEFAULT_CAPACITY];
+        int colorCount = 0;
         for (int i = 0; i < srcLen; ++i) {
             final long srcHexLong = srcPixels[i];
             if ((srcHexLong & Img.T_MASK) != 0L) {
-                final Long srcHexObj = srcHexLong;
-                if (islands.containsKey(srcHexObj)) {
-                    islands.get(srcHexObj).add(i);
-                } else {
-                    final ArrayList<Integer> indices = new ArrayList<>();
-                    indices.add(i);
-                    islands.put(srcHexObj, indices);
+                final int idx = uniques.indexOf(srcHexLong);
+                if (idx < 0) {
+                    uniques.putAt(idx, srcHexLong, 0);
+                    if (colorCount == colors.length) {
+                        colors = Arrays.copyOf(colors, colorCount << 1);
+                    }
+                    colors[colorCount] = srcHexLong;
+                    ++colorCount;
                 }
             }
         }
 
+        Arrays.sort(colors, 0, colorCount);
+        final IntList[] rects = new IntList[colorCount];
+        for (int j = 0; j < colorCount; ++j) {
+            uniques.put(colors[j], j);
+            rects[j] = new IntList();
+        }
+
+        final int[] labels = new int[srcLen];
+        for (int i = 0; i < srcLen; ++i) {
+            final long srcHexLong = srcPixels[i];
+            labels[i] = (srcHexLong & Img.T_MASK) != 0L
+                ? uniques.getOrDefault(srcHexLong, -1)
+                : -1;
+        }
+
         final int wSrc = source.width;
         final int hSrc = source.height;
+        Img.toRects(labels, wSrc, hSrc, policy, rects);
+
         final float right = wSrc > hSrc
             ? 0.5f
             : 0.5f * ((float) wSrc / (float) hSrc);
@@ -4779,13 +5445,11 @@ public class Img {
         final float tou = 1.0f / (float) wSrc;
         final float tov = 1.0f / (float) hSrc;
 
-        final Mesh2[] result = new Mesh2[islands.size()];
-
-        final Iterator<Entry<Long, ArrayList<Integer>>> itr = islands.entrySet().iterator();
-        for (int j = 0; itr.hasNext(); ++j) {
+        final Mesh2[] result = new Mesh2[colorCount];
+        for (int j = 0; j < colorCount; ++j) {
             final Mesh2 mesh = new Mesh2();
             mesh.setMaterialIndex(j);
-            Img.toMesh(itr.next().getValue(), wSrc, -right, top, right, -top,
+            Img.toMesh(rects[j], -right, top, right, -top,
                 tou, tov, poly, mesh);
             result[j] = mesh;
         }
@@ -5156,6 +5820,230 @@ public class Img {
         return target;
     }
 
+    /**
+     * Adjusts a color in LCH. Colors with zero alpha are set to clear black.
+     * Acts as {@link Img#adjustLch(Img, Lch, GrayPolicy, Img)} for one
+     * color.
+     *
+     * @param source the color
+     * @param adjust the adjustment
+     * @param policy the gray policy
+     * @param lch    a temporary color
+     * @return the color
+     */
+    protected static Lab adjustLch(
+        final Lab source,
+        final Lch adjust,
+        final GrayPolicy policy,
+        final Lch lch) {
+
+        if (source.alpha <= 0.0f) {
+            return Lab.clearBlack(source);
+        }
+
+        Lch.fromLab(source, lch);
+
+        final float cTrg;
+        final float hTrg;
+        final boolean isGray = lch.c < Utils.EPSILON;
+        if (isGray) {
+            switch (policy) {
+                case COOL: {
+                    final float t = lch.l * 0.01f;
+                    final float u = 1.0f - t;
+                    final float hg = u * Lch.SR_HUE_SHADE + t * Lch.SR_HUE_LIGHT;
+                    cTrg = lch.c + adjust.c;
+                    hTrg = hg + adjust.h;
+                }
+                break;
+
+                case WARM: {
+                    final float t = lch.l * 0.01f;
+                    final float u = 1.0f - t;
+                    final float hg = u * Lch.SR_HUE_SHADE
+                        + t * (Lch.SR_HUE_LIGHT + 1.0f);
+                    cTrg = lch.c + adjust.c;
+                    hTrg = hg + adjust.h;
+                }
+                break;
+
+                case ZERO: {
+                    cTrg = lch.c + adjust.c;
+                    hTrg = adjust.h;
+                }
+                break;
+
+                case OMIT:
+
+                default: {
+                    cTrg = 0.0f;
+                    hTrg = 0.0f;
+                }
+            }
+        } else {
+            cTrg = lch.c + adjust.c;
+            hTrg = lch.h + adjust.h;
+        }
+
+        return Lab.fromLch(lch.l + adjust.l, cTrg, hTrg,
+            lch.alpha + adjust.alpha, source);
+    }
+
+    /**
+     * Blurs an array of pixels with a square box kernel. For each pixel, the
+     * kernel extends by step in 8 directions. Where the kernel is out of
+     * bounds, the central color is sampled, but its alpha is not tallied.
+     * <br>
+     * <br>
+     * The kernel is separable, so a horizontal pass finds running sums per
+     * row, then a vertical pass finds running sums of those per column.
+     * Sums are kept in integers of the 16-bit channels, so they are exact.
+     * The source and target arrays must not be the same.
+     *
+     * @param source the source pixels
+     * @param w      the image width
+     * @param h      the image height
+     * @param step   the kernel step
+     * @param pool   the fork join pool
+     * @param target the target pixels
+     */
+    protected static void blurBox(
+        final long[] source,
+        final int w,
+        final int h,
+        final int step,
+        final ForkJoinPool pool,
+        final long[] target) {
+
+        final int len = w * h;
+        final int wKrn = 1 + step * 2;
+        final double toAvg = 1.0d / ((double) wKrn * wKrn);
+
+        /*
+         * A row can have at most Img.MAX_DIMENSION pixels of 0xffff, so
+         * horizontal sums fit in a 32-bit integer.
+         */
+        final int[] hSumT = new int[len];
+        final int[] hSumL = new int[len];
+        final int[] hSumA = new int[len];
+        final int[] hSumB = new int[len];
+
+        Parallel.forRange(pool, 0, h, Parallel.rowGrain(w), (yStart, yEnd) -> {
+            for (int y = yStart; y < yEnd; ++y) {
+                final int row = y * w;
+                int tSum = 0;
+                int lSum = 0;
+                int aSum = 0;
+                int bSum = 0;
+
+                /* Prime the window with the columns to the right of x = 0. */
+                final int xPrime = Math.min(step, w);
+                for (int x = 0; x < xPrime; ++x) {
+                    final long hex = source[row + x];
+                    tSum += (int) (hex >> 0x30L & 0xffffL);
+                    lSum += (int) (hex >> 0x20L & 0xffffL);
+                    aSum += (int) (hex >> 0x10L & 0xffffL) - 0x8000;
+                    bSum += (int) (hex & 0xffffL) - 0x8000;
+                }
+
+                for (int x = 0; x < w; ++x) {
+                    final int xAdd = x + step;
+                    if (xAdd < w) {
+                        final long hex = source[row + xAdd];
+                        tSum += (int) (hex >> 0x30L & 0xffffL);
+                        lSum += (int) (hex >> 0x20L & 0xffffL);
+                        aSum += (int) (hex >> 0x10L & 0xffffL) - 0x8000;
+                        bSum += (int) (hex & 0xffffL) - 0x8000;
+                    }
+
+                    final int xSub = x - step - 1;
+                    if (xSub >= 0) {
+                        final long hex = source[row + xSub];
+                        tSum -= (int) (hex >> 0x30L & 0xffffL);
+                        lSum -= (int) (hex >> 0x20L & 0xffffL);
+                        aSum -= (int) (hex >> 0x10L & 0xffffL) - 0x8000;
+                        bSum -= (int) (hex & 0xffffL) - 0x8000;
+                    }
+
+                    final int i = row + x;
+                    hSumT[i] = tSum;
+                    hSumL[i] = lSum;
+                    hSumA[i] = aSum;
+                    hSumB[i] = bSum;
+                }
+            }
+        });
+
+        Parallel.forRange(pool, 0, w, Parallel.rowGrain(h), (xStart, xEnd) -> {
+            final int bandWidth = xEnd - xStart;
+            final long[] vSumT = new long[bandWidth];
+            final long[] vSumL = new long[bandWidth];
+            final long[] vSumA = new long[bandWidth];
+            final long[] vSumB = new long[bandWidth];
+            final Lab labAvg = new Lab();
+
+            /* Prime the window with the rows below y = 0. */
+            final int yPrime = Math.min(step, h);
+            for (int y = 0; y < yPrime; ++y) {
+                final int row = y * w + xStart;
+                for (int k = 0; k < bandWidth; ++k) {
+                    vSumT[k] += hSumT[row + k];
+                    vSumL[k] += hSumL[row + k];
+                    vSumA[k] += hSumA[row + k];
+                    vSumB[k] += hSumB[row + k];
+                }
+            }
+
+            for (int y = 0; y < h; ++y) {
+                final int yAdd = y + step;
+                if (yAdd < h) {
+                    final int row = yAdd * w + xStart;
+                    for (int k = 0; k < bandWidth; ++k) {
+                        vSumT[k] += hSumT[row + k];
+                        vSumL[k] += hSumL[row + k];
+                        vSumA[k] += hSumA[row + k];
+                        vSumB[k] += hSumB[row + k];
+                    }
+                }
+
+                final int ySub = y - step - 1;
+                if (ySub >= 0) {
+                    final int row = ySub * w + xStart;
+                    for (int k = 0; k < bandWidth; ++k) {
+                        vSumT[k] -= hSumT[row + k];
+                        vSumL[k] -= hSumL[row + k];
+                        vSumA[k] -= hSumA[row + k];
+                        vSumB[k] -= hSumB[row + k];
+                    }
+                }
+
+                final int hIn = Math.min(h - 1, yAdd) - Math.max(0, y - step) + 1;
+                final int row = y * w + xStart;
+                for (int k = 0; k < bandWidth; ++k) {
+                    final int x = xStart + k;
+                    final int wIn = Math.min(w - 1, x + step) - Math.max(0, x - step) + 1;
+
+                    /*
+                     * When the kernel is out of bounds, sample the central
+                     * color but do not tally alpha.
+                     */
+                    final long outCount = (long) wKrn * wKrn - (long) wIn * hIn;
+                    final long hexCenter = source[row + k];
+                    final long lCenter = hexCenter >> 0x20L & 0xffffL;
+                    final long aCenter = (hexCenter >> 0x10L & 0xffffL) - 0x8000L;
+                    final long bCenter = (hexCenter & 0xffffL) - 0x8000L;
+
+                    labAvg.set(
+                        (float) ((vSumL[k] + outCount * lCenter) * toAvg) * Lab.L_FROM_SHORT,
+                        (float) ((vSumA[k] + outCount * aCenter) * toAvg) * Lab.AB_FROM_SHORT,
+                        (float) ((vSumB[k] + outCount * bCenter) * toAvg) * Lab.AB_FROM_SHORT,
+                        (float) (vSumT[k] * toAvg) / 65535.0f);
+                    target[row + k] = labAvg.toHexLong();
+                }
+            }
+        });
+    }
+
     /**
      * Dithers an image according to a closest function. The closest function
      * is expected to accept a source and target color; the target will be
@@ -5300,6 +6188,11 @@ public class Img {
             target.pixels = new long[len];
         }
 
+        if (Img.USE_VECTOR) {
+            ImgVector.xor(source.pixels, mask, 0, len, target.pixels);
+            return target;
+        }
+
         for (int i = 0; i < len; ++i) {
             target.pixels[i] = source.pixels[i] ^ mask;
         }
@@ -5316,6 +6209,7 @@ public class Img {
      * @param source the source image
      * @param cosa   the cosine of the angle
      * @param sina   the sine of the angle
+     * @param pool   the fork join pool
      * @param target the target image
      * @return rotated pixels
      * @see Utils#abs(float)
@@ -5324,6 +6218,7 @@ public class Img {
         final Img source,
         final float cosa,
         final float sina,
+        final ForkJoinPool pool,
         final Img target) {
 
         final int wSrc = source.width;
@@ -5344,14 +6239,16 @@ public class Img {
         final int trgLen = wTrg * hTrg;
         final long[] trgPixels = new long[trgLen];
 
-        for (int i = 0; i < trgLen; ++i) {
-            final float ySgn = (float) (i / wTrg) - yTrgCenter;
-            final float xSgn = i % wTrg - xTrgCenter;
-            trgPixels[i] = Img.sampleBilinear(
-                source,
-                xSrcCenter + cosa * xSgn - sina * ySgn,
-                ySrcCenter + cosa * ySgn + sina * xSgn);
-        }
+        Parallel.forRange(pool, 0, hTrg, Parallel.rowGrain(wTrg), (yStart, yEnd) -> {
+            for (int i = yStart * wTrg, iEnd = yEnd * wTrg; i < iEnd; ++i) {
+                final float ySgn = (float) (i / wTrg) - yTrgCenter;
+                final float xSgn = i % wTrg - xTrgCenter;
+                trgPixels[i] = Img.sampleBilinear(
+                    source,
+                    xSrcCenter + cosa * xSgn - sina * ySgn,
+                    ySrcCenter + cosa * ySgn + sina * xSgn);
+            }
+        });
 
         target.width = wTrg;
         target.height = hTrg;
@@ -5507,25 +6404,44 @@ public class Img {
     }
 
     /**
-     * Internal helper method to create a mesh from a list of indices and other
-     * conversion data. Makes no optimizations to the mesh by, e.g., removing
-     * interior or colinear vertices.
+     * Evaluates whether the incubating JDK Vector API can be used by pixel
+     * kernels. See {@link Img#USE_VECTOR}.
      *
-     * @param indices the non-zero image pixel indices
-     * @param wSrc    the image width
-     * @param left    the left edge
-     * @param top     the top edge
-     * @param right   the right edge
-     * @param bottom  the bottom edge
-     * @param tou     width to uv conversion
-     * @param tov     height to uv conversion
-     * @param poly    polygon type
-     * @param target  the output mesh
+     * @return the evaluation
+     */
+    private static boolean vectorSupported() {
+
+        try {
+            if ("false".equalsIgnoreCase(System.getProperty("camzup.vector"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+                return false;
+            }
+            return ImgVector.LS.length() > 1;
+        } catch (final SecurityException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Internal helper method to create a mesh from a list of rectangles and
+     * other conversion data. Each rectangle is stored as four integers: its
+     * left column, top row, width and height in pixels. Makes no
+     * optimizations to the mesh by, e.g., removing interior or colinear
+     * vertices.
+     *
+     * @param rects  the rectangles
+     * @param left   the left edge
+     * @param top    the top edge
+     * @param right  the right edge
+     * @param bottom the bottom edge
+     * @param tou    width to uv conversion
+     * @param tov    height to uv conversion
+     * @param poly   polygon type
+     * @param target the output mesh
      * @return the mesh
      */
     protected static Mesh2 toMesh(
-        final ArrayList<Integer> indices,
-        final int wSrc,
+        final IntList rects,
         final float left,
         final float top,
         final float right,
@@ -5535,27 +6451,25 @@ public class Img {
         final PolyType poly,
         final Mesh2 target) {
 
-        final int idcsLen = indices.size();
-        final int vsLen = idcsLen * 4;
+        final int rectsLen = rects.size() / 4;
+        final int vsLen = rectsLen * 4;
 
         target.coords = Vec2.resize(target.coords, vsLen);
         target.texCoords = Vec2.resize(target.texCoords, vsLen);
         final Vec2[] vs = target.coords;
         final Vec2[] vts = target.texCoords;
 
-        for (int i = 0, j00 = 0; i < idcsLen; ++i, j00 += 4) {
+        for (int i = 0, j00 = 0; i < rectsLen; ++i, j00 += 4) {
             final int j10 = j00 + 1;
             final int j11 = j00 + 2;
             final int j01 = j00 + 3;
 
-            final int idx = indices.get(i);
-            final float x = idx % wSrc;
-            final float y = (float) idx / wSrc;
-
+            final float x = rects.get(j00);
+            final float y = rects.get(j10);
             final float u0 = x * tou;
             final float v0 = y * tov;
-            final float u1 = (x + 1.0f) * tou;
-            final float v1 = (y + 1.0f) * tov;
+            final float u1 = (x + rects.get(j11)) * tou;
+            final float v1 = (y + rects.get(j01)) * tov;
 
             vts[j00].set(u0, v0);
             vts[j10].set(u1, v0);
@@ -5573,41 +6487,32 @@ public class Img {
             vs[j01].set(x0, y1);
         }
 
+        /* Faces wind counter-clockwise, from the bottom left corner. */
         final int[][][] fs;
         switch (poly) {
             case TRI: {
-                target.faces = new int[idcsLen + idcsLen][3][2];
+                target.faces = new int[rectsLen + rectsLen][3][2];
                 fs = target.faces;
-                for (int i = idcsLen - 1, j00 = vsLen - 1; i > -1; --i, j00 -= 4) {
-                    final int j10 = j00 - 1;
-                    final int j11 = j00 - 2;
-                    final int j01 = j00 - 3;
+                for (int i = 0, j00 = 0; i < rectsLen; ++i, j00 += 4) {
+                    final int j10 = j00 + 1;
+                    final int j11 = j00 + 2;
+                    final int j01 = j00 + 3;
 
                     final int[][] f1 = fs[i + i];
-                    final int[] vr10 = f1[0];
-                    vr10[0] = j11;
-                    vr10[1] = j11;
-
-                    final int[] vr11 = f1[1];
-                    vr11[0] = j01;
-                    vr11[1] = j01;
-
-                    final int[] vr12 = f1[2];
-                    vr12[0] = j00;
-                    vr12[1] = j00;
+                    f1[0][0] = j10;
+                    f1[0][1] = j10;
+                    f1[1][0] = j00;
+                    f1[1][1] = j00;
+                    f1[2][0] = j01;
+                    f1[2][1] = j01;
 
                     final int[][] f0 = fs[i + i + 1];
-                    final int[] vr00 = f0[0];
-                    vr00[0] = j00;
-                    vr00[1] = j00;
-
-                    final int[] vr01 = f0[1];
-                    vr01[0] = j10;
-                    vr01[1] = j10;
-
-                    final int[] vr02 = f0[2];
-                    vr02[0] = j11;
-                    vr02[1] = j11;
+                    f0[0][0] = j01;
+                    f0[0][1] = j01;
+                    f0[1][0] = j11;
+                    f0[1][1] = j11;
+                    f0[2][0] = j10;
+                    f0[2][1] = j10;
                 }
             }
             break;
@@ -5615,34 +6520,105 @@ public class Img {
             case NGON:
             case QUAD:
             default: {
-                target.faces = new int[idcsLen][4][2];
+                target.faces = new int[rectsLen][4][2];
                 fs = target.faces;
-                for (int i = idcsLen - 1, j00 = vsLen - 1; i > -1; --i, j00 -= 4) {
-                    final int j10 = j00 - 1;
-                    final int j11 = j00 - 2;
-                    final int j01 = j00 - 3;
+                for (int i = 0, j00 = 0; i < rectsLen; ++i, j00 += 4) {
+                    final int j10 = j00 + 1;
+                    final int j11 = j00 + 2;
+                    final int j01 = j00 + 3;
 
                     final int[][] f = fs[i];
-                    final int[] vr00 = f[0];
-                    vr00[0] = j00;
-                    vr00[1] = j00;
+                    f[0][0] = j01;
+                    f[0][1] = j01;
+                    f[1][0] = j11;
+                    f[1][1] = j11;
+                    f[2][0] = j10;
+                    f[2][1] = j10;
+                    f[3][0] = j00;
+                    f[3][1] = j00;
+                }
+            }
+        }
+
+        return target;
+    }
+
+    /**
+     * Internal helper method to partition labeled pixels into rectangles.
+     * Pixels with a negative label are skipped. Rectangles are appended to
+     * the list for their label as four integers: left column, top row,
+     * width and height. When the policy is {@link MeshPolicy#GREEDY}, each
+     * rectangle is grown first to the right, then down, as far as pixels
+     * with the same label allow; otherwise each pixel is a rectangle.
+     *
+     * @param labels the pixel labels
+     * @param w      the image width
+     * @param h      the image height
+     * @param policy the mesh policy
+     * @param target the rectangle lists, one per label
+     */
+    protected static void toRects(
+        final int[] labels,
+        final int w,
+        final int h,
+        final MeshPolicy policy,
+        final IntList[] target) {
+
+        if (policy != MeshPolicy.GREEDY) {
+            for (int y = 0, i = 0; y < h; ++y) {
+                for (int x = 0; x < w; ++x, ++i) {
+                    final int label = labels[i];
+                    if (label > -1) {
+                        target[label].add(x, y, 1, 1);
+                    }
+                }
+            }
+            return;
+        }
+
+        final boolean[] used = new boolean[labels.length];
+        for (int y = 0; y < h; ++y) {
+            final int row = y * w;
+            int x = 0;
+            while (x < w) {
+                final int i = row + x;
+                final int label = labels[i];
+                if (label < 0 || used[i]) {
+                    ++x;
+                    continue;
+                }
 
-                    final int[] vr10 = f[1];
-                    vr10[0] = j10;
-                    vr10[1] = j10;
+                int rw = 1;
+                while (x + rw < w
+                    && labels[i + rw] == label
+                    && !used[i + rw]) {
+                    ++rw;
+                }
 
-                    final int[] vr11 = f[2];
-                    vr11[0] = j11;
-                    vr11[1] = j11;
+                int rh = 1;
+                boolean grow = true;
+                while (grow && y + rh < h) {
+                    final int next = i + rh * w;
+                    for (int k = 0; k < rw; ++k) {
+                        if (labels[next + k] != label || used[next + k]) {
+                            grow = false;
+                            break;
+                        }
+                    }
+                    if (grow) {
+                        ++rh;
+                    }
+                }
 
-                    final int[] vr01 = f[3];
-                    vr01[0] = j01;
-                    vr01[1] = j01;
+                for (int r = 0; r < rh; ++r) {
+                    final int start = i + r * w;
+                    Arrays.fill(used, start, start + rw, true);
                 }
+
+                target[label].add(x, y, rw, rh);
+                x += rw;
             }
         }
-
-        return target;
     }
 
     /**
@@ -6041,6 +7017,22 @@ public class Img {
         L
     }
 
+    /**
+     * Policy for creating faces when converting an image to a mesh.
+     */
+    public enum MeshPolicy {
+
+        /**
+         * Merge adjacent pixels into rectangles.
+         */
+        GREEDY,
+
+        /**
+         * Create one face per pixel.
+         */
+        PIXEL
+    }
+
     /**
      * Policy for handling the pivot when adjusting contrast.
      */
@@ -0,0 +1,456 @@
+package com.behreajj.camzup.core;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * A bounded, least recently used cache of filtered images. Results are keyed
+ * by the {@link Img#hash(Img)} of the input, the name of an operation and
+ * its parameters, so that applying the same preset to the same source image
+ * again copies the stored result rather than running the filter.
+ * <br>
+ * <br>
+ * The cache is bounded by the total number of pixels it holds. When an entry
+ * would exceed that budget, the least recently used entries are evicted.
+ * Methods are synchronized, so a cache may be shared between threads;
+ * filters are run outside of the lock.
+ */
+public class ImgCache {
+
+    /**
+     * The default pixel budget, 2 ^ 24.
+     */
+    public static final long DEFAULT_CAPACITY = 1L << 24;
+
+    /**
+     * The maximum number of pixels held by the cache.
+     */
+    protected final long capacity;
+
+    /**
+     * Entries in order of access, from least to most recent.
+     */
+    protected final LinkedHashMap<Key, Img> entries = new LinkedHashMap<>(
+        16, 0.75f, true);
+
+    /**
+     * The number of lookups which found an entry.
+     */
+    protected long hits;
+
+    /**
+     * The number of lookups which did not find an entry.
+     */
+    protected long misses;
+
+    /**
+     * The number of pixels held by the cache.
+     */
+    protected long size;
+
+    /**
+     * The default constructor.
+     */
+    public ImgCache() {
+
+        this(ImgCache.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a cache with a pixel budget.
+     *
+     * @param capacity the capacity in pixels
+     */
+    public ImgCache(final long capacity) {
+
+        this.capacity = Math.max(1L, capacity);
+    }
+
+    /**
+     * Applies a filter to a source image, or copies a stored result to the
+     * target if the same operation has been applied to an image with the same
+     * hash. The filter is expected to accept a source and target image, then
+     * return the target. Parameters form part of the key: strings, boxed
+     * primitives, booleans and enums are compared by value; colors,
+     * gradients and arrays by their exact components. If a parameter is of
+     * any other type, the filter is run and its result is not stored.
+     *
+     * @param source    the source image
+     * @param operation the operation name
+     * @param filter    the filter
+     * @param target    the target image
+     * @param params    the filter parameters
+     * @return the target image
+     */
+    public Img apply(
+        final Img source,
+        final String operation,
+        final BiFunction<Img, Img, Img> filter,
+        final Img target,
+        final Object... params) {
+
+        final Key key = new Key(Img.hash(source), operation, params);
+        if (!key.supported) {
+            return filter.apply(source, target);
+        }
+
+        final Img cached;
+        synchronized (this) {
+            cached = this.entries.get(key);
+            if (cached != null) {
+                ++this.hits;
+            } else {
+                ++this.misses;
+            }
+        }
+
+        if (cached != null) {
+            return ImgCache.copy(cached, target);
+        }
+
+        final Img result = filter.apply(source, target);
+        this.put(key, ImgCache.copy(result, new Img(1, 1)));
+        return result;
+    }
+
+    /**
+     * Removes all entries from this cache.
+     *
+     * @return this cache
+     */
+    public synchronized ImgCache clear() {
+
+        this.entries.clear();
+        this.size = 0L;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of pixels held by this cache.
+     *
+     * @return the capacity
+     */
+    public long getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Gets the number of lookups which found an entry.
+     *
+     * @return the hits
+     */
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Gets the number of lookups which did not find an entry.
+     *
+     * @return the misses
+     */
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Gets the number of pixels held by this cache.
+     *
+     * @return the pixel count
+     */
+    public synchronized long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Gets the number of entries in this cache.
+     *
+     * @return the entry count
+     */
+    public synchronized int length() {
+        return this.entries.size();
+    }
+
+    /**
+     * Gets a string representation of this cache.
+     *
+     * @return the string
+     */
+    @Override
+    public synchronized String toString() {
+
+        final StringBuilder sb = new StringBuilder(96);
+        sb.append("{\"capacity\":");
+        sb.append(this.capacity);
+        sb.append(",\"size\":");
+        sb.append(this.size);
+        sb.append(",\"length\":");
+        sb.append(this.entries.size());
+        sb.append(",\"hits\":");
+        sb.append(this.hits);
+        sb.append(",\"misses\":");
+        sb.append(this.misses);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Stores a result, then evicts the least recently used entries until the
+     * cache is within its budget. Results larger than the budget are not
+     * stored.
+     *
+     * @param key    the key
+     * @param result the result
+     */
+    protected synchronized void put(final Key key, final Img result) {
+
+        final long len = result.pixels.length;
+        if (len > this.capacity) {
+            return;
+        }
+
+        final Img prev = this.entries.put(key, result);
+        if (prev != null) {
+            this.size -= prev.pixels.length;
+        }
+        this.size += len;
+
+        final Iterator<Map.Entry<Key, Img>> itr = this.entries.entrySet().iterator();
+        while (this.size > this.capacity && itr.hasNext()) {
+            final Map.Entry<Key, Img> eldest = itr.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            this.size -= eldest.getValue().pixels.length;
+            itr.remove();
+        }
+    }
+
+    /**
+     * Copies the size and pixels of a source image to a target.
+     *
+     * @param source the source image
+     * @param target the target image
+     * @return the target image
+     */
+    protected static Img copy(final Img source, final Img target) {
+
+        if (source == target) {
+            return target;
+        }
+
+        final int len = source.pixels.length;
+        if (!Img.similar(source, target)) {
+            target.width = source.width;
+            target.height = source.height;
+            target.pixels = new long[len];
+        }
+        System.arraycopy(source.pixels, 0, target.pixels, 0, len);
+        return target;
+    }
+
+    /**
+     * A cache key. Holds the hash of an input image, the name of an operation
+     * and its parameters. Parameters which are not strings, boxed
+     * primitives, booleans or enums are replaced with arrays of their exact
+     * components, so that later changes to a mutable parameter do not alter
+     * the key. Floats are compared by their bits.
+     */
+    protected static final class Key {
+
+        /**
+         * The hash of the input image.
+         */
+        final long imgHash;
+
+        /**
+         * The operation name.
+         */
+        final String operation;
+
+        /**
+         * The parameters.
+         */
+        final Object[] params;
+
+        /**
+         * Whether all parameters are of a supported type.
+         */
+        final boolean supported;
+
+        /**
+         * The hash code, found once on construction.
+         */
+        private final int hashCode;
+
+        /**
+         * Stands in for a parameter of an unsupported type.
+         */
+        private static final Object UNSUPPORTED = new Object();
+
+        /**
+         * Constructs a key.
+         *
+         * @param imgHash   the image hash
+         * @param operation the operation
+         * @param params    the parameters
+         */
+        Key(final long imgHash, final String operation, final Object[] params) {
+
+            this.imgHash = imgHash;
+            this.operation = operation;
+
+            final int len = params != null ? params.length : 0;
+            this.params = new Object[len];
+            boolean valid = true;
+            for (int i = 0; i < len; ++i) {
+                final Object frozen = Key.freeze(params[i]);
+                valid &= frozen != Key.UNSUPPORTED;
+                this.params[i] = frozen;
+            }
+
+            this.supported = valid;
+            this.hashCode = Objects.hash(imgHash, operation,
+                Arrays.deepHashCode(this.params));
+        }
+
+        /**
+         * Converts a parameter to an immutable value. Colors and gradients are
+         * converted to arrays tagged with their class, holding the bits of
+         * their components. Primitive arrays are copied; object arrays are
+         * converted element by element. Returns {@link Key#UNSUPPORTED} for
+         * other types.
+         *
+         * @param p the parameter
+         * @return the value
+         */
+        static Object freeze(final Object p) {
+
+            if (p == null
+                || p instanceof String
+                || p instanceof Boolean
+                || p instanceof Character
+                || p instanceof Byte
+                || p instanceof Short
+                || p instanceof Integer
+                || p instanceof Long
+                || p instanceof Float
+                || p instanceof Double
+                || p instanceof Enum<?>) {
+                return p;
+            }
+            if (p instanceof final Lab lab) {
+                return new Object[]{Lab.class, Key.bits(
+                    lab.l, lab.a, lab.b, lab.alpha)};
+            }
+            if (p instanceof final Lch lch) {
+                return new Object[]{Lch.class, Key.bits(
+                    lch.l, lch.c, lch.h, lch.alpha)};
+            }
+            if (p instanceof final Rgb rgb) {
+                return new Object[]{Rgb.class, Key.bits(
+                    rgb.r, rgb.g, rgb.b, rgb.alpha)};
+            }
+            if (p instanceof final Gradient grd) {
+                final int len = grd.length();
+                final int[] keys = new int[len * 5];
+                int j = 0;
+                for (final ColorKey ck : grd) {
+                    final Lab clr = ck.clr;
+                    keys[j] = Float.floatToIntBits(ck.step);
+                    keys[j + 1] = Float.floatToIntBits(clr.l);
+                    keys[j + 2] = Float.floatToIntBits(clr.a);
+                    keys[j + 3] = Float.floatToIntBits(clr.b);
+                    keys[j + 4] = Float.floatToIntBits(clr.alpha);
+                    j += 5;
+                }
+                return new Object[]{Gradient.class, keys};
+            }
+
+            final Class<?> type = p.getClass();
+            if (!type.isArray()) {
+                return Key.UNSUPPORTED;
+            }
+            if (type.getComponentType().isPrimitive()) {
+                if (p instanceof final boolean[] arr) {
+                    return arr.clone();
+                }
+                if (p instanceof final byte[] arr) {
+                    return arr.clone();
+                }
+                if (p instanceof final char[] arr) {
+                    return arr.clone();
+                }
+                if (p instanceof final short[] arr) {
+                    return arr.clone();
+                }
+                if (p instanceof final int[] arr) {
+                    return arr.clone();
+                }
+                if (p instanceof final long[] arr) {
+                    return arr.clone();
+                }
+                if (p instanceof final float[] arr) {
+                    return arr.clone();
+                }
+                return ((double[]) p).clone();
+            }
+
+            final Object[] arr = (Object[]) p;
+            final int len = arr.length;
+            final Object[] frozen = new Object[len + 1];
+            frozen[0] = type;
+            for (int i = 0; i < len; ++i) {
+                final Object elm = Key.freeze(arr[i]);
+                if (elm == Key.UNSUPPORTED) {
+                    return Key.UNSUPPORTED;
+                }
+                frozen[i + 1] = elm;
+            }
+            return frozen;
+        }
+
+        /**
+         * Converts four floats to their bits.
+         *
+         * @param x the first float
+         * @param y the second float
+         * @param z the third float
+         * @param w the fourth float
+         * @return the bits
+         */
+        private static int[] bits(
+            final float x,
+            final float y,
+            final float z,
+            final float w) {
+
+            return new int[]{
+                Float.floatToIntBits(x),
+                Float.floatToIntBits(y),
+                Float.floatToIntBits(z),
+                Float.floatToIntBits(w)};
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof final Key other)) {
+                return false;
+            }
+            return this.imgHash == other.imgHash
+                && Objects.equals(this.operation, other.operation)
+                && Arrays.deepEquals(this.params, other.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package com.behreajj.camzup.core;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Records a chain of per-pixel operations on an {@link Img}, then applies
+ * them in one pass. Where each static method of {@link Img} reads and writes
+ * every pixel, a pipeline unpacks a color once, runs every step on it in
+ * float, then packs it once. Conversions are cached per unique input color,
+ * so each color is run through the chain at most once per band of rows.
+ * <br>
+ * <br>
+ * Only operations which depend on a pixel's color alone can be recorded.
+ * Operations which gather statistics over the whole image, such as
+ * {@link Img#normalizeLight(Img, Img)}, or which sample neighbors, such as
+ * {@link Img#blur(Img, int, Img)}, break a pipeline in two. Because colors
+ * are neither clamped nor quantized between steps, results may differ
+ * slightly from the equivalent chain of {@link Img} methods.
+ */
+public class ImgPipeline {
+
+    /**
+     * The number of unique colors after which a band stops adding to its
+     * conversion cache, so that the cache stays small enough to be fast.
+     */
+    public static final int CACHE_CAPACITY = 1 << 16;
+
+    /**
+     * Suppliers of the steps. A step may hold temporary values, so a new
+     * one is supplied for each band of rows.
+     */
+    protected final ArrayList<Supplier<? extends Step>> steps = new ArrayList<>();
+
+    /**
+     * Constructs an empty pipeline.
+     */
+    public ImgPipeline() {
+    }
+
+    /**
+     * Constructs a pipeline from a source.
+     *
+     * @param source the source pipeline
+     */
+    public ImgPipeline(final ImgPipeline source) {
+
+        this.steps.addAll(source.steps);
+    }
+
+    /**
+     * Adjusts the light contrast of colors by a factor. The adjustment factor
+     * is expected to be in [-1.0, 1.0].
+     *
+     * @param fac the contrast factor
+     * @return this pipeline
+     * @see Img#adjustContrastLight(Img, float, Img)
+     */
+    public ImgPipeline adjustContrastLight(final float fac) {
+
+        final float adjVerif = Float.isNaN(fac)
+            ? 1.0f
+            : 1.0f + Utils.clamp(fac, -1.0f, 1.0f);
+        if (Utils.approx(adjVerif, 1.0f)) {
+            return this;
+        }
+
+        final Step step = c -> {
+            c.l = (c.l - 50.0f) * adjVerif + 50.0f;
+            return c;
+        };
+        return this.then(() -> step);
+    }
+
+    /**
+     * Adjusts colors in LAB. Colors with zero alpha are set to clear black.
+     *
+     * @param adjust the adjustment
+     * @return this pipeline
+     * @see Img#adjustLab(Img, Lab, Img)
+     */
+    public ImgPipeline adjustLab(final Lab adjust) {
+
+        final float dl = adjust.l;
+        final float da = adjust.a;
+        final float db = adjust.b;
+        final float dt = adjust.alpha;
+        final Step step = c -> {
+            if (c.alpha <= 0.0f) {
+                return Lab.clearBlack(c);
+            }
+            c.l += dl;
+            c.a += da;
+            c.b += db;
+            c.alpha += dt;
+            return c;
+        };
+        return this.then(() -> step);
+    }
+
+    /**
+     * Adjusts colors in LCH.
+     *
+     * @param adjust the adjustment
+     * @return this pipeline
+     */
+    public ImgPipeline adjustLch(final Lch adjust) {
+
+        return this.adjustLch(adjust, Img.DEFAULT_GRAY_POLICY);
+    }
+
+    /**
+     * Adjusts colors in LCH. Colors with zero alpha are set to clear black.
+     *
+     * @param adjust the adjustment
+     * @param policy the gray policy
+     * @return this pipeline
+     * @see Img#adjustLch(Img, Lch, Img.GrayPolicy, Img)
+     */
+    public ImgPipeline adjustLch(
+        final Lch adjust,
+        final Img.GrayPolicy policy) {
+
+        final Lch adjCopy = new Lch(adjust);
+        return this.then(() -> {
+            final Lch lch = new Lch();
+            return c -> Img.adjustLch(c, adjCopy, policy, lch);
+        });
+    }
+
+    /**
+     * Applies the pipeline to a source image. When the pipeline is empty,
+     * copies the source to the target.
+     *
+     * @param source the input image
+     * @param pool   the fork join pool
+     * @param target the output image
+     * @return the output image
+     */
+    public Img apply(
+        final Img source,
+        final ForkJoinPool pool,
+        final Img target) {
+
+        final int len = source.pixels.length;
+        if (!Img.similar(source, target)) {
+            target.width = source.width;
+            target.height = source.height;
+            target.pixels = new long[len];
+        }
+
+        final int stepCount = this.steps.size();
+        if (stepCount < 1) {
+            if (source != target) {
+                System.arraycopy(source.pixels, 0, target.pixels, 0, len);
+            }
+            return target;
+        }
+
+        final ArrayList<Supplier<? extends Step>> suppliers = new ArrayList<>(
+            this.steps);
+
+        final int w = source.width;
+        final int h = source.height;
+        Parallel.forRange(pool, 0, h, Parallel.rowGrain(w), (yStart, yEnd) -> {
+            final Step[] bandSteps = new Step[stepCount];
+            for (int k = 0; k < stepCount; ++k) {
+                bandSteps[k] = suppliers.get(k).get();
+            }
+
+            final Lab lab = new Lab();
+            final LongLongMap convert = new LongLongMap();
+            int capacity = ImgPipeline.CACHE_CAPACITY;
+
+            for (int i = yStart * w, iEnd = yEnd * w; i < iEnd; ++i) {
+                final long srcPixel = source.pixels[i];
+                final int idx = convert.indexOf(srcPixel);
+                final long trgPixel;
+
+                if (idx > -1) {
+                    trgPixel = convert.valueAt(idx);
+                } else {
+                    Lab c = Lab.fromHex(srcPixel, lab);
+                    for (int k = 0; k < stepCount; ++k) {
+                        c = bandSteps[k].apply(c);
+                    }
+                    trgPixel = c.toHexLongSat();
+                    if (capacity > 0) {
+                        convert.putAt(idx, srcPixel, trgPixel);
+                        --capacity;
+                    }
+                }
+
+                target.pixels[i] = trgPixel;
+            }
+        });
+
+        return target;
+    }
+
+    /**
+     * Applies the pipeline to a source image.
+     *
+     * @param source the input image
+     * @param target the output image
+     * @return the output image
+     */
+    public Img apply(final Img source, final Img target) {
+
+        return this.apply(source, null, target);
+    }
+
+    /**
+     * Removes all steps from this pipeline.
+     *
+     * @return this pipeline
+     */
+    public ImgPipeline clear() {
+
+        this.steps.clear();
+        return this;
+    }
+
+    /**
+     * Maps colors to a gradient by lightness.
+     *
+     * @param grd the gradient
+     * @return this pipeline
+     */
+    public ImgPipeline gradientMap(final Gradient grd) {
+
+        return this.gradientMap(grd, Lab.MixLab::new, Img.MapChannel.L);
+    }
+
+    /**
+     * Maps colors to a gradient by a channel. Unlike
+     * {@link Img#gradientMap(Gradient, Img, Lab.AbstrEasing, Img.MapChannel,
+     * boolean, Img)}, the channel cannot be normalized to the range of the
+     * image, as that would require a pass to find the range. The gradient is
+     * baked once to a {@link GradientLut}, which all bands of rows share.
+     *
+     * @param grd     the gradient
+     * @param easing  the easing function supplier
+     * @param channel the color channel
+     * @return this pipeline
+     */
+    public ImgPipeline gradientMap(
+        final Gradient grd,
+        final Supplier<? extends Lab.AbstrEasing> easing,
+        final Img.MapChannel channel) {
+
+        final GradientLut lut = new GradientLut(grd,
+            GradientLut.DEFAULT_RESOLUTION, easing.get());
+        return this.then(() -> {
+            final Lch lch = new Lch();
+            return c -> {
+                if (c.alpha <= 0.0f && c.l == 0.0f
+                    && c.a == 0.0f && c.b == 0.0f) {
+                    return c;
+                }
+                Lch.fromLab(c, lch);
+                final float fac = switch (channel) {
+                    case C -> lch.c / Lch.SR_CHROMA_MAX;
+                    case H -> lch.h;
+                    default -> lch.l * 0.01f;
+                };
+                GradientLut.eval(lut, fac, c);
+                c.alpha *= lch.alpha;
+                return c;
+            };
+        });
+    }
+
+    /**
+     * Desaturates colors by a factor in [0.0, 1.0].
+     *
+     * @param fac the factor
+     * @return this pipeline
+     * @see Img#grayscale(Img, float, Img)
+     */
+    public ImgPipeline grayscale(final float fac) {
+
+        final float t = Float.isNaN(fac) ? 1.0f : Utils.clamp01(fac);
+        if (t <= 0.0f) {
+            return this;
+        }
+
+        final float u = 1.0f - t;
+        final Step step = c -> {
+            c.a *= u;
+            c.b *= u;
+            return c;
+        };
+        return this.then(() -> step);
+    }
+
+    /**
+     * Inverts all channels of colors.
+     *
+     * @return this pipeline
+     */
+    public ImgPipeline invert() {
+
+        final Step step = c -> c.set(100.0f - c.l, -c.a, -c.b, 1.0f - c.alpha);
+        return this.then(() -> step);
+    }
+
+    /**
+     * Inverts the chroma of colors.
+     *
+     * @return this pipeline
+     */
+    public ImgPipeline invertAB() {
+
+        final Step step = c -> c.set(c.l, -c.a, -c.b, c.alpha);
+        return this.then(() -> step);
+    }
+
+    /**
+     * Inverts the transparency of colors.
+     *
+     * @return this pipeline
+     */
+    public ImgPipeline invertAlpha() {
+
+        final Step step = c -> c.set(c.l, c.a, c.b, 1.0f - c.alpha);
+        return this.then(() -> step);
+    }
+
+    /**
+     * Inverts the l, a and b channels of colors.
+     *
+     * @return this pipeline
+     */
+    public ImgPipeline invertLab() {
+
+        final Step step = c -> c.set(100.0f - c.l, -c.a, -c.b, c.alpha);
+        return this.then(() -> step);
+    }
+
+    /**
+     * Inverts the lightness of colors.
+     *
+     * @return this pipeline
+     */
+    public ImgPipeline invertLight() {
+
+        final Step step = c -> c.set(100.0f - c.l, c.a, c.b, c.alpha);
+        return this.then(() -> step);
+    }
+
+    /**
+     * Gets the number of steps in this pipeline.
+     *
+     * @return the length
+     */
+    public int length() {
+
+        return this.steps.size();
+    }
+
+    /**
+     * Multiplies the alpha of colors by a scalar. Expected range is within
+     * [0.0, 1.0]. Colors are cleared if the scalar is less than or equal to
+     * zero.
+     *
+     * @param a01 the alpha scalar
+     * @return this pipeline
+     * @see Img#mulAlpha(Img, float, Img)
+     */
+    public ImgPipeline mulAlpha(final float a01) {
+
+        if (a01 <= 0.0f) {
+            final Step step = Lab::clearBlack;
+            return this.then(() -> step);
+        }
+
+        final Step step = c -> {
+            c.alpha = Math.min(c.alpha * a01, 1.0f);
+            return c;
+        };
+        return this.then(() -> step);
+    }
+
+    /**
+     * Sets the alpha of colors to opaque.
+     *
+     * @return this pipeline
+     */
+    public ImgPipeline opaque() {
+
+        final Step step = c -> {
+            c.alpha = 1.0f;
+            return c;
+        };
+        return this.then(() -> step);
+    }
+
+    /**
+     * Appends a custom step to this pipeline. A new step is supplied for each
+     * band of rows, so steps may hold temporary values.
+     *
+     * @param step the step supplier
+     * @return this pipeline
+     */
+    public ImgPipeline then(final Supplier<? extends Step> step) {
+
+        this.steps.add(step);
+        return this;
+    }
+
+    /**
+     * Tints colors with a color according to a factor. If the preserveLight
+     * flag is true, the original lightness is retained.
+     *
+     * @param tint          the tint color
+     * @param fac           the factor
+     * @param preserveLight the preserve light flag
+     * @return this pipeline
+     * @see Img#tint(Img, Lab, float, boolean, Img)
+     */
+    public ImgPipeline tint(
+        final Lab tint,
+        final float fac,
+        final boolean preserveLight) {
+
+        final float t = Float.isNaN(fac) ? 1.0f : Utils.clamp01(fac);
+        final float u = 1.0f - t;
+        final float tl = t * tint.l;
+        final float ta = t * tint.a;
+        final float tb = t * tint.b;
+        final float uta = u + t * tint.alpha;
+
+        final Step step = c -> {
+            c.l = preserveLight ? c.l : u * c.l + tl;
+            c.a = u * c.a + ta;
+            c.b = u * c.b + tb;
+            c.alpha *= uta;
+            return c;
+        };
+        return this.then(() -> step);
+    }
+
+    /**
+     * Returns a string representation of this pipeline.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+
+        final StringBuilder sb = new StringBuilder(32);
+        sb.append("{\"length\":");
+        sb.append(this.steps.size());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * A step in a pipeline. Changes a color in place, then returns it. The
+     * color returned is passed to the next step.
+     */
+    @FunctionalInterface
+    public interface Step {
+
+        /**
+         * Applies the step to a color.
+         *
+         * @param color the color
+         * @return the color
+         */
+        Lab apply(Lab color);
+    }
+}
@@ -0,0 +1,1402 @@
+package com.behreajj.camzup.core;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * An image class for images in the LAB color format where each channel is
+ * stored in its own array of floats. Where {@link Img} packs a pixel into a
+ * long and unpacks it for every filter, this class keeps channels in float
+ * so that a chain of filters may be applied with one conversion from and
+ * one conversion to {@link Img}.
+ * <br>
+ * <br>
+ * Conversion from an {@link Img} to a planar image and back is lossless.
+ * Channels are not clamped between filters; they are clamped when packed
+ * by {@link ImgPlanar#toImg(ImgPlanar, Img)}.
+ */
+public class ImgPlanar {
+
+    /**
+     * The green-magenta channel.
+     */
+    protected float[] a;
+
+    /**
+     * The alpha channel.
+     */
+    protected float[] alpha;
+
+    /**
+     * The blue-yellow channel.
+     */
+    protected float[] b;
+
+    /**
+     * The image height in pixels.
+     */
+    protected int height;
+
+    /**
+     * The lightness channel.
+     */
+    protected float[] l;
+
+    /**
+     * The image width in pixels.
+     */
+    protected int width;
+
+    /**
+     * Constructs an image with a {@link Img#DEFAULT_WIDTH} and
+     * {@link Img#DEFAULT_HEIGHT}.
+     */
+    public ImgPlanar() {
+
+        this(Img.DEFAULT_WIDTH, Img.DEFAULT_HEIGHT);
+    }
+
+    /**
+     * Constructs an image from a source.
+     *
+     * @param source the source image.
+     */
+    public ImgPlanar(final ImgPlanar source) {
+
+        this.width = source.width;
+        this.height = source.height;
+        this.l = source.l.clone();
+        this.a = source.a.clone();
+        this.b = source.b.clone();
+        this.alpha = source.alpha.clone();
+    }
+
+    /**
+     * Constructs an image from width and height. The image is filled with
+     * clear black.
+     *
+     * @param width  the width
+     * @param height the height
+     */
+    public ImgPlanar(final int width, final int height) {
+
+        this.width = Utils.clamp(Math.abs(width), 1, Img.MAX_DIMENSION);
+        this.height = Utils.clamp(Math.abs(height), 1, Img.MAX_DIMENSION);
+
+        final int area = this.width * this.height;
+        this.l = new float[area];
+        this.a = new float[area];
+        this.b = new float[area];
+        this.alpha = new float[area];
+    }
+
+    /**
+     * Constructs an image from width and height. The image is filled with the
+     * provided color.
+     *
+     * @param width  the width
+     * @param height the height
+     * @param fill   the color
+     */
+    public ImgPlanar(final int width, final int height, final Lab fill) {
+
+        this(width, height);
+        ImgPlanar.fill(this, fill);
+    }
+
+    /**
+     * Adjusts an image's lightness and saturation contrast by a factor. The
+     * adjustment factor is expected to be in [-1.0, 1.0].
+     *
+     * @param source the source image
+     * @param sFac   the saturation contrast factor
+     * @param lFac   the lightness contrast factor
+     * @param policy the pivot policy
+     * @param target the target image
+     * @return the adjusted image
+     * @see Img#adjustContrast(Img, float, float, Img.PivotPolicy, Img)
+     */
+    public static ImgPlanar adjustContrast(
+        final ImgPlanar source,
+        final float sFac,
+        final float lFac,
+        final Img.PivotPolicy policy,
+        final ImgPlanar target) {
+
+        ImgPlanar.match(source, target);
+
+        final int len = source.l.length;
+        final float sAdjVerif = Float.isNaN(sFac)
+            ? 1.0f
+            : 1.0f + Utils.clamp(sFac, -1.0f, 1.0f);
+        final float lAdjVerif = Float.isNaN(lFac)
+            ? 1.0f
+            : 1.0f + Utils.clamp(lFac, -1.0f, 1.0f);
+
+        if (Utils.approx(sAdjVerif, 1.0f) && Utils.approx(lAdjVerif, 1.0f)) {
+            return ImgPlanar.copy(source, target);
+        }
+
+        double minSat = Double.MAX_VALUE;
+        double maxSat = -Double.MAX_VALUE;
+        double sumSat = 0.0d;
+
+        double minLight = Double.MAX_VALUE;
+        double maxLight = -Double.MAX_VALUE;
+        double sumLight = 0.0d;
+
+        int sumTally = 0;
+
+        for (int i = 0; i < len; ++i) {
+            if (source.alpha[i] > 0.0f) {
+                final double l = source.l[i];
+                final double a = source.a[i];
+                final double b = source.b[i];
+
+                final double csq = a * a + b * b;
+                final double mcpl = Math.sqrt(csq + l * l);
+                final double sat = mcpl != 0.0d ? Math.sqrt(csq) / mcpl : 0.0d;
+
+                if (sat > maxSat) {
+                    maxSat = sat;
+                }
+                if (sat < minSat) {
+                    minSat = sat;
+                }
+                sumSat += sat;
+
+                if (l > maxLight) {
+                    maxLight = l;
+                }
+                if (l < minLight) {
+                    minLight = l;
+                }
+                sumLight += l;
+
+                ++sumTally;
+            }
+        }
+
+        if (sumTally == 0 || minSat >= maxSat && minLight >= maxLight) {
+            return ImgPlanar.copy(source, target);
+        }
+
+        final double pivotSat;
+        final double pivotLight;
+        switch (policy) {
+            case RANGE:
+                pivotSat = (minSat + maxSat) * 0.5d;
+                pivotLight = (minLight + maxLight) * 0.5d;
+                break;
+
+            case FIXED:
+                pivotSat = 0.5d;
+                pivotLight = 50.0d;
+                break;
+
+            case MEAN:
+            default:
+                pivotSat = sumSat / sumTally;
+                pivotLight = sumLight / sumTally;
+        }
+
+        for (int j = 0; j < len; ++j) {
+            final double lSrc = source.l[j];
+            final double aSrc = source.a[j];
+            final double bSrc = source.b[j];
+
+            final double lAdj = (lSrc - pivotLight) * (double) lAdjVerif + pivotLight;
+
+            final double csqSrc = aSrc * aSrc + bSrc * bSrc;
+            final double cSrc = Math.sqrt(csqSrc);
+            final double mcplSrc = Math.sqrt(csqSrc + lSrc * lSrc);
+            final double mcplAdj = Math.sqrt(csqSrc + lAdj * lAdj);
+            final double sSrc = mcplSrc != 0.0d ? cSrc / mcplSrc : 0.0d;
+
+            final double sAdj = (sSrc - pivotSat) * (double) sAdjVerif + pivotSat;
+            final double cAdj = sAdj * mcplAdj;
+            final double abScalar = cSrc != 0.0d ? cAdj / cSrc : 0.0d;
+
+            target.l[j] = (float) lAdj;
+            target.a[j] = (float) (aSrc * abScalar);
+            target.b[j] = (float) (bSrc * abScalar);
+            target.alpha[j] = source.alpha[j];
+        }
+
+        return target;
+    }
+
+    /**
+     * Adjusts an image's lightness and saturation contrast by a factor. The
+     * adjustment factor is expected to be in [-1.0, 1.0].
+     *
+     * @param source the source image
+     * @param fac    the contrast factor
+     * @param target the target image
+     * @return the adjusted image
+     */
+    public static ImgPlanar adjustContrast(
+        final ImgPlanar source,
+        final float fac,
+        final ImgPlanar target) {
+
+        return ImgPlanar.adjustContrast(source, fac, fac,
+            Img.DEFAULT_PIVOT_POLICY, target);
+    }
+
+    /**
+     * Adjusts an image's chroma contrast by a factor. The adjustment factor is
+     * expected to be in [-1.0, 1.0].
+     *
+     * @param source the source image
+     * @param fac    the contrast factor
+     * @param policy the pivot policy
+     * @param target the target image
+     * @return the adjusted image
+     * @see Img#adjustContrastChroma(Img, float, Img.PivotPolicy, Img)
+     */
+    public static ImgPlanar adjustContrastChroma(
+        final ImgPlanar source,
+        final float fac,
+        final Img.PivotPolicy policy,
+        final ImgPlanar target) {
+
+        ImgPlanar.match(source, target);
+
+        final int len = source.l.length;
+        final float adjVerif = Float.isNaN(fac)
+            ? 1.0f
+            : 1.0f + Utils.clamp(fac, -1.0f, 1.0f);
+        if (Utils.approx(adjVerif, 1.0f)) {
+            return ImgPlanar.copy(source, target);
+        }
+
+        float minChroma = Float.MAX_VALUE;
+        float maxChroma = -Float.MAX_VALUE;
+        float sumChroma = 0.0f;
+        int sumTally = 0;
+
+        for (int i = 0; i < len; ++i) {
+            if (source.alpha[i] > 0.0f) {
+                final float a = source.a[i];
+                final float b = source.b[i];
+                final float c = (float) Math.sqrt(a * a + b * b);
+                if (c > maxChroma) {
+                    maxChroma = c;
+                }
+                if (c < minChroma) {
+                    minChroma = c;
+                }
+                sumChroma += c;
+                ++sumTally;
+            }
+        }
+
+        if (sumTally == 0 || minChroma >= maxChroma) {
+            return ImgPlanar.copy(source, target);
+        }
+
+        float pivotChroma = sumChroma / sumTally;
+        switch (policy) {
+            case RANGE:
+                pivotChroma = (minChroma + maxChroma) * 0.5f;
+                break;
+
+            case FIXED:
+                pivotChroma = Lch.SR_CHROMA_MEAN;
+                break;
+
+            case MEAN:
+            default:
+        }
+
+        final Lch lch = new Lch();
+        final Lab lab = new Lab();
+        for (int j = 0; j < len; ++j) {
+            Lch.fromLab(source.l[j], source.a[j], source.b[j],
+                source.alpha[j], lch);
+            lch.c = (lch.c - pivotChroma) * adjVerif + pivotChroma;
+            Lab.fromLch(lch, lab);
+            target.l[j] = lab.l;
+            target.a[j] = lab.a;
+            target.b[j] = lab.b;
+            target.alpha[j] = lab.alpha;
+        }
+
+        return target;
+    }
+
+    /**
+     * Adjusts an image's light contrast by a factor. The adjustment factor is
+     * expected to be in [-1.0, 1.0].
+     *
+     * @param source the source image
+     * @param fac    the contrast factor
+     * @param target the target image
+     * @return the adjusted image
+     */
+    public static ImgPlanar adjustContrastLight(
+        final ImgPlanar source,
+        final float fac,
+        final ImgPlanar target) {
+
+        ImgPlanar.match(source, target);
+
+        final float adjVerif = Float.isNaN(fac)
+            ? 1.0f
+            : 1.0f + Utils.clamp(fac, -1.0f, 1.0f);
+        if (Utils.approx(adjVerif, 1.0f)) {
+            return ImgPlanar.copy(source, target);
+        }
+
+        final float pivotLight = 50.0f;
+        final int len = source.l.length;
+        for (int i = 0; i < len; ++i) {
+            target.l[i] = (source.l[i] - pivotLight) * adjVerif + pivotLight;
+        }
+        System.arraycopy(source.a, 0, target.a, 0, len);
+        System.arraycopy(source.b, 0, target.b, 0, len);
+        System.arraycopy(source.alpha, 0, target.alpha, 0, len);
+
+        return target;
+    }
+
+    /**
+     * Adjusts a source image's pixels in LAB. Pixels with zero alpha are set
+     * to clear black.
+     *
+     * @param source the source image
+     * @param adjust the adjustment
+     * @param target the target image
+     * @return the adjusted image
+     */
+    public static ImgPlanar adjustLab(
+        final ImgPlanar source,
+        final Lab adjust,
+        final ImgPlanar target) {
+
+        ImgPlanar.match(source, target);
+
+        if (Utils.approx(adjust.l, 0.0f)
+            && Utils.approx(adjust.a, 0.0f)
+            && Utils.approx(adjust.b, 0.0f)
+            && Utils.approx(adjust.alpha, 0.0f)) {
+            return ImgPlanar.copy(source, target);
+        }
+
+        final int len = source.l.length;
+        for (int i = 0; i < len; ++i) {
+            if (source.alpha[i] <= 0.0f) {
+                target.l[i] = 0.0f;
+                target.a[i] = 0.0f;
+                target.b[i] = 0.0f;
+                target.alpha[i] = 0.0f;
+            } else {
+                target.l[i] = source.l[i] + adjust.l;
+                target.a[i] = source.a[i] + adjust.a;
+                target.b[i] = source.b[i] + adjust.b;
+                target.alpha[i] = source.alpha[i] + adjust.alpha;
+            }
+        }
+
+        return target;
+    }
+
+    /**
+     * Adjusts a source image's pixels in LCH. Pixels with zero alpha are set
+     * to clear black.
+     *
+     * @param source the source image
+     * @param adjust the adjustment
+     * @param policy the gray policy
+     * @param pool   the fork join pool
+     * @param target the target image
+     * @return the adjusted image
+     * @see Img#adjustLch(Img, Lch, Img.GrayPolicy, ForkJoinPool, Img)
+     */
+    public static ImgPlanar adjustLch(
+        final ImgPlanar source,
+        final Lch adjust,
+        final Img.GrayPolicy policy,
+        final ForkJoinPool pool,
+        final ImgPlanar target) {
+
+        ImgPlanar.match(source, target);
+
+        if (Utils.approx(adjust.l, 0.0f)
+            && Utils.approx(adjust.c, 0.0f)
+            && Utils.approx(Utils.mod1(adjust.h), 0.0f)
+            && Utils.approx(adjust.alpha, 0.0f)) {
+            return ImgPlanar.copy(source, target);
+        }
+
+        final float hZero = 0.0f;
+        final float hVio = Lch.SR_HUE_SHADE;
+        final float hYel = Lch.SR_HUE_LIGHT;
+
+        final int w = source.width;
+        final int h = source.height;
+        Parallel.forRange(pool, 0, h, Parallel.rowGrain(w), (yStart, yEnd) -> {
+            final Lab lab = new Lab();
+            final Lch lch = new Lch();
+
+            for (int i = yStart * w, iEnd = yEnd * w; i < iEnd; ++i) {
+                if (source.alpha[i] <= 0.0f) {
+                    Lab.clearBlack(lab);
+                } else {
+                    Lch.fromLab(source.l[i], source.a[i], source.b[i],
+                        source.alpha[i], lch);
+
+                    final float cTrg;
+                    final float hTrg;
+                    final boolean isGray = lch.c < Utils.EPSILON;
+                    if (isGray) {
+                        switch (policy) {
+                            case COOL: {
+                                final float t = lch.l * 0.01f;
+                                final float u = 1.0f - t;
+                                final float hg = u * hVio + t * hYel;
+                                cTrg = lch.c + adjust.c;
+                                hTrg = hg + adjust.h;
+                            }
+                            break;
+
+                            case WARM: {
+                                final float t = lch.l * 0.01f;
+                                final float u = 1.0f - t;
+                                final float hg = u * hVio + t * (hYel + 1.0f);
+                                cTrg = lch.c + adjust.c;
+                                hTrg = hg + adjust.h;
+                            }
+                            break;
+
+                            case ZERO: {
+                                cTrg = lch.c + adjust.c;
+                                hTrg = hZero + adjust.h;
+                            }
+                            break;
+
+                            case OMIT:
+
+                            default: {
+                                cTrg = 0.0f;
+                                hTrg = 0.0f;
+                            }
+                        }
+                    } else {
+                        cTrg = lch.c + adjust.c;
+                        hTrg = lch.h + adjust.h;
+                    }
+
+                    Lab.fromLch(lch.l + adjust.l, cTrg, hTrg,
+                        lch.alpha + adjust.alpha, lab);
+                }
+
+                target.l[i] = lab.l;
+                target.a[i] = lab.a;
+                target.b[i] = lab.b;
+                target.alpha[i] = lab.alpha;
+            }
+        });
+
+        return target;
+    }
+
+    /**
+     * Adjusts a source image's pixels in LCH.
+     *
+     * @param source the source image
+     * @param adjust the adjustment
+     * @param target the target image
+     * @return the adjusted image
+     */
+    public static ImgPlanar adjustLch(
+        final ImgPlanar source,
+        final Lch adjust,
+        final ImgPlanar target) {
+
+        return ImgPlanar.adjustLch(source, adjust, Img.DEFAULT_GRAY_POLICY,
+            null, target);
+    }
+
+    /**
+     * Blurs an image by averaging each pixel with its neighbors in 8
+     * directions. The step determines the size of the kernel, where the
+     * minimum step of 1 will make a 3x3, 9 pixel kernel.
+     *
+     * @param source the input image
+     * @param step   the kernel step
+     * @param target the output image
+     * @return the blurred image
+     */
+    public static ImgPlanar blur(
+        final ImgPlanar source,
+        final int step,
+        final ImgPlanar target) {
+
+        return ImgPlanar.blur(source, step, null, target);
+    }
+
+    /**
+     * Blurs an image by averaging each pixel with its neighbors in 8
+     * directions. The step determines the size of the kernel, where the
+     * minimum step of 1 will make a 3x3, 9 pixel kernel. As with
+     * {@link Img#blur(Img, int, ForkJoinPool, Img)}, when the kernel is out
+     * of bounds, the central color is sampled but alpha is not tallied.
+     * <br>
+     * <br>
+     * Each channel is blurred by a horizontal, then a vertical pass of
+     * running sums.
+     *
+     * @param source the input image
+     * @param step   the kernel step
+     * @param pool   the fork join pool
+     * @param target the output image
+     * @return the blurred image
+     */
+    public static ImgPlanar blur(
+        final ImgPlanar source,
+        final int step,
+        final ForkJoinPool pool,
+        final ImgPlanar target) {
+
+        ImgPlanar.match(source, target);
+        if (step < 1) {
+            return ImgPlanar.copy(source, target);
+        }
+
+        final int w = source.width;
+        final int h = source.height;
+        final boolean inPlace = source == target;
+
+        ImgPlanar.blurBox(inPlace ? source.l.clone() : source.l,
+            w, h, step, true, pool, target.l);
+        ImgPlanar.blurBox(inPlace ? source.a.clone() : source.a,
+            w, h, step, true, pool, target.a);
+        ImgPlanar.blurBox(inPlace ? source.b.clone() : source.b,
+            w, h, step, true, pool, target.b);
+        ImgPlanar.blurBox(inPlace ? source.alpha.clone() : source.alpha,
+            w, h, step, false, pool, target.alpha);
+
+        return target;
+    }
+
+    /**
+     * Fills an image with a color.
+     *
+     * @param target the output image
+     * @param fill   the fill color
+     * @return the image
+     */
+    public static ImgPlanar fill(final ImgPlanar target, final Lab fill) {
+
+        Arrays.fill(target.l, fill.l);
+        Arrays.fill(target.a, fill.a);
+        Arrays.fill(target.b, fill.b);
+        Arrays.fill(target.alpha, fill.alpha);
+        return target;
+    }
+
+    /**
+     * Converts a packed image to a planar image. The conversion is lossless.
+     *
+     * @param source the packed image
+     * @param pool   the fork join pool
+     * @param target the planar image
+     * @return the planar image
+     * @see Lab#fromHex(long, Lab)
+     */
+    public static ImgPlanar fromImg(
+        final Img source,
+        final ForkJoinPool pool,
+        final ImgPlanar target) {
+
+        final int w = source.width;
+        final int h = source.height;
+        final int len = source.pixels.length;
+        if (target.width != w || target.height != h || target.l.length != len) {
+            target.width = w;
+            target.height = h;
+            target.l = new float[len];
+            target.a = new float[len];
+            target.b = new float[len];
+            target.alpha = new float[len];
+        }
+
+        final long[] pixels = source.pixels;
+        Parallel.forRange(pool, 0, h, Parallel.rowGrain(w), (yStart, yEnd) -> {
+            for (int i = yStart * w, iEnd = yEnd * w; i < iEnd; ++i) {
+                final long hex = pixels[i];
+                target.l[i] = (hex >> 0x20L & 0xffffL) * Lab.L_FROM_SHORT;
+                target.a[i] = ((hex >> 0x10L & 0xffffL) - 0x8000L) * Lab.AB_FROM_SHORT;
+                target.b[i] = ((hex & 0xffffL) - 0x8000L) * Lab.AB_FROM_SHORT;
+                target.alpha[i] = (hex >> 0x30L & 0xffffL) / 65535.0f;
+            }
+        });
+
+        return target;
+    }
+
+    /**
+     * Converts a packed image to a planar image. The conversion is lossless.
+     *
+     * @param source the packed image
+     * @param target the planar image
+     * @return the planar image
+     */
+    public static ImgPlanar fromImg(final Img source, final ImgPlanar target) {
+
+        return ImgPlanar.fromImg(source, null, target);
+    }
+
+    /**
+     * Desaturates an image by a factor in [0.0, 1.0].
+     *
+     * @param source the source image
+     * @param fac    the factor
+     * @param target the target image
+     * @return the gray image
+     */
+    public static ImgPlanar grayscale(
+        final ImgPlanar source,
+        final float fac,
+        final ImgPlanar target) {
+
+        ImgPlanar.match(source, target);
+
+        final float t = Float.isNaN(fac) ? 1.0f : Utils.clamp01(fac);
+        if (t <= 0.0f) {
+            return ImgPlanar.copy(source, target);
+        }
+
+        final int len = source.l.length;
+        final float u = 1.0f - t;
+        for (int i = 0; i < len; ++i) {
+            target.a[i] = u * source.a[i];
+            target.b[i] = u * source.b[i];
+        }
+        System.arraycopy(source.l, 0, target.l, 0, len);
+        System.arraycopy(source.alpha, 0, target.alpha, 0, len);
+
+        return target;
+    }
+
+    /**
+     * Converts an image to gray.
+     *
+     * @param source the source image
+     * @param target the target image
+     * @return the gray image
+     */
+    public static ImgPlanar grayscale(
+        final ImgPlanar source,
+        final ImgPlanar target) {
+
+        return ImgPlanar.grayscale(source, 1.0f, target);
+    }
+
+    /**
+     * Inverts all channels of an image.
+     *
+     * @param source the input image
+     * @param target the output image
+     * @return the inverted image
+     */
+    public static ImgPlanar invert(
+        final ImgPlanar source,
+        final ImgPlanar target) {
+
+        return ImgPlanar.invert(source, true, true, true, target);
+    }
+
+    /**
+     * Inverts the chroma in an image.
+     *
+     * @param source the input image
+     * @param target the output image
+     * @return the inverted image
+     */
+    public static ImgPlanar invertAB(
+        final ImgPlanar source,
+        final ImgPlanar target) {
+
+        return ImgPlanar.invert(source, false, true, false, target);
+    }
+
+    /**
+     * Inverts the transparency in an image.
+     *
+     * @param source the input image
+     * @param target the output image
+     * @return the inverted image
+     */
+    public static ImgPlanar invertAlpha(
+        final ImgPlanar source,
+        final ImgPlanar target) {
+
+        return ImgPlanar.invert(source, false, false, true, target);
+    }
+
+    /**
+     * Inverts the l, a and b channels in an image.
+     *
+     * @param source the input image
+     * @param target the output image
+     * @return the inverted image
+     */
+    public static ImgPlanar invertLab(
+        final ImgPlanar source,
+        final ImgPlanar target) {
+
+        return ImgPlanar.invert(source, true, true, false, target);
+    }
+
+    /**
+     * Inverts the lightness in an image.
+     *
+     * @param source the input image
+     * @param target the output image
+     * @return the inverted image
+     */
+    public static ImgPlanar invertLight(
+        final ImgPlanar source,
+        final ImgPlanar target) {
+
+        return ImgPlanar.invert(source, true, false, false, target);
+    }
+
+    /**
+     * Mixes between two images by a factor.
+     *
+     * @param orig   the origin image
+     * @param dest   the destination image
+     * @param fac    the factor
+     * @param target the output image
+     * @return the mixed image
+     */
+    public static ImgPlanar mix(
+        final ImgPlanar orig,
+        final ImgPlanar dest,
+        final float fac,
+        final ImgPlanar target) {
+
+        if (!ImgPlanar.similar(orig, dest)) {
+            System.err.println("Cannot mix between two images of unequal sizes.");
+            return target;
+        }
+
+        ImgPlanar.match(orig, target);
+
+        final float t = Float.isNaN(fac) ? 0.5f : fac;
+        if (t <= 0.0f) {
+            return ImgPlanar.copy(orig, target);
+        }
+        if (t >= 1.0f) {
+            return ImgPlanar.copy(dest, target);
+        }
+
+        final float u = 1.0f - t;
+        final int len = target.l.length;
+        for (int i = 0; i < len; ++i) {
+            target.l[i] = u * orig.l[i] + t * dest.l[i];
+            target.a[i] = u * orig.a[i] + t * dest.a[i];
+            target.b[i] = u * orig.b[i] + t * dest.b[i];
+            target.alpha[i] = u * orig.alpha[i] + t * dest.alpha[i];
+        }
+
+        return target;
+    }
+
+    /**
+     * Mixes between two images by a factor. Mixing functions may hold
+     * temporary colors, so a new one is supplied for each band of rows
+     * processed by the pool.
+     *
+     * @param orig   the origin image
+     * @param dest   the destination image
+     * @param fac    the factor
+     * @param mixer  the mixing function supplier
+     * @param pool   the fork join pool
+     * @param target the output image
+     * @return the mixed image
+     */
+    public static ImgPlanar mix(
+        final ImgPlanar orig,
+        final ImgPlanar dest,
+        final float fac,
+        final Supplier<? extends Lab.AbstrEasing> mixer,
+        final ForkJoinPool pool,
+        final ImgPlanar target) {
+
+        if (!ImgPlanar.similar(orig, dest)) {
+            System.err.println("Cannot mix between two images of unequal sizes.");
+            return target;
+        }
+
+        ImgPlanar.match(orig, target);
+
+        final float t = Float.isNaN(fac) ? 0.5f : fac;
+        if (t <= 0.0f) {
+            return ImgPlanar.copy(orig, target);
+        }
+        if (t >= 1.0f) {
+            return ImgPlanar.copy(dest, target);
+        }
+
+        final Float tObj = t;
+        final int w = target.width;
+        final int h = target.height;
+        Parallel.forRange(pool, 0, h, Parallel.rowGrain(w), (yStart, yEnd) -> {
+            final Lab.AbstrEasing bandMixer = mixer.get();
+            final Lab oLab = new Lab();
+            final Lab dLab = new Lab();
+            final Lab tLab = new Lab();
+
+            for (int i = yStart * w, iEnd = yEnd * w; i < iEnd; ++i) {
+                oLab.set(orig.l[i], orig.a[i], orig.b[i], orig.alpha[i]);
+                dLab.set(dest.l[i], dest.a[i], dest.b[i], dest.alpha[i]);
+                bandMixer.applyUnclamped(oLab, dLab, tObj, tLab);
+                target.l[i] = tLab.l;
+                target.a[i] = tLab.a;
+                target.b[i] = tLab.b;
+                target.alpha[i] = tLab.alpha;
+            }
+        });
+
+        return target;
+    }
+
+    /**
+     * Multiplies the image's alpha by the scalar. Expected range is within
+     * [0.0, 1.0]. Clears the image if the alpha is less than or equal to zero.
+     *
+     * @param source the input image
+     * @param a01    the alpha scalar
+     * @param target the output image
+     * @return the multiplied alpha
+     */
+    public static ImgPlanar mulAlpha(
+        final ImgPlanar source,
+        final float a01,
+        final ImgPlanar target) {
+
+        ImgPlanar.match(source, target);
+
+        if (a01 <= 0.0f) {
+            return ImgPlanar.fill(target, Lab.clearBlack(new Lab()));
+        }
+        if (a01 == 1.0f) {
+            return ImgPlanar.copy(source, target);
+        }
+
+        final int len = source.l.length;
+        for (int i = 0; i < len; ++i) {
+            target.alpha[i] = Math.min(source.alpha[i] * a01, 1.0f);
+        }
+        System.arraycopy(source.l, 0, target.l, 0, len);
+        System.arraycopy(source.a, 0, target.a, 0, len);
+        System.arraycopy(source.b, 0, target.b, 0, len);
+
+        return target;
+    }
+
+    /**
+     * Normalizes an image's lightness so that it fills the complete range from
+     * [0.0, 100.0]. Accepts a factor in [-1.0, 1.0]. If the factor is
+     * negative, reduces contrast towards the average lightness.
+     *
+     * @param source the input image
+     * @param fac    the factor
+     * @param target the output image
+     * @return the normalized image
+     */
+    public static ImgPlanar normalizeLight(
+        final ImgPlanar source,
+        final float fac,
+        final ImgPlanar target) {
+
+        ImgPlanar.match(source, target);
+
+        final float facVerif = Float.isNaN(fac)
+            ? 1.0f
+            : Utils.clamp(fac, -1.0f, 1.0f);
+        if (Utils.approx(facVerif, 0.0f)) {
+            return ImgPlanar.copy(source, target);
+        }
+
+        final int len = source.l.length;
+        float minLight = Float.MAX_VALUE;
+        float maxLight = -Float.MAX_VALUE;
+        double sumLight = 0.0d;
+        int sumTally = 0;
+
+        for (int i = 0; i < len; ++i) {
+            if (source.alpha[i] > 0.0f) {
+                final float light = source.l[i];
+                if (light > maxLight) {
+                    maxLight = light;
+                }
+                if (light < minLight) {
+                    minLight = light;
+                }
+                sumLight += light;
+                ++sumTally;
+            }
+        }
+
+        final float dff = Utils.diff(maxLight, minLight);
+        if (sumTally == 0 || dff < Img.MIN_LIGHT_DIFF) {
+            return ImgPlanar.copy(source, target);
+        }
+
+        final float t = Utils.abs(facVerif);
+        final float u = 1.0f - t;
+        final boolean gtZero = facVerif > 0.0f;
+
+        final float tLumAvg = t * (float) (sumLight / sumTally);
+        final float tDenom = t * (100.0f / dff);
+        final float lumMintDenom = minLight * tDenom;
+
+        for (int j = 0; j < len; ++j) {
+            final float lSrc = source.l[j];
+            target.l[j] = gtZero
+                ? u * lSrc + lSrc * tDenom - lumMintDenom
+                : u * lSrc + tLumAvg;
+        }
+        System.arraycopy(source.a, 0, target.a, 0, len);
+        System.arraycopy(source.b, 0, target.b, 0, len);
+        System.arraycopy(source.alpha, 0, target.alpha, 0, len);
+
+        return target;
+    }
+
+    /**
+     * Sets all pixels in an image to opaque.
+     *
+     * @param source the input image
+     * @param target the output image
+     * @return the opaque image
+     */
+    public static ImgPlanar opaque(
+        final ImgPlanar source,
+        final ImgPlanar target) {
+
+        ImgPlanar.match(source, target);
+
+        final int len = source.l.length;
+        if (source != target) {
+            System.arraycopy(source.l, 0, target.l, 0, len);
+            System.arraycopy(source.a, 0, target.a, 0, len);
+            System.arraycopy(source.b, 0, target.b, 0, len);
+        }
+        Arrays.fill(target.alpha, 1.0f);
+
+        return target;
+    }
+
+    /**
+     * Tints an image with a color according to a factor. If the preserveLight
+     * flag is true, the source image's original lightness is retained.
+     *
+     * @param source        the source image
+     * @param tint          the tint color
+     * @param fac           the factor
+     * @param preserveLight the preserve light flag
+     * @param pool          the fork join pool
+     * @param target        the target image
+     * @return the tinted image
+     */
+    public static ImgPlanar tint(
+        final ImgPlanar source,
+        final Lab tint,
+        final float fac,
+        final boolean preserveLight,
+        final ForkJoinPool pool,
+        final ImgPlanar target) {
+
+        ImgPlanar.match(source, target);
+
+        final float t = Float.isNaN(fac) ? 1.0f : Utils.clamp01(fac);
+        final float u = 1.0f - t;
+        final float tl = t * tint.l;
+        final float ta = t * tint.a;
+        final float tb = t * tint.b;
+        final float uta = u + t * tint.alpha;
+
+        final int w = source.width;
+        final int h = source.height;
+        Parallel.forRange(pool, 0, h, Parallel.rowGrain(w), (yStart, yEnd) -> {
+            for (int i = yStart * w, iEnd = yEnd * w; i < iEnd; ++i) {
+                final float lSrc = source.l[i];
+                target.l[i] = preserveLight ? lSrc : u * lSrc + tl;
+                target.a[i] = u * source.a[i] + ta;
+                target.b[i] = u * source.b[i] + tb;
+                target.alpha[i] = uta * source.alpha[i];
+            }
+        });
+
+        return target;
+    }
+
+    /**
+     * Tints an image with a color according to a factor.
+     *
+     * @param source the source image
+     * @param tint   the tint color
+     * @param fac    the factor
+     * @param target the target image
+     * @return the tinted image
+     */
+    public static ImgPlanar tint(
+        final ImgPlanar source,
+        final Lab tint,
+        final float fac,
+        final ImgPlanar target) {
+
+        return ImgPlanar.tint(source, tint, fac, true, null, target);
+    }
+
+    /**
+     * Converts a planar image to a packed image. Channels are clamped in the
+     * manner of {@link Lab#toHexLongSat()}, but a and b are rounded rather
+     * than floored, so that an image converted from an {@link Img} returns to
+     * the same pixels.
+     *
+     * @param source the planar image
+     * @param pool   the fork join pool
+     * @param target the packed image
+     * @return the packed image
+     */
+    public static Img toImg(
+        final ImgPlanar source,
+        final ForkJoinPool pool,
+        final Img target) {
+
+        final int w = source.width;
+        final int h = source.height;
+        final int len = source.l.length;
+        if (target.width != w || target.height != h || target.pixels.length != len) {
+            target.width = w;
+            target.height = h;
+            target.pixels = new long[len];
+        }
+
+        final long[] pixels = target.pixels;
+        Parallel.forRange(pool, 0, h, Parallel.rowGrain(w), (yStart, yEnd) -> {
+            for (int i = yStart * w, iEnd = yEnd * w; i < iEnd; ++i) {
+                final long t16 = (long) (Utils.clamp01(source.alpha[i]) * 0xffff + 0.5f);
+                final long l16 = (long) (Utils.clamp(
+                    source.l[i], 0.0f, 100.0f) * Lab.L_TO_SHORT + 0.5f);
+                final long a16 = 0x8000L + Math.round(Utils.clamp(
+                    source.a[i] * Lab.AB_TO_SHORT, -32768.0f, 32767.0f));
+                final long b16 = 0x8000L + Math.round(Utils.clamp(
+                    source.b[i] * Lab.AB_TO_SHORT, -32768.0f, 32767.0f));
+                pixels[i] = t16 << 0x30L | l16 << 0x20L | a16 << 0x10L | b16;
+            }
+        });
+
+        return target;
+    }
+
+    /**
+     * Converts a planar image to a packed image.
+     *
+     * @param source the planar image
+     * @param target the packed image
+     * @return the packed image
+     */
+    public static Img toImg(final ImgPlanar source, final Img target) {
+
+        return ImgPlanar.toImg(source, null, target);
+    }
+
+    /**
+     * Blurs one channel with a box kernel. The source and target arrays must
+     * not be the same. When the kernel is out of bounds and the center flag
+     * is true, the central value is sampled in place of the missing values.
+     * Otherwise, missing values count as zero.
+     *
+     * @param source the source channel
+     * @param w      the image width
+     * @param h      the image height
+     * @param step   the kernel step
+     * @param center sample the center out of bounds
+     * @param pool   the fork join pool
+     * @param target the target channel
+     */
+    protected static void blurBox(
+        final float[] source,
+        final int w,
+        final int h,
+        final int step,
+        final boolean center,
+        final ForkJoinPool pool,
+        final float[] target) {
+
+        final int wKrn = 1 + step * 2;
+        final double toAvg = 1.0d / ((double) wKrn * wKrn);
+        final double[] hSum = new double[w * h];
+
+        Parallel.forRange(pool, 0, h, Parallel.rowGrain(w), (yStart, yEnd) -> {
+            for (int y = yStart; y < yEnd; ++y) {
+                final int row = y * w;
+                double sum = 0.0d;
+
+                final int xPrime = Math.min(step, w);
+                for (int x = 0; x < xPrime; ++x) {
+                    sum += source[row + x];
+                }
+
+                for (int x = 0; x < w; ++x) {
+                    final int xAdd = x + step;
+                    if (xAdd < w) {
+                        sum += source[row + xAdd];
+                    }
+                    final int xSub = x - step - 1;
+                    if (xSub >= 0) {
+                        sum -= source[row + xSub];
+                    }
+                    hSum[row + x] = sum;
+                }
+            }
+        });
+
+        Parallel.forRange(pool, 0, w, Parallel.rowGrain(h), (xStart, xEnd) -> {
+            final int bandWidth = xEnd - xStart;
+            final double[] vSum = new double[bandWidth];
+
+            final int yPrime = Math.min(step, h);
+            for (int y = 0; y < yPrime; ++y) {
+                final int row = y * w + xStart;
+                for (int k = 0; k < bandWidth; ++k) {
+                    vSum[k] += hSum[row + k];
+                }
+            }
+
+            for (int y = 0; y < h; ++y) {
+                final int yAdd = y + step;
+                if (yAdd < h) {
+                    final int row = yAdd * w + xStart;
+                    for (int k = 0; k < bandWidth; ++k) {
+                        vSum[k] += hSum[row + k];
+                    }
+                }
+
+                final int ySub = y - step - 1;
+                if (ySub >= 0) {
+                    final int row = ySub * w + xStart;
+                    for (int k = 0; k < bandWidth; ++k) {
+                        vSum[k] -= hSum[row + k];
+                    }
+                }
+
+                final int hIn = Math.min(h - 1, yAdd) - Math.max(0, y - step) + 1;
+                final int row = y * w + xStart;
+                for (int k = 0; k < bandWidth; ++k) {
+                    double sum = vSum[k];
+                    if (center) {
+                        final int x = xStart + k;
+                        final int wIn = Math.min(w - 1, x + step)
+                            - Math.max(0, x - step) + 1;
+                        final long outCount = (long) wKrn * wKrn - (long) wIn * hIn;
+                        sum += outCount * (double) source[row + k];
+                    }
+                    target[row + k] = (float) (sum * toAvg);
+                }
+            }
+        });
+    }
+
+    /**
+     * Copies the channels of a source image to a target. The target is
+     * assumed to be similar to the source.
+     *
+     * @param source the source image
+     * @param target the target image
+     * @return the target image
+     */
+    protected static ImgPlanar copy(
+        final ImgPlanar source,
+        final ImgPlanar target) {
+
+        if (source != target) {
+            final int len = source.l.length;
+            System.arraycopy(source.l, 0, target.l, 0, len);
+            System.arraycopy(source.a, 0, target.a, 0, len);
+            System.arraycopy(source.b, 0, target.b, 0, len);
+            System.arraycopy(source.alpha, 0, target.alpha, 0, len);
+        }
+        return target;
+    }
+
+    /**
+     * Inverts the channels of an image selected by flags. Lightness is
+     * inverted about 50.0, a and b about 0.0, alpha about 0.5.
+     *
+     * @param source the input image
+     * @param l      invert lightness
+     * @param ab     invert a and b
+     * @param alpha  invert alpha
+     * @param target the output image
+     * @return the inverted image
+     */
+    protected static ImgPlanar invert(
+        final ImgPlanar source,
+        final boolean l,
+        final boolean ab,
+        final boolean alpha,
+        final ImgPlanar target) {
+
+        ImgPlanar.match(source, target);
+
+        final int len = source.l.length;
+        for (int i = 0; i < len; ++i) {
+            target.l[i] = l ? 100.0f - source.l[i] : source.l[i];
+            target.a[i] = ab ? -source.a[i] : source.a[i];
+            target.b[i] = ab ? -source.b[i] : source.b[i];
+            target.alpha[i] = alpha ? 1.0f - source.alpha[i] : source.alpha[i];
+        }
+
+        return target;
+    }
+
+    /**
+     * Resizes a target image to match a source if they are not similar.
+     *
+     * @param source the source image
+     * @param target the target image
+     */
+    protected static void match(
+        final ImgPlanar source,
+        final ImgPlanar target) {
+
+        if (!ImgPlanar.similar(source, target)) {
+            final int len = source.l.length;
+            target.width = source.width;
+            target.height = source.height;
+            target.l = new float[len];
+            target.a = new float[len];
+            target.b = new float[len];
+            target.alpha = new float[len];
+        }
+    }
+
+    /**
+     * Evaluates whether two images are similar enough that they can serve as
+     * source and target in a static method. To be similar, images must have
+     * the same width, height and channel length.
+     *
+     * @param a the source candidate
+     * @param b the target candidate
+     * @return the evaluation
+     */
+    protected static boolean similar(final ImgPlanar a, final ImgPlanar b) {
+
+        return a == b
+            || a.width == b.width
+            && a.height == b.height
+            && a.l.length == b.l.length;
+    }
+
+    /**
+     * Tests this image for equivalence with another.
+     *
+     * @param other the image
+     * @return the equivalence
+     */
+    public boolean equals(final ImgPlanar other) {
+
+        return this.height == other.height
+            && this.width == other.width
+            && Arrays.equals(this.l, other.l)
+            && Arrays.equals(this.a, other.a)
+            && Arrays.equals(this.b, other.b)
+            && Arrays.equals(this.alpha, other.alpha);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (!(o instanceof final ImgPlanar img))
+            return false;
+        return this.equals(img);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.height, this.width,
+            Arrays.hashCode(this.l), Arrays.hashCode(this.a),
+            Arrays.hashCode(this.b), Arrays.hashCode(this.alpha));
+    }
+
+    /**
+     * Gets the image height.
+     *
+     * @return the height
+     */
+    public final int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Gets a pixel at an index. Does not check the index for validity.
+     *
+     * @param i      the index
+     * @param target the output color
+     * @return the color
+     */
+    public final Lab getPixel(final int i, final Lab target) {
+
+        return target.set(this.l[i], this.a[i], this.b[i], this.alpha[i]);
+    }
+
+    /**
+     * Gets the image width.
+     *
+     * @return the width
+     */
+    public final int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Gets the image pixel length.
+     *
+     * @return the pixel length
+     */
+    public final int length() {
+        return this.l.length;
+    }
+
+    /**
+     * Sets a pixel at an index. Does not check the index for validity.
+     *
+     * @param i the index
+     * @param c the color
+     */
+    public final void setPixel(final int i, final Lab c) {
+
+        this.l[i] = c.l;
+        this.a[i] = c.a;
+        this.b[i] = c.b;
+        this.alpha[i] = c.alpha;
+    }
+
+    /**
+     * Returns a string representation of an image.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+
+        final StringBuilder sb = new StringBuilder(64);
+        sb.append("{\"width\":");
+        sb.append(this.width);
+        sb.append(",\"height\":");
+        sb.append(this.height);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,490 @@
+package com.behreajj.camzup.core;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Channel-wise kernels for 64-bit pixels in the format 0xTTTTLLLLAAAABBBB
+ * written with the incubating JDK Vector API. This class must only be
+ * loaded when the module <code>jdk.incubator.vector</code> is present; see
+ * {@link Img#USE_VECTOR}.
+ * <br>
+ * <br>
+ * Kernels operate on a range of indices, so that they may be called by
+ * each band of a {@link Parallel} action. The arithmetic of unpacking with
+ * {@link Lab#fromHex(long, Lab)} and packing with {@link Lab#toHexLongSat()}
+ * is reproduced lane by lane, so results equal those of the scalar path.
+ * <br>
+ * <br>
+ * To unpack, a vector of pixels is reinterpreted as twice as many 32-bit
+ * lanes. The low half of each lane then holds the channels b and l, the
+ * "x" channels, in alternation; the high half holds a and alpha, the "y"
+ * channels. Channel-specific arithmetic uses constants that alternate in
+ * the same way.
+ */
+final class ImgVector {
+
+    /**
+     * The species for channels.
+     */
+    static final VectorSpecies<Float> FS = FloatVector.SPECIES_PREFERRED;
+
+    /**
+     * The species for the 16-bit halves of pixels.
+     */
+    static final VectorSpecies<Integer> IS = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * The species for pixels.
+     */
+    static final VectorSpecies<Long> LS = LongVector.SPECIES_PREFERRED;
+
+    /**
+     * Whether a lane holds the channel a or b, rather than alpha or l.
+     */
+    private static final VectorMask<Float> IS_AB;
+
+    /**
+     * A float, 1.5 * 2 ^ 23, whose addition rounds floats smaller than
+     * 2 ^ 22 in magnitude to integers held in the low mantissa bits.
+     */
+    private static final float MAGIC = 12582912.0f;
+
+    /**
+     * Offsets of 0x8000 in lanes which hold a or b, zero otherwise.
+     */
+    private static final FloatVector AB_OFFSET;
+
+    /**
+     * Scalars for x channels, b and l.
+     */
+    private static final FloatVector X_SCALE;
+
+    /**
+     * Divisors for y channels, a and alpha.
+     */
+    private static final FloatVector Y_DIVISOR;
+
+    /**
+     * Scalars for y channels, a and alpha.
+     */
+    private static final FloatVector Y_SCALE;
+
+    static {
+        final int len = ImgVector.FS.length();
+        final boolean[] isAb = new boolean[len];
+        final float[] abOffset = new float[len];
+        final float[] xScale = new float[len];
+        final float[] yDivisor = new float[len];
+        final float[] yScale = new float[len];
+        for (int k = 0; k < len; ++k) {
+            final boolean even = k % 2 == 0;
+            isAb[k] = even;
+            abOffset[k] = even ? 0x8000 : 0.0f;
+            xScale[k] = even ? Lab.AB_FROM_SHORT : Lab.L_FROM_SHORT;
+            yDivisor[k] = even ? 1.0f : 65535.0f;
+            yScale[k] = even ? Lab.AB_FROM_SHORT : 1.0f;
+        }
+
+        IS_AB = VectorMask.fromArray(ImgVector.FS, isAb, 0);
+        AB_OFFSET = FloatVector.fromArray(ImgVector.FS, abOffset, 0);
+        X_SCALE = FloatVector.fromArray(ImgVector.FS, xScale, 0);
+        Y_DIVISOR = FloatVector.fromArray(ImgVector.FS, yDivisor, 0);
+        Y_SCALE = FloatVector.fromArray(ImgVector.FS, yScale, 0);
+    }
+
+    /**
+     * Discourage overriding with a private constructor.
+     */
+    private ImgVector() {
+    }
+
+    /**
+     * Sets each pixel to the bitwise and of the pixel and one mask, then
+     * the bitwise or with another.
+     *
+     * @param source  the source pixels
+     * @param andMask the and mask
+     * @param orMask  the or mask
+     * @param start   the start index
+     * @param end     the end index
+     * @param target  the target pixels
+     */
+    static void andOr(
+        final long[] source,
+        final long andMask,
+        final long orMask,
+        final int start,
+        final int end,
+        final long[] target) {
+
+        final int bound = start + ImgVector.LS.loopBound(end - start);
+        int i = start;
+        for (; i < bound; i += ImgVector.LS.length()) {
+            LongVector.fromArray(ImgVector.LS, source, i)
+                .lanewise(VectorOperators.AND, andMask)
+                .lanewise(VectorOperators.OR, orMask)
+                .intoArray(target, i);
+        }
+        for (; i < end; ++i) {
+            target[i] = source[i] & andMask | orMask;
+        }
+    }
+
+    /**
+     * Multiplies the saturation of each pixel by a factor. The lightness and
+     * alpha are retained.
+     *
+     * @param source the source pixels
+     * @param u      the factor
+     * @param start  the start index
+     * @param end    the end index
+     * @param target the target pixels
+     * @see Img#grayscale(Img, float, Img)
+     */
+    static void grayscale(
+        final long[] source,
+        final float u,
+        final int start,
+        final int end,
+        final long[] target) {
+
+        final Lab lab = new Lab();
+        final FloatVector uAb = FloatVector.broadcast(ImgVector.FS, 1.0f)
+            .blend(u, ImgVector.IS_AB);
+        final int bound = start + ImgVector.LS.loopBound(end - start);
+        int i = start;
+        for (; i < bound; i += ImgVector.LS.length()) {
+            final IntVector p = ImgVector.load(source, i);
+            ImgVector.store(
+                ImgVector.unpackX(p).mul(uAb),
+                ImgVector.unpackY(p).mul(uAb),
+                target, i);
+        }
+        for (; i < end; ++i) {
+            Lab.fromHex(source[i], lab);
+            lab.a *= u;
+            lab.b *= u;
+            target[i] = lab.toHexLongSat();
+        }
+    }
+
+    /**
+     * Mixes between two arrays of pixels in LAB by a factor.
+     *
+     * @param orig   the origin pixels
+     * @param dest   the destination pixels
+     * @param t      the factor
+     * @param start  the start index
+     * @param end    the end index
+     * @param target the target pixels
+     * @see Lab#mix(Lab, Lab, float, Lab)
+     */
+    static void mix(
+        final long[] orig,
+        final long[] dest,
+        final float t,
+        final int start,
+        final int end,
+        final long[] target) {
+
+        final float u = 1.0f - t;
+        final Lab oLab = new Lab();
+        final Lab dLab = new Lab();
+        final int bound = start + ImgVector.LS.loopBound(end - start);
+        int i = start;
+        for (; i < bound; i += ImgVector.LS.length()) {
+            final IntVector o = ImgVector.load(orig, i);
+            final IntVector d = ImgVector.load(dest, i);
+            ImgVector.store(
+                ImgVector.unpackX(o).mul(u).add(ImgVector.unpackX(d).mul(t)),
+                ImgVector.unpackY(o).mul(u).add(ImgVector.unpackY(d).mul(t)),
+                target, i);
+        }
+        for (; i < end; ++i) {
+            Lab.fromHex(orig[i], oLab);
+            Lab.fromHex(dest[i], dLab);
+            target[i] = Lab.mix(oLab, dLab, t, oLab).toHexLongSat();
+        }
+    }
+
+    /**
+     * Multiplies the alpha of each pixel by a 16-bit scalar, then divides by
+     * 65535. The scalar is expected to be in [0, 65535].
+     *
+     * @param source the source pixels
+     * @param alpha  the alpha scalar
+     * @param start  the start index
+     * @param end    the end index
+     * @param target the target pixels
+     * @see Img#mulAlpha(Img, float, Img)
+     */
+    static void mulAlpha(
+        final long[] source,
+        final long alpha,
+        final int start,
+        final int end,
+        final long[] target) {
+
+        final int bound = start + ImgVector.LS.loopBound(end - start);
+        int i = start;
+        for (; i < bound; i += ImgVector.LS.length()) {
+            final LongVector p = LongVector.fromArray(ImgVector.LS, source, i);
+
+            /*
+             * For x in [0, 65535 * 65535], x / 65535 equals
+             * (x + 1 + ((x + 1) >>> 16)) >>> 16, as lanes lack integer
+             * division.
+             */
+            final LongVector x1 = p.lanewise(VectorOperators.LSHR, Img.T_SHIFT)
+                .mul(alpha)
+                .add(1L);
+            x1.add(x1.lanewise(VectorOperators.LSHR, 16L))
+                .lanewise(VectorOperators.LSHR, 16L)
+                .lanewise(VectorOperators.LSHL, Img.T_SHIFT)
+                .or(p.and(Img.LAB_MASK))
+                .intoArray(target, i);
+        }
+        for (; i < end; ++i) {
+            final long c = source[i];
+            final long t16Trg = (c >> Img.T_SHIFT & 0xffffL) * alpha / 0xffffL;
+            target[i] = t16Trg << Img.T_SHIFT | c & Img.LAB_MASK;
+        }
+    }
+
+    /**
+     * Sets pixels whose alpha is greater than or equal to a 16-bit threshold
+     * to opaque; sets others to clear.
+     *
+     * @param source the source pixels
+     * @param t16    the threshold
+     * @param start  the start index
+     * @param end    the end index
+     * @param target the target pixels
+     * @see Img#thresholdAlpha(Img, float, Img)
+     */
+    static void thresholdAlpha(
+        final long[] source,
+        final long t16,
+        final int start,
+        final int end,
+        final long[] target) {
+
+        final int bound = start + ImgVector.LS.loopBound(end - start);
+        int i = start;
+        for (; i < bound; i += ImgVector.LS.length()) {
+            final LongVector p = LongVector.fromArray(ImgVector.LS, source, i);
+            final VectorMask<Long> keep = p
+                .lanewise(VectorOperators.LSHR, Img.T_SHIFT)
+                .compare(VectorOperators.GE, t16);
+            LongVector.broadcast(ImgVector.LS, Img.CLEAR_PIXEL)
+                .blend(p.or(Img.T_MASK), keep)
+                .intoArray(target, i);
+        }
+        for (; i < end; ++i) {
+            final long c = source[i];
+            target[i] = (c >>> Img.T_SHIFT) >= t16 ? c | Img.T_MASK : Img.CLEAR_PIXEL;
+        }
+    }
+
+    /**
+     * Tints pixels with a color according to a factor.
+     *
+     * @param source        the source pixels
+     * @param tint          the tint color
+     * @param t             the factor
+     * @param preserveLight the preserve light flag
+     * @param start         the start index
+     * @param end           the end index
+     * @param target        the target pixels
+     * @see Img#tint(Img, Lab, float, boolean, java.util.concurrent.ForkJoinPool, Img)
+     */
+    static void tint(
+        final long[] source,
+        final Lab tint,
+        final float t,
+        final boolean preserveLight,
+        final int start,
+        final int end,
+        final long[] target) {
+
+        final float u = 1.0f - t;
+        final Lab lab = new Lab();
+
+        /*
+         * Each channel is u * x + t * (x * m + c). For b and l, m is zero and
+         * c is the tint; for a, likewise. For alpha, m is the tint alpha
+         * and c is zero.
+         */
+        final FloatVector xAdd = FloatVector.broadcast(ImgVector.FS, tint.l)
+            .blend(tint.b, ImgVector.IS_AB).mul(t);
+        final FloatVector yMul = FloatVector.broadcast(ImgVector.FS, tint.alpha)
+            .blend(0.0f, ImgVector.IS_AB);
+        final FloatVector yAdd = FloatVector.broadcast(ImgVector.FS, 0.0f)
+            .blend(tint.a, ImgVector.IS_AB);
+        final VectorMask<Float> keep = preserveLight
+            ? ImgVector.IS_AB.not()
+            : ImgVector.FS.maskAll(false);
+
+        final int bound = start + ImgVector.LS.loopBound(end - start);
+        int i = start;
+        for (; i < bound; i += ImgVector.LS.length()) {
+            final IntVector p = ImgVector.load(source, i);
+            final FloatVector x = ImgVector.unpackX(p);
+            final FloatVector y = ImgVector.unpackY(p);
+            ImgVector.store(
+                x.mul(u).add(xAdd).blend(x, keep),
+                y.mul(u).add(y.mul(yMul).add(yAdd).mul(t)),
+                target, i);
+        }
+        for (; i < end; ++i) {
+            Lab.fromHex(source[i], lab);
+            lab.l = preserveLight ? lab.l : u * lab.l + t * tint.l;
+            lab.a = u * lab.a + t * tint.a;
+            lab.b = u * lab.b + t * tint.b;
+            lab.alpha = u * lab.alpha + t * (lab.alpha * tint.alpha);
+            target[i] = lab.toHexLongSat();
+        }
+    }
+
+    /**
+     * Sets each pixel to the bitwise exclusive or of the pixel and a mask.
+     *
+     * @param source the source pixels
+     * @param mask   the mask
+     * @param start  the start index
+     * @param end    the end index
+     * @param target the target pixels
+     */
+    static void xor(
+        final long[] source,
+        final long mask,
+        final int start,
+        final int end,
+        final long[] target) {
+
+        final int bound = start + ImgVector.LS.loopBound(end - start);
+        int i = start;
+        for (; i < bound; i += ImgVector.LS.length()) {
+            LongVector.fromArray(ImgVector.LS, source, i)
+                .lanewise(VectorOperators.XOR, mask)
+                .intoArray(target, i);
+        }
+        for (; i < end; ++i) {
+            target[i] = source[i] ^ mask;
+        }
+    }
+
+    /**
+     * Loads pixels, then reinterprets them as 32-bit lanes.
+     *
+     * @param pixels the pixels
+     * @param i      the index
+     * @return the lanes
+     */
+    private static IntVector load(final long[] pixels, final int i) {
+
+        return LongVector.fromArray(ImgVector.LS, pixels, i).reinterpretAsInts();
+    }
+
+    /**
+     * Packs channels into 16-bit integers in the manner of
+     * {@link Lab#toHexLongSat()}. Lanes which hold a or b are scaled,
+     * clamped, then floored in the manner of {@link Utils#floor(float)}.
+     * Other lanes are clamped to [0.0, upper], scaled, then rounded.
+     * <br>
+     * <br>
+     * Float to integer conversion is not an intrinsic on every JDK, so the
+     * floor is found in float space by rounding with {@link #MAGIC}, then
+     * the integer is taken from the low bits of the sum.
+     *
+     * @param v     the channels
+     * @param upper the upper bound of l or alpha
+     * @param scale the scale of l or alpha
+     * @return the integers
+     */
+    private static IntVector pack(
+        final FloatVector v,
+        final float upper,
+        final float scale) {
+
+        final FloatVector ab = v.mul(Lab.AB_TO_SHORT).max(-32767.5f).min(32767.5f);
+        final FloatVector lt = v.max(0.0f).min(upper).mul(scale).add(0.5f);
+        final FloatVector w = lt.blend(ab, ImgVector.IS_AB);
+
+        /* Round half to even, then correct to the floor. */
+        final FloatVector r = w.add(ImgVector.MAGIC).sub(ImgVector.MAGIC);
+        FloatVector f = r.sub(1.0f, r.compare(VectorOperators.GT, w));
+
+        /* Utils.floor subtracts one from negative integers. */
+        final VectorMask<Float> negInt = f.compare(VectorOperators.EQ, w)
+            .and(w.compare(VectorOperators.LT, 0.0f)).and(ImgVector.IS_AB);
+        f = f.sub(1.0f, negInt);
+
+        return f.add(ImgVector.AB_OFFSET).add(ImgVector.MAGIC)
+            .reinterpretAsInts().and(0xffff);
+    }
+
+    /**
+     * Packs x and y channels into pixels, then stores them.
+     *
+     * @param x      the b and l channels
+     * @param y      the a and alpha channels
+     * @param pixels the pixels
+     * @param i      the index
+     */
+    private static void store(
+        final FloatVector x,
+        final FloatVector y,
+        final long[] pixels,
+        final int i) {
+
+        ImgVector.pack(y, 1.0f, 65535.0f)
+            .lanewise(VectorOperators.LSHL, 16)
+            .or(ImgVector.pack(x, 100.0f, Lab.L_TO_SHORT))
+            .reinterpretAsLongs()
+            .intoArray(pixels, i);
+    }
+
+    /**
+     * Unpacks the b and l channels.
+     *
+     * @param p the lanes
+     * @return the channels
+     */
+    private static FloatVector unpackX(final IntVector p) {
+
+        return ImgVector.toFloat(p.and(0xffff))
+            .sub(ImgVector.AB_OFFSET).mul(ImgVector.X_SCALE);
+    }
+
+    /**
+     * Unpacks the a and alpha channels.
+     *
+     * @param p the lanes
+     * @return the channels
+     */
+    private static FloatVector unpackY(final IntVector p) {
+
+        return ImgVector.toFloat(p.lanewise(VectorOperators.LSHR, 16))
+            .sub(ImgVector.AB_OFFSET).mul(ImgVector.Y_SCALE)
+            .div(ImgVector.Y_DIVISOR);
+    }
+
+    /**
+     * Converts unsigned 16-bit integers to floats exactly by placing them in
+     * the mantissa of {@link #MAGIC}.
+     *
+     * @param n the integers
+     * @return the floats
+     */
+    private static FloatVector toFloat(final IntVector n) {
+
+        return n.or(Float.floatToRawIntBits(ImgVector.MAGIC))
+            .reinterpretAsFloats().sub(ImgVector.MAGIC);
+    }
+}
@@ -0,0 +1,160 @@
+package com.behreajj.camzup.core;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive 32-bit integers. Used to collect indices
+ * without boxing them, as an <code>ArrayList&lt;Integer&gt;</code> would.
+ * The capacity doubles when the list is full.
+ */
+public class IntList {
+
+    /**
+     * The default initial capacity.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The number of elements in the list.
+     */
+    protected int size;
+
+    /**
+     * The elements. May be longer than the size.
+     */
+    protected int[] values;
+
+    /**
+     * The default constructor.
+     */
+    public IntList() {
+
+        this(IntList.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a list with an initial capacity.
+     *
+     * @param capacity the capacity
+     */
+    public IntList(final int capacity) {
+
+        this.values = new int[Math.max(1, capacity)];
+    }
+
+    /**
+     * Appends an element to the end of this list.
+     *
+     * @param v the element
+     * @return this list
+     */
+    public IntList add(final int v) {
+
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.size << 1);
+        }
+        this.values[this.size++] = v;
+        return this;
+    }
+
+    /**
+     * Appends four elements to the end of this list, e.g., the corners of
+     * a quadrilateral or the origin and size of a rectangle.
+     *
+     * @param a the first element
+     * @param b the second element
+     * @param c the third element
+     * @param d the fourth element
+     * @return this list
+     */
+    public IntList add(final int a, final int b, final int c, final int d) {
+
+        final int sz = this.size;
+        if (sz + 4 > this.values.length) {
+            this.values = Arrays.copyOf(this.values,
+                Math.max(sz + 4, this.values.length << 1));
+        }
+        final int[] vs = this.values;
+        vs[sz] = a;
+        vs[sz + 1] = b;
+        vs[sz + 2] = c;
+        vs[sz + 3] = d;
+        this.size = sz + 4;
+        return this;
+    }
+
+    /**
+     * Removes all elements from this list. Does not shrink its capacity.
+     *
+     * @return this list
+     */
+    public IntList clear() {
+
+        this.size = 0;
+        return this;
+    }
+
+    /**
+     * Gets an element at an index. Does not check the index against the
+     * size.
+     *
+     * @param i the index
+     * @return the element
+     */
+    public int get(final int i) {
+        return this.values[i];
+    }
+
+    /**
+     * Sets an element at an index. Does not check the index against the
+     * size.
+     *
+     * @param i the index
+     * @param v the element
+     * @return this list
+     */
+    public IntList set(final int i, final int v) {
+
+        this.values[i] = v;
+        return this;
+    }
+
+    /**
+     * Gets the number of elements in this list.
+     *
+     * @return the size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Copies the elements of this list to a new array.
+     *
+     * @return the array
+     */
+    public int[] toArray() {
+
+        return Arrays.copyOf(this.values, this.size);
+    }
+
+    /**
+     * Gets a string representation of this list.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+
+        final StringBuilder sb = new StringBuilder(16 + this.size * 8);
+        sb.append('[');
+        for (int i = 0; i < this.size; ++i) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(this.values[i]);
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+}
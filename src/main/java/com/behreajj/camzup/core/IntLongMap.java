@@ -0,0 +1,298 @@
+package com.behreajj.camzup.core;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from primitive 32-bit integer keys to
+ * primitive 64-bit integer values. Used to memoize conversions from a
+ * 32-bit color to a 64-bit pixel without boxing either. Collisions are
+ * resolved with linear probing. The capacity is always a power of two.
+ * <br>
+ * <br>
+ * A lookup that should insert on a miss can be done with a single probe
+ * by pairing {@link IntLongMap#indexOf(int)} with
+ * {@link IntLongMap#valueAt(int)} and
+ * {@link IntLongMap#putAt(int, int, long)}.
+ */
+public class IntLongMap {
+
+    /**
+     * The default initial capacity.
+     */
+    public static final int DEFAULT_CAPACITY = 512;
+
+    /**
+     * The minimum capacity.
+     */
+    public static final int MIN_CAPACITY = 16;
+
+    /**
+     * Whether the zero key has been placed in the map. The zero key is used
+     * to mark empty slots, so it is stored apart from the others.
+     */
+    protected boolean hasZero;
+
+    /**
+     * The keys.
+     */
+    protected int[] keys;
+
+    /**
+     * The shift used to reduce a hash to an index.
+     */
+    protected int shift;
+
+    /**
+     * The number of entries in the map.
+     */
+    protected int size;
+
+    /**
+     * The number of entries beyond which the map grows.
+     */
+    protected int threshold;
+
+    /**
+     * The values. Has one more element than the keys, where the value for
+     * the zero key is stored.
+     */
+    protected long[] values;
+
+    /**
+     * The default constructor.
+     */
+    public IntLongMap() {
+
+        this(IntLongMap.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a map with an initial capacity. The capacity is rounded up
+     * to the next power of two.
+     *
+     * @param capacity the capacity
+     */
+    public IntLongMap(final int capacity) {
+
+        this.alloc(Utils.nextPowerOf2(Math.max(
+            IntLongMap.MIN_CAPACITY, capacity)));
+    }
+
+    /**
+     * Finds the slot at which a key would be placed in a table.
+     *
+     * @param key   the key
+     * @param shift the shift
+     * @return the index
+     */
+    static int hash(final int key, final int shift) {
+
+        /* Fibonacci hashing: keep the high bits of the product. */
+        return key * 0x9e37_79b9 >>> shift;
+    }
+
+    /**
+     * Removes all entries from this map. Does not shrink its capacity.
+     *
+     * @return this map
+     */
+    public IntLongMap clear() {
+
+        Arrays.fill(this.keys, 0);
+        this.hasZero = false;
+        this.size = 0;
+        return this;
+    }
+
+    /**
+     * Evaluates whether this map contains a key.
+     *
+     * @param key the key
+     * @return the evaluation
+     */
+    public boolean containsKey(final int key) {
+
+        return this.indexOf(key) > -1;
+    }
+
+    /**
+     * Gets the value for a key. Returns the default value if the map does
+     * not contain the key.
+     *
+     * @param key the key
+     * @param def the default value
+     * @return the value
+     */
+    public long getOrDefault(final int key, final long def) {
+
+        final int idx = this.indexOf(key);
+        return idx > -1 ? this.values[idx] : def;
+    }
+
+    /**
+     * Finds the slot index of a key. If the key is not in the map, returns
+     * <code>-(insertion point) - 1</code>, in the same manner as
+     * {@link Arrays#binarySearch(int[], int)}. A negative result can be
+     * passed on to {@link IntLongMap#putAt(int, int, long)}.
+     *
+     * @param key the key
+     * @return the index
+     */
+    public int indexOf(final int key) {
+
+        final int zeroIdx = this.keys.length;
+        if (key == 0) {
+            return this.hasZero ? zeroIdx : -zeroIdx - 1;
+        }
+
+        final int[] ks = this.keys;
+        final int mask = zeroIdx - 1;
+        int i = IntLongMap.hash(key, this.shift);
+        int k;
+        while ((k = ks[i]) != 0) {
+            if (k == key) {
+                return i;
+            }
+            i = i + 1 & mask;
+        }
+        return -i - 1;
+    }
+
+    /**
+     * Sets a key value pair in this map.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return this map
+     */
+    public IntLongMap put(final int key, final long value) {
+
+        return this.putAt(this.indexOf(key), key, value);
+    }
+
+    /**
+     * Sets a key value pair in this map at an index returned from
+     * {@link IntLongMap#indexOf(int)}. The map must not have been changed
+     * between the two calls.
+     *
+     * @param index the index
+     * @param key   the key
+     * @param value the value
+     * @return this map
+     */
+    public IntLongMap putAt(final int index, final int key, final long value) {
+
+        if (index > -1) {
+            this.values[index] = value;
+            return this;
+        }
+
+        final int i = -index - 1;
+        this.values[i] = value;
+        if (i == this.keys.length) {
+            this.hasZero = true;
+        } else {
+            this.keys[i] = key;
+        }
+
+        if (++this.size > this.threshold) {
+            this.rehash(this.keys.length << 1);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the number of entries in this map.
+     *
+     * @return the size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets a string representation of this map.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+
+        final StringBuilder sb = new StringBuilder(16 + this.size * 32);
+        sb.append('{');
+        boolean first = true;
+        if (this.hasZero) {
+            sb.append("0:");
+            sb.append(this.values[this.keys.length]);
+            first = false;
+        }
+        final int len = this.keys.length;
+        for (int i = 0; i < len; ++i) {
+            final int k = this.keys[i];
+            if (k != 0) {
+                if (!first) {
+                    sb.append(',');
+                }
+                sb.append(k);
+                sb.append(':');
+                sb.append(this.values[i]);
+                first = false;
+            }
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Gets the value at a slot index returned from
+     * {@link IntLongMap#indexOf(int)}.
+     *
+     * @param index the index
+     * @return the value
+     */
+    public long valueAt(final int index) {
+        return this.values[index];
+    }
+
+    /**
+     * Allocates the keys and values arrays.
+     *
+     * @param capacity the capacity, a power of two
+     */
+    protected void alloc(final int capacity) {
+
+        this.keys = new int[capacity];
+        this.values = new long[capacity + 1];
+        this.shift = Integer.SIZE - Integer.numberOfTrailingZeros(capacity);
+        this.threshold = capacity - (capacity >>> 2);
+    }
+
+    /**
+     * Moves the entries in this map into new arrays with a greater capacity.
+     *
+     * @param capacity the new capacity, a power of two
+     */
+    protected void rehash(final int capacity) {
+
+        final int[] oldKeys = this.keys;
+        final long[] oldValues = this.values;
+        final int oldLen = oldKeys.length;
+        this.alloc(capacity);
+
+        final int[] ks = this.keys;
+        final long[] vs = this.values;
+        final int mask = capacity - 1;
+        for (int j = 0; j < oldLen; ++j) {
+            final int k = oldKeys[j];
+            if (k != 0) {
+                int i = IntLongMap.hash(k, this.shift);
+                while (ks[i] != 0) {
+                    i = i + 1 & mask;
+                }
+                ks[i] = k;
+                vs[i] = oldValues[j];
+            }
+        }
+        vs[capacity] = oldValues[oldLen];
+    }
+}
@@ -0,0 +1,400 @@
+package com.behreajj.camzup.core;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Converts between 32-bit standard RGB (sRGB) pixels in the format
+ * 0xAARRGGBB and 64-bit SR LAB 2 pixels in the format 0xTTTTLLLLAAAABBBB
+ * with lookup tables. Follows the same steps as
+ * {@link Rgb#sRgbToSrLab2(Rgb, Lab, Vec4, Rgb)} and
+ * {@link Rgb#srLab2TosRgb(Lab, Rgb, Rgb, Vec4)}, but replaces the calls to
+ * {@link Math#pow(double, double)}:
+ * <ul>
+ * <li>sRGB to linear is read from a 256 entry table, one per byte;</li>
+ * <li>linear to sRGB is interpolated from a high resolution table;</li>
+ * <li>the cube root for SR LAB 2 is interpolated from a table.</li>
+ * </ul>
+ * Results are within one unit in the last place of the 16-bit or 8-bit
+ * channel of the exact conversion. Inputs outside of the tables' domain fall
+ * back to the exact formula.
+ */
+public abstract class LabLut {
+
+    /**
+     * The number of intervals in the interpolated tables.
+     */
+    public static final int RESOLUTION = 1 << 14;
+
+    /**
+     * Table of the nonlinear part of the conversion from SR XYZ to SR LAB 2,
+     * <code>cbrt(t) * 1.16 - 0.16</code>, for t in [0.0, 1.0].
+     */
+    private static final float[] CBRT;
+
+    /**
+     * The value in XYZ beneath which the conversion to SR LAB 2 is linear.
+     */
+    private static final float CBRT_COMPARISAND = (float) (216.0d / 24389.0d);
+
+    /**
+     * The scalar of the linear part of the conversion to SR LAB 2.
+     */
+    private static final float CBRT_SCALAR = (float) (24389.0d / 2700.0d);
+
+    /**
+     * The value in linear RGB beneath which the conversion to sRGB is linear.
+     */
+    private static final float LINEAR_COMPARISAND = 0.0031308f;
+
+    /**
+     * Table of linear to standard RGB for values in [0.0, 1.0].
+     */
+    private static final float[] LINEAR_TO_SRGB;
+
+    /**
+     * Table of standard RGB bytes to linear RGB.
+     */
+    private static final float[] SRGB_TO_LINEAR;
+
+    static {
+        SRGB_TO_LINEAR = new float[256];
+        for (int i = 0; i < 256; ++i) {
+            LabLut.SRGB_TO_LINEAR[i] = LabLut.sRgbToLinearExact(i * Utils.ONE_255);
+        }
+
+        final int res = LabLut.RESOLUTION;
+        final double toStep = 1.0d / res;
+        LINEAR_TO_SRGB = new float[res + 1];
+        CBRT = new float[res + 1];
+        for (int i = 0; i <= res; ++i) {
+            final double x = i * toStep;
+            LabLut.LINEAR_TO_SRGB[i] = (float) (x <= 0.0031308d
+                ? x * 12.92d
+                : Math.pow(x, 0.4166666666666667d) * 1.055d - 0.055d);
+            LabLut.CBRT[i] = (float) (Math.pow(x, Utils.ONE_THIRD_D) * 1.16d - 0.16d);
+        }
+    }
+
+    /**
+     * Discourage overriding with a private constructor.
+     */
+    private LabLut() {
+    }
+
+    /**
+     * Converts a 32-bit sRGB pixel to a 64-bit SR LAB 2 pixel.
+     *
+     * @param argb32      the pixel
+     * @param useUnpremul divide color channels by alpha
+     * @return the LAB pixel
+     * @see Lab#toHexLongSat()
+     */
+    public static long fromArgb32(final int argb32, final boolean useUnpremul) {
+
+        final int a8 = argb32 >>> 0x18;
+        final float alpha = a8 * Utils.ONE_255;
+
+        final float rl;
+        final float gl;
+        final float bl;
+        if (useUnpremul && a8 < 0xff) {
+            if (a8 == 0) {
+                return Img.CLEAR_PIXEL;
+            }
+            final float aInv = 1.0f / alpha;
+            rl = LabLut.sRgbToLinearExact((argb32 >> 0x10 & 0xff) * Utils.ONE_255 * aInv);
+            gl = LabLut.sRgbToLinearExact((argb32 >> 0x08 & 0xff) * Utils.ONE_255 * aInv);
+            bl = LabLut.sRgbToLinearExact((argb32 & 0xff) * Utils.ONE_255 * aInv);
+        } else {
+            rl = LabLut.SRGB_TO_LINEAR[argb32 >> 0x10 & 0xff];
+            gl = LabLut.SRGB_TO_LINEAR[argb32 >> 0x08 & 0xff];
+            bl = LabLut.SRGB_TO_LINEAR[argb32 & 0xff];
+        }
+
+        /* Linear RGB to SR XYZ. See Rgb#lRgbToSrXyz. */
+        final float x = (float) (0.32053d * rl + 0.63692d * gl + 0.04256d * bl);
+        final float y = (float) (0.161987d * rl + 0.756636d * gl + 0.081376d * bl);
+        final float z = (float) (0.017228d * rl + 0.10866d * gl + 0.874112d * bl);
+
+        /* SR XYZ to SR LAB 2. See Lab#fromSrXyz. */
+        final double xd = LabLut.cbrt(x);
+        final double yd = LabLut.cbrt(y);
+        final double zd = LabLut.cbrt(z);
+
+        final float l = (float) (37.095d * xd + 62.9054d * yd - 0.0008d * zd);
+        final float a = (float) (663.4684d * xd - 750.5078d * yd + 87.0328d * zd);
+        final float b = (float) (63.9569d * xd + 108.4576d * yd - 172.4152d * zd);
+
+        final long t16 = (long) (Utils.clamp01(alpha) * 0xffff + 0.5f);
+        final long l16 = (long) (Utils.clamp(l, 0.0f, 100.0f) * Lab.L_TO_SHORT + 0.5f);
+        final long a16 = 0x8000L + Utils.floor(Utils.clamp(
+            a * Lab.AB_TO_SHORT, -32767.5f, 32767.5f));
+        final long b16 = 0x8000L + Utils.floor(Utils.clamp(
+            b * Lab.AB_TO_SHORT, -32767.5f, 32767.5f));
+
+        return t16 << 0x30L | l16 << 0x20L | a16 << 0x10L | b16;
+    }
+
+    /**
+     * Converts an array of 32-bit sRGB pixels to 64-bit SR LAB 2 pixels. The
+     * target array should be at least as long as the source.
+     *
+     * @param source      the source pixels
+     * @param useUnpremul divide color channels by alpha
+     * @param target      the target pixels
+     * @return the LAB pixels
+     */
+    public static long[] fromArgb32(
+        final int[] source,
+        final boolean useUnpremul,
+        final long[] target) {
+
+        return LabLut.fromArgb32(source, useUnpremul, null, target);
+    }
+
+    /**
+     * Converts an array of 32-bit sRGB pixels to 64-bit SR LAB 2 pixels. The
+     * target array should be at least as long as the source. If the pool is
+     * not <code>null</code>, ranges of the array are converted in parallel.
+     *
+     * @param source      the source pixels
+     * @param useUnpremul divide color channels by alpha
+     * @param pool        the fork join pool
+     * @param target      the target pixels
+     * @return the LAB pixels
+     * @see Parallel#forRange(ForkJoinPool, int, Parallel.RangeAction)
+     */
+    public static long[] fromArgb32(
+        final int[] source,
+        final boolean useUnpremul,
+        final ForkJoinPool pool,
+        final long[] target) {
+
+        Parallel.forRange(pool, source.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                target[i] = LabLut.fromArgb32(source[i], useUnpremul);
+            }
+        });
+        return target;
+    }
+
+    /**
+     * Converts a 64-bit SR LAB 2 pixel to a 32-bit sRGB pixel. Out of gamut
+     * colors are clamped, as by {@link Rgb.ToneMapClamp}.
+     *
+     * @param tlab64    the pixel
+     * @param usePremul multiply color by alpha
+     * @return the sRGB pixel
+     * @see Rgb#toHexIntSat()
+     */
+    public static int toArgb32(final long tlab64, final boolean usePremul) {
+
+        final int t16 = (int) (tlab64 >> 0x30L & 0xffffL);
+        float alpha = t16 / 65535.0f;
+        if (usePremul && alpha <= 0.0f) {
+            return 0;
+        }
+
+        final float l = (tlab64 >> 0x20L & 0xffffL) * Lab.L_FROM_SHORT;
+        final float a = ((tlab64 >> 0x10L & 0xffffL) - 0x8000L) * Lab.AB_FROM_SHORT;
+        final float b = ((tlab64 & 0xffffL) - 0x8000L) * Lab.AB_FROM_SHORT;
+
+        /* SR LAB 2 to SR XYZ. See Lab#toSrXyz. */
+        final double ld = l * 0.01d;
+        final float x = (float) LabLut.cube(ld + 0.000904127d * a + 0.000456344d * b);
+        final float y = (float) LabLut.cube(ld - 0.000533159d * a - 0.000269178d * b);
+        final float z = (float) LabLut.cube(ld - 0.0058d * b);
+
+        /* SR XYZ to linear RGB. See Rgb#srXyzTolRgb. */
+        final float r = LabLut.linearToSRgb((float) (5.435679d * x - 4.599131d * y + 0.163593d * z));
+        final float g = LabLut.linearToSRgb((float) (-1.16809d * x + 2.327977d * y - 0.159798d * z));
+        final float bl = LabLut.linearToSRgb((float) (0.03784d * x - 0.198564d * y + 1.160644d * z));
+
+        float rc = Utils.clamp01(r);
+        float gc = Utils.clamp01(g);
+        float bc = Utils.clamp01(bl);
+        if (usePremul) {
+            if (alpha >= 1.0f) {
+                alpha = 1.0f;
+            } else {
+                rc *= alpha;
+                gc *= alpha;
+                bc *= alpha;
+            }
+        }
+
+        return (int) (Utils.clamp01(alpha) * 0xff + 0.5f) << 0x18
+            | (int) (rc * 0xff + 0.5f) << 0x10
+            | (int) (gc * 0xff + 0.5f) << 0x08
+            | (int) (bc * 0xff + 0.5f);
+    }
+
+    /**
+     * Converts an array of 64-bit SR LAB 2 pixels to 32-bit sRGB pixels. The
+     * target array should be at least as long as the source. Out of gamut
+     * colors are clamped.
+     *
+     * @param source    the source pixels
+     * @param usePremul multiply color by alpha
+     * @param target    the target pixels
+     * @return the sRGB pixels
+     */
+    public static int[] toArgb32(
+        final long[] source,
+        final boolean usePremul,
+        final int[] target) {
+
+        return LabLut.toArgb32(source, usePremul, null, target);
+    }
+
+    /**
+     * Converts an array of 64-bit SR LAB 2 pixels to 32-bit sRGB pixels. The
+     * target array should be at least as long as the source. Out of gamut
+     * colors are clamped. If the pool is not <code>null</code>, ranges of the
+     * array are converted in parallel.
+     *
+     * @param source    the source pixels
+     * @param usePremul multiply color by alpha
+     * @param pool      the fork join pool
+     * @param target    the target pixels
+     * @return the sRGB pixels
+     * @see Parallel#forRange(ForkJoinPool, int, Parallel.RangeAction)
+     */
+    public static int[] toArgb32(
+        final long[] source,
+        final boolean usePremul,
+        final ForkJoinPool pool,
+        final int[] target) {
+
+        Parallel.forRange(pool, source.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                target[i] = LabLut.toArgb32(source[i], usePremul);
+            }
+        });
+        return target;
+    }
+
+    /**
+     * Converts an array of 64-bit SR LAB 2 pixels to 32-bit sRGB pixels with
+     * a tone mapping function. If the function is a {@link Rgb.ToneMapClamp},
+     * defers to {@link LabLut#toArgb32(long[], boolean, int[])}. Otherwise,
+     * the function is applied to each pixel in turn, as tone mapping
+     * functions may hold state.
+     *
+     * @param source    the source pixels
+     * @param mapFunc   the tone mapping function
+     * @param usePremul multiply color by alpha
+     * @param target    the target pixels
+     * @return the sRGB pixels
+     */
+    public static int[] toArgb32(
+        final long[] source,
+        final Rgb.AbstrToneMap mapFunc,
+        final boolean usePremul,
+        final int[] target) {
+
+        if (mapFunc instanceof Rgb.ToneMapClamp) {
+            return LabLut.toArgb32(source, usePremul, null, target);
+        }
+
+        final Rgb srgb = new Rgb();
+        final Rgb mapped = new Rgb();
+        final Vec4 xyz = new Vec4();
+        final Lab lab = new Lab();
+
+        final int len = source.length;
+        for (int i = 0; i < len; ++i) {
+            Lab.toSrXyz(Lab.fromHex(source[i], lab), xyz);
+            final float xf = xyz.x;
+            final float yf = xyz.y;
+            final float zf = xyz.z;
+            srgb.set(
+                LabLut.linearToSRgb((float) (5.435679d * xf - 4.599131d * yf + 0.163593d * zf)),
+                LabLut.linearToSRgb((float) (-1.16809d * xf + 2.327977d * yf - 0.159798d * zf)),
+                LabLut.linearToSRgb((float) (0.03784d * xf - 0.198564d * yf + 1.160644d * zf)),
+                lab.alpha);
+            mapFunc.apply(srgb, mapped);
+            if (usePremul) {
+                Rgb.premul(mapped, mapped);
+            }
+            target[i] = mapped.toHexIntSat();
+        }
+
+        return target;
+    }
+
+    /**
+     * Finds the nonlinear part of the conversion from SR XYZ to SR LAB 2.
+     * Interpolates from a table when the input is in [0.0, 1.0].
+     *
+     * @param t the input
+     * @return the output
+     */
+    private static double cbrt(final float t) {
+
+        if (t <= LabLut.CBRT_COMPARISAND) {
+            return (double) t * LabLut.CBRT_SCALAR;
+        }
+        if (t < 1.0f) {
+            final float f = t * LabLut.RESOLUTION;
+            final int i = (int) f;
+            final float u = f - i;
+            final float a = LabLut.CBRT[i];
+            return a + u * (LabLut.CBRT[i + 1] - a);
+        }
+        return Math.pow(t, Utils.ONE_THIRD_D) * 1.16d - 0.16d;
+    }
+
+    /**
+     * Finds the inverse of {@link LabLut#cbrt(float)} for conversion from
+     * SR LAB 2 to SR XYZ.
+     *
+     * @param v the input
+     * @return the output
+     */
+    private static double cube(final double v) {
+
+        if (v <= 0.08d) {
+            return v * (2700.0d / 24389.0d);
+        }
+        final double w = (v + 0.16d) * (1.0d / 1.16d);
+        return w * w * w;
+    }
+
+    /**
+     * Converts a channel from linear RGB to standard RGB (sRGB). Interpolates
+     * from a table when the input is in [0.0, 1.0].
+     *
+     * @param v the linear channel
+     * @return the standard channel
+     * @see Rgb#lRgbTosRgb(Rgb, boolean, Rgb)
+     */
+    private static float linearToSRgb(final float v) {
+
+        if (v <= LabLut.LINEAR_COMPARISAND) {
+            return v * 12.92f;
+        }
+        if (v < 1.0f) {
+            final float f = v * LabLut.RESOLUTION;
+            final int i = (int) f;
+            final float u = f - i;
+            final float a = LabLut.LINEAR_TO_SRGB[i];
+            return a + u * (LabLut.LINEAR_TO_SRGB[i + 1] - a);
+        }
+        return (float) (Math.pow(v, 0.4166666666666667d) * 1.055d - 0.055d);
+    }
+
+    /**
+     * Converts a channel from standard RGB (sRGB) to linear RGB.
+     *
+     * @param v the standard channel
+     * @return the linear channel
+     * @see Rgb#sRgbTolRgb(Rgb, boolean, Rgb)
+     */
+    private static float sRgbToLinearExact(final float v) {
+
+        return v <= 0.04045f
+            ? v * 0.07739938f
+            : (float) Math.pow((v + 0.055d) * 0.9478672985781991d, 2.4d);
+    }
+}
@@ -28,6 +28,12 @@ public abstract class Mesh extends EntityData {
      */
     protected static final Comparator<Vec3> SORT_3 = new SortQuantized3();
 
+    /**
+     * The quantization levels used to weld similar vectors. Matches the
+     * default levels of the quantized sorters.
+     */
+    protected static final int WELD_LEVELS = (int) (1.0f / Utils.EPSILON);
+
     /**
      * The faces array does not include face data itself, but rather indices to
      * other arrays which contain vertex data. It is a three-dimensional array
@@ -514,6 +520,213 @@ public abstract class Mesh extends EntityData {
         return arr;
     }
 
+    /**
+     * Internal helper function to weld the vectors visited by a slot of the
+     * faces array. Vectors which are equal after quantization by
+     * {@link Mesh#WELD_LEVELS} are merged; unused vectors are removed. The
+     * faces are remapped in place. Vectors are kept in order of first visit.
+     *
+     * @param src   the source vectors
+     * @param faces the faces array
+     * @param slot  the vertex slot
+     * @return the welded vectors
+     */
+    protected static Vec2[] weld(
+        final Vec2[] src,
+        final int[][][] faces,
+        final int slot) {
+
+        final int[] remap = new int[src.length];
+        final int[] order = new int[src.length];
+        final int usedLen = Mesh.visit(faces, slot, remap, order);
+
+        final float levf = Mesh.WELD_LEVELS;
+        final int[] keys = new int[usedLen * 2];
+        for (int k = 0, j = 0; k < usedLen; ++k, j += 2) {
+            final Vec2 v = src[order[k]];
+            keys[j] = Mesh.quantizeBits(v.x, levf);
+            keys[j + 1] = Mesh.quantizeBits(v.y, levf);
+        }
+
+        final int[] ids = new int[usedLen];
+        final Vec2[] result = new Vec2[Mesh.weld(keys, 2, usedLen, ids)];
+        for (int k = 0; k < usedLen; ++k) {
+            final int id = ids[k];
+            final int old = order[k];
+            remap[old] = id;
+            if (result[id] == null) {
+                result[id] = src[old];
+            }
+        }
+
+        Mesh.remap(faces, slot, remap);
+        return result;
+    }
+
+    /**
+     * Internal helper function to weld the vectors visited by a slot of the
+     * faces array. Vectors which are equal after quantization by
+     * {@link Mesh#WELD_LEVELS} are merged; unused vectors are removed. The
+     * faces are remapped in place. Vectors are kept in order of first visit.
+     *
+     * @param src   the source vectors
+     * @param faces the faces array
+     * @param slot  the vertex slot
+     * @return the welded vectors
+     */
+    protected static Vec3[] weld(
+        final Vec3[] src,
+        final int[][][] faces,
+        final int slot) {
+
+        final int[] remap = new int[src.length];
+        final int[] order = new int[src.length];
+        final int usedLen = Mesh.visit(faces, slot, remap, order);
+
+        final float levf = Mesh.WELD_LEVELS;
+        final int[] keys = new int[usedLen * 3];
+        for (int k = 0, j = 0; k < usedLen; ++k, j += 3) {
+            final Vec3 v = src[order[k]];
+            keys[j] = Mesh.quantizeBits(v.x, levf);
+            keys[j + 1] = Mesh.quantizeBits(v.y, levf);
+            keys[j + 2] = Mesh.quantizeBits(v.z, levf);
+        }
+
+        final int[] ids = new int[usedLen];
+        final Vec3[] result = new Vec3[Mesh.weld(keys, 3, usedLen, ids)];
+        for (int k = 0; k < usedLen; ++k) {
+            final int id = ids[k];
+            final int old = order[k];
+            remap[old] = id;
+            if (result[id] == null) {
+                result[id] = src[old];
+            }
+        }
+
+        Mesh.remap(faces, slot, remap);
+        return result;
+    }
+
+    /**
+     * Internal helper function to assign each tuple of keys an index into
+     * the unique tuples, in order of first appearance. Uses an
+     * open-addressing hash table with linear probing, so runs in expected
+     * linear time.
+     *
+     * @param keys   the keys
+     * @param stride the tuple length
+     * @param count  the number of tuples
+     * @param ids    the output indices
+     * @return the number of unique tuples
+     */
+    protected static int weld(
+        final int[] keys,
+        final int stride,
+        final int count,
+        final int[] ids) {
+
+        final int capacity = Utils.nextPowerOf2(Math.max(16, count + (count >>> 1)));
+        final int mask = capacity - 1;
+        final int shift = Integer.SIZE - Integer.numberOfTrailingZeros(capacity);
+        final int[] table = new int[capacity];
+        Arrays.fill(table, -1);
+
+        int uniqueLen = 0;
+        for (int k = 0, j = 0; k < count; ++k, j += stride) {
+            int h = 0;
+            for (int m = 0; m < stride; ++m) {
+                h = (h + keys[j + m]) * 0x9e37_79b9;
+            }
+            h ^= h >>> 16;
+            int i = h * 0x9e37_79b9 >>> shift;
+
+            int t;
+            boolean found = false;
+            while ((t = table[i]) > -1) {
+                if (Arrays.equals(keys, t * stride, t * stride + stride,
+                    keys, j, j + stride)) {
+                    ids[k] = ids[t];
+                    found = true;
+                    break;
+                }
+                i = i + 1 & mask;
+            }
+
+            if (!found) {
+                table[i] = k;
+                ids[k] = uniqueLen;
+                ++uniqueLen;
+            }
+        }
+        return uniqueLen;
+    }
+
+    /**
+     * Internal helper function to quantize a number for welding, then return
+     * its bits. Negative zero is treated as positive zero.
+     *
+     * @param v    the number
+     * @param levf the levels
+     * @return the bits
+     * @see Utils#floor(float)
+     */
+    private static int quantizeBits(final float v, final float levf) {
+
+        return Float.floatToIntBits(Utils.floor(0.5f + v * levf) + 0.0f);
+    }
+
+    /**
+     * Internal helper function to replace a slot of the faces array with
+     * the new index of the old index.
+     *
+     * @param faces the faces array
+     * @param slot  the vertex slot
+     * @param remap the new indices
+     */
+    private static void remap(
+        final int[][][] faces,
+        final int slot,
+        final int[] remap) {
+
+        for (final int[][] verts : faces) {
+            for (final int[] vert : verts) {
+                vert[slot] = remap[vert[slot]];
+            }
+        }
+    }
+
+    /**
+     * Internal helper function to list the indices visited by a slot of the
+     * faces array in order of first visit. Visited indices in the remap
+     * array are marked with zero; others with -1.
+     *
+     * @param faces the faces array
+     * @param slot  the vertex slot
+     * @param remap the remap array
+     * @param order the visited indices
+     * @return the number of visited indices
+     */
+    private static int visit(
+        final int[][][] faces,
+        final int slot,
+        final int[] remap,
+        final int[] order) {
+
+        Arrays.fill(remap, -1);
+        int usedLen = 0;
+        for (final int[][] verts : faces) {
+            for (final int[] vert : verts) {
+                final int idx = vert[slot];
+                if (remap[idx] < 0) {
+                    remap[idx] = 0;
+                    order[usedLen] = idx;
+                    ++usedLen;
+                }
+            }
+        }
+        return usedLen;
+    }
+
     /**
      * Cycles the array of indices in the faces array by a number of places.
      * The number of places can be positive or negative, indicating which
@@ -31,6 +31,12 @@ public class Mesh2 extends Mesh implements Iterable<Face2>, ISvgWritable {
      */
     public Vec2[] texCoords;
 
+    /**
+     * The half-edge topology of the faces, built on demand and cached until
+     * the faces change.
+     */
+    private MeshTopology topology;
+
     /**
      * The default constructor.
      */
@@ -1623,63 +1629,39 @@ public class Mesh2 extends Mesh implements Iterable<Face2>, ISvgWritable {
 
     /**
      * Removes elements from the coordinate, texture coordinate and normal
-     * arrays of the mesh which are not visited by the face indices.
+     * arrays of the mesh which are not visited by the face indices. Merges
+     * similar elements, then sorts the faces by center.
      *
      * @return this mesh
+     * @see Mesh2#clean(boolean)
      */
     @SuppressWarnings("UnusedReturnValue")
     public Mesh2 clean() {
 
-        /* Transfer arrays to hash maps where the face index is the key. */
-        final HashMap<Integer, Vec2> usedCoords = new HashMap<>();
-        final HashMap<Integer, Vec2> usedTexCoords = new HashMap<>();
-
-        /*
-         * Visit all data arrays with the faces array. Any data not used by any
-         * face will be left out.
-         */
-        final int facesLen = this.faces.length;
-        for (final int[][] verts : this.faces) {
-            for (final int[] vert : verts) {
-                final int vIdx = vert[0];
-                final int vtIdx = vert[1];
-
-                /* The hash map will ignore repeated visitations. */
-                usedCoords.put(vIdx, this.coords[vIdx]);
-                usedTexCoords.put(vtIdx, this.texCoords[vtIdx]);
-            }
-        }
-
-        /* Use a tree set to filter out similar vectors. */
-        final TreeSet<Vec2> coordsTree = new TreeSet<>(Mesh.SORT_2);
-        final TreeSet<Vec2> texCoordsTree = new TreeSet<>(Mesh.SORT_2);
-
-        /* Hash map's keys are no longer needed; just values. */
-        coordsTree.addAll(usedCoords.values());
-        texCoordsTree.addAll(usedTexCoords.values());
-
-        /* Convert from sorted set to arrays. */
-        final Vec2[] newCoords = coordsTree.toArray(new Vec2[0]);
-        final Vec2[] newTexCoords = texCoordsTree.toArray(new Vec2[0]);
+        return this.clean(true);
+    }
 
-        for (int i = 0; i < facesLen; ++i) {
-            final int[][] verts = this.faces[i];
-            for (final int[] vert : verts) {
-                /*
-                 * Find index of vector in new array by using indexed value
-                 * from old array as a reference.
-                 */
-                vert[0] = Arrays.binarySearch(newCoords, this.coords[vert[0]], Mesh.SORT_2);
-                vert[1] = Arrays.binarySearch(newTexCoords, this.texCoords[vert[1]], Mesh.SORT_2);
-            }
-        }
+    /**
+     * Removes elements from the coordinate, texture coordinate and normal
+     * arrays of the mesh which are not visited by the face indices. Elements
+     * which are equal after quantization are merged with a hash table, in
+     * expected linear time. Remaining elements are kept in the order in which
+     * they are first visited by the faces. Sorting the faces by center is
+     * optional.
+     *
+     * @param sortFaces whether to sort faces
+     * @return this mesh
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public Mesh2 clean(final boolean sortFaces) {
 
-        /* Replace old arrays with the new. */
-        this.coords = newCoords;
-        this.texCoords = newTexCoords;
+        this.coords = Mesh.weld(this.coords, this.faces, 0);
+        this.texCoords = Mesh.weld(this.texCoords, this.faces, 1);
 
         /* Sort faces by center. */
-        Arrays.sort(this.faces, new SortLoops2(this.coords));
+        if (sortFaces) {
+            Arrays.sort(this.faces, new SortLoops2(this.coords));
+        }
 
         return this;
     }
@@ -2040,9 +2022,8 @@ public class Mesh2 extends Mesh implements Iterable<Face2>, ISvgWritable {
      */
     public Edge2[] getEdgesDirected() {
 
-        Edge2 trial = new Edge2();
         final int facesLen = this.faces.length;
-        final ArrayList<Edge2> result = new ArrayList<>(facesLen * 4);
+        final LinkedHashSet<Edge2> result = new LinkedHashSet<>(facesLen * 8);
 
         for (final int[][] fs : this.faces) {
 
@@ -2053,16 +2034,11 @@ public class Mesh2 extends Mesh implements Iterable<Face2>, ISvgWritable {
                 final int[] idcsOrig = fs[j];
                 final int[] idcsDest = fs[(j + 1) % faceLen];
 
-                trial.set(
+                result.add(new Edge2(
                     this.coords[idcsOrig[0]],
                     this.texCoords[idcsOrig[1]],
                     this.coords[idcsDest[0]],
-                    this.texCoords[idcsDest[1]]);
-
-                if (!result.contains(trial)) {
-                    result.add(trial);
-                    trial = new Edge2();
-                }
+                    this.texCoords[idcsDest[1]]));
             }
         }
 
@@ -2072,40 +2048,32 @@ public class Mesh2 extends Mesh implements Iterable<Face2>, ISvgWritable {
     /**
      * Gets an array of edges from the mesh. Edges are treated as undirected,
      * so (origin, destination) and (destination, edge) are considered to be
-     * the same.
+     * the same. Edges are identified by their coordinate indices and found
+     * from the mesh's topology.
      *
      * @return the edges array
+     * @see Mesh2#getTopology()
      */
     public Edge2[] getEdgesUndirected() {
 
-        final TreeMap<Integer, Edge2> result = new TreeMap<>();
-
-        for (final int[][] fs : this.faces) {
+        final MeshTopology topo = this.getTopology();
+        final int edgesLen = topo.getEdgeCount();
+        final Edge2[] result = new Edge2[edgesLen];
 
-            final int faceLen = fs.length;
-
-            for (int j = 0; j < faceLen; ++j) {
-
-                final int[] idcsOrig = fs[j];
-                final int[] idcsDest = fs[(j + 1) % faceLen];
+        for (int k = 0; k < edgesLen; ++k) {
+            final int h = topo.edgeHalf(k);
+            final int i = topo.face(h);
+            final int j = h - topo.halfEdge(i, 0);
+            final int[][] fs = this.faces[i];
+            final int[] idcsOrig = fs[j];
+            final int[] idcsDest = fs[(j + 1) % fs.length];
 
-                final int vIdxOrig = idcsOrig[0];
-                final int vIdxDest = idcsDest[0];
-
-                final Integer aHsh = (Utils.MUL_BASE ^ vIdxOrig) * Utils.HASH_MUL ^ vIdxDest;
-                final Integer bHsh = (Utils.MUL_BASE ^ vIdxDest) * Utils.HASH_MUL ^ vIdxOrig;
-
-                if (!result.containsKey(aHsh) && !result.containsKey(bHsh)) {
-                    result.put(
-                        vIdxOrig < vIdxDest ? aHsh : bHsh,
-                        new Edge2(
-                            this.coords[vIdxOrig], this.texCoords[idcsOrig[1]],
-                            this.coords[vIdxDest], this.texCoords[idcsDest[1]]));
-                }
-            }
+            result[k] = new Edge2(
+                this.coords[idcsOrig[0]], this.texCoords[idcsOrig[1]],
+                this.coords[idcsDest[0]], this.texCoords[idcsDest[1]]);
         }
 
-        return result.values().toArray(new Edge2[0]);
+        return result;
     }
 
     /**
@@ -2157,6 +2125,24 @@ public class Mesh2 extends Mesh implements Iterable<Face2>, ISvgWritable {
         return result;
     }
 
+    /**
+     * Gets the half-edge topology of this mesh's faces. The topology is
+     * cached; it is rebuilt when the faces' layout or coordinate indices, or
+     * the number of coordinates, no longer match those from which it was
+     * built. Checking the cache takes time linear in the number of corners.
+     *
+     * @return the topology
+     */
+    public MeshTopology getTopology() {
+
+        final int vertCount = this.coords.length;
+        if (this.topology == null
+            || !this.topology.matches(this.faces, vertCount)) {
+            this.topology = new MeshTopology(this.faces, vertCount);
+        }
+        return this.topology;
+    }
+
     /**
      * Gets a vertex from the mesh.
      *
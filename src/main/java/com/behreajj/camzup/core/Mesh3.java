@@ -1,6 +1,7 @@
 package com.behreajj.camzup.core;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Organizes data needed to draw a three-dimensional shape with vertices and
@@ -48,6 +49,12 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      */
     public Vec2[] texCoords;
 
+    /**
+     * The half-edge topology of the faces, built on demand and cached until
+     * the faces change.
+     */
+    private MeshTopology topology;
+
     /**
      * The default constructor.
      */
@@ -148,6 +155,25 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
         final float radius,
         final Mesh3 target) {
 
+        return Mesh3.castToSphere(source, radius, null, target);
+    }
+
+    /**
+     * Casts all vertices and normals of this mesh to a sphere. Coordinates and
+     * faces are split into ranges across a pool.
+     *
+     * @param source the source mesh
+     * @param radius the radius
+     * @param pool   the fork join pool
+     * @param target the output mesh
+     * @return the spherical mesh
+     */
+    public static Mesh3 castToSphere(
+        final Mesh3 source,
+        final float radius,
+        final ForkJoinPool pool,
+        final Mesh3 target) {
+
         final float vrad = Math.max(Utils.EPSILON, radius);
         final boolean neq = source != target;
 
@@ -164,38 +190,44 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
         final Vec3[] vns = target.normals;
         final Vec3[] vsTrg = target.coords;
 
-        for (int i = 0; i < vsSrcLen; ++i) {
-            final Vec3 vn = vns[i];
-            Vec3.normalize(vsSrc[i], vn);
-            Vec3.mul(vn, vrad, vsTrg[i]);
-        }
+        Parallel.forRange(pool, vsSrcLen, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                final Vec3 vn = vns[i];
+                Vec3.normalize(vsSrc[i], vn);
+                Vec3.mul(vn, vrad, vsTrg[i]);
+            }
+        });
 
         if (neq) {
 
             // TEST
             target.faces = new int[fsSrcLen][][];
             final int[][][] fsTrg = target.faces;
-            for (int i = 0; i < fsSrcLen; ++i) {
-                final int[][] fSrc = fsSrc[i];
-                final int fSrcLen = fSrc.length;
-                fsTrg[i] = new int[fSrcLen][3];
-                final int[][] fTrg = fsTrg[i];
-                for (int j = 0; j < fSrcLen; ++j) {
-                    final int[] vertTrg = fTrg[j];
-                    final int[] vertSrc = fSrc[j];
-                    vertTrg[0] = vertSrc[0];
-                    vertTrg[1] = vertSrc[1];
-                    vertTrg[2] = vertSrc[0];
+            Parallel.forRange(pool, fsSrcLen, (start, end) -> {
+                for (int i = start; i < end; ++i) {
+                    final int[][] fSrc = fsSrc[i];
+                    final int fSrcLen = fSrc.length;
+                    fsTrg[i] = new int[fSrcLen][3];
+                    final int[][] fTrg = fsTrg[i];
+                    for (int j = 0; j < fSrcLen; ++j) {
+                        final int[] vertTrg = fTrg[j];
+                        final int[] vertSrc = fSrc[j];
+                        vertTrg[0] = vertSrc[0];
+                        vertTrg[1] = vertSrc[1];
+                        vertTrg[2] = vertSrc[0];
+                    }
                 }
-            }
+            });
 
         } else {
 
-            for (final int[][] fSrc : fsSrc) {
-                for (final int[] vertSrc : fSrc) {
-                    vertSrc[2] = vertSrc[0];
+            Parallel.forRange(pool, fsSrcLen, (start, end) -> {
+                for (int i = start; i < end; ++i) {
+                    for (final int[] vertSrc : fsSrc[i]) {
+                        vertSrc[2] = vertSrc[0];
+                    }
                 }
-            }
+            });
         }
 
         return target;
@@ -2776,6 +2808,299 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
         return target;
     }
 
+    /**
+     * Assigns an index to each unique, undirected edge of a mesh's faces for
+     * one attribute: 0 for coordinates, 1 for texture coordinates, 2 for
+     * normals. Returns, for each face corner in order, the index of the edge
+     * from that corner to the next. The end points of each new edge are
+     * appended to a list, so that edge i spans elements 2i and 2i + 1.
+     *
+     * @param faces     the faces
+     * @param attr      the attribute
+     * @param cornerLen the number of face corners
+     * @param ends      the edge end points
+     * @return the corner edge indices
+     */
+    static int[] edgeIndices(
+        final int[][][] faces,
+        final int attr,
+        final int cornerLen,
+        final IntList ends) {
+
+        final LongIntMap edges = new LongIntMap(cornerLen);
+        final int[] result = new int[cornerLen];
+        int c = 0;
+        for (final int[][] face : faces) {
+            final int faceLen = face.length;
+            for (int j = 0; j < faceLen; ++j, ++c) {
+                final int a = face[j][attr];
+                final int b = face[(j + 1) % faceLen][attr];
+                final long key = a < b
+                    ? (long) a << 32 | b & 0xffffffffL
+                    : (long) b << 32 | a & 0xffffffffL;
+                final int idx = edges.indexOf(key);
+                if (idx > -1) {
+                    result[c] = edges.valueAt(idx);
+                } else {
+                    final int e = ends.size() >> 1;
+                    edges.putAt(idx, key, e);
+                    ends.add(a);
+                    ends.add(b);
+                    result[c] = e;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Internal helper function to reposition the coordinates of a mesh
+     * subdivided by center according to the Catmull-Clark scheme. Expects the
+     * new coordinates to hold, in order, the old coordinates, the edge
+     * midpoints and the face centers. Points on interior edges become the
+     * average of the edge's end points and adjacent face centers. Each old
+     * coordinate P with n edges becomes ( F + 2R + ( n - 3 ) P ) / n, where F
+     * is the average of adjacent face centers and R of edge midpoints.
+     * Boundary edges keep their midpoints; boundary coordinates follow the
+     * boundary curve. Coordinates on more than two boundary edges are left in
+     * place.
+     *
+     * @param fs     the old faces
+     * @param vs     the old coordinates
+     * @param vEdges the edge index of each face corner
+     * @param vEnds  the edge end points
+     * @param vsNew  the new coordinates
+     */
+    static void smoothCatmull(
+        final int[][][] fs,
+        final Vec3[] vs,
+        final int[] vEdges,
+        final IntList vEnds,
+        final Vec3[] vsNew) {
+
+        final int vsLen = vs.length;
+        final int edgeLen = vEnds.size() >> 1;
+        final int ctrOff = vsLen + edgeLen;
+        final int fsLen = fs.length;
+
+        final int[] eFaces = new int[edgeLen];
+        final float[] eSums = new float[edgeLen * 3];
+        final int[] vFaces = new int[vsLen];
+        final float[] vFaceSums = new float[vsLen * 3];
+
+        int c = 0;
+        for (int f = 0; f < fsLen; ++f) {
+            final Vec3 ctr = vsNew[ctrOff + f];
+            for (final int[] vert : fs[f]) {
+                final int e = vEdges[c++];
+                final int e3 = e * 3;
+                ++eFaces[e];
+                eSums[e3] += ctr.x;
+                eSums[e3 + 1] += ctr.y;
+                eSums[e3 + 2] += ctr.z;
+
+                final int v = vert[0];
+                final int v3 = v * 3;
+                ++vFaces[v];
+                vFaceSums[v3] += ctr.x;
+                vFaceSums[v3 + 1] += ctr.y;
+                vFaceSums[v3 + 2] += ctr.z;
+            }
+        }
+
+        final int[] valences = new int[vsLen];
+        final float[] vMidSums = new float[vsLen * 3];
+        final int[] bounds = new int[vsLen];
+        final float[] bSums = new float[vsLen * 3];
+
+        for (int e = 0, j = 0; e < edgeLen; ++e, j += 2) {
+            final int ia = vEnds.get(j);
+            final int ib = vEnds.get(j + 1);
+            final int a3 = ia * 3;
+            final int b3 = ib * 3;
+            final Vec3 a = vs[ia];
+            final Vec3 b = vs[ib];
+            final Vec3 mid = vsNew[vsLen + e];
+
+            ++valences[ia];
+            vMidSums[a3] += mid.x;
+            vMidSums[a3 + 1] += mid.y;
+            vMidSums[a3 + 2] += mid.z;
+
+            ++valences[ib];
+            vMidSums[b3] += mid.x;
+            vMidSums[b3 + 1] += mid.y;
+            vMidSums[b3 + 2] += mid.z;
+
+            if (eFaces[e] == 2) {
+                final int e3 = e * 3;
+                vsNew[vsLen + e] = new Vec3(
+                    (a.x + b.x + eSums[e3]) * 0.25f,
+                    (a.y + b.y + eSums[e3 + 1]) * 0.25f,
+                    (a.z + b.z + eSums[e3 + 2]) * 0.25f);
+            } else {
+                ++bounds[ia];
+                bSums[a3] += b.x;
+                bSums[a3 + 1] += b.y;
+                bSums[a3 + 2] += b.z;
+
+                ++bounds[ib];
+                bSums[b3] += a.x;
+                bSums[b3 + 1] += a.y;
+                bSums[b3 + 2] += a.z;
+            }
+        }
+
+        for (int v = 0; v < vsLen; ++v) {
+            final int n = valences[v];
+            final int nb = bounds[v];
+            if (n < 1 || vFaces[v] < 1 || nb > 2) {
+                continue;
+            }
+
+            final Vec3 p = vs[v];
+            final int v3 = v * 3;
+            if (nb > 0) {
+                if (nb == 2) {
+                    vsNew[v] = new Vec3(
+                        0.75f * p.x + 0.125f * bSums[v3],
+                        0.75f * p.y + 0.125f * bSums[v3 + 1],
+                        0.75f * p.z + 0.125f * bSums[v3 + 2]);
+                }
+            } else {
+                final float fInv = 1.0f / vFaces[v];
+                final float nInv = 1.0f / n;
+                final float n3 = n - 3.0f;
+                vsNew[v] = new Vec3(
+                    (vFaceSums[v3] * fInv + 2.0f * vMidSums[v3] * nInv
+                        + n3 * p.x) * nInv,
+                    (vFaceSums[v3 + 1] * fInv + 2.0f * vMidSums[v3 + 1] * nInv
+                        + n3 * p.y) * nInv,
+                    (vFaceSums[v3 + 2] * fInv + 2.0f * vMidSums[v3 + 2] * nInv
+                        + n3 * p.z) * nInv);
+            }
+        }
+    }
+
+    /**
+     * Internal helper function to reposition the coordinates of a mesh
+     * subdivided by inscription according to the Loop scheme. Expects the new
+     * coordinates to hold, in order, the old coordinates and the edge
+     * midpoints. Points on interior edges between two triangles become 3/8 of
+     * the edge's end points plus 1/8 of the opposite corners. Each old
+     * coordinate P with n neighbors becomes ( 1 - n B ) P + B times the sum of
+     * its neighbors, where B is 3 / 16 when n is 3, otherwise 3 / ( 8 n ).
+     * Boundary edges, and edges of faces which are not triangles, keep their
+     * midpoints; boundary coordinates follow the boundary curve.
+     *
+     * @param fs     the old faces
+     * @param vs     the old coordinates
+     * @param vEdges the edge index of each face corner
+     * @param vEnds  the edge end points
+     * @param vsNew  the new coordinates
+     */
+    static void smoothLoop(
+        final int[][][] fs,
+        final Vec3[] vs,
+        final int[] vEdges,
+        final IntList vEnds,
+        final Vec3[] vsNew) {
+
+        final int vsLen = vs.length;
+        final int edgeLen = vEnds.size() >> 1;
+
+        final int[] eFaces = new int[edgeLen];
+        final int[] eTris = new int[edgeLen];
+        final float[] eOpps = new float[edgeLen * 3];
+
+        int c = 0;
+        for (final int[][] face : fs) {
+            final int faceLen = face.length;
+            for (int j = 0; j < faceLen; ++j, ++c) {
+                final int e = vEdges[c];
+                ++eFaces[e];
+                if (faceLen == 3) {
+                    final int e3 = e * 3;
+                    final Vec3 o = vs[face[(j + 2) % 3][0]];
+                    ++eTris[e];
+                    eOpps[e3] += o.x;
+                    eOpps[e3 + 1] += o.y;
+                    eOpps[e3 + 2] += o.z;
+                }
+            }
+        }
+
+        final int[] valences = new int[vsLen];
+        final float[] nSums = new float[vsLen * 3];
+        final int[] bounds = new int[vsLen];
+        final float[] bSums = new float[vsLen * 3];
+
+        for (int e = 0, j = 0; e < edgeLen; ++e, j += 2) {
+            final int ia = vEnds.get(j);
+            final int ib = vEnds.get(j + 1);
+            final int a3 = ia * 3;
+            final int b3 = ib * 3;
+            final Vec3 a = vs[ia];
+            final Vec3 b = vs[ib];
+
+            ++valences[ia];
+            nSums[a3] += b.x;
+            nSums[a3 + 1] += b.y;
+            nSums[a3 + 2] += b.z;
+
+            ++valences[ib];
+            nSums[b3] += a.x;
+            nSums[b3 + 1] += a.y;
+            nSums[b3 + 2] += a.z;
+
+            if (eFaces[e] == 2) {
+                if (eTris[e] == 2) {
+                    final int e3 = e * 3;
+                    vsNew[vsLen + e] = new Vec3(
+                        0.375f * (a.x + b.x) + 0.125f * eOpps[e3],
+                        0.375f * (a.y + b.y) + 0.125f * eOpps[e3 + 1],
+                        0.375f * (a.z + b.z) + 0.125f * eOpps[e3 + 2]);
+                }
+            } else {
+                ++bounds[ia];
+                bSums[a3] += b.x;
+                bSums[a3 + 1] += b.y;
+                bSums[a3 + 2] += b.z;
+
+                ++bounds[ib];
+                bSums[b3] += a.x;
+                bSums[b3 + 1] += a.y;
+                bSums[b3 + 2] += a.z;
+            }
+        }
+
+        for (int v = 0; v < vsLen; ++v) {
+            final int n = valences[v];
+            final int nb = bounds[v];
+            if (n < 1 || nb > 2) {
+                continue;
+            }
+
+            final Vec3 p = vs[v];
+            final int v3 = v * 3;
+            if (nb > 0) {
+                if (nb == 2) {
+                    vsNew[v] = new Vec3(
+                        0.75f * p.x + 0.125f * bSums[v3],
+                        0.75f * p.y + 0.125f * bSums[v3 + 1],
+                        0.75f * p.z + 0.125f * bSums[v3 + 2]);
+                }
+            } else {
+                final float beta = n == 3 ? 0.1875f : 0.375f / n;
+                final float w = 1.0f - n * beta;
+                vsNew[v] = new Vec3(
+                    w * p.x + beta * nSums[v3],
+                    w * p.y + beta * nSums[v3 + 1],
+                    w * p.z + beta * nSums[v3 + 2]);
+            }
+        }
+    }
+
     /**
      * Calculates texture coordinates (UVs) for this mesh. Converts a vertex's
      * index in a face loop to an angle, then to Cartesian coordinates.
@@ -2812,71 +3137,38 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
 
     /**
      * Removes elements from the coordinate, texture coordinate and normal
-     * arrays of the mesh which are not visited by the face indices.
+     * arrays of the mesh which are not visited by the face indices. Merges
+     * similar elements, then sorts the faces by center.
      *
      * @return this mesh
+     * @see Mesh3#clean(boolean)
      */
     public Mesh3 clean() {
 
-        /* Transfer arrays to hash maps where the face index is the key. */
-        final HashMap<Integer, Vec3> usedCoords = new HashMap<>();
-        final HashMap<Integer, Vec2> usedTexCoords = new HashMap<>();
-        final HashMap<Integer, Vec3> usedNormals = new HashMap<>();
-
-        /*
-         * Visit all data arrays with the faces array. Any data not used by any
-         * face will be left out.
-         */
-        final int facesLen = this.faces.length;
-        for (final int[][] verts : this.faces) {
-            for (final int[] vert : verts) {
-                final int vIdx = vert[0];
-                final int vtIdx = vert[1];
-                final int vnIdx = vert[2];
-
-                /* The hash map will ignore repeated visitations. */
-                usedCoords.put(vIdx, this.coords[vIdx]);
-                usedTexCoords.put(vtIdx, this.texCoords[vtIdx]);
-                usedNormals.put(vnIdx, this.normals[vnIdx]);
-            }
-        }
-
-        /* Use a tree set to filter out similar vectors. */
-        final TreeSet<Vec3> coordsTree = new TreeSet<>(Mesh.SORT_3);
-        final TreeSet<Vec2> texCoordsTree = new TreeSet<>(Mesh.SORT_2);
-        final TreeSet<Vec3> normalsTree = new TreeSet<>(Mesh.SORT_3);
-
-        /* Hash map's keys are no longer needed; just values. */
-        coordsTree.addAll(usedCoords.values());
-        texCoordsTree.addAll(usedTexCoords.values());
-        normalsTree.addAll(usedNormals.values());
-
-        /* Convert from sorted set to arrays. */
-        final Vec3[] newCoords = coordsTree.toArray(new Vec3[0]);
-        final Vec2[] newTexCoords = texCoordsTree.toArray(new Vec2[0]);
-        final Vec3[] newNormals = normalsTree.toArray(new Vec3[0]);
+        return this.clean(true);
+    }
 
-        for (int i = 0; i < facesLen; ++i) {
-            final int[][] verts = this.faces[i];
-
-            for (final int[] vert : verts) {
-                /*
-                 * Find index of vector in new array by using indexed value from old
-                 * array as a reference.
-                 */
-                vert[0] = Arrays.binarySearch(newCoords, this.coords[vert[0]], Mesh.SORT_3);
-                vert[1] = Arrays.binarySearch(newTexCoords, this.texCoords[vert[1]], Mesh.SORT_2);
-                vert[2] = Arrays.binarySearch(newNormals, this.normals[vert[2]], Mesh.SORT_3);
-            }
-        }
+    /**
+     * Removes elements from the coordinate, texture coordinate and normal
+     * arrays of the mesh which are not visited by the face indices. Elements
+     * which are equal after quantization are merged with a hash table, in
+     * expected linear time. Remaining elements are kept in the order in which
+     * they are first visited by the faces. Sorting the faces by center is
+     * optional.
+     *
+     * @param sortFaces whether to sort faces
+     * @return this mesh
+     */
+    public Mesh3 clean(final boolean sortFaces) {
 
-        /* Replace old arrays with the new. */
-        this.coords = newCoords;
-        this.texCoords = newTexCoords;
-        this.normals = newNormals;
+        this.coords = Mesh.weld(this.coords, this.faces, 0);
+        this.texCoords = Mesh.weld(this.texCoords, this.faces, 1);
+        this.normals = Mesh.weld(this.normals, this.faces, 2);
 
         /* Sort faces by center. */
-        Arrays.sort(this.faces, new SortLoops3(this.coords));
+        if (sortFaces) {
+            Arrays.sort(this.faces, new SortLoops3(this.coords));
+        }
 
         return this;
     }
@@ -3496,9 +3788,8 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      */
     public Edge3[] getEdgesDirected() {
 
-        Edge3 trial = new Edge3();
         final int facesLen = this.faces.length;
-        final ArrayList<Edge3> result = new ArrayList<>(facesLen * 4);
+        final LinkedHashSet<Edge3> result = new LinkedHashSet<>(facesLen * 8);
 
         for (final int[][] f : this.faces) {
 
@@ -3509,18 +3800,13 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
                 final int[] idcsOrig = f[j];
                 final int[] idcsDest = f[(j + 1) % faceLen];
 
-                trial.set(
+                result.add(new Edge3(
                     this.coords[idcsOrig[0]],
                     this.texCoords[idcsOrig[1]],
                     this.normals[idcsOrig[2]],
                     this.coords[idcsDest[0]],
                     this.texCoords[idcsDest[1]],
-                    this.normals[idcsDest[2]]);
-
-                if (!result.contains(trial)) {
-                    result.add(trial);
-                    trial = new Edge3();
-                }
+                    this.normals[idcsDest[2]]));
             }
         }
 
@@ -3530,41 +3816,33 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
     /**
      * Gets an array of edges from the mesh. Edges are treated as undirected,
      * so (origin, destination) and (destination, edge) are considered to be
-     * the same.
+     * the same. Edges are identified by their coordinate indices and found
+     * from the mesh's topology.
      *
      * @return the edges array
+     * @see Mesh3#getTopology()
      */
     public Edge3[] getEdgesUndirected() {
 
-        final TreeMap<Integer, Edge3> result = new TreeMap<>();
-
-        for (final int[][] fs : this.faces) {
-
-            final int faceLen = fs.length;
-
-            for (int j = 0; j < faceLen; ++j) {
-
-                final int[] idcsOrig = fs[j];
-                final int[] idcsDest = fs[(j + 1) % faceLen];
-
-                final int vIdxOrig = idcsOrig[0];
-                final int vIdxDest = idcsDest[0];
-
-                final Integer aHsh = (Utils.MUL_BASE ^ vIdxOrig) * Utils.HASH_MUL ^ vIdxDest;
-                final Integer bHsh = (Utils.MUL_BASE ^ vIdxDest) * Utils.HASH_MUL ^ vIdxOrig;
-
-                if (!result.containsKey(aHsh) && !result.containsKey(bHsh)) {
-                    result.put(
-                        vIdxOrig < vIdxDest ? aHsh : bHsh,
-                        new Edge3(
-                            this.coords[vIdxOrig], this.texCoords[idcsOrig[1]],
-                            this.normals[idcsOrig[2]], this.coords[vIdxDest],
-                            this.texCoords[idcsDest[1]], this.normals[idcsDest[2]]));
-                }
-            }
+        final MeshTopology topo = this.getTopology();
+        final int edgesLen = topo.getEdgeCount();
+        final Edge3[] result = new Edge3[edgesLen];
+
+        for (int k = 0; k < edgesLen; ++k) {
+            final int h = topo.edgeHalf(k);
+            final int i = topo.face(h);
+            final int j = h - topo.halfEdge(i, 0);
+            final int[][] fs = this.faces[i];
+            final int[] idcsOrig = fs[j];
+            final int[] idcsDest = fs[(j + 1) % fs.length];
+
+            result[k] = new Edge3(
+                this.coords[idcsOrig[0]], this.texCoords[idcsOrig[1]],
+                this.normals[idcsOrig[2]], this.coords[idcsDest[0]],
+                this.texCoords[idcsDest[1]], this.normals[idcsDest[2]]);
         }
 
-        return result.values().toArray(new Edge3[0]);
+        return result;
     }
 
     /**
@@ -3622,6 +3900,24 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
         return result;
     }
 
+    /**
+     * Gets the half-edge topology of this mesh's faces. The topology is
+     * cached; it is rebuilt when the faces' layout or coordinate indices, or
+     * the number of coordinates, no longer match those from which it was
+     * built. Checking the cache takes time linear in the number of corners.
+     *
+     * @return the topology
+     */
+    public MeshTopology getTopology() {
+
+        final int vertCount = this.coords.length;
+        if (this.topology == null
+            || !this.topology.matches(this.faces, vertCount)) {
+            this.topology = new MeshTopology(this.faces, vertCount);
+        }
+        return this.topology;
+    }
+
     /**
      * Gets a vertex from the mesh.
      *
@@ -3957,6 +4253,23 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      *
      * @param tr the output transform
      * @return this mesh
+     * @see Mesh3#reframe(Transform3, ForkJoinPool)
+     */
+    public Mesh3 reframe(final Transform3 tr) {
+
+        return this.reframe(tr, null);
+    }
+
+    /**
+     * Centers the mesh about the origin, (0.0, 0.0, 0.0), and rescales it to
+     * the range [-0.5, 0.5]. Emits a transform which records the mesh's center
+     * point and original dimension. The transform's rotation is reset. The
+     * bounds are found on the calling thread; coordinates are then split into
+     * ranges across a pool.
+     *
+     * @param tr   the output transform
+     * @param pool the fork join pool
+     * @return this mesh
      * @see Mesh3#accumMinMax(Mesh3, Vec3, Vec3)
      * @see Transform3#updateAxes()
      * @see Utils#div(float, float)
@@ -3964,7 +4277,7 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      * @see Vec3#mul(Vec3, float, Vec3)
      * @see Vec3#sub(Vec3, Vec3, Vec3)
      */
-    public Mesh3 reframe(final Transform3 tr) {
+    public Mesh3 reframe(final Transform3 tr, final ForkJoinPool pool) {
 
         tr.locPrev.set(tr.location);
         tr.scalePrev.set(tr.scale);
@@ -3981,10 +4294,14 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
         lb.z = 0.5f * (lb.z + ub.z);
         final float scl = Utils.div(1.0f, Utils.max(dim.x, dim.y, dim.z));
 
-        for (final Vec3 c : this.coords) {
-            Vec3.sub(c, lb, c);
-            Vec3.mul(c, scl, c);
-        }
+        final Vec3[] vs = this.coords;
+        Parallel.forRange(pool, vs.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                final Vec3 c = vs[i];
+                Vec3.sub(c, lb, c);
+                Vec3.mul(c, scl, c);
+            }
+        });
 
         tr.rotPrev.set(tr.rotation);
         tr.rotation.reset();
@@ -3999,20 +4316,44 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      * @param radians the angle in radians
      * @param axis    the axis of rotation
      * @return this mesh
-     * @see Vec3#rotate(Vec3, float, float, Vec3, Vec3)
+     * @see Mesh3#rotate(float, Vec3, ForkJoinPool)
      */
     public Mesh3 rotate(final float radians, final Vec3 axis) {
 
+        return this.rotate(radians, axis, null);
+    }
+
+    /**
+     * Rotates all coordinates in the mesh by an angle around an arbitrary axis.
+     * Coordinates and normals are split into ranges across a pool.
+     *
+     * @param radians the angle in radians
+     * @param axis    the axis of rotation
+     * @param pool    the fork join pool
+     * @return this mesh
+     * @see Vec3#rotate(Vec3, float, float, Vec3, Vec3)
+     */
+    public Mesh3 rotate(
+        final float radians,
+        final Vec3 axis,
+        final ForkJoinPool pool) {
+
         final float cosa = (float) Math.cos(radians);
         final float sina = (float) Math.sin(radians);
 
-        for (final Vec3 c : this.coords) {
-            Vec3.rotate(c, cosa, sina, axis, c);
-        }
+        final Vec3[] vs = this.coords;
+        Parallel.forRange(pool, vs.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                Vec3.rotate(vs[i], cosa, sina, axis, vs[i]);
+            }
+        });
 
-        for (final Vec3 n : this.normals) {
-            Vec3.rotate(n, cosa, sina, axis, n);
-        }
+        final Vec3[] vns = this.normals;
+        Parallel.forRange(pool, vns.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                Vec3.rotate(vns[i], cosa, sina, axis, vns[i]);
+            }
+        });
 
         return this;
     }
@@ -4022,19 +4363,39 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      *
      * @param q the quaternion
      * @return the mesh
+     * @see Mesh3#rotate(Quaternion, ForkJoinPool)
+     */
+    public Mesh3 rotate(final Quaternion q) {
+
+        return this.rotate(q, null);
+    }
+
+    /**
+     * Rotates all coordinates in the mesh by a quaternion. Coordinates and
+     * normals are split into ranges across a pool.
+     *
+     * @param q    the quaternion
+     * @param pool the fork join pool
+     * @return the mesh
      * @see Quaternion#any(Quaternion)
      * @see Quaternion#mulVector(Quaternion, Vec3, Vec3)
      */
-    public Mesh3 rotate(final Quaternion q) {
+    public Mesh3 rotate(final Quaternion q, final ForkJoinPool pool) {
 
         if (Quaternion.any(q)) {
-            for (final Vec3 c : this.coords) {
-                Quaternion.mulVector(q, c, c);
-            }
+            final Vec3[] vs = this.coords;
+            Parallel.forRange(pool, vs.length, (start, end) -> {
+                for (int i = start; i < end; ++i) {
+                    Quaternion.mulVector(q, vs[i], vs[i]);
+                }
+            });
 
-            for (final Vec3 n : this.normals) {
-                Quaternion.mulVector(q, n, n);
-            }
+            final Vec3[] vns = this.normals;
+            Parallel.forRange(pool, vns.length, (start, end) -> {
+                for (int i = start; i < end; ++i) {
+                    Quaternion.mulVector(q, vns[i], vns[i]);
+                }
+            });
         }
 
         return this;
@@ -4045,20 +4406,40 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      *
      * @param radians the angle in radians
      * @return this mesh
-     * @see Vec3#rotateX(Vec3, float, float, Vec3)
+     * @see Mesh3#rotateX(float, ForkJoinPool)
      */
     public Mesh3 rotateX(final float radians) {
 
+        return this.rotateX(radians, null);
+    }
+
+    /**
+     * Rotates all coordinates in the mesh by an angle around the x-axis.
+     * Coordinates and normals are split into ranges across a pool.
+     *
+     * @param radians the angle in radians
+     * @param pool    the fork join pool
+     * @return this mesh
+     * @see Vec3#rotateX(Vec3, float, float, Vec3)
+     */
+    public Mesh3 rotateX(final float radians, final ForkJoinPool pool) {
+
         final float cosa = (float) Math.cos(radians);
         final float sina = (float) Math.sin(radians);
 
-        for (final Vec3 c : this.coords) {
-            Vec3.rotateX(c, cosa, sina, c);
-        }
+        final Vec3[] vs = this.coords;
+        Parallel.forRange(pool, vs.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                Vec3.rotateX(vs[i], cosa, sina, vs[i]);
+            }
+        });
 
-        for (final Vec3 n : this.normals) {
-            Vec3.rotateX(n, cosa, sina, n);
-        }
+        final Vec3[] vns = this.normals;
+        Parallel.forRange(pool, vns.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                Vec3.rotateX(vns[i], cosa, sina, vns[i]);
+            }
+        });
 
         return this;
     }
@@ -4068,20 +4449,40 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      *
      * @param radians the angle in radians
      * @return this mesh
-     * @see Vec3#rotateY(Vec3, float, float, Vec3)
+     * @see Mesh3#rotateY(float, ForkJoinPool)
      */
     public Mesh3 rotateY(final float radians) {
 
+        return this.rotateY(radians, null);
+    }
+
+    /**
+     * Rotates all coordinates in the mesh by an angle around the y-axis.
+     * Coordinates and normals are split into ranges across a pool.
+     *
+     * @param radians the angle in radians
+     * @param pool    the fork join pool
+     * @return this mesh
+     * @see Vec3#rotateY(Vec3, float, float, Vec3)
+     */
+    public Mesh3 rotateY(final float radians, final ForkJoinPool pool) {
+
         final float cosa = (float) Math.cos(radians);
         final float sina = (float) Math.sin(radians);
 
-        for (final Vec3 c : this.coords) {
-            Vec3.rotateY(c, cosa, sina, c);
-        }
+        final Vec3[] vs = this.coords;
+        Parallel.forRange(pool, vs.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                Vec3.rotateY(vs[i], cosa, sina, vs[i]);
+            }
+        });
 
-        for (final Vec3 n : this.normals) {
-            Vec3.rotateY(n, cosa, sina, n);
-        }
+        final Vec3[] vns = this.normals;
+        Parallel.forRange(pool, vns.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                Vec3.rotateY(vns[i], cosa, sina, vns[i]);
+            }
+        });
 
         return this;
     }
@@ -4091,20 +4492,40 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      *
      * @param radians the angle in radians
      * @return this mesh
-     * @see Vec3#rotateZ(Vec3, float, float, Vec3)
+     * @see Mesh3#rotateZ(float, ForkJoinPool)
      */
     public Mesh3 rotateZ(final float radians) {
 
+        return this.rotateZ(radians, null);
+    }
+
+    /**
+     * Rotates all coordinates in the mesh by an angle around the z-axis.
+     * Coordinates and normals are split into ranges across a pool.
+     *
+     * @param radians the angle in radians
+     * @param pool    the fork join pool
+     * @return this mesh
+     * @see Vec3#rotateZ(Vec3, float, float, Vec3)
+     */
+    public Mesh3 rotateZ(final float radians, final ForkJoinPool pool) {
+
         final float cosa = (float) Math.cos(radians);
         final float sina = (float) Math.sin(radians);
 
-        for (final Vec3 c : this.coords) {
-            Vec3.rotateZ(c, cosa, sina, c);
-        }
+        final Vec3[] vs = this.coords;
+        Parallel.forRange(pool, vs.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                Vec3.rotateZ(vs[i], cosa, sina, vs[i]);
+            }
+        });
 
-        for (final Vec3 n : this.normals) {
-            Vec3.rotateZ(n, cosa, sina, n);
-        }
+        final Vec3[] vns = this.normals;
+        Parallel.forRange(pool, vns.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                Vec3.rotateZ(vns[i], cosa, sina, vns[i]);
+            }
+        });
 
         return this;
     }
@@ -4114,14 +4535,31 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      *
      * @param scale the scalar
      * @return this mesh
-     * @see Vec3#mul(Vec3, float, Vec3)
+     * @see Mesh3#scale(float, ForkJoinPool)
      */
     public Mesh3 scale(final float scale) {
 
+        return this.scale(scale, null);
+    }
+
+    /**
+     * Scales all coordinates in the mesh by a uniform scalar. Coordinates are
+     * split into ranges across a pool.
+     *
+     * @param scale the scalar
+     * @param pool  the fork join pool
+     * @return this mesh
+     * @see Vec3#mul(Vec3, float, Vec3)
+     */
+    public Mesh3 scale(final float scale, final ForkJoinPool pool) {
+
         if (scale != 0.0f) {
-            for (final Vec3 c : this.coords) {
-                Vec3.mul(c, scale, c);
-            }
+            final Vec3[] vs = this.coords;
+            Parallel.forRange(pool, vs.length, (start, end) -> {
+                for (int i = start; i < end; ++i) {
+                    Vec3.mul(vs[i], scale, vs[i]);
+                }
+            });
         }
 
         return this;
@@ -4132,25 +4570,46 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      *
      * @param scale the vector
      * @return this mesh
+     * @see Mesh3#scale(Vec3, ForkJoinPool)
+     */
+    public Mesh3 scale(final Vec3 scale) {
+
+        return this.scale(scale, null);
+    }
+
+    /**
+     * Scales all coordinates and normals in the mesh by a non-uniform scalar.
+     * Coordinates and normals are split into ranges across a pool.
+     *
+     * @param scale the vector
+     * @param pool  the fork join pool
+     * @return this mesh
      * @see Vec3#all(Vec3)
      * @see Vec3#hadamard(Vec3, Vec3, Vec3)
      * @see Vec3#normalize(Vec3, Vec3)
      */
-    public Mesh3 scale(final Vec3 scale) {
+    public Mesh3 scale(final Vec3 scale, final ForkJoinPool pool) {
 
         if (Vec3.all(scale)) {
-            for (final Vec3 c : this.coords) {
-                Vec3.hadamard(c, scale, c);
-            }
+            final Vec3[] vs = this.coords;
+            Parallel.forRange(pool, vs.length, (start, end) -> {
+                for (int i = start; i < end; ++i) {
+                    Vec3.hadamard(vs[i], scale, vs[i]);
+                }
+            });
 
             final float xInv = 1.0f / scale.x;
             final float yInv = 1.0f / scale.y;
             final float zInv = 1.0f / scale.z;
 
-            for (final Vec3 n : this.normals) {
-                n.set(n.x * xInv, n.y * yInv, n.z * zInv);
-                Vec3.normalize(n, n);
-            }
+            final Vec3[] vns = this.normals;
+            Parallel.forRange(pool, vns.length, (start, end) -> {
+                for (int i = start; i < end; ++i) {
+                    final Vec3 n = vns[i];
+                    n.set(n.x * xInv, n.y * yInv, n.z * zInv);
+                    Vec3.normalize(n, n);
+                }
+            });
         }
 
         return this;
@@ -4321,66 +4780,170 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      */
     public Mesh3 shadeFlat() {
 
-        return this.shadeFlat(0, this.faces.length);
+        return this.shadeFlat(0, this.faces.length, null);
+    }
+
+    /**
+     * Calculates this mesh's normals per face, resulting in flat shading.
+     * Faces are split into ranges across a pool; each face writes only its
+     * own normal.
+     *
+     * @param pool the fork join pool
+     * @return this mesh
+     * @see Mesh3#shadeFlat(int, int, ForkJoinPool)
+     */
+    public Mesh3 shadeFlat(final ForkJoinPool pool) {
+
+        return this.shadeFlat(0, this.faces.length, pool);
     }
 
     /**
      * Calculates this mesh's normals per vertex, resulting in smooth shading.
      * If the normals array is <code>null</code>, or if its length is not equal
-     * to the length of coordinates, the normals array is reallocated. Uses the
-     * formula
+     * to the length of coordinates, the normals array is reallocated.
+     *
+     * @return this mesh
+     * @see Mesh3#shadeSmooth(ForkJoinPool)
+     */
+    public Mesh3 shadeSmooth() {
+
+        return this.shadeSmooth(null);
+    }
+
+    /**
+     * Calculates this mesh's normals per vertex, resulting in smooth shading.
+     * If the normals array is <code>null</code>, or if its length is not equal
+     * to the length of coordinates, the normals array is reallocated. Finds
+     * the cross product at each corner of a face
      * <br>
      * <br>
      * ( b - a ) x ( c - a )
      * <br>
      * <br>
-     * where a, b and c are three corners of a face, then normalizes the cross
-     * product.
+     * then, for each coordinate, normalizes the sum of the crosses at the
+     * corners which refer to it. Larger faces have more weight.
+     * <br>
+     * <br>
+     * Corners are found on faces split into ranges across a pool; sums are
+     * then gathered per coordinate, so no two ranges write to the same sum.
+     * Sums are added in the same order with or without a pool, so the result
+     * does not depend on it.
      *
+     * @param pool the fork join pool
      * @return this mesh
-     * @see Vec3#crossNorm(Vec3, Vec3, Vec3)
+     * @see Vec3#cross(Vec3, Vec3, Vec3)
+     * @see Vec3#normalize(Vec3, Vec3)
      * @see Vec3#resize(Vec3[], int)
      * @see Vec3#sub(Vec3, Vec3, Vec3)
      */
-    public Mesh3 shadeSmooth() {
+    public Mesh3 shadeSmooth(final ForkJoinPool pool) {
 
-        Vec3 prev;
-        Vec3 curr;
-        Vec3 next;
-        Vec3 vn;
-
-        final Vec3 edge0 = new Vec3();
-        final Vec3 edge1 = new Vec3();
-
-        final int facesLen = this.faces.length;
-        this.normals = Vec3.resize(this.normals, this.coords.length);
+        final int[][][] fs = this.faces;
+        final Vec3[] vs = this.coords;
+        final int facesLen = fs.length;
+        final int vsLen = vs.length;
+        this.normals = Vec3.resize(this.normals, vsLen);
+        final Vec3[] vns = this.normals;
 
+        /* Find the index of each face's first corner. */
+        final int[] faceStarts = new int[facesLen + 1];
         for (int i = 0; i < facesLen; ++i) {
+            faceStarts[i + 1] = faceStarts[i] + fs[i].length;
+        }
+        final int cornerLen = faceStarts[facesLen];
+
+        /* Store the cross product at each corner, three floats apiece. */
+        final float[] crosses = new float[cornerLen * 3];
+        Parallel.forRange(pool, facesLen, (start, end) -> {
+            final Vec3 edge0 = new Vec3();
+            final Vec3 edge1 = new Vec3();
+            final Vec3 cross = new Vec3();
+
+            for (int i = start; i < end; ++i) {
+                final int[][] f = fs[i];
+                final int faceLen = f.length;
+                Vec3 prev = vs[f[faceLen - 1][0]];
+                int k = faceStarts[i] * 3;
+
+                for (int j = 0; j < faceLen; ++j, k += 3) {
+                    final int[] vert = f[j];
+                    final Vec3 curr = vs[vert[0]];
+                    final Vec3 next = vs[f[(j + 1) % faceLen][0]];
+
+                    Vec3.sub(prev, curr, edge0);
+                    Vec3.sub(curr, next, edge1);
+                    Vec3.cross(edge0, edge1, cross);
+                    crosses[k] = cross.x;
+                    crosses[k + 1] = cross.y;
+                    crosses[k + 2] = cross.z;
+
+                    /* Update face index reference to normal. */
+                    vert[2] = vert[0];
+                    prev = curr;
+                }
+            }
+        });
 
-            final int[][] f = this.faces[i];
-            final int faceLen = f.length;
-            prev = this.coords[f[faceLen - 1][0]];
-
-            for (int j = 0; j < faceLen; ++j) {
-
-                final int[] vert = f[j];
-                final int currIndex = vert[0];
-                final int nextIndex = f[(j + 1) % faceLen][0];
-
-                /* Acquire normal and update face index reference to it. */
-                vn = this.normals[currIndex];
-                vert[2] = currIndex;
+        /*
+         * Sum the crosses at each coordinate in order of corner. On one
+         * thread, crosses are added to their coordinate directly. Otherwise,
+         * corners are grouped by coordinate with a counting sort, so that each
+         * range gathers only the sums of the coordinates it owns.
+         */
+        final float[] sums = new float[vsLen * 3];
+        if (pool == null || vsLen <= Parallel.DEFAULT_GRAIN) {
+            int k = 0;
+            for (final int[][] f : fs) {
+                for (final int[] vert : f) {
+                    final int s = vert[0] * 3;
+                    sums[s] += crosses[k];
+                    sums[s + 1] += crosses[k + 1];
+                    sums[s + 2] += crosses[k + 2];
+                    k += 3;
+                }
+            }
+        } else {
+            final int[] vertStarts = new int[vsLen + 1];
+            for (final int[][] f : fs) {
+                for (final int[] vert : f) {
+                    ++vertStarts[vert[0] + 1];
+                }
+            }
+            for (int v = 0; v < vsLen; ++v) {
+                vertStarts[v + 1] += vertStarts[v];
+            }
 
-                curr = this.coords[currIndex];
-                next = this.coords[nextIndex];
+            final int[] cursors = Arrays.copyOf(vertStarts, vsLen);
+            final int[] corners = new int[cornerLen];
+            int c = 0;
+            for (final int[][] f : fs) {
+                for (final int[] vert : f) {
+                    corners[cursors[vert[0]]++] = c++;
+                }
+            }
 
-                Vec3.sub(prev, curr, edge0);
-                Vec3.sub(curr, next, edge1);
-                Vec3.crossNorm(edge0, edge1, vn);
+            Parallel.forRange(pool, vsLen, (start, end) -> {
+                for (int v = start; v < end; ++v) {
+                    final int s = v * 3;
+                    final int last = vertStarts[v + 1];
+                    for (int m = vertStarts[v]; m < last; ++m) {
+                        final int k = corners[m] * 3;
+                        sums[s] += crosses[k];
+                        sums[s + 1] += crosses[k + 1];
+                        sums[s + 2] += crosses[k + 2];
+                    }
+                }
+            });
+        }
 
-                prev = curr;
+        Parallel.forRange(pool, vsLen, (start, end) -> {
+            for (int v = start; v < end; ++v) {
+                final int s = v * 3;
+                final Vec3 vn = vns[v];
+                vn.set(sums[s], sums[s + 1], sums[s + 2]);
+                Vec3.normalize(vn, vn);
             }
-        }
+        });
 
         return this;
     }
@@ -4806,26 +5369,49 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
         return this.subdivFacesCenter(itr);
     }
 
+    /**
+     * Subdivides all faces in the mesh by a number of iterations, according
+     * to a policy. Unlike the single face methods, such as
+     * {@link Mesh3#subdivFaceCenter(int)}, each iteration is one pass over the
+     * whole mesh: output arrays are sized up front, and the midpoint of an
+     * edge shared by two faces is created once, then shared.
+     *
+     * @param itr    iterations
+     * @param policy the subdivision policy
+     * @return this mesh
+     */
+    public Mesh3 subdivFaces(final int itr, final SubdivPolicy policy) {
+
+        for (int i = 0; i < itr; ++i) {
+            this.subdivPass(policy);
+        }
+        return this;
+    }
+
+    /**
+     * Subdivides all faces in the mesh by a number of iterations. Uses the
+     * Catmull-Clark scheme.
+     *
+     * @param itr iterations
+     * @return this mesh
+     * @see Mesh3#subdivFaces(int, SubdivPolicy)
+     */
+    public Mesh3 subdivFacesCatmull(final int itr) {
+
+        return this.subdivFaces(itr, SubdivPolicy.CATMULL_CLARK);
+    }
+
     /**
      * Subdivides all faces in the mesh by a number of iterations. Uses the
      * center method.
      *
      * @param itr iterations
      * @return this mesh
-     * @see Mesh3#subdivFaceCenter(int)
+     * @see Mesh3#subdivFaces(int, SubdivPolicy)
      */
     public Mesh3 subdivFacesCenter(final int itr) {
 
-        for (int i = 0; i < itr; ++i) {
-            int k = 0;
-            final int len = this.faces.length;
-            for (int j = 0; j < len; ++j) {
-                final int vertLen = this.faces[k].length;
-                this.subdivFaceCenter(k);
-                k += vertLen;
-            }
-        }
-        return this;
+        return this.subdivFaces(itr, SubdivPolicy.CENTER);
     }
 
     /**
@@ -4834,20 +5420,11 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      *
      * @param itr iterations
      * @return this mesh
-     * @see Mesh3#subdivFaceFan(int)
+     * @see Mesh3#subdivFaces(int, SubdivPolicy)
      */
     public Mesh3 subdivFacesFan(final int itr) {
 
-        for (int i = 0; i < itr; ++i) {
-            int k = 0;
-            final int len = this.faces.length;
-            for (int j = 0; j < len; ++j) {
-                final int vertLen = this.faces[k].length;
-                this.subdivFaceFan(k);
-                k += vertLen;
-            }
-        }
-        return this;
+        return this.subdivFaces(itr, SubdivPolicy.FAN);
     }
 
     /**
@@ -4856,27 +5433,32 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      *
      * @param itr iterations
      * @return this mesh
-     * @see Mesh3#subdivFaceInscribe(int)
+     * @see Mesh3#subdivFaces(int, SubdivPolicy)
      */
     @SuppressWarnings("UnusedReturnValue")
     public Mesh3 subdivFacesInscribe(final int itr) {
 
-        for (int i = 0; i < itr; ++i) {
-            int k = 0;
-            final int len = this.faces.length;
-            for (int j = 0; j < len; ++j) {
-                final int vertLen = this.faces[k].length;
-                this.subdivFaceInscribe(k);
-                k += vertLen + 1;
-            }
-        }
-        return this;
+        return this.subdivFaces(itr, SubdivPolicy.INSCRIBE);
+    }
+
+    /**
+     * Subdivides all faces in the mesh by a number of iterations. Uses the
+     * Loop scheme, which is best suited to meshes made of triangles.
+     *
+     * @param itr iterations
+     * @return this mesh
+     * @see Mesh3#subdivFaces(int, SubdivPolicy)
+     */
+    public Mesh3 subdivFacesLoop(final int itr) {
+
+        return this.subdivFaces(itr, SubdivPolicy.LOOP);
     }
 
     /**
      * Renders the mesh as a string following the Wavefront obj file format.
      *
      * @return the string
+     * @see WriterObj
      */
     public String toObjString() {
 
@@ -4953,6 +5535,7 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      * triangulated prior to calling this method.
      *
      * @return the byte array
+     * @see WriterStl
      */
     public byte[] toStlBytes() {
 
@@ -5058,20 +5641,45 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      * @param m the matrix
      * @param h the matrix inverse
      * @return this mesh
+     * @see Mesh3#transform(Mat4, Mat4, ForkJoinPool)
+     */
+    public Mesh3 transform(final Mat4 m, final Mat4 h) {
+
+        return this.transform(m, h, null);
+    }
+
+    /**
+     * Transforms all coordinates and normals in the mesh by a matrix.
+     * Calculates the matrix inverse once in order to transform normals.
+     * Coordinates and normals are split into ranges across a pool.
+     *
+     * @param m    the matrix
+     * @param h    the matrix inverse
+     * @param pool the fork join pool
+     * @return this mesh
      * @see Mat4#inverse(Mat4, Mat4)
-     * @see Mat4#mulNormal(Vec3, Mat4, Mat4, Vec3)
+     * @see Mat4#mulNormal(Vec3, Mat4, Vec3)
      * @see Mat4#mulPoint(Mat4, Vec3, Vec3)
      */
-    public Mesh3 transform(final Mat4 m, final Mat4 h) {
+    public Mesh3 transform(
+        final Mat4 m,
+        final Mat4 h,
+        final ForkJoinPool pool) {
 
-        for (final Vec3 c : this.coords) {
-            Mat4.mulPoint(m, c, c);
-        }
+        final Vec3[] vs = this.coords;
+        Parallel.forRange(pool, vs.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                Mat4.mulPoint(m, vs[i], vs[i]);
+            }
+        });
 
         Mat4.inverse(m, h);
-        for (final Vec3 n : this.normals) {
-            Mat4.mulNormal(n, m, h, n);
-        }
+        final Vec3[] vns = this.normals;
+        Parallel.forRange(pool, vns.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                Mat4.mulNormal(vns[i], h, vns[i]);
+            }
+        });
 
         return this;
     }
@@ -5089,22 +5697,43 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      *
      * @param tr the transform
      * @return this mesh
+     * @see Mesh3#transform(Transform3, ForkJoinPool)
+     */
+    public Mesh3 transform(final Transform3 tr) {
+
+        return this.transform(tr, null);
+    }
+
+    /**
+     * Transforms all coordinates and normals in the mesh <em>permanently</em>
+     * by a transform. Coordinates and normals are split into ranges across a
+     * pool.
+     *
+     * @param tr   the transform
+     * @param pool the fork join pool
+     * @return this mesh
      * @see Transform3#mulNormal(Transform3, Vec3, Vec3)
      * @see Transform3#mulPoint(Transform3, Vec3, Vec3)
      */
-    public Mesh3 transform(final Transform3 tr) {
+    public Mesh3 transform(final Transform3 tr, final ForkJoinPool pool) {
 
         // TODO: Test this. It may no longer have parity with the Mat3 transform
         // function above. In which case, it'd need to use the same transform
         // order as it used to. Or... just don't worry about them being different.
 
-        for (final Vec3 c : this.coords) {
-            Transform3.mulPoint(tr, c, c);
-        }
+        final Vec3[] vs = this.coords;
+        Parallel.forRange(pool, vs.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                Transform3.mulPoint(tr, vs[i], vs[i]);
+            }
+        });
 
-        for (final Vec3 n : this.normals) {
-            Transform3.mulNormal(tr, n, n);
-        }
+        final Vec3[] vns = this.normals;
+        Parallel.forRange(pool, vns.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                Transform3.mulNormal(tr, vns[i], vns[i]);
+            }
+        });
 
         return this;
     }
@@ -5114,13 +5743,30 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      *
      * @param v the vector
      * @return this mesh
-     * @see Vec3#add(Vec3, Vec3, Vec3)
+     * @see Mesh3#translate(Vec3, ForkJoinPool)
      */
     public Mesh3 translate(final Vec3 v) {
 
-        for (final Vec3 c : this.coords) {
-            Vec3.add(c, v, c);
-        }
+        return this.translate(v, null);
+    }
+
+    /**
+     * Translates all coordinates in the mesh by a vector. Coordinates are
+     * split into ranges across a pool.
+     *
+     * @param v    the vector
+     * @param pool the fork join pool
+     * @return this mesh
+     * @see Vec3#add(Vec3, Vec3, Vec3)
+     */
+    public Mesh3 translate(final Vec3 v, final ForkJoinPool pool) {
+
+        final Vec3[] vs = this.coords;
+        Parallel.forRange(pool, vs.length, (start, end) -> {
+            for (int i = start; i < end; ++i) {
+                Vec3.add(vs[i], v, vs[i]);
+            }
+        });
 
         return this;
     }
@@ -5377,6 +6023,20 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
             Arrays.hashCode(this.texCoords));
     }
 
+    /**
+     * Internal helper function to calculate flat shading for a number of faces
+     * starting at an index. Assumes that index and count are valid.
+     *
+     * @param faceIdx the face index
+     * @param count   the count
+     * @return this mesh
+     * @see Mesh3#shadeFlat(int, int, ForkJoinPool)
+     */
+    protected Mesh3 shadeFlat(final int faceIdx, final int count) {
+
+        return this.shadeFlat(faceIdx, count, null);
+    }
+
     /**
      * Internal helper function to calculate flat shading for a number of faces
      * starting at an index. Assumes that index and count are valid. If the
@@ -5388,7 +6048,7 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      * ( b - a ) x ( c - a )
      * <br>
      * <br>
-     * then normalizes the sum.
+     * then normalizes the sum. Faces are split into ranges across a pool.
      * <br>
      * <br>
      * Needed because {@link Mesh3#extrudeFace(int, boolean, float, float)}
@@ -5396,6 +6056,7 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      *
      * @param faceIdx the face index
      * @param count   the count
+     * @param pool    the fork join pool
      * @return this mesh
      * @see Vec3#add(Vec3, Vec3, Vec3)
      * @see Vec3#cross(Vec3, Vec3, Vec3)
@@ -5403,7 +6064,10 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
      * @see Vec3#resize(Vec3[], int)
      * @see Vec3#sub(Vec3, Vec3, Vec3)
      */
-    protected Mesh3 shadeFlat(final int faceIdx, final int count) {
+    protected Mesh3 shadeFlat(
+        final int faceIdx,
+        final int count,
+        final ForkJoinPool pool) {
 
         final int facesLen = this.faces.length;
         final boolean reassign = count >= facesLen;
@@ -5419,53 +6083,270 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
             idxOffset = this.normals.length;
         }
 
-        Vec3 prev;
-        Vec3 curr;
-        Vec3 next;
-        Vec3 vn;
+        final int[][][] fs = this.faces;
+        final Vec3[] vs = this.coords;
+        Parallel.forRange(pool, count, (start, end) -> {
+            Vec3 prev;
+            Vec3 curr;
+            Vec3 next;
+            Vec3 vn;
+
+            final Vec3 edge0 = new Vec3();
+            final Vec3 edge1 = new Vec3();
+            final Vec3 cross = new Vec3();
+
+            for (int i = start; i < end; ++i) {
+
+                final int[][] f = fs[faceIdx + i];
+                final int faceLen = f.length;
+                final int newIdx = idxOffset + i;
+                prev = vs[f[faceLen - 1][0]];
+
+                if (reassign) {
+                    vn = vns[i];
+                    vn.reset();
+                } else {
+                    vns[i] = new Vec3();
+                    vn = vns[i];
+                }
 
-        final Vec3 edge0 = new Vec3();
-        final Vec3 edge1 = new Vec3();
-        final Vec3 cross = new Vec3();
+                for (int j = 0; j < faceLen; ++j) {
 
-        for (int i = 0; i < count; ++i) {
+                    final int[] vert = f[j];
+                    curr = vs[vert[0]];
+                    next = vs[f[(j + 1) % faceLen][0]];
 
-            final int[][] f = this.faces[faceIdx + i];
-            final int faceLen = f.length;
-            final int newIdx = idxOffset + i;
-            prev = this.coords[f[faceLen - 1][0]];
+                    Vec3.sub(prev, curr, edge0);
+                    Vec3.sub(curr, next, edge1);
+                    Vec3.cross(edge0, edge1, cross);
+                    Vec3.add(vn, cross, vn);
 
-            if (reassign) {
-                vn = vns[i];
-                vn.reset();
-            } else {
-                vns[i] = new Vec3();
-                vn = vns[i];
+                    vert[2] = newIdx;
+                    prev = curr;
+                }
+
+                /* Normalization takes care of averaging. */
+                Vec3.normalize(vn, vn);
             }
+        });
 
-            for (int j = 0; j < faceLen; ++j) {
+        if (!reassign) {
+            this.normals = Vec3.concat(this.normals, vns);
+        }
 
-                final int[] vert = f[j];
-                curr = this.coords[vert[0]];
-                next = this.coords[f[(j + 1) % faceLen][0]];
+        return this;
+    }
 
-                Vec3.sub(prev, curr, edge0);
-                Vec3.sub(curr, next, edge1);
-                Vec3.cross(edge0, edge1, cross);
-                Vec3.add(vn, cross, vn);
+    /**
+     * Internal helper function to subdivide all faces of the mesh once. The
+     * edges of each attribute are indexed with a hash, so that midpoints are
+     * shared between faces. Midpoints are appended after the existing data,
+     * followed by face centers, if any. New faces replace each old face in
+     * order.
+     * <br>
+     * <br>
+     * Smoothing schemes reposition coordinates only; texture coordinates and
+     * normals are interpolated as for the center and inscribe policies.
+     * Normals may be recalculated afterward with {@link Mesh3#shadeSmooth()}.
+     *
+     * @param policy the subdivision policy
+     * @return this mesh
+     * @see Mesh3#edgeIndices(int[][][], int, int, IntList)
+     */
+    protected Mesh3 subdivPass(final SubdivPolicy policy) {
 
-                vert[2] = newIdx;
-                prev = curr;
+        final Vec3[] vs = this.coords;
+        final Vec2[] vts = this.texCoords;
+        final Vec3[] vns = this.normals;
+        final int[][][] fs = this.faces;
+
+        final int vsLen = vs.length;
+        final int vtsLen = vts.length;
+        final int vnsLen = vns.length;
+        final int fsLen = fs.length;
+
+        int cornerLen = 0;
+        for (final int[][] face : fs) {
+            cornerLen += face.length;
+        }
+
+        final boolean useCenters = policy == SubdivPolicy.CATMULL_CLARK
+            || policy == SubdivPolicy.CENTER
+            || policy == SubdivPolicy.FAN;
+        final boolean useEdges = policy != SubdivPolicy.FAN;
+
+        final IntList vEnds = new IntList(useEdges ? cornerLen : 1);
+        final IntList vtEnds = new IntList(useEdges ? cornerLen : 1);
+        final IntList vnEnds = new IntList(useEdges ? cornerLen : 1);
+        final int[] vEdges = useEdges
+            ? Mesh3.edgeIndices(fs, 0, cornerLen, vEnds)
+            : new int[0];
+        final int[] vtEdges = useEdges
+            ? Mesh3.edgeIndices(fs, 1, cornerLen, vtEnds)
+            : new int[0];
+        final int[] vnEdges = useEdges
+            ? Mesh3.edgeIndices(fs, 2, cornerLen, vnEnds)
+            : new int[0];
+
+        final int vEdgeLen = vEnds.size() >> 1;
+        final int vtEdgeLen = vtEnds.size() >> 1;
+        final int vnEdgeLen = vnEnds.size() >> 1;
+        final int ctrLen = useCenters ? fsLen : 0;
+
+        /* Centers are appended after midpoints. */
+        final int vCtrOff = vsLen + vEdgeLen;
+        final int vtCtrOff = vtsLen + vtEdgeLen;
+        final int vnCtrOff = vnsLen + vnEdgeLen;
+
+        final Vec3[] vsNew = new Vec3[vCtrOff + ctrLen];
+        final Vec2[] vtsNew = new Vec2[vtCtrOff + ctrLen];
+        final Vec3[] vnsNew = new Vec3[vnCtrOff + ctrLen];
+        System.arraycopy(vs, 0, vsNew, 0, vsLen);
+        System.arraycopy(vts, 0, vtsNew, 0, vtsLen);
+        System.arraycopy(vns, 0, vnsNew, 0, vnsLen);
+
+        for (int e = 0, j = 0; e < vEdgeLen; ++e, j += 2) {
+            final Vec3 a = vs[vEnds.get(j)];
+            final Vec3 b = vs[vEnds.get(j + 1)];
+            vsNew[vsLen + e] = new Vec3(
+                (a.x + b.x) * 0.5f,
+                (a.y + b.y) * 0.5f,
+                (a.z + b.z) * 0.5f);
+        }
+
+        for (int e = 0, j = 0; e < vtEdgeLen; ++e, j += 2) {
+            final Vec2 a = vts[vtEnds.get(j)];
+            final Vec2 b = vts[vtEnds.get(j + 1)];
+            vtsNew[vtsLen + e] = new Vec2(
+                (a.x + b.x) * 0.5f,
+                (a.y + b.y) * 0.5f);
+        }
+
+        /* Multiply by 0.5 removed because normalize takes care of it. */
+        for (int e = 0, j = 0; e < vnEdgeLen; ++e, j += 2) {
+            vnsNew[vnsLen + e] = Vec3.addNorm(
+                vns[vnEnds.get(j)],
+                vns[vnEnds.get(j + 1)],
+                new Vec3());
+        }
+
+        if (useCenters) {
+            for (int f = 0; f < fsLen; ++f) {
+                final int[][] face = fs[f];
+                final int faceLen = face.length;
+                final Vec3 vCenter = new Vec3();
+                final Vec2 vtCenter = new Vec2();
+                final Vec3 vnCenter = new Vec3();
+                for (final int[] vert : face) {
+                    Vec3.add(vCenter, vs[vert[0]], vCenter);
+                    Vec2.add(vtCenter, vts[vert[1]], vtCenter);
+                    Vec3.add(vnCenter, vns[vert[2]], vnCenter);
+                }
+                if (faceLen > 0) {
+                    final float flInv = 1.0f / faceLen;
+                    Vec3.mul(vCenter, flInv, vCenter);
+                    Vec2.mul(vtCenter, flInv, vtCenter);
+                    Vec3.normalize(vnCenter, vnCenter);
+                }
+                vsNew[vCtrOff + f] = vCenter;
+                vtsNew[vtCtrOff + f] = vtCenter;
+                vnsNew[vnCtrOff + f] = vnCenter;
             }
+        }
 
-            /* Normalization takes care of averaging. */
-            Vec3.normalize(vn, vn);
+        if (policy == SubdivPolicy.CATMULL_CLARK) {
+            Mesh3.smoothCatmull(fs, vs, vEdges, vEnds, vsNew);
+        } else if (policy == SubdivPolicy.LOOP) {
+            Mesh3.smoothLoop(fs, vs, vEdges, vEnds, vsNew);
         }
 
-        if (!reassign) {
-            this.normals = Vec3.concat(this.normals, vns);
+        final int[][][] fsNew;
+        switch (policy) {
+            case FAN: {
+                fsNew = new int[cornerLen][][];
+                int g = 0;
+                for (int f = 0; f < fsLen; ++f) {
+                    final int[][] face = fs[f];
+                    final int faceLen = face.length;
+                    final int[] ctr = {vCtrOff + f, vtCtrOff + f, vnCtrOff + f};
+                    for (int j = 0; j < faceLen; ++j) {
+                        final int[] vCurr = face[j];
+                        final int[] vNext = face[(j + 1) % faceLen];
+                        fsNew[g++] = new int[][]{
+                            ctr.clone(),
+                            {vCurr[0], vCurr[1], vCurr[2]},
+                            {vNext[0], vNext[1], vNext[2]}};
+                    }
+                }
+            }
+            break;
+
+            case INSCRIBE:
+            case LOOP: {
+                fsNew = new int[cornerLen + fsLen][][];
+                int c = 0;
+                int g = 0;
+                for (final int[][] face : fs) {
+                    final int faceLen = face.length;
+                    final int cStart = c;
+                    final int[][] centerFace = new int[faceLen][];
+                    for (int j = 0; j < faceLen; ++j, ++c) {
+                        final int k = (j + 1) % faceLen;
+                        final int ck = cStart + k;
+                        final int[] vNext = face[k];
+                        final int[] mCurr = {
+                            vsLen + vEdges[c],
+                            vtsLen + vtEdges[c],
+                            vnsLen + vnEdges[c]};
+                        fsNew[g++] = new int[][]{
+                            mCurr,
+                            {vNext[0], vNext[1], vNext[2]},
+                            {
+                                vsLen + vEdges[ck],
+                                vtsLen + vtEdges[ck],
+                                vnsLen + vnEdges[ck]}};
+                        centerFace[j] = mCurr.clone();
+                    }
+                    fsNew[g++] = centerFace;
+                }
+            }
+            break;
+
+            case CATMULL_CLARK:
+            case CENTER:
+            default: {
+                fsNew = new int[cornerLen][][];
+                int c = 0;
+                int g = 0;
+                for (int f = 0; f < fsLen; ++f) {
+                    final int[][] face = fs[f];
+                    final int faceLen = face.length;
+                    final int cStart = c;
+                    for (int j = 0; j < faceLen; ++j, ++c) {
+                        final int k = (j + 1) % faceLen;
+                        final int ck = cStart + k;
+                        final int[] vNext = face[k];
+                        fsNew[g++] = new int[][]{
+                            {vCtrOff + f, vtCtrOff + f, vnCtrOff + f},
+                            {
+                                vsLen + vEdges[c],
+                                vtsLen + vtEdges[c],
+                                vnsLen + vnEdges[c]},
+                            {vNext[0], vNext[1], vNext[2]},
+                            {
+                                vsLen + vEdges[ck],
+                                vtsLen + vtEdges[ck],
+                                vnsLen + vnEdges[ck]}};
+                    }
+                }
+            }
         }
 
+        this.coords = vsNew;
+        this.texCoords = vtsNew;
+        this.normals = vnsNew;
+        this.faces = fsNew;
+
         return this;
     }
 
@@ -5529,4 +6410,36 @@ public class Mesh3 extends Mesh implements Iterable<Face3> {
             return this.getClass().getSimpleName();
         }
     }
+
+    /**
+     * Policy for subdividing all faces of a mesh at once.
+     */
+    public enum SubdivPolicy {
+
+        /**
+         * Center subdivision, then Catmull-Clark smoothing of coordinates.
+         */
+        CATMULL_CLARK,
+
+        /**
+         * Connect edge midpoints to the face center, creating quadrilaterals.
+         */
+        CENTER,
+
+        /**
+         * Connect corners to the face center, creating triangles.
+         */
+        FAN,
+
+        /**
+         * Connect edge midpoints, creating peripheral triangles and a central
+         * face.
+         */
+        INSCRIBE,
+
+        /**
+         * Inscription, then Loop smoothing of coordinates.
+         */
+        LOOP
+    }
 }
@@ -521,6 +521,7 @@ public class MeshEntity3 extends Entity3 implements Iterable<Mesh3>, IVolume3, I
      * format.
      *
      * @return the string
+     * @see WriterObj
      */
     public String toObjString() {
 
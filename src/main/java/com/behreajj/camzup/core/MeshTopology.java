@@ -0,0 +1,604 @@
+package com.behreajj.camzup.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A half-edge index over the faces of a mesh. Each corner of each face
+ * begins one half-edge, numbered in face order, so that the half-edges of
+ * face <code>f</code> run from {@link MeshTopology#halfEdge(int, int)} with
+ * a corner of zero through the face's length. Neighbors, boundaries and
+ * edge rings are found from primitive arrays without scanning the faces.
+ * <br>
+ * <br>
+ * Only coordinate indices, the first index of each corner, are considered.
+ * Undirected edges are identified by their pair of coordinate indices. Two
+ * half-edges are twins when they are the only half-edges on an edge and run
+ * in opposite directions. Edges shared by more than two faces, or by two
+ * faces with inconsistent winding, are treated as boundaries.
+ * <br>
+ * <br>
+ * A topology does not update with its mesh. Use
+ * {@link MeshTopology#matches(int[][][], int)} to test whether it is stale.
+ */
+public class MeshTopology {
+
+    /**
+     * The undirected edge of each half-edge.
+     */
+    protected final int[] edges;
+
+    /**
+     * A half-edge on each undirected edge, the first found in face order.
+     */
+    protected final int[] edgeHalves;
+
+    /**
+     * The face of each half-edge.
+     */
+    protected final int[] faceOf;
+
+    /**
+     * The index of the first half-edge of each face. Has one more element
+     * than the faces, where the last is the number of half-edges.
+     */
+    protected final int[] faceStarts;
+
+    /**
+     * The coordinate index at which each half-edge begins.
+     */
+    protected final int[] origins;
+
+    /**
+     * The twin of each half-edge, or -1 if the half-edge is on a boundary.
+     */
+    protected final int[] twins;
+
+    /**
+     * A half-edge beginning at each coordinate, or -1 if the coordinate is
+     * not used by a face. Boundary half-edges are preferred.
+     */
+    protected final int[] vertHalves;
+
+    /**
+     * The number of half-edges without a twin.
+     */
+    protected int boundaryCount;
+
+    /**
+     * Constructs a topology from a mesh's faces and its number of
+     * coordinates.
+     *
+     * @param faces     the faces
+     * @param vertCount the coordinate count
+     */
+    public MeshTopology(final int[][][] faces, final int vertCount) {
+
+        final int fsLen = faces.length;
+        this.faceStarts = new int[fsLen + 1];
+        int hLen = 0;
+        for (int i = 0; i < fsLen; ++i) {
+            this.faceStarts[i] = hLen;
+            hLen += faces[i].length;
+        }
+        this.faceStarts[fsLen] = hLen;
+
+        this.origins = new int[hLen];
+        this.faceOf = new int[hLen];
+        this.twins = new int[hLen];
+        this.edges = new int[hLen];
+        this.vertHalves = new int[vertCount];
+        Arrays.fill(this.twins, -1);
+        Arrays.fill(this.vertHalves, -1);
+
+        int h = 0;
+        for (int i = 0; i < fsLen; ++i) {
+            for (final int[] vert : faces[i]) {
+                this.origins[h] = vert[0];
+                this.faceOf[h] = i;
+                ++h;
+            }
+        }
+
+        /*
+         * Key each edge by its coordinate indices, the lesser in the high
+         * bits. The first two half-edges found on an edge are paired if they
+         * run in opposite directions; a third unpairs them.
+         */
+        final LongIntMap edgeMap = new LongIntMap(hLen);
+        final int[] halves = new int[hLen];
+        final int[] counts = new int[hLen];
+        int eLen = 0;
+        for (h = 0; h < hLen; ++h) {
+            final int orig = this.origins[h];
+            final int dest = this.origins[this.next(h)];
+            final long key = orig < dest
+                ? (long) orig << 32 | dest & 0xffffffffL
+                : (long) dest << 32 | orig & 0xffffffffL;
+
+            final int idx = edgeMap.indexOf(key);
+            if (idx < 0) {
+                edgeMap.putAt(idx, key, eLen);
+                halves[eLen] = h;
+                counts[eLen] = 1;
+                this.edges[h] = eLen;
+                ++eLen;
+            } else {
+                final int e = edgeMap.valueAt(idx);
+                final int first = halves[e];
+                final int count = ++counts[e];
+                this.edges[h] = e;
+                if (count == 2) {
+                    if (this.origins[first] == dest) {
+                        this.twins[first] = h;
+                        this.twins[h] = first;
+                    }
+                } else if (count == 3) {
+                    final int second = this.twins[first];
+                    if (second > -1) {
+                        this.twins[second] = -1;
+                        this.twins[first] = -1;
+                    }
+                }
+            }
+        }
+        this.edgeHalves = Arrays.copyOf(halves, eLen);
+
+        for (h = 0; h < hLen; ++h) {
+            final boolean isBound = this.twins[h] < 0;
+            if (isBound) {
+                ++this.boundaryCount;
+            }
+            final int v = this.origins[h];
+            if (v > -1 && v < vertCount
+                && (this.vertHalves[v] < 0 || isBound)) {
+                this.vertHalves[v] = h;
+            }
+        }
+    }
+
+    /**
+     * Finds the next half-edge on the boundary loop of a boundary half-edge
+     * by turning about its destination. Returns -1 if the half-edge is not
+     * on a boundary.
+     *
+     * @param h the half-edge
+     * @return the next boundary half-edge
+     */
+    public int boundaryNext(final int h) {
+
+        if (this.twins[h] > -1) {
+            return -1;
+        }
+
+        /* Guard against fans which do not reach a boundary. */
+        int e = this.next(h);
+        for (int i = 0; this.twins[e] > -1 && i < this.origins.length; ++i) {
+            e = this.next(this.twins[e]);
+        }
+        return this.twins[e] < 0 ? e : -1;
+    }
+
+    /**
+     * Gets the coordinate index at which a half-edge ends.
+     *
+     * @param h the half-edge
+     * @return the coordinate index
+     */
+    public int dest(final int h) {
+        return this.origins[this.next(h)];
+    }
+
+    /**
+     * Gets the undirected edge of a half-edge.
+     *
+     * @param h the half-edge
+     * @return the edge
+     */
+    public int edge(final int h) {
+        return this.edges[h];
+    }
+
+    /**
+     * Gets a half-edge on an undirected edge.
+     *
+     * @param e the edge
+     * @return the half-edge
+     */
+    public int edgeHalf(final int e) {
+        return this.edgeHalves[e];
+    }
+
+    /**
+     * Finds the ring of edges which includes a half-edge's edge. A ring
+     * crosses each face from an edge to its opposite, so it continues only
+     * through faces with an even number of corners, such as quadrilaterals.
+     * Returns undirected edges in order from one end of the ring to the
+     * other; for closed rings, begins with the half-edge's edge.
+     *
+     * @param h the half-edge
+     * @return the edges
+     * @see MeshTopology#ringNext(int)
+     */
+    public int[] edgeRing(final int h) {
+
+        final IntList fwd = new IntList();
+        final int eStart = this.edges[h];
+        final int hLen = this.origins.length;
+        fwd.add(eStart);
+
+        /* Walk across the twin, then from the edge opposite in this face. */
+        int e = this.ringNext(h);
+        while (e > -1 && this.edges[e] != eStart && fwd.size() < hLen) {
+            fwd.add(this.edges[e]);
+            e = this.ringNext(e);
+        }
+        if (e > -1) {
+            return fwd.toArray();
+        }
+
+        final IntList bwd = new IntList();
+        e = this.opposite(h);
+        while (e > -1 && bwd.size() < hLen) {
+            bwd.add(this.edges[e]);
+            e = this.ringNext(e);
+        }
+
+        final int bwdLen = bwd.size();
+        final int fwdLen = fwd.size();
+        final int[] result = new int[bwdLen + fwdLen];
+        for (int i = 0; i < bwdLen; ++i) {
+            result[i] = bwd.get(bwdLen - 1 - i);
+        }
+        for (int i = 0; i < fwdLen; ++i) {
+            result[bwdLen + i] = fwd.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the face of a half-edge.
+     *
+     * @param h the half-edge
+     * @return the face index
+     */
+    public int face(final int h) {
+        return this.faceOf[h];
+    }
+
+    /**
+     * Gets the number of corners in a face.
+     *
+     * @param f the face index
+     * @return the corner count
+     */
+    public int faceLength(final int f) {
+        return this.faceStarts[f + 1] - this.faceStarts[f];
+    }
+
+    /**
+     * Finds the boundary loops of the mesh. Each loop is an array of
+     * half-edges without twins, in the order of their faces' winding.
+     *
+     * @return the loops
+     * @see MeshTopology#boundaryNext(int)
+     */
+    public int[][] getBoundaryLoops() {
+
+        final int hLen = this.origins.length;
+        final boolean[] visited = new boolean[hLen];
+        final IntList loop = new IntList();
+        final ArrayList<int[]> loops = new ArrayList<>();
+
+        for (int h = 0; h < hLen; ++h) {
+            if (this.twins[h] > -1 || visited[h]) {
+                continue;
+            }
+
+            loop.clear();
+            int e = h;
+            while (e > -1 && !visited[e]) {
+                visited[e] = true;
+                loop.add(e);
+                e = this.boundaryNext(e);
+            }
+            loops.add(loop.toArray());
+        }
+
+        return loops.toArray(new int[0][]);
+    }
+
+    /**
+     * Gets the number of half-edges without a twin.
+     *
+     * @return the boundary count
+     */
+    public int getBoundaryCount() {
+        return this.boundaryCount;
+    }
+
+    /**
+     * Gets the number of undirected edges.
+     *
+     * @return the edge count
+     */
+    public int getEdgeCount() {
+        return this.edgeHalves.length;
+    }
+
+    /**
+     * Gets the number of faces.
+     *
+     * @return the face count
+     */
+    public int getFaceCount() {
+        return this.faceStarts.length - 1;
+    }
+
+    /**
+     * Gets the number of half-edges.
+     *
+     * @return the half-edge count
+     */
+    public int getHalfEdgeCount() {
+        return this.origins.length;
+    }
+
+    /**
+     * Gets the number of coordinates.
+     *
+     * @return the coordinate count
+     */
+    public int getVertCount() {
+        return this.vertHalves.length;
+    }
+
+    /**
+     * Gets the half-edge which begins at a corner of a face. The corner
+     * wraps around the face's length.
+     *
+     * @param f      the face index
+     * @param corner the corner index
+     * @return the half-edge
+     */
+    public int halfEdge(final int f, final int corner) {
+
+        final int start = this.faceStarts[f];
+        return start + Utils.mod(corner, this.faceStarts[f + 1] - start);
+    }
+
+    /**
+     * Evaluates whether a half-edge is on a boundary.
+     *
+     * @param h the half-edge
+     * @return the evaluation
+     */
+    public boolean isBoundary(final int h) {
+        return this.twins[h] < 0;
+    }
+
+    /**
+     * Evaluates whether a coordinate is on a boundary. Coordinates which are
+     * not used by any face are not.
+     *
+     * @param v the coordinate index
+     * @return the evaluation
+     */
+    public boolean isBoundaryVert(final int v) {
+
+        final int h = this.vertHalves[v];
+        return h > -1 && this.twins[h] < 0;
+    }
+
+    /**
+     * Evaluates whether every half-edge has a twin, i.e., whether the mesh
+     * is closed.
+     *
+     * @return the evaluation
+     */
+    public boolean isClosed() {
+        return this.boundaryCount == 0;
+    }
+
+    /**
+     * Evaluates whether this topology was built from faces with the same
+     * layout and coordinate indices as those given. Runs in time linear in
+     * the number of half-edges, without allocating.
+     *
+     * @param faces     the faces
+     * @param vertCount the coordinate count
+     * @return the evaluation
+     */
+    public boolean matches(final int[][][] faces, final int vertCount) {
+
+        final int fsLen = faces.length;
+        if (fsLen + 1 != this.faceStarts.length
+            || vertCount != this.vertHalves.length) {
+            return false;
+        }
+
+        int h = 0;
+        for (int i = 0; i < fsLen; ++i) {
+            final int[][] face = faces[i];
+            if (this.faceStarts[i + 1] - h != face.length) {
+                return false;
+            }
+            for (final int[] vert : face) {
+                if (this.origins[h] != vert[0]) {
+                    return false;
+                }
+                ++h;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the face across a half-edge, or -1 if the half-edge is on a
+     * boundary.
+     *
+     * @param h the half-edge
+     * @return the face index
+     */
+    public int neighbor(final int h) {
+
+        final int t = this.twins[h];
+        return t > -1 ? this.faceOf[t] : -1;
+    }
+
+    /**
+     * Finds the faces across each edge of a face, in the order of its
+     * corners. Boundary edges are represented by -1.
+     *
+     * @param f the face index
+     * @return the face indices
+     */
+    public int[] neighbors(final int f) {
+
+        final int start = this.faceStarts[f];
+        final int len = this.faceStarts[f + 1] - start;
+        final int[] result = new int[len];
+        for (int j = 0; j < len; ++j) {
+            result[j] = this.neighbor(start + j);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the next half-edge in a half-edge's face.
+     *
+     * @param h the half-edge
+     * @return the next half-edge
+     */
+    public int next(final int h) {
+
+        final int f = this.faceOf[h];
+        return h + 1 < this.faceStarts[f + 1] ? h + 1 : this.faceStarts[f];
+    }
+
+    /**
+     * Gets the coordinate index at which a half-edge begins.
+     *
+     * @param h the half-edge
+     * @return the coordinate index
+     */
+    public int origin(final int h) {
+        return this.origins[h];
+    }
+
+    /**
+     * Gets the previous half-edge in a half-edge's face.
+     *
+     * @param h the half-edge
+     * @return the previous half-edge
+     */
+    public int prev(final int h) {
+
+        final int f = this.faceOf[h];
+        final int start = this.faceStarts[f];
+        return h > start ? h - 1 : this.faceStarts[f + 1] - 1;
+    }
+
+    /**
+     * Crosses to the neighboring face of a half-edge, then finds the
+     * half-edge opposite the twin in that face. Returns -1 if the half-edge
+     * is on a boundary or if the neighbor has an odd number of corners.
+     *
+     * @param h the half-edge
+     * @return the opposite half-edge
+     * @see MeshTopology#edgeRing(int)
+     */
+    public int ringNext(final int h) {
+
+        final int t = this.twins[h];
+        return t > -1 ? this.opposite(t) : -1;
+    }
+
+    /**
+     * Gets the twin of a half-edge, or -1 if the half-edge is on a boundary.
+     *
+     * @param h the half-edge
+     * @return the twin
+     */
+    public int twin(final int h) {
+        return this.twins[h];
+    }
+
+    /**
+     * Returns a string representation of this topology.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+
+        final StringBuilder sb = new StringBuilder(128);
+        sb.append("{\"faces\":");
+        sb.append(this.getFaceCount());
+        sb.append(",\"halfEdges\":");
+        sb.append(this.origins.length);
+        sb.append(",\"edges\":");
+        sb.append(this.edgeHalves.length);
+        sb.append(",\"verts\":");
+        sb.append(this.vertHalves.length);
+        sb.append(",\"boundary\":");
+        sb.append(this.boundaryCount);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Finds the number of half-edges which begin at a coordinate by turning
+     * about it. For coordinates on a boundary, turning begins at the
+     * boundary half-edge, so the whole fan is counted.
+     *
+     * @param v the coordinate index
+     * @return the valence
+     */
+    public int valence(final int v) {
+
+        final int h = this.vertHalves[v];
+        if (h < 0) {
+            return 0;
+        }
+
+        int count = 0;
+        int e = h;
+        final int hLen = this.origins.length;
+        do {
+            ++count;
+            e = this.twins[this.prev(e)];
+        } while (e > -1 && e != h && count < hLen);
+        return count;
+    }
+
+    /**
+     * Gets a half-edge which begins at a coordinate, or -1 if the coordinate
+     * is not used by any face. For coordinates on a boundary, the half-edge
+     * is on the boundary.
+     *
+     * @param v the coordinate index
+     * @return the half-edge
+     */
+    public int vertHalf(final int v) {
+        return this.vertHalves[v];
+    }
+
+    /**
+     * Finds the half-edge opposite another in its face. Returns -1 if the
+     * face has an odd number of corners.
+     *
+     * @param h the half-edge
+     * @return the opposite half-edge
+     */
+    protected int opposite(final int h) {
+
+        final int f = this.faceOf[h];
+        final int start = this.faceStarts[f];
+        final int len = this.faceStarts[f + 1] - start;
+        if ((len & 1) != 0) {
+            return -1;
+        }
+        return start + (h - start + (len >> 1)) % len;
+    }
+}
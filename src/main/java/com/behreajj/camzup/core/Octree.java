@@ -1,6 +1,10 @@
 package com.behreajj.camzup.core;
 
+import java.io.Serial;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Partitions space to improve collision and intersection tests. An octree node
@@ -157,6 +161,25 @@ public class Octree {
         this.insertAll(points);
     }
 
+    /**
+     * Constructs an octree from an array of points and a capacity per node.
+     * Inserts the points in bulk with a fork join pool.
+     *
+     * @param points   the points
+     * @param capacity capacity per node
+     * @param pool     the fork join pool
+     * @see Bounds3#fromPoints(Vec3[], Bounds3)
+     * @see Octree#insertAll(Vec3[], ForkJoinPool)
+     */
+    public Octree(final Vec3[] points, final int capacity, final ForkJoinPool pool) {
+
+        this.bounds = Bounds3.fromPoints(points, new Bounds3());
+        this.capacity = Math.max(capacity, 1);
+        this.level = Octree.ROOT_LEVEL;
+        this.points = new TreeSet<>();
+        this.insertAll(points, pool);
+    }
+
     /**
      * The default constructor. Creates a bounds of signed unit size.
      *
@@ -217,6 +240,65 @@ public class Octree {
         return results.toArray(new Vec3[0]);
     }
 
+    /**
+     * Finds up to k points in the octree nearest to a query point, ordered
+     * from nearest to farthest. Writes the points' coordinates to an array,
+     * with a stride of 3, and their distances squared to another array.
+     * Returns the number of points found. Points at equal distances are all
+     * retained.
+     * <br>
+     * <br>
+     * Uses a bounded max heap held in the output arrays, and skips nodes
+     * whose bounds are farther than the farthest point found so far.
+     *
+     * @param o       the octree
+     * @param query   the query point
+     * @param k       the number of points
+     * @param coords  the output coordinates
+     * @param distSqs the output distances squared
+     * @return the number found
+     */
+    public static int nearest(
+        final Octree o,
+        final Vec3 query,
+        final int k,
+        final float[] coords,
+        final float[] distSqs) {
+
+        final int kVerif = Math.min(k, Math.min(coords.length / 3, distSqs.length));
+        if (kVerif < 1) {
+            return 0;
+        }
+
+        final int size = Octree.nearest(o, query, kVerif, 0, coords, distSqs);
+
+        /* Sort the max heap in place, from nearest to farthest. */
+        for (int end = size - 1; end > 0; --end) {
+            Octree.heapSwap(coords, distSqs, 0, end);
+            Octree.heapSiftDown(coords, distSqs, 0, end);
+        }
+        return size;
+    }
+
+    /**
+     * Finds the point in the octree nearest to a query point. Sets the target
+     * to the point and returns the distance squared. If the octree is empty,
+     * returns positive infinity and the target is left unchanged. The query
+     * and target should not be the same object.
+     *
+     * @param o      the octree
+     * @param query  the query point
+     * @param target the output point
+     * @return the distance squared
+     */
+    public static float nearestOne(
+        final Octree o,
+        final Vec3 query,
+        final Vec3 target) {
+
+        return Octree.nearestOne(o, query, Float.POSITIVE_INFINITY, target);
+    }
+
     /**
      * Queries the octree with a rectangular range, returning points inside the
      * range.
@@ -272,6 +354,50 @@ public class Octree {
         return result;
     }
 
+    /**
+     * Queries the octree with a spherical range. Writes the coordinates of points
+     * inside the range to an array, with a stride of 3, and their distances
+     * squared to another array. Points are in traversal order, not sorted.
+     * Returns the number of points in range, which may be greater than the
+     * number the arrays could hold.
+     *
+     * @param o       the octree
+     * @param center  the sphere center
+     * @param radius  the sphere radius
+     * @param coords  the output coordinates
+     * @param distSqs the output distances squared
+     * @return the number in range
+     */
+    public static int query(
+        final Octree o,
+        final Vec3 center,
+        final float radius,
+        final float[] coords,
+        final float[] distSqs) {
+
+        return Octree.query(o, center, radius * radius, coords, distSqs, 0);
+    }
+
+    /**
+     * Queries the octree with a spherical range. Calls a visitor for each
+     * point inside the range, in traversal order. Returns the number of
+     * points visited.
+     *
+     * @param o       the octree
+     * @param center  the sphere center
+     * @param radius  the sphere radius
+     * @param visitor the visitor
+     * @return the number in range
+     */
+    public static int query(
+        final Octree o,
+        final Vec3 center,
+        final float radius,
+        final Visitor visitor) {
+
+        return Octree.query(o, center, radius * radius, visitor, 0);
+    }
+
     /**
      * Finds the average center in each leaf node of this octree and appends it
      * to an array. If the node is empty, and includeEmpty is true, then the
@@ -407,6 +533,281 @@ public class Octree {
         }
     }
 
+    /**
+     * Moves the last element of a bounded max heap of points up to its place.
+     *
+     * @param coords  the coordinates
+     * @param distSqs the distances squared
+     * @param start   the element index
+     */
+    static void heapSiftUp(
+        final float[] coords,
+        final float[] distSqs,
+        final int start) {
+
+        int i = start;
+        while (i > 0) {
+            final int parent = i - 1 >>> 1;
+            if (distSqs[parent] >= distSqs[i]) {
+                return;
+            }
+            Octree.heapSwap(coords, distSqs, i, parent);
+            i = parent;
+        }
+    }
+
+    /**
+     * Moves an element of a bounded max heap of points down to its place.
+     *
+     * @param coords  the coordinates
+     * @param distSqs the distances squared
+     * @param start   the element index
+     * @param size    the heap size
+     */
+    static void heapSiftDown(
+        final float[] coords,
+        final float[] distSqs,
+        final int start,
+        final int size) {
+
+        int i = start;
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && distSqs[child + 1] > distSqs[child]) {
+                ++child;
+            }
+            if (distSqs[child] <= distSqs[i]) {
+                return;
+            }
+            Octree.heapSwap(coords, distSqs, i, child);
+            i = child;
+        }
+    }
+
+    /**
+     * Swaps two elements in a heap of points.
+     *
+     * @param coords  the coordinates
+     * @param distSqs the distances squared
+     * @param i       the first index
+     * @param j       the second index
+     */
+    static void heapSwap(
+        final float[] coords,
+        final float[] distSqs,
+        final int i,
+        final int j) {
+
+        final float td = distSqs[i];
+        distSqs[i] = distSqs[j];
+        distSqs[j] = td;
+
+        for (int m = i * 3, n = j * 3, end = m + 3; m < end; ++m, ++n) {
+            final float tc = coords[m];
+            coords[m] = coords[n];
+            coords[n] = tc;
+        }
+    }
+
+    /**
+     * Finds up to k points nearest to a query point, placing them in a
+     * bounded max heap. Children whose bounds contain the query are visited
+     * first. Returns the new heap size.
+     *
+     * @param o       the octree
+     * @param query   the query point
+     * @param k       the number of points
+     * @param size    the heap size
+     * @param coords  the heap coordinates
+     * @param distSqs the heap distances squared
+     * @return the heap size
+     * @see Bounds3#distSq(Bounds3, Vec3)
+     */
+    static int nearest(
+        final Octree o,
+        final Vec3 query,
+        final int k,
+        final int size,
+        final float[] coords,
+        final float[] distSqs) {
+
+        int sz = size;
+        if (o.isLeaf()) {
+            for (final Vec3 point : o.points) {
+                final float dsq = Vec3.distSq(query, point);
+                if (sz < k) {
+                    final int j = sz * 3;
+                    coords[j] = point.x;
+                    coords[j + 1] = point.y;
+                    coords[j + 2] = point.z;
+                    distSqs[sz] = dsq;
+                    Octree.heapSiftUp(coords, distSqs, sz);
+                    ++sz;
+                } else if (dsq < distSqs[0]) {
+                    coords[0] = point.x;
+                    coords[1] = point.y;
+                    coords[2] = point.z;
+                    distSqs[0] = dsq;
+                    Octree.heapSiftDown(coords, distSqs, 0, sz);
+                }
+            }
+            return sz;
+        }
+
+        for (int pass = 0; pass < 2; ++pass) {
+            for (int i = 0; i < Octree.CHILD_COUNT; ++i) {
+                final Octree child = o.children[i];
+                if (child != null) {
+                    final float bdsq = Bounds3.distSq(child.bounds, query);
+                    final boolean contains = bdsq <= 0.0f;
+                    if (contains == (pass == 0)
+                        && (sz < k || bdsq < distSqs[0])) {
+                        sz = Octree.nearest(child, query, k, sz, coords, distSqs);
+                    }
+                }
+            }
+        }
+        return sz;
+    }
+
+    /**
+     * Finds the point nearest to a query point. Children whose bounds
+     * contain the query are visited first. Returns the least distance
+     * squared found.
+     *
+     * @param o      the octree
+     * @param query  the query point
+     * @param bestSq the least distance squared so far
+     * @param target the output point
+     * @return the distance squared
+     * @see Bounds3#distSq(Bounds3, Vec3)
+     */
+    static float nearestOne(
+        final Octree o,
+        final Vec3 query,
+        final float bestSq,
+        final Vec3 target) {
+
+        float best = bestSq;
+        if (o.isLeaf()) {
+            for (final Vec3 point : o.points) {
+                final float dsq = Vec3.distSq(query, point);
+                if (dsq < best) {
+                    best = dsq;
+                    target.set(point);
+                }
+            }
+            return best;
+        }
+
+        for (int pass = 0; pass < 2; ++pass) {
+            for (int i = 0; i < Octree.CHILD_COUNT; ++i) {
+                final Octree child = o.children[i];
+                if (child != null) {
+                    final float bdsq = Bounds3.distSq(child.bounds, query);
+                    final boolean contains = bdsq <= 0.0f;
+                    if (contains == (pass == 0) && bdsq < best) {
+                        best = Octree.nearestOne(child, query, best, target);
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Queries the octree with a spherical range. Writes points in range to
+     * arrays until they are full. Returns the count of points in range.
+     *
+     * @param o       the octree
+     * @param center  the sphere center
+     * @param rsq     the sphere radius, squared
+     * @param coords  the output coordinates
+     * @param distSqs the output distances squared
+     * @param count   the count so far
+     * @return the count
+     */
+    static int query(
+        final Octree o,
+        final Vec3 center,
+        final float rsq,
+        final float[] coords,
+        final float[] distSqs,
+        final int count) {
+
+        int c = count;
+        if (Bounds3.intersectSq(o.bounds, center, rsq)) {
+            boolean isLeaf = true;
+            for (int i = 0; i < Octree.CHILD_COUNT; ++i) {
+                final Octree child = o.children[i];
+                if (child != null) {
+                    isLeaf = false;
+                    c = Octree.query(child, center, rsq, coords, distSqs, c);
+                }
+            }
+
+            if (isLeaf) {
+                final int cap = Math.min(coords.length / 3, distSqs.length);
+                for (final Vec3 point : o.points) {
+                    final float dsq = Vec3.distSq(center, point);
+                    if (dsq < rsq) {
+                        if (c < cap) {
+                            final int j = c * 3;
+                            coords[j] = point.x;
+                            coords[j + 1] = point.y;
+                            coords[j + 2] = point.z;
+                            distSqs[c] = dsq;
+                        }
+                        ++c;
+                    }
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Queries the octree with a spherical range. Calls a visitor for each
+     * point in range. Returns the count of points visited.
+     *
+     * @param o       the octree
+     * @param center  the sphere center
+     * @param rsq     the sphere radius, squared
+     * @param visitor the visitor
+     * @param count   the count so far
+     * @return the count
+     */
+    static int query(
+        final Octree o,
+        final Vec3 center,
+        final float rsq,
+        final Visitor visitor,
+        final int count) {
+
+        int c = count;
+        if (Bounds3.intersectSq(o.bounds, center, rsq)) {
+            boolean isLeaf = true;
+            for (int i = 0; i < Octree.CHILD_COUNT; ++i) {
+                final Octree child = o.children[i];
+                if (child != null) {
+                    isLeaf = false;
+                    c = Octree.query(child, center, rsq, visitor, c);
+                }
+            }
+
+            if (isLeaf) {
+                for (final Vec3 point : o.points) {
+                    final float dsq = Vec3.distSq(center, point);
+                    if (dsq < rsq) {
+                        visitor.visit(point, dsq);
+                        ++c;
+                    }
+                }
+            }
+        }
+        return c;
+    }
+
     /**
      * Counts the number of leaves held by this octree. Returns 1 if this node
      * is itself a leaf.
@@ -637,6 +1038,43 @@ public class Octree {
         return flag;
     }
 
+    /**
+     * Inserts points into the octree in bulk. Points are partitioned by
+     * child node, then each child's share is inserted as a separate task in
+     * a fork join pool. The resulting octree is the same as that made by
+     * inserting the points one at a time, in order. If the pool is
+     * <code>null</code>, the tasks are run on the calling thread.
+     * <br>
+     * <br>
+     * Returns <code>true</code> if all insertions were successful;
+     * <code>false</code> if at least one was unsuccessful.
+     *
+     * @param pts  the points
+     * @param pool the fork join pool
+     * @return the insertion success
+     * @see Bounds3#contains(Bounds3, Vec3)
+     */
+    public boolean insertAll(final Vec3[] pts, final ForkJoinPool pool) {
+
+        final ArrayList<Vec3> inBounds = new ArrayList<>(pts.length);
+        boolean flag = true;
+        for (final Vec3 pt : pts) {
+            if (Bounds3.contains(this.bounds, pt)) {
+                inBounds.add(pt);
+            } else {
+                flag = false;
+            }
+        }
+
+        final InsertTask task = new InsertTask(this, inBounds);
+        if (pool != null) {
+            pool.invoke(task);
+        } else {
+            task.compute();
+        }
+        return flag;
+    }
+
     /**
      * Evaluates whether this octree node has any children. Returns true if no;
      * otherwise false.
@@ -977,4 +1415,172 @@ public class Octree {
         sb.append('}');
         return sb;
     }
+
+    /**
+     * Inserts a list of points into an octree node, then forks a task for
+     * each child which receives enough of them.
+     */
+    static final class InsertTask extends RecursiveAction {
+
+        /**
+         * The number of points below which a child's share is inserted on
+         * the same thread.
+         */
+        static final int GRAIN = 1024;
+
+        /**
+         * The unique identification for serialized classes.
+         */
+        @Serial
+        private static final long serialVersionUID = -4387561927735196412L;
+
+        /**
+         * The node.
+         */
+        private final transient Octree node;
+
+        /**
+         * The points, all of which are in the node's bounds.
+         */
+        private final transient ArrayList<Vec3> pts;
+
+        /**
+         * Constructs a task.
+         *
+         * @param node the node
+         * @param pts  the points
+         */
+        InsertTask(final Octree node, final ArrayList<Vec3> pts) {
+
+            this.node = node;
+            this.pts = pts;
+        }
+
+        /**
+         * Inserts the points into the node.
+         */
+        @Override
+        protected void compute() {
+
+            final Octree o = this.node;
+            ArrayList<Vec3> toPlace = this.pts;
+            if (toPlace.isEmpty()) {
+                return;
+            }
+
+            if (o.isLeaf()) {
+
+                /*
+                 * A leaf splits once the number of unique points it holds
+                 * exceeds its capacity, so check the union first.
+                 */
+                final TreeSet<Vec3> union = new TreeSet<>(o.points);
+                for (final Vec3 pt : toPlace) {
+                    union.add(pt);
+                    if (union.size() > o.capacity) {
+                        break;
+                    }
+                }
+
+                if (union.size() <= o.capacity) {
+                    o.points.addAll(toPlace);
+                    return;
+                }
+
+                /* Points held before are placed ahead of new points. */
+                final ArrayList<Vec3> combined = new ArrayList<>(
+                    o.points.size() + toPlace.size());
+                combined.addAll(o.points);
+                combined.addAll(toPlace);
+                o.points.clear();
+                o.split(o.capacity);
+                toPlace = combined;
+            }
+
+            /* Partition points by the first child whose bounds contain them. */
+            @SuppressWarnings({ "rawtypes", "unchecked" })
+            final ArrayList<Vec3>[] shares = new ArrayList[Octree.CHILD_COUNT];
+            ArrayList<Vec3> orphans = null;
+            for (final Vec3 pt : toPlace) {
+                final int k = InsertTask.childIndex(o, pt);
+                if (k > -1) {
+                    if (shares[k] == null) {
+                        shares[k] = new ArrayList<>();
+                    }
+                    shares[k].add(pt);
+                } else {
+                    if (orphans == null) {
+                        orphans = new ArrayList<>();
+                    }
+                    orphans.add(pt);
+                }
+            }
+
+            /* Case where a child has been culled. Split again. */
+            if (orphans != null) {
+                o.split(o.capacity);
+                for (final Vec3 pt : orphans) {
+                    final int k = InsertTask.childIndex(o, pt);
+                    if (k > -1) {
+                        if (shares[k] == null) {
+                            shares[k] = new ArrayList<>();
+                        }
+                        shares[k].add(pt);
+                    }
+                }
+            }
+
+            final ArrayList<InsertTask> forks = new ArrayList<>(Octree.CHILD_COUNT);
+            for (int k = 0; k < Octree.CHILD_COUNT; ++k) {
+                final ArrayList<Vec3> share = shares[k];
+                if (share != null) {
+                    final InsertTask sub = new InsertTask(o.children[k], share);
+                    if (share.size() < InsertTask.GRAIN
+                        || !ForkJoinTask.inForkJoinPool()) {
+                        sub.compute();
+                    } else {
+                        forks.add(sub);
+                    }
+                }
+            }
+            if (!forks.isEmpty()) {
+                ForkJoinTask.invokeAll(forks);
+            }
+        }
+
+        /**
+         * Finds the index of the first child whose bounds contain a point.
+         * Returns -1 if none do.
+         *
+         * @param o  the node
+         * @param pt the point
+         * @return the index
+         */
+        static int childIndex(final Octree o, final Vec3 pt) {
+
+            for (int k = 0; k < Octree.CHILD_COUNT; ++k) {
+                final Octree child = o.children[k];
+                if (child != null && Bounds3.contains(child.bounds, pt)) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Visits points found by a range query.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+
+        /**
+         * Visits a point. The point is held by the octree by reference, and
+         * should not be changed.
+         *
+         * @param point  the point
+         * @param distSq the distance squared from the query center
+         */
+        void visit(Vec3 point, float distSq);
+    }
 }
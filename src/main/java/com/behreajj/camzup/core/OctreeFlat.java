@@ -0,0 +1,1023 @@
+package com.behreajj.camzup.core;
+
+import java.util.Arrays;
+
+/**
+ * A static octree built from all its points at once. Points are sorted by
+ * Morton code, so that each node holds a contiguous range of them, then
+ * stored in flat arrays of coordinates and ids. Nodes are likewise stored in
+ * flat arrays. The children of a node are contiguous; empty children are
+ * omitted. Child cells are divided in the same manner as {@link Octree}, but
+ * the bounds stored per node are the tight bounds of the points it holds.
+ * <br>
+ * <br>
+ * An id is the index of a point in the array from which the tree was built.
+ * Once built, the tree cannot be changed.
+ */
+public class OctreeFlat {
+
+    /**
+     * The deepest level a node can reach. Morton codes interleave this many
+     * bits per axis.
+     */
+    public static final int MAX_LEVEL = 21;
+
+    /**
+     * Number of children a node can have.
+     */
+    public static final int CHILD_COUNT = 8;
+
+    /**
+     * The bounding volume.
+     */
+    protected final Bounds3 bounds;
+
+    /**
+     * The number of points a leaf node can hold before it is split,
+     * unless it is at the {@link OctreeFlat#MAX_LEVEL}.
+     */
+    protected final int capacity;
+
+    /**
+     * The point coordinates in Morton order, with a stride of 3.
+     */
+    protected final float[] coords;
+
+    /**
+     * The point ids in Morton order.
+     */
+    protected final int[] ids;
+
+    /**
+     * The number of leaf nodes.
+     */
+    protected final int leafCount;
+
+    /**
+     * The node bounds, with a stride of 6: the lower bound x, y and z, then
+     * the upper bound x, y and z.
+     */
+    protected final float[] nodeBounds;
+
+    /**
+     * The number of children per node. Zero for a leaf.
+     */
+    protected final int[] nodeChildCount;
+
+    /**
+     * The index of the first child per node.
+     */
+    protected final int[] nodeFirstChild;
+
+    /**
+     * The number of nodes.
+     */
+    protected final int nodeCount;
+
+    /**
+     * The end of the range of points per node, exclusive.
+     */
+    protected final int[] nodeEnd;
+
+    /**
+     * The start of the range of points per node, inclusive.
+     */
+    protected final int[] nodeStart;
+
+    /**
+     * Constructs an octree from coordinates, with a stride of 3. The bounds
+     * are found from the points.
+     *
+     * @param coords   the coordinates
+     * @param capacity the capacity per node
+     */
+    public OctreeFlat(final float[] coords, final int capacity) {
+
+        this(coords, OctreeFlat.fromCoords(coords, new Bounds3()), capacity);
+    }
+
+    /**
+     * Constructs an octree from coordinates, with a stride of 3, and bounds.
+     * Points outside of the bounds are omitted. The lower bound is inclusive;
+     * the upper bound is exclusive.
+     *
+     * @param coords   the coordinates
+     * @param bounds   the bounds
+     * @param capacity the capacity per node
+     */
+    public OctreeFlat(
+        final float[] coords,
+        final Bounds3 bounds,
+        final int capacity) {
+
+        this.bounds = new Bounds3(bounds);
+        this.capacity = Math.max(capacity, 1);
+
+        final float xMin = bounds.min.x;
+        final float yMin = bounds.min.y;
+        final float zMin = bounds.min.z;
+        final float xMax = bounds.max.x;
+        final float yMax = bounds.max.y;
+        final float zMax = bounds.max.z;
+
+        /* Find Morton codes of points in bounds. */
+        final int srcLen = coords.length / 3;
+        long[] codes = new long[srcLen];
+        int[] order = new int[srcLen];
+        int len = 0;
+        final double cells = 1 << OctreeFlat.MAX_LEVEL;
+        final double xScale = xMax > xMin ? cells / ((double) xMax - xMin) : 0.0d;
+        final double yScale = yMax > yMin ? cells / ((double) yMax - yMin) : 0.0d;
+        final double zScale = zMax > zMin ? cells / ((double) zMax - zMin) : 0.0d;
+        for (int i = 0, j = 0; i < srcLen; ++i, j += 3) {
+            final float x = coords[j];
+            final float y = coords[j + 1];
+            final float z = coords[j + 2];
+            if (x >= xMin && x < xMax
+                && y >= yMin && y < yMax
+                && z >= zMin && z < zMax) {
+                codes[len] = OctreeFlat.morton(
+                    OctreeFlat.quantize(x, xMin, xScale),
+                    OctreeFlat.quantize(y, yMin, yScale),
+                    OctreeFlat.quantize(z, zMin, zScale));
+                order[len] = i;
+                ++len;
+            }
+        }
+        if (len < srcLen) {
+            codes = Arrays.copyOf(codes, len);
+            order = Arrays.copyOf(order, len);
+        }
+        OctreeFlat.radixSort(codes, order);
+
+        /* Copy coordinates in Morton order. */
+        final float[] sorted = new float[len * 3];
+        for (int i = 0, k = 0; i < len; ++i, k += 3) {
+            final int j = order[i] * 3;
+            sorted[k] = coords[j];
+            sorted[k + 1] = coords[j + 1];
+            sorted[k + 2] = coords[j + 2];
+        }
+        this.coords = sorted;
+        this.ids = order;
+
+        /* Build nodes. */
+        final Builder b = new Builder(codes, sorted, this.capacity,
+            Math.max(1, 2 * len / this.capacity + 1));
+        b.build(b.alloc(1), 0, len, 0);
+
+        this.nodeCount = b.count;
+        this.leafCount = b.leaves;
+        this.nodeStart = Arrays.copyOf(b.start, b.count);
+        this.nodeEnd = Arrays.copyOf(b.end, b.count);
+        this.nodeFirstChild = Arrays.copyOf(b.firstChild, b.count);
+        this.nodeChildCount = Arrays.copyOf(b.childCount, b.count);
+        this.nodeBounds = Arrays.copyOf(b.bounds, b.count * 6);
+    }
+
+    /**
+     * Constructs an octree from an array of points. The bounds are found
+     * from the points.
+     *
+     * @param points   the points
+     * @param capacity the capacity per node
+     */
+    public OctreeFlat(final Vec3[] points, final int capacity) {
+
+        this(OctreeFlat.toCoords(points), capacity);
+    }
+
+    /**
+     * Counts the number of leaves held by this octree. Empty leaves are not
+     * stored, so are not counted.
+     *
+     * @return the sum
+     */
+    public int countLeaves() {
+        return this.leafCount;
+    }
+
+    /**
+     * Counts the number of nodes held by this octree.
+     *
+     * @return the sum
+     */
+    public int countNodes() {
+        return this.nodeCount;
+    }
+
+    /**
+     * Finds the average center of the points in each leaf node. Returns
+     * coordinates with a stride of 3.
+     *
+     * @return the centers
+     */
+    public float[] centersMean() {
+
+        final float[] result = new float[this.leafCount * 3];
+        final float[] cs = this.coords;
+        for (int n = 0, k = 0; n < this.nodeCount; ++n) {
+            final int start = this.nodeStart[n];
+            final int end = this.nodeEnd[n];
+            if (this.nodeChildCount[n] < 1 && end > start) {
+                double xSum = 0.0d;
+                double ySum = 0.0d;
+                double zSum = 0.0d;
+                for (int j = start * 3, jEnd = end * 3; j < jEnd; j += 3) {
+                    xSum += cs[j];
+                    ySum += cs[j + 1];
+                    zSum += cs[j + 2];
+                }
+                final double dn = 1.0d / (end - start);
+                result[k] = (float) (xSum * dn);
+                result[k + 1] = (float) (ySum * dn);
+                result[k + 2] = (float) (zSum * dn);
+                k += 3;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the bounds of this octree.
+     *
+     * @param target the output bounds
+     * @return the bounds
+     */
+    public Bounds3 getBounds(final Bounds3 target) {
+
+        return target.set(this.bounds);
+    }
+
+    /**
+     * Gets the capacity of a node.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Gets the number of points held by this octree.
+     *
+     * @return the length
+     */
+    public int length() {
+        return this.ids.length;
+    }
+
+    /**
+     * Finds up to k points nearest to a query point, ordered from nearest
+     * to farthest. Writes the points' ids and distances squared to arrays.
+     * Returns the number of points found.
+     *
+     * @param query   the query point
+     * @param k       the number of points
+     * @param ids     the output ids
+     * @param distSqs the output distances squared
+     * @return the number found
+     */
+    public int nearest(
+        final Vec3 query,
+        final int k,
+        final int[] ids,
+        final float[] distSqs) {
+
+        final int kVerif = Math.min(k, Math.min(ids.length, distSqs.length));
+        if (kVerif < 1 || this.ids.length < 1) {
+            return 0;
+        }
+
+        final int size = this.nearest(0, query.x, query.y, query.z,
+            kVerif, 0, ids, distSqs);
+
+        /* Sort the max heap in place, from nearest to farthest. */
+        for (int end = size - 1; end > 0; --end) {
+            OctreeFlat.heapSwap(ids, distSqs, 0, end);
+            OctreeFlat.heapSiftDown(ids, distSqs, 0, end);
+        }
+        return size;
+    }
+
+    /**
+     * Queries the octree with a box range. Writes the ids of points in the
+     * range, inclusive, to an array until it is full. Returns the number of
+     * points in range.
+     *
+     * @param range the range
+     * @param ids   the output ids
+     * @return the number in range
+     */
+    public int query(final Bounds3 range, final int[] ids) {
+
+        if (this.ids.length < 1) {
+            return 0;
+        }
+        return this.query(0,
+            range.min.x, range.min.y, range.min.z,
+            range.max.x, range.max.y, range.max.z,
+            ids, 0);
+    }
+
+    /**
+     * Queries the octree with a spherical range. Writes the ids of points in
+     * range, and their distances squared, to arrays until they are full.
+     * Returns the number of points in range.
+     *
+     * @param center  the sphere center
+     * @param radius  the sphere radius
+     * @param ids     the output ids
+     * @param distSqs the output distances squared
+     * @return the number in range
+     */
+    public int query(
+        final Vec3 center,
+        final float radius,
+        final int[] ids,
+        final float[] distSqs) {
+
+        if (this.ids.length < 1) {
+            return 0;
+        }
+        return this.query(0, center.x, center.y, center.z, radius * radius,
+            ids, distSqs, 0);
+    }
+
+    /**
+     * Returns a string representation of this octree.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+
+        final StringBuilder sb = new StringBuilder(128);
+        sb.append("{\"bounds\":");
+        this.bounds.toString(sb, Utils.FIXED_PRINT);
+        sb.append(",\"capacity\":");
+        sb.append(this.capacity);
+        sb.append(",\"length\":");
+        sb.append(this.ids.length);
+        sb.append(",\"nodes\":");
+        sb.append(this.nodeCount);
+        sb.append(",\"leaves\":");
+        sb.append(this.leafCount);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Finds the distance squared from a point to a node's bounds.
+     *
+     * @param n the node
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the distance squared
+     */
+    protected float boundsDistSq(
+        final int n,
+        final float x,
+        final float y,
+        final float z) {
+
+        final float[] nb = this.nodeBounds;
+        final int j = n * 6;
+        final float xd = x < nb[j] ? x - nb[j] : x > nb[j + 3] ? x - nb[j + 3] : 0.0f;
+        final float yd = y < nb[j + 1] ? y - nb[j + 1] : y > nb[j + 4] ? y - nb[j + 4] : 0.0f;
+        final float zd = z < nb[j + 2] ? z - nb[j + 2] : z > nb[j + 5] ? z - nb[j + 5] : 0.0f;
+        return xd * xd + yd * yd + zd * zd;
+    }
+
+    /**
+     * Finds up to k points nearest to a query point, placing them in a
+     * bounded max heap. Children whose bounds contain the query are visited
+     * first. Returns the new heap size.
+     *
+     * @param n       the node
+     * @param x       the query x
+     * @param y       the query y
+     * @param z       the query z
+     * @param k       the number of points
+     * @param size    the heap size
+     * @param ids     the heap ids
+     * @param distSqs the heap distances squared
+     * @return the heap size
+     */
+    protected int nearest(
+        final int n,
+        final float x,
+        final float y,
+        final float z,
+        final int k,
+        final int size,
+        final int[] ids,
+        final float[] distSqs) {
+
+        int sz = size;
+        final int childCount = this.nodeChildCount[n];
+        if (childCount < 1) {
+            final float[] cs = this.coords;
+            for (int i = this.nodeStart[n], iEnd = this.nodeEnd[n]; i < iEnd; ++i) {
+                final int j = i * 3;
+                final float dx = x - cs[j];
+                final float dy = y - cs[j + 1];
+                final float dz = z - cs[j + 2];
+                final float dsq = dx * dx + dy * dy + dz * dz;
+                if (sz < k) {
+                    ids[sz] = this.ids[i];
+                    distSqs[sz] = dsq;
+                    OctreeFlat.heapSiftUp(ids, distSqs, sz);
+                    ++sz;
+                } else if (dsq < distSqs[0]) {
+                    ids[0] = this.ids[i];
+                    distSqs[0] = dsq;
+                    OctreeFlat.heapSiftDown(ids, distSqs, 0, sz);
+                }
+            }
+            return sz;
+        }
+
+        final int first = this.nodeFirstChild[n];
+        final int last = first + childCount;
+        for (int pass = 0; pass < 2; ++pass) {
+            for (int c = first; c < last; ++c) {
+                final float bdsq = this.boundsDistSq(c, x, y, z);
+                final boolean contains = bdsq <= 0.0f;
+                if (contains == (pass == 0) && (sz < k || bdsq < distSqs[0])) {
+                    sz = this.nearest(c, x, y, z, k, sz, ids, distSqs);
+                }
+            }
+        }
+        return sz;
+    }
+
+    /**
+     * Queries a node with a box range. Returns the count of points in range.
+     *
+     * @param n     the node
+     * @param xMin  the range lower bound x
+     * @param yMin  the range lower bound y
+     * @param zMin  the range lower bound z
+     * @param xMax  the range upper bound x
+     * @param yMax  the range upper bound y
+     * @param zMax  the range upper bound z
+     * @param ids   the output ids
+     * @param count the count so far
+     * @return the count
+     */
+    protected int query(
+        final int n,
+        final float xMin, final float yMin, final float zMin,
+        final float xMax, final float yMax, final float zMax,
+        final int[] ids,
+        final int count) {
+
+        final float[] nb = this.nodeBounds;
+        final int b = n * 6;
+        if (nb[b + 3] < xMin || nb[b] > xMax
+            || nb[b + 4] < yMin || nb[b + 1] > yMax
+            || nb[b + 5] < zMin || nb[b + 2] > zMax) {
+            return count;
+        }
+
+        int c = count;
+        final int childCount = this.nodeChildCount[n];
+        if (childCount < 1) {
+            final float[] cs = this.coords;
+            final int cap = ids.length;
+            for (int i = this.nodeStart[n], iEnd = this.nodeEnd[n]; i < iEnd; ++i) {
+                final int j = i * 3;
+                final float x = cs[j];
+                final float y = cs[j + 1];
+                final float z = cs[j + 2];
+                if (x >= xMin && x <= xMax
+                    && y >= yMin && y <= yMax
+                    && z >= zMin && z <= zMax) {
+                    if (c < cap) {
+                        ids[c] = this.ids[i];
+                    }
+                    ++c;
+                }
+            }
+            return c;
+        }
+
+        final int first = this.nodeFirstChild[n];
+        for (int k = first, kEnd = first + childCount; k < kEnd; ++k) {
+            c = this.query(k, xMin, yMin, zMin, xMax, yMax, zMax, ids, c);
+        }
+        return c;
+    }
+
+    /**
+     * Queries a node with a spherical range. Returns the count of points in
+     * range.
+     *
+     * @param n       the node
+     * @param x       the center x
+     * @param y       the center y
+     * @param z       the center z
+     * @param rsq     the radius, squared
+     * @param ids     the output ids
+     * @param distSqs the output distances squared
+     * @param count   the count so far
+     * @return the count
+     */
+    protected int query(
+        final int n,
+        final float x,
+        final float y,
+        final float z,
+        final float rsq,
+        final int[] ids,
+        final float[] distSqs,
+        final int count) {
+
+        if (this.boundsDistSq(n, x, y, z) >= rsq) {
+            return count;
+        }
+
+        int c = count;
+        final int childCount = this.nodeChildCount[n];
+        if (childCount < 1) {
+            final float[] cs = this.coords;
+            final int cap = Math.min(ids.length, distSqs.length);
+            for (int i = this.nodeStart[n], iEnd = this.nodeEnd[n]; i < iEnd; ++i) {
+                final int j = i * 3;
+                final float dx = x - cs[j];
+                final float dy = y - cs[j + 1];
+                final float dz = z - cs[j + 2];
+                final float dsq = dx * dx + dy * dy + dz * dz;
+                if (dsq < rsq) {
+                    if (c < cap) {
+                        ids[c] = this.ids[i];
+                        distSqs[c] = dsq;
+                    }
+                    ++c;
+                }
+            }
+            return c;
+        }
+
+        final int first = this.nodeFirstChild[n];
+        for (int k = first, kEnd = first + childCount; k < kEnd; ++k) {
+            c = this.query(k, x, y, z, rsq, ids, distSqs, c);
+        }
+        return c;
+    }
+
+    /**
+     * Finds the bounds of an array of coordinates, with a stride of 3. Pads
+     * the bounds in the same manner as
+     * {@link Bounds3#fromPoints(Vec3[], Bounds3)}. Because the upper
+     * bound of a tree is exclusive, it is moved to the next float up, so
+     * that points on the maximum edge are kept even where the pad is lost
+     * to rounding.
+     *
+     * @param coords the coordinates
+     * @param target the output bounds
+     * @return the bounds
+     */
+    public static Bounds3 fromCoords(final float[] coords, final Bounds3 target) {
+
+        final int len = coords.length / 3;
+        if (len < 1) {
+            return target;
+        }
+
+        float xMin = Float.MAX_VALUE;
+        float yMin = Float.MAX_VALUE;
+        float zMin = Float.MAX_VALUE;
+        float xMax = -Float.MAX_VALUE;
+        float yMax = -Float.MAX_VALUE;
+        float zMax = -Float.MAX_VALUE;
+
+        for (int j = 0, jEnd = len * 3; j < jEnd; j += 3) {
+            final float x = coords[j];
+            final float y = coords[j + 1];
+            final float z = coords[j + 2];
+            if (x < xMin) {
+                xMin = x;
+            }
+            if (x > xMax) {
+                xMax = x;
+            }
+            if (y < yMin) {
+                yMin = y;
+            }
+            if (y > yMax) {
+                yMax = y;
+            }
+            if (z < zMin) {
+                zMin = z;
+            }
+            if (z > zMax) {
+                zMax = z;
+            }
+        }
+
+        final float pad = Utils.EPSILON * 2.0f;
+        target.min.set(xMin - pad, yMin - pad, zMin - pad);
+        target.max.set(
+            Math.nextUp(xMax + pad),
+            Math.nextUp(yMax + pad),
+            Math.nextUp(zMax + pad));
+        return target;
+    }
+
+    /**
+     * Converts an array of points to coordinates with a stride of 3.
+     *
+     * @param points the points
+     * @return the coordinates
+     */
+    public static float[] toCoords(final Vec3[] points) {
+
+        final int len = points.length;
+        final float[] result = new float[len * 3];
+        for (int i = 0, j = 0; i < len; ++i, j += 3) {
+            final Vec3 p = points[i];
+            result[j] = p.x;
+            result[j + 1] = p.y;
+            result[j + 2] = p.z;
+        }
+        return result;
+    }
+
+    /**
+     * Spreads the lower 21 bits of an integer so that there are two zero
+     * bits between each.
+     *
+     * @param v the integer
+     * @return the spread bits
+     */
+    static long spread(final int v) {
+
+        long x = v & 0x1f_ffffL;
+        x = (x | x << 32) & 0x1f_0000_0000_ffffL;
+        x = (x | x << 16) & 0x1f_0000_ff00_00ffL;
+        x = (x | x << 8) & 0x100f_00f0_0f00_f00fL;
+        x = (x | x << 4) & 0x10c3_0c30_c30c_30c3L;
+        x = (x | x << 2) & 0x1249_2492_4924_9249L;
+        return x;
+    }
+
+    /**
+     * Finds the Morton code, or z-order, of quantized coordinates. Bits are
+     * interleaved in z, y, x order, so that each group of 3 bits is the
+     * index of an octant.
+     *
+     * @param x the x cell
+     * @param y the y cell
+     * @param z the z cell
+     * @return the code
+     */
+    static long morton(final int x, final int y, final int z) {
+
+        return OctreeFlat.spread(x)
+            | OctreeFlat.spread(y) << 1
+            | OctreeFlat.spread(z) << 2;
+    }
+
+    /**
+     * Quantizes a coordinate to a cell in [0, 2<sup>21</sup> - 1].
+     *
+     * @param v     the coordinate
+     * @param min   the lower bound
+     * @param scale the cells per unit
+     * @return the cell
+     */
+    static int quantize(final float v, final float min, final double scale) {
+
+        final int q = (int) (((double) v - min) * scale);
+        return Math.min(Math.max(q, 0), (1 << OctreeFlat.MAX_LEVEL) - 1);
+    }
+
+    /**
+     * Sorts codes in ascending order, permuting a paired array of ids to
+     * match. Uses a least significant digit radix sort, 8 bits at a time.
+     * Passes where every code has the same digit are skipped.
+     *
+     * @param codes the codes
+     * @param ids   the ids
+     */
+    static void radixSort(final long[] codes, final int[] ids) {
+
+        final int len = codes.length;
+        long[] srcCodes = codes;
+        int[] srcIds = ids;
+        long[] trgCodes = new long[len];
+        int[] trgIds = new int[len];
+        final int[] counts = new int[256];
+
+        for (int shift = 0; shift < Long.SIZE; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < len; ++i) {
+                ++counts[(int) (srcCodes[i] >>> shift & 0xffL)];
+            }
+            if (len < 1 || counts[(int) (srcCodes[0] >>> shift & 0xffL)] == len) {
+                continue;
+            }
+
+            int sum = 0;
+            for (int d = 0; d < 256; ++d) {
+                final int c = counts[d];
+                counts[d] = sum;
+                sum += c;
+            }
+
+            for (int i = 0; i < len; ++i) {
+                final int d = (int) (srcCodes[i] >>> shift & 0xffL);
+                final int dest = counts[d]++;
+                trgCodes[dest] = srcCodes[i];
+                trgIds[dest] = srcIds[i];
+            }
+
+            final long[] tc = srcCodes;
+            srcCodes = trgCodes;
+            trgCodes = tc;
+            final int[] ti = srcIds;
+            srcIds = trgIds;
+            trgIds = ti;
+        }
+
+        if (srcCodes != codes) {
+            System.arraycopy(srcCodes, 0, codes, 0, len);
+            System.arraycopy(srcIds, 0, ids, 0, len);
+        }
+    }
+
+    /**
+     * Moves an element of a bounded max heap down to its place.
+     *
+     * @param ids     the ids
+     * @param distSqs the distances squared
+     * @param start   the element index
+     * @param size    the heap size
+     */
+    static void heapSiftDown(
+        final int[] ids,
+        final float[] distSqs,
+        final int start,
+        final int size) {
+
+        int i = start;
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && distSqs[child + 1] > distSqs[child]) {
+                ++child;
+            }
+            if (distSqs[child] <= distSqs[i]) {
+                return;
+            }
+            OctreeFlat.heapSwap(ids, distSqs, i, child);
+            i = child;
+        }
+    }
+
+    /**
+     * Moves an element of a bounded max heap up to its place.
+     *
+     * @param ids     the ids
+     * @param distSqs the distances squared
+     * @param start   the element index
+     */
+    static void heapSiftUp(
+        final int[] ids,
+        final float[] distSqs,
+        final int start) {
+
+        int i = start;
+        while (i > 0) {
+            final int parent = i - 1 >>> 1;
+            if (distSqs[parent] >= distSqs[i]) {
+                return;
+            }
+            OctreeFlat.heapSwap(ids, distSqs, i, parent);
+            i = parent;
+        }
+    }
+
+    /**
+     * Swaps two elements in a heap.
+     *
+     * @param ids     the ids
+     * @param distSqs the distances squared
+     * @param i       the first index
+     * @param j       the second index
+     */
+    static void heapSwap(
+        final int[] ids,
+        final float[] distSqs,
+        final int i,
+        final int j) {
+
+        final float td = distSqs[i];
+        distSqs[i] = distSqs[j];
+        distSqs[j] = td;
+
+        final int ti = ids[i];
+        ids[i] = ids[j];
+        ids[j] = ti;
+    }
+
+    /**
+     * Builds nodes into growable arrays.
+     */
+    private static final class Builder {
+
+        /**
+         * The node bounds, with a stride of 6.
+         */
+        float[] bounds;
+
+        /**
+         * The capacity per node.
+         */
+        final int capacity;
+
+        /**
+         * The number of children per node.
+         */
+        int[] childCount;
+
+        /**
+         * The sorted Morton codes.
+         */
+        final long[] codes;
+
+        /**
+         * The sorted coordinates.
+         */
+        final float[] coords;
+
+        /**
+         * The number of nodes.
+         */
+        int count;
+
+        /**
+         * The range end per node.
+         */
+        int[] end;
+
+        /**
+         * The index of the first child per node.
+         */
+        int[] firstChild;
+
+        /**
+         * The number of leaves.
+         */
+        int leaves;
+
+        /**
+         * The range start per node.
+         */
+        int[] start;
+
+        /**
+         * Constructs a builder.
+         *
+         * @param codes    the sorted codes
+         * @param coords   the sorted coordinates
+         * @param capacity the capacity per node
+         * @param initial  the initial number of nodes
+         */
+        Builder(
+            final long[] codes,
+            final float[] coords,
+            final int capacity,
+            final int initial) {
+
+            this.codes = codes;
+            this.coords = coords;
+            this.capacity = capacity;
+            this.start = new int[initial];
+            this.end = new int[initial];
+            this.firstChild = new int[initial];
+            this.childCount = new int[initial];
+            this.bounds = new float[initial * 6];
+        }
+
+        /**
+         * Reserves contiguous nodes. Returns the index of the first.
+         *
+         * @param n the number of nodes
+         * @return the index
+         */
+        int alloc(final int n) {
+
+            final int idx = this.count;
+            final int req = idx + n;
+            if (req > this.start.length) {
+                final int cap = Math.max(req, this.start.length * 2);
+                this.start = Arrays.copyOf(this.start, cap);
+                this.end = Arrays.copyOf(this.end, cap);
+                this.firstChild = Arrays.copyOf(this.firstChild, cap);
+                this.childCount = Arrays.copyOf(this.childCount, cap);
+                this.bounds = Arrays.copyOf(this.bounds, cap * 6);
+            }
+            this.count = req;
+            return idx;
+        }
+
+        /**
+         * Fills a reserved node, then reserves and fills its children. The
+         * node's bounds are the union of its children's, or, for a leaf,
+         * the bounds of its points.
+         *
+         * @param n     the node
+         * @param lo    the range start
+         * @param hi    the range end
+         * @param level the level
+         */
+        void build(final int n, final int lo, final int hi, final int level) {
+
+            this.start[n] = lo;
+            this.end[n] = hi;
+
+            float xMin = Float.MAX_VALUE;
+            float yMin = Float.MAX_VALUE;
+            float zMin = Float.MAX_VALUE;
+            float xMax = -Float.MAX_VALUE;
+            float yMax = -Float.MAX_VALUE;
+            float zMax = -Float.MAX_VALUE;
+
+            if (hi - lo <= this.capacity || level >= OctreeFlat.MAX_LEVEL) {
+                this.firstChild[n] = -1;
+                this.childCount[n] = 0;
+                if (hi > lo) {
+                    ++this.leaves;
+                }
+
+                final float[] cs = this.coords;
+                for (int j = lo * 3, jEnd = hi * 3; j < jEnd; j += 3) {
+                    xMin = Math.min(xMin, cs[j]);
+                    yMin = Math.min(yMin, cs[j + 1]);
+                    zMin = Math.min(zMin, cs[j + 2]);
+                    xMax = Math.max(xMax, cs[j]);
+                    yMax = Math.max(yMax, cs[j + 1]);
+                    zMax = Math.max(zMax, cs[j + 2]);
+                }
+            } else {
+
+                /* Sorted codes place each octant in a contiguous range. */
+                final int shift = 3 * (OctreeFlat.MAX_LEVEL - level - 1);
+                final int[] ranges = new int[OctreeFlat.CHILD_COUNT + 1];
+                int octant = 0;
+                for (int i = lo; i < hi; ++i) {
+                    final int oct = (int) (this.codes[i] >>> shift & 7L);
+                    while (octant < oct) {
+                        ranges[++octant] = i;
+                    }
+                }
+                while (octant < OctreeFlat.CHILD_COUNT) {
+                    ranges[++octant] = hi;
+                }
+                ranges[0] = lo;
+
+                int nonEmpty = 0;
+                for (int k = 0; k < OctreeFlat.CHILD_COUNT; ++k) {
+                    if (ranges[k + 1] > ranges[k]) {
+                        ++nonEmpty;
+                    }
+                }
+
+                final int first = this.alloc(nonEmpty);
+                this.firstChild[n] = first;
+                this.childCount[n] = nonEmpty;
+
+                for (int k = 0, c = first; k < OctreeFlat.CHILD_COUNT; ++k) {
+                    final int cLo = ranges[k];
+                    final int cHi = ranges[k + 1];
+                    if (cHi > cLo) {
+                        this.build(c, cLo, cHi, level + 1);
+
+                        /* Bounds may have been reallocated by the child. */
+                        final float[] nb = this.bounds;
+                        final int cb = c * 6;
+                        xMin = Math.min(xMin, nb[cb]);
+                        yMin = Math.min(yMin, nb[cb + 1]);
+                        zMin = Math.min(zMin, nb[cb + 2]);
+                        xMax = Math.max(xMax, nb[cb + 3]);
+                        yMax = Math.max(yMax, nb[cb + 4]);
+                        zMax = Math.max(zMax, nb[cb + 5]);
+                        ++c;
+                    }
+                }
+            }
+
+            final float[] nb = this.bounds;
+            final int b = n * 6;
+            nb[b] = xMin;
+            nb[b + 1] = yMin;
+            nb[b + 2] = zMin;
+            nb[b + 3] = xMax;
+            nb[b + 4] = yMax;
+            nb[b + 5] = zMax;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.behreajj.camzup.core;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * An abstract parent for packed mesh objects. A packed mesh holds its vertex
+ * data interleaved in one float array and its faces as a flat array of
+ * vertex indices, where the corners of a face begin at its offset. Unlike a
+ * {@link Mesh}, there is one index per corner rather than one per attribute,
+ * so a vertex is a unique combination of attributes.
+ */
+public abstract class PackedMesh extends EntityData {
+
+    /**
+     * The index of each face's first corner in the indices array. Has one more
+     * element than there are faces, where the last is the number of corners.
+     */
+    public int[] faceOffsets;
+
+    /**
+     * The vertex index of each corner, ordered by face.
+     */
+    public int[] indices;
+
+    /**
+     * The material associated with this mesh in a mesh entity.
+     */
+    public int materialIndex = 0;
+
+    /**
+     * The interleaved vertex data. Each vertex occupies a number of elements
+     * equal to the stride.
+     */
+    public float[] vertices;
+
+    /**
+     * The default constructor. Initializes empty arrays.
+     */
+    protected PackedMesh() {
+
+        this.faceOffsets = new int[]{0};
+        this.indices = new int[0];
+        this.vertices = new float[0];
+    }
+
+    /**
+     * Construct a packed mesh and give it a name.
+     *
+     * @param name the name
+     */
+    protected PackedMesh(final String name) {
+
+        super(name);
+        this.faceOffsets = new int[]{0};
+        this.indices = new int[0];
+        this.vertices = new float[0];
+    }
+
+    /**
+     * Gets the number of corners in a face.
+     *
+     * @param i the face index
+     * @return the corner count
+     */
+    public int faceLength(final int i) {
+        return this.faceOffsets[i + 1] - this.faceOffsets[i];
+    }
+
+    /**
+     * Wraps the corner indices in a buffer. The buffer is backed by the
+     * indices array, so no data is copied.
+     *
+     * @return the buffer
+     */
+    public IntBuffer getIndexBuffer() {
+        return IntBuffer.wrap(this.indices);
+    }
+
+    /**
+     * Gets the number of elements per vertex in the vertices array.
+     *
+     * @return the stride
+     */
+    public abstract int getStride();
+
+    /**
+     * Wraps the interleaved vertex data in a buffer. The buffer is backed by
+     * the vertices array, so no data is copied.
+     *
+     * @return the buffer
+     */
+    public FloatBuffer getVertexBuffer() {
+        return FloatBuffer.wrap(this.vertices);
+    }
+
+    /**
+     * Gets the number of vertices in this mesh.
+     *
+     * @return the vertex count
+     */
+    public int getVertexCount() {
+        return this.vertices.length / this.getStride();
+    }
+
+    /**
+     * Gets the number of faces in this mesh.
+     *
+     * @return the face count
+     */
+    public int length() {
+        return this.faceOffsets.length - 1;
+    }
+
+    /**
+     * Triangulates the faces of this mesh as fans about their first corner.
+     * Returns a flat array of vertex indices, three per triangle, suited to
+     * an element buffer. Faces with fewer than three corners are skipped.
+     *
+     * @return the triangle indices
+     */
+    public int[] triangleIndices() {
+
+        final int[] offsets = this.faceOffsets;
+        final int fsLen = offsets.length - 1;
+        int triCount = 0;
+        for (int i = 0; i < fsLen; ++i) {
+            triCount += Math.max(0, offsets[i + 1] - offsets[i] - 2);
+        }
+
+        final int[] idcs = this.indices;
+        final int[] result = new int[triCount * 3];
+        int k = 0;
+        for (int i = 0; i < fsLen; ++i) {
+            final int start = offsets[i];
+            final int end = offsets[i + 1];
+            final int first = idcs[start];
+            for (int j = start + 1; j < end - 1; ++j) {
+                result[k] = first;
+                result[k + 1] = idcs[j];
+                result[k + 2] = idcs[j + 1];
+                k += 3;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Sets the faces of this mesh from the faces of a source mesh. Each
+     * unique combination of attribute indices at a corner becomes one vertex.
+     * Returns, for each vertex, the index of the corner at which it was first
+     * found, so that subclasses can copy its attributes.
+     *
+     * @param faces the source faces
+     * @param attrs the number of attributes per corner
+     * @return the first corners
+     */
+    protected int[] packFaces(final int[][][] faces, final int attrs) {
+
+        final int fsLen = faces.length;
+        this.faceOffsets = new int[fsLen + 1];
+        int cLen = 0;
+        for (int i = 0; i < fsLen; ++i) {
+            this.faceOffsets[i] = cLen;
+            cLen += faces[i].length;
+        }
+        this.faceOffsets[fsLen] = cLen;
+        this.indices = new int[cLen];
+
+        /*
+         * Two attributes are combined into one key. A third is combined with
+         * the index of the first pair.
+         */
+        final LongIntMap pairs = new LongIntMap(cLen);
+        final LongIntMap triples = attrs > 2 ? new LongIntMap(cLen) : null;
+        final int[] firsts = new int[cLen];
+        int pairLen = 0;
+        int vLen = 0;
+        int k = 0;
+
+        for (final int[][] face : faces) {
+            for (final int[] vert : face) {
+                final long pairKey = (long) vert[0] << 32 | vert[1] & 0xffffffffL;
+                int idx = pairs.indexOf(pairKey);
+                int id;
+                if (idx < 0) {
+                    id = triples != null ? pairLen++ : vLen++;
+                    pairs.putAt(idx, pairKey, id);
+                    if (triples == null) {
+                        firsts[id] = k;
+                    }
+                } else {
+                    id = pairs.valueAt(idx);
+                }
+
+                if (triples != null) {
+                    final long tripleKey = (long) id << 32 | vert[2] & 0xffffffffL;
+                    idx = triples.indexOf(tripleKey);
+                    if (idx < 0) {
+                        id = vLen++;
+                        triples.putAt(idx, tripleKey, id);
+                        firsts[id] = k;
+                    } else {
+                        id = triples.valueAt(idx);
+                    }
+                }
+
+                this.indices[k] = id;
+                ++k;
+            }
+        }
+
+        final int[] result = new int[vLen];
+        System.arraycopy(firsts, 0, result, 0, vLen);
+        return result;
+    }
+
+    /**
+     * Writes the faces of this mesh as uniform faces of a mesh, where each
+     * attribute index of a corner equals its vertex index.
+     *
+     * @param attrs the number of attributes per corner
+     * @return the faces
+     */
+    protected int[][][] unpackFaces(final int attrs) {
+
+        final int[] offsets = this.faceOffsets;
+        final int fsLen = offsets.length - 1;
+        final int[][][] faces = new int[fsLen][][];
+        for (int i = 0; i < fsLen; ++i) {
+            final int start = offsets[i];
+            final int fLen = offsets[i + 1] - start;
+            final int[][] face = new int[fLen][attrs];
+            for (int j = 0; j < fLen; ++j) {
+                final int v = this.indices[start + j];
+                final int[] vert = face[j];
+                for (int m = 0; m < attrs; ++m) {
+                    vert[m] = v;
+                }
+            }
+            faces[i] = face;
+        }
+        return faces;
+    }
+}
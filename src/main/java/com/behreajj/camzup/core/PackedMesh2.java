@@ -0,0 +1,260 @@
+package com.behreajj.camzup.core;
+
+/**
+ * A two-dimensional mesh packed into primitive arrays. Each vertex holds a
+ * coordinate and a texture coordinate, interleaved in that order, so the
+ * vertices array may be uploaded to a graphics card as is. Faces are stored
+ * as a flat array of vertex indices with an offset per face.
+ * <br>
+ * <br>
+ * Converting a {@link Mesh2} to a packed mesh and back preserves the mesh's
+ * faces and the attributes at each corner exactly. Coordinates shared by
+ * corners with different texture coordinates are duplicated, so the result
+ * has uniform data; {@link Mesh2#clean()} welds them again.
+ */
+public class PackedMesh2 extends PackedMesh {
+
+    /**
+     * The offset of the coordinate within a vertex.
+     */
+    public static final int COORD_OFFSET = 0;
+
+    /**
+     * The number of elements per vertex.
+     */
+    public static final int STRIDE = 4;
+
+    /**
+     * The offset of the texture coordinate within a vertex.
+     */
+    public static final int TEX_COORD_OFFSET = 2;
+
+    /**
+     * The default constructor.
+     */
+    public PackedMesh2() {
+    }
+
+    /**
+     * Constructs a packed mesh from a source mesh.
+     *
+     * @param source the source mesh
+     */
+    public PackedMesh2(final Mesh2 source) {
+
+        super(source.name);
+        this.set(source);
+    }
+
+    /**
+     * Constructs a packed mesh and gives it a name.
+     *
+     * @param name the name
+     */
+    public PackedMesh2(final String name) {
+        super(name);
+    }
+
+    /**
+     * Unpacks a mesh. The target's coordinates and texture coordinates have
+     * one element per vertex, and each corner refers to the same index in
+     * both.
+     *
+     * @param source the source mesh
+     * @param target the output mesh
+     * @return the mesh
+     * @see Vec2#resize(Vec2[], int)
+     */
+    public static Mesh2 toMesh2(final PackedMesh2 source, final Mesh2 target) {
+
+        final float[] vs = source.vertices;
+        final int vLen = vs.length / PackedMesh2.STRIDE;
+
+        target.name = source.name;
+        target.materialIndex = source.materialIndex;
+        target.coords = Vec2.resize(target.coords, vLen);
+        target.texCoords = Vec2.resize(target.texCoords, vLen);
+
+        for (int i = 0, k = 0; i < vLen; ++i, k += PackedMesh2.STRIDE) {
+            target.coords[i].set(vs[k], vs[k + 1]);
+            target.texCoords[i].set(vs[k + 2], vs[k + 3]);
+        }
+
+        target.faces = source.unpackFaces(2);
+        return target;
+    }
+
+    /**
+     * Gets the number of elements per vertex in the vertices array.
+     *
+     * @return the stride
+     */
+    @Override
+    public int getStride() {
+        return PackedMesh2.STRIDE;
+    }
+
+    /**
+     * Sets this packed mesh from a source mesh. Each unique combination of
+     * coordinate and texture coordinate indices becomes one vertex.
+     *
+     * @param source the source mesh
+     * @return this mesh
+     */
+    public PackedMesh2 set(final Mesh2 source) {
+
+        final int[] firsts = this.packFaces(source.faces, 2);
+        final int vLen = firsts.length;
+        final int[] offsets = this.faceOffsets;
+        final int[][][] fsSrc = source.faces;
+        final float[] vs = new float[vLen * PackedMesh2.STRIDE];
+
+        /* Find the corner at which each vertex first appears. */
+        int i = 0;
+        for (int v = 0; v < vLen; ++v) {
+            final int corner = firsts[v];
+            while (offsets[i + 1] <= corner) {
+                ++i;
+            }
+            final int[] vert = fsSrc[i][corner - offsets[i]];
+            final Vec2 co = source.coords[vert[0]];
+            final Vec2 vt = source.texCoords[vert[1]];
+
+            final int k = v * PackedMesh2.STRIDE;
+            vs[k] = co.x;
+            vs[k + 1] = co.y;
+            vs[k + 2] = vt.x;
+            vs[k + 3] = vt.y;
+        }
+
+        this.vertices = vs;
+        this.name = source.name;
+        this.materialIndex = source.materialIndex;
+        return this;
+    }
+
+    /**
+     * Writes the mesh to a byte array in the stl format. The mesh should be
+     * triangulated prior to calling this method.
+     *
+     * @return the byte array
+     */
+    public byte[] toStlBytes() {
+
+        final int fsLen = this.faceOffsets.length - 1;
+        return this.toStlBytes(new byte[84 + fsLen * 14
+            + this.indices.length * 12], 80);
+    }
+
+    /**
+     * Writes the mesh to an existing byte array at an offset in the stl
+     * format. Does not write the initial 80 byte header, so the default
+     * offset would be 80. The mesh should be triangulated prior to calling
+     * this method.
+     *
+     * @param arr    the byte array
+     * @param offset the offset
+     * @return the byte array
+     */
+    public byte[] toStlBytes(final byte[] arr, final int offset) {
+
+        final float[] vs = this.vertices;
+        final int[] offsets = this.faceOffsets;
+        final int[] idcs = this.indices;
+        final int fsLen = offsets.length - 1;
+
+        int cursor = offset;
+        Utils.byteslm(fsLen, arr, cursor);
+        cursor += 4;
+
+        for (int i = 0; i < fsLen; ++i) {
+
+            final int start = offsets[i];
+            final int faceLen = offsets[i + 1] - start;
+            final int fl12 = faceLen * 12;
+
+            for (int j = 0; j < faceLen; ++j) {
+                final int k = idcs[start + j] * PackedMesh2.STRIDE;
+                final int cursorLocal = cursor + 12 * (j + 1);
+                Utils.byteslm(vs[k], arr, cursorLocal);
+                Utils.byteslm(vs[k + 1], arr, cursorLocal + 4);
+                Utils.byteslm(0.0f, arr, cursorLocal + 8);
+            }
+
+            Utils.byteslm(0.0f, arr, cursor);
+            Utils.byteslm(0.0f, arr, cursor + 4);
+            Utils.byteslm(1.0f, arr, cursor + 8);
+
+            arr[cursor + 12 + fl12] = 0;
+            arr[cursor + 13 + fl12] = 0;
+
+            cursor += 14 + fl12;
+        }
+
+        return arr;
+    }
+
+    /**
+     * Returns a string representation of this mesh.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+
+        final StringBuilder sb = new StringBuilder(96);
+        sb.append("{\"name\":\"");
+        sb.append(this.name);
+        sb.append("\",\"materialIndex\":");
+        sb.append(this.materialIndex);
+        sb.append(",\"vertices\":");
+        sb.append(this.vertices.length / PackedMesh2.STRIDE);
+        sb.append(",\"faces\":");
+        sb.append(this.faceOffsets.length - 1);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Transforms all coordinates in the mesh by a matrix.
+     *
+     * @param m the matrix
+     * @return this mesh
+     * @see Mat3#mulPoint(Mat3, Vec2, Vec2)
+     */
+    public PackedMesh2 transform(final Mat3 m) {
+
+        final float[] vs = this.vertices;
+        final Vec2 v = new Vec2();
+        for (int k = 0; k < vs.length; k += PackedMesh2.STRIDE) {
+            v.set(vs[k], vs[k + 1]);
+            Mat3.mulPoint(m, v, v);
+            vs[k] = v.x;
+            vs[k + 1] = v.y;
+        }
+
+        return this;
+    }
+
+    /**
+     * Transforms all coordinates in the mesh <em>permanently</em> by a
+     * transform.
+     *
+     * @param tr the transform
+     * @return this mesh
+     * @see Transform2#mulPoint(Transform2, Vec2, Vec2)
+     */
+    public PackedMesh2 transform(final Transform2 tr) {
+
+        final float[] vs = this.vertices;
+        final Vec2 v = new Vec2();
+        for (int k = 0; k < vs.length; k += PackedMesh2.STRIDE) {
+            v.set(vs[k], vs[k + 1]);
+            Transform2.mulPoint(tr, v, v);
+            vs[k] = v.x;
+            vs[k + 1] = v.y;
+        }
+
+        return this;
+    }
+}
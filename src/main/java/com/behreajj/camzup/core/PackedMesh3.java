@@ -0,0 +1,524 @@
+package com.behreajj.camzup.core;
+
+/**
+ * A three-dimensional mesh packed into primitive arrays. Each vertex holds a
+ * coordinate, a texture coordinate and a normal, interleaved in that order,
+ * so the vertices array may be uploaded to a graphics card as is. Faces are
+ * stored as a flat array of vertex indices with an offset per face.
+ * <br>
+ * <br>
+ * Converting a {@link Mesh3} to a packed mesh and back preserves the mesh's
+ * faces and the attributes at each corner exactly. Coordinates shared by
+ * corners with different texture coordinates or normals are duplicated, so
+ * the result has uniform data; {@link Mesh3#clean()} welds them again.
+ */
+public class PackedMesh3 extends PackedMesh {
+
+    /**
+     * The offset of the coordinate within a vertex.
+     */
+    public static final int COORD_OFFSET = 0;
+
+    /**
+     * The offset of the normal within a vertex.
+     */
+    public static final int NORMAL_OFFSET = 5;
+
+    /**
+     * The number of elements per vertex.
+     */
+    public static final int STRIDE = 8;
+
+    /**
+     * The offset of the texture coordinate within a vertex.
+     */
+    public static final int TEX_COORD_OFFSET = 3;
+
+    /**
+     * The default constructor.
+     */
+    public PackedMesh3() {
+    }
+
+    /**
+     * Constructs a packed mesh from a source mesh.
+     *
+     * @param source the source mesh
+     */
+    public PackedMesh3(final Mesh3 source) {
+
+        super(source.name);
+        this.set(source);
+    }
+
+    /**
+     * Constructs a packed mesh and gives it a name.
+     *
+     * @param name the name
+     */
+    public PackedMesh3(final String name) {
+        super(name);
+    }
+
+    /**
+     * Unpacks a mesh. The target's coordinates, texture coordinates and
+     * normals have one element per vertex, and each corner refers to the same
+     * index in all three.
+     *
+     * @param source the source mesh
+     * @param target the output mesh
+     * @return the mesh
+     * @see Vec2#resize(Vec2[], int)
+     * @see Vec3#resize(Vec3[], int)
+     */
+    public static Mesh3 toMesh3(final PackedMesh3 source, final Mesh3 target) {
+
+        final float[] vs = source.vertices;
+        final int vLen = vs.length / PackedMesh3.STRIDE;
+
+        target.name = source.name;
+        target.materialIndex = source.materialIndex;
+        target.coords = Vec3.resize(target.coords, vLen);
+        target.texCoords = Vec2.resize(target.texCoords, vLen);
+        target.normals = Vec3.resize(target.normals, vLen);
+
+        for (int i = 0, k = 0; i < vLen; ++i, k += PackedMesh3.STRIDE) {
+            target.coords[i].set(vs[k], vs[k + 1], vs[k + 2]);
+            target.texCoords[i].set(vs[k + 3], vs[k + 4]);
+            target.normals[i].set(vs[k + 5], vs[k + 6], vs[k + 7]);
+        }
+
+        target.faces = source.unpackFaces(3);
+        return target;
+    }
+
+    /**
+     * Gets the number of elements per vertex in the vertices array.
+     *
+     * @return the stride
+     */
+    @Override
+    public int getStride() {
+        return PackedMesh3.STRIDE;
+    }
+
+    /**
+     * Sets this packed mesh from a source mesh. Each unique combination of
+     * coordinate, texture coordinate and normal indices becomes one vertex.
+     *
+     * @param source the source mesh
+     * @return this mesh
+     */
+    public PackedMesh3 set(final Mesh3 source) {
+
+        final int[] firsts = this.packFaces(source.faces, 3);
+        final int vLen = firsts.length;
+        final int[] offsets = this.faceOffsets;
+        final int[][][] fsSrc = source.faces;
+        final float[] vs = new float[vLen * PackedMesh3.STRIDE];
+
+        /* Find the corner at which each vertex first appears. */
+        int i = 0;
+        for (int v = 0; v < vLen; ++v) {
+            final int corner = firsts[v];
+            while (offsets[i + 1] <= corner) {
+                ++i;
+            }
+            final int[] vert = fsSrc[i][corner - offsets[i]];
+            final Vec3 co = source.coords[vert[0]];
+            final Vec2 vt = source.texCoords[vert[1]];
+            final Vec3 vn = source.normals[vert[2]];
+
+            final int k = v * PackedMesh3.STRIDE;
+            vs[k] = co.x;
+            vs[k + 1] = co.y;
+            vs[k + 2] = co.z;
+            vs[k + 3] = vt.x;
+            vs[k + 4] = vt.y;
+            vs[k + 5] = vn.x;
+            vs[k + 6] = vn.y;
+            vs[k + 7] = vn.z;
+        }
+
+        this.vertices = vs;
+        this.name = source.name;
+        this.materialIndex = source.materialIndex;
+        return this;
+    }
+
+    /**
+     * Calculates smooth normals for this mesh. Each face's normal is found
+     * as the sum of the cross products of its edges, so larger faces have
+     * more weight. Vertices with the same coordinate share a normal, even if
+     * they are split by texture seams.
+     *
+     * @return this mesh
+     */
+    public PackedMesh3 shadeSmooth() {
+
+        final float[] vs = this.vertices;
+        final int vLen = vs.length / PackedMesh3.STRIDE;
+
+        /*
+         * Group vertices by the bits of their coordinate. The x and y
+         * components form one key; the index of that pair and z form another.
+         */
+        final LongIntMap pairs = new LongIntMap(vLen);
+        final LongIntMap triples = new LongIntMap(vLen);
+        final int[] groups = new int[vLen];
+        int pairLen = 0;
+        int groupLen = 0;
+        for (int v = 0, k = 0; v < vLen; ++v, k += PackedMesh3.STRIDE) {
+            final long pairKey = (long) Float.floatToIntBits(vs[k]) << 32
+                | Float.floatToIntBits(vs[k + 1]) & 0xffffffffL;
+            int idx = pairs.indexOf(pairKey);
+            int id;
+            if (idx < 0) {
+                id = pairLen++;
+                pairs.putAt(idx, pairKey, id);
+            } else {
+                id = pairs.valueAt(idx);
+            }
+
+            final long tripleKey = (long) id << 32
+                | Float.floatToIntBits(vs[k + 2]) & 0xffffffffL;
+            idx = triples.indexOf(tripleKey);
+            if (idx < 0) {
+                id = groupLen++;
+                triples.putAt(idx, tripleKey, id);
+            } else {
+                id = triples.valueAt(idx);
+            }
+            groups[v] = id;
+        }
+
+        final float[] sums = new float[groupLen * 3];
+        final int[] offsets = this.faceOffsets;
+        final int[] idcs = this.indices;
+        final int fsLen = offsets.length - 1;
+        for (int i = 0; i < fsLen; ++i) {
+            final int start = offsets[i];
+            final int end = offsets[i + 1];
+
+            /* Sum the cross products of the face's edges. */
+            float nx = 0.0f;
+            float ny = 0.0f;
+            float nz = 0.0f;
+            int prev = idcs[end - 1] * PackedMesh3.STRIDE;
+            for (int j = start; j < end; ++j) {
+                final int curr = idcs[j] * PackedMesh3.STRIDE;
+                final float ay = vs[prev + 1];
+                final float az = vs[prev + 2];
+                final float ax = vs[prev];
+                final float bx = vs[curr];
+                final float by = vs[curr + 1];
+                final float bz = vs[curr + 2];
+                nx += ay * bz - az * by;
+                ny += az * bx - ax * bz;
+                nz += ax * by - ay * bx;
+                prev = curr;
+            }
+
+            for (int j = start; j < end; ++j) {
+                final int g = groups[idcs[j]] * 3;
+                sums[g] += nx;
+                sums[g + 1] += ny;
+                sums[g + 2] += nz;
+            }
+        }
+
+        for (int v = 0, k = 0; v < vLen; ++v, k += PackedMesh3.STRIDE) {
+            final int g = groups[v] * 3;
+            final float x = sums[g];
+            final float y = sums[g + 1];
+            final float z = sums[g + 2];
+            final float mSq = x * x + y * y + z * z;
+            if (mSq > 0.0f) {
+                final float mInv = Utils.invSqrtUnchecked(mSq);
+                vs[k + 5] = x * mInv;
+                vs[k + 6] = y * mInv;
+                vs[k + 7] = z * mInv;
+            } else {
+                vs[k + 5] = 0.0f;
+                vs[k + 6] = 0.0f;
+                vs[k + 7] = 0.0f;
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Renders the mesh as a string following the Wavefront obj file format.
+     * Indices begin at 1.
+     *
+     * @return the string
+     */
+    public String toObjString() {
+
+        return this.toObjString(1, 0, true);
+    }
+
+    /**
+     * Renders the mesh as a string following the Wavefront obj file format.
+     * Because each vertex holds all of its attributes, one index offset is
+     * used for coordinates, texture coordinates and normals. The mesh is
+     * considered a group, 'g', not an object, 'o'.
+     *
+     * @param vIdx          the index offset
+     * @param smoothShading smooth shading flag
+     * @param flipvs        whether to subtract y from 1.0
+     * @return the string
+     */
+    public String toObjString(
+        final int vIdx,
+        final int smoothShading,
+        final boolean flipvs) {
+
+        final float[] vs = this.vertices;
+        final int vLen = vs.length / PackedMesh3.STRIDE;
+        final int[] offsets = this.faceOffsets;
+        final int fsLen = offsets.length - 1;
+
+        final StringBuilder objs = new StringBuilder(64 + vLen * 96
+            + this.indices.length * 24);
+        objs.append("\n# v: ");
+        objs.append(vLen);
+        objs.append(", vt: ");
+        objs.append(vLen);
+        objs.append(", vn: ");
+        objs.append(vLen);
+        objs.append(", f: ");
+        objs.append(fsLen);
+        objs.append('\n');
+
+        objs.append('g');
+        objs.append(' ');
+        objs.append(this.name);
+        objs.append('\n');
+        objs.append('\n');
+
+        final Vec3 v3 = new Vec3();
+        final Vec2 v2 = new Vec2();
+
+        for (int k = 0; k < vs.length; k += PackedMesh3.STRIDE) {
+            objs.append('v');
+            objs.append(' ');
+            v3.set(vs[k], vs[k + 1], vs[k + 2]).toObjString(objs);
+            objs.append('\n');
+        }
+        objs.append('\n');
+
+        for (int k = 0; k < vs.length; k += PackedMesh3.STRIDE) {
+            objs.append("vt ");
+            v2.set(vs[k + 3], vs[k + 4]).toObjString(objs, flipvs);
+            objs.append('\n');
+        }
+        objs.append('\n');
+
+        for (int k = 0; k < vs.length; k += PackedMesh3.STRIDE) {
+            objs.append("vn ");
+            v3.set(vs[k + 5], vs[k + 6], vs[k + 7]).toObjString(objs);
+            objs.append('\n');
+        }
+        objs.append('\n');
+
+        objs.append("s ");
+        objs.append(smoothShading > 0 ? smoothShading : "off");
+        objs.append("\n\n");
+
+        final int fsLast = fsLen - 1;
+        for (int i = 0; i < fsLen; ++i) {
+            objs.append('f');
+            objs.append(' ');
+
+            final int end = offsets[i + 1];
+            for (int j = offsets[i]; j < end; ++j) {
+                final int v = this.indices[j] + vIdx;
+                objs.append(v);
+                objs.append('/');
+                objs.append(v);
+                objs.append('/');
+                objs.append(v);
+                objs.append(' ');
+            }
+
+            if (i < fsLast) {
+                objs.append('\n');
+            }
+        }
+
+        return objs.toString();
+    }
+
+    /**
+     * Writes the mesh to a byte array in the stl format. The mesh should be
+     * triangulated prior to calling this method.
+     *
+     * @return the byte array
+     */
+    public byte[] toStlBytes() {
+
+        final int fsLen = this.faceOffsets.length - 1;
+        return this.toStlBytes(new byte[84 + fsLen * 14
+            + this.indices.length * 12], 80);
+    }
+
+    /**
+     * Writes the mesh to an existing byte array at an offset in the stl
+     * format. Does not write the initial 80 byte header, so the default
+     * offset would be 80. Face normals are calculated from the coordinates,
+     * as with {@link Mesh3#toStlBytes(byte[], int)}. The mesh should be
+     * triangulated prior to calling this method.
+     *
+     * @param arr    the byte array
+     * @param offset the offset
+     * @return the byte array
+     */
+    public byte[] toStlBytes(final byte[] arr, final int offset) {
+
+        final float[] vs = this.vertices;
+        final int[] offsets = this.faceOffsets;
+        final int[] idcs = this.indices;
+        final int fsLen = offsets.length - 1;
+
+        int cursor = offset;
+        Utils.byteslm(fsLen, arr, cursor);
+        cursor += 4;
+
+        final Vec3 prev = new Vec3();
+        final Vec3 curr = new Vec3();
+        final Vec3 next = new Vec3();
+        final Vec3 edge0 = new Vec3();
+        final Vec3 edge1 = new Vec3();
+        final Vec3 cross = new Vec3();
+        final Vec3 vn = new Vec3();
+
+        for (int i = 0; i < fsLen; ++i) {
+
+            final int start = offsets[i];
+            final int faceLen = offsets[i + 1] - start;
+            final int fl12 = faceLen * 12;
+
+            int k = idcs[start + faceLen - 1] * PackedMesh3.STRIDE;
+            prev.set(vs[k], vs[k + 1], vs[k + 2]);
+            vn.reset();
+
+            for (int j = 0; j < faceLen; ++j) {
+                k = idcs[start + j] * PackedMesh3.STRIDE;
+                curr.set(vs[k], vs[k + 1], vs[k + 2]);
+                k = idcs[start + (j + 1) % faceLen] * PackedMesh3.STRIDE;
+                next.set(vs[k], vs[k + 1], vs[k + 2]);
+
+                Vec3.sub(prev, curr, edge0);
+                Vec3.sub(curr, next, edge1);
+                Vec3.cross(edge0, edge1, cross);
+                Vec3.add(vn, cross, vn);
+
+                final int cursorLocal = cursor + 12 * (j + 1);
+                Utils.byteslm(curr.x, arr, cursorLocal);
+                Utils.byteslm(curr.y, arr, cursorLocal + 4);
+                Utils.byteslm(curr.z, arr, cursorLocal + 8);
+
+                prev.set(curr);
+            }
+
+            Vec3.normalize(vn, vn);
+
+            Utils.byteslm(vn.x, arr, cursor);
+            Utils.byteslm(vn.y, arr, cursor + 4);
+            Utils.byteslm(vn.z, arr, cursor + 8);
+
+            arr[cursor + 12 + fl12] = 0;
+            arr[cursor + 13 + fl12] = 0;
+
+            cursor += 14 + fl12;
+        }
+
+        return arr;
+    }
+
+    /**
+     * Returns a string representation of this mesh.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+
+        final StringBuilder sb = new StringBuilder(96);
+        sb.append("{\"name\":\"");
+        sb.append(this.name);
+        sb.append("\",\"materialIndex\":");
+        sb.append(this.materialIndex);
+        sb.append(",\"vertices\":");
+        sb.append(this.vertices.length / PackedMesh3.STRIDE);
+        sb.append(",\"faces\":");
+        sb.append(this.faceOffsets.length - 1);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Transforms all coordinates and normals in the mesh by a matrix.
+     * Calculates the matrix inverse in order to transform normals.
+     *
+     * @param m the matrix
+     * @param h the matrix inverse
+     * @return this mesh
+     * @see Mat4#inverse(Mat4, Mat4)
+     * @see Mat4#mulNormal(Vec3, Mat4, Vec3)
+     * @see Mat4#mulPoint(Mat4, Vec3, Vec3)
+     */
+    public PackedMesh3 transform(final Mat4 m, final Mat4 h) {
+
+        Mat4.inverse(m, h);
+        final float[] vs = this.vertices;
+        final Vec3 v = new Vec3();
+        for (int k = 0; k < vs.length; k += PackedMesh3.STRIDE) {
+            v.set(vs[k], vs[k + 1], vs[k + 2]);
+            Mat4.mulPoint(m, v, v);
+            vs[k] = v.x;
+            vs[k + 1] = v.y;
+            vs[k + 2] = v.z;
+
+            v.set(vs[k + 5], vs[k + 6], vs[k + 7]);
+            Mat4.mulNormal(v, h, v);
+            vs[k + 5] = v.x;
+            vs[k + 6] = v.y;
+            vs[k + 7] = v.z;
+        }
+
+        return this;
+    }
+
+    /**
+     * Transforms all coordinates and normals in the mesh <em>permanently</em>
+     * by a transform.
+     *
+     * @param tr the transform
+     * @return this mesh
+     * @see Transform3#mulNormal(Transform3, Vec3, Vec3)
+     * @see Transform3#mulPoint(Transform3, Vec3, Vec3)
+     */
+    public PackedMesh3 transform(final Transform3 tr) {
+
+        final float[] vs = this.vertices;
+        final Vec3 v = new Vec3();
+        for (int k = 0; k < vs.length; k += PackedMesh3.STRIDE) {
+            v.set(vs[k], vs[k + 1], vs[k + 2]);
+            Transform3.mulPoint(tr, v, v);
+            vs[k] = v.x;
+            vs[k + 1] = v.y;
+            vs[k + 2] = v.z;
+
+            v.set(vs[k + 5], vs[k + 6], vs[k + 7]);
+            Transform3.mulNormal(tr, v, v);
+            vs[k + 5] = v.x;
+            vs[k + 6] = v.y;
+            vs[k + 7] = v.z;
+        }
+
+        return this;
+    }
+}
@@ -0,0 +1,617 @@
+package com.behreajj.camzup.core;
+
+/**
+ * Finds the nearest color in a palette to a query color. The palette's
+ * opaque swatches are placed in a balanced k-d tree, stored as flat arrays
+ * for lightness, <em>a</em> and <em>b</em>. Distance is Euclidean in LAB;
+ * alpha is not considered.
+ * <br>
+ * <br>
+ * Queries by 64-bit pixel are memoized in a cache. The cache key quantizes
+ * each channel to a number of bits; the nearest swatch for a key is the one
+ * nearest to the center of its cell, so results do not depend on query
+ * order. With 16 bits per channel, the cache is exact.
+ * <br>
+ * <br>
+ * Because the search and cache hold temporary values, a matcher should not
+ * be shared between threads. To search one tree from many threads, give
+ * each thread a copy made with
+ * {@link PaletteMatcher#PaletteMatcher(PaletteMatcher)}.
+ */
+public class PaletteMatcher {
+
+    /**
+     * The default number of bits per channel used by the cache.
+     */
+    public static final int DEFAULT_CACHE_BITS = 8;
+
+    /**
+     * The number of bits per channel used by the cache.
+     */
+    protected final int cacheBits;
+
+    /**
+     * The cache from quantized pixel to palette index.
+     */
+    protected final LongIntMap cache;
+
+    /**
+     * The number of swatches in the tree.
+     */
+    protected final int count;
+
+    /**
+     * The split axis for each node: 0 for lightness, 1 for a, 2 for b.
+     */
+    protected final byte[] axes;
+
+    /**
+     * The coordinates of each node, organized by axis.
+     */
+    protected final float[][] coords;
+
+    /**
+     * The palette index of each node.
+     */
+    protected final int[] indices;
+
+    /**
+     * The best distance found in a nearest search.
+     */
+    private float bestDistSq;
+
+    /**
+     * The best node found in a nearest search.
+     */
+    private int bestNode;
+
+    /**
+     * The distances held in a bounded heap by a k-nearest search.
+     */
+    private float[] heapDistSq;
+
+    /**
+     * The nodes held in a bounded heap by a k-nearest search.
+     */
+    private int[] heapNodes;
+
+    /**
+     * The number of elements in the bounded heap.
+     */
+    private int heapSize;
+
+    /**
+     * Constructs a matcher from a palette with the
+     * {@link PaletteMatcher#DEFAULT_CACHE_BITS}.
+     *
+     * @param palette the palette
+     */
+    public PaletteMatcher(final Lab[] palette) {
+
+        this(palette, PaletteMatcher.DEFAULT_CACHE_BITS);
+    }
+
+    /**
+     * Constructs a matcher from a palette. Swatches with zero alpha are
+     * skipped. The number of cache bits is clamped to [1, 16].
+     *
+     * @param palette   the palette
+     * @param cacheBits the cache bits per channel
+     * @see Lab#any(Lab)
+     */
+    public PaletteMatcher(final Lab[] palette, final int cacheBits) {
+
+        final int palLen = palette.length;
+        int valid = 0;
+        for (final Lab swatch : palette) {
+            if (swatch != null && Lab.any(swatch)) {
+                ++valid;
+            }
+        }
+
+        final float[] ls = new float[valid];
+        final float[] as = new float[valid];
+        final float[] bs = new float[valid];
+        final int[] order = new int[valid];
+        for (int i = 0, j = 0; i < palLen; ++i) {
+            final Lab swatch = palette[i];
+            if (swatch != null && Lab.any(swatch)) {
+                ls[j] = swatch.l;
+                as[j] = swatch.a;
+                bs[j] = swatch.b;
+                order[j] = i;
+                ++j;
+            }
+        }
+
+        this.count = valid;
+        this.axes = new byte[valid];
+        this.coords = new float[][] { ls, as, bs };
+        this.indices = order;
+        PaletteMatcher.build(this.coords, this.indices, this.axes, 0, valid);
+
+        this.cacheBits = Utils.clamp(cacheBits, 1, 16);
+        this.cache = new LongIntMap();
+    }
+
+    /**
+     * Constructs a matcher that shares the k-d tree of another. The tree is
+     * not changed after it is built, so it may be read by many threads;
+     * the new matcher has its own empty cache and search state.
+     *
+     * @param source the source matcher
+     */
+    public PaletteMatcher(final PaletteMatcher source) {
+
+        this.count = source.count;
+        this.axes = source.axes;
+        this.coords = source.coords;
+        this.indices = source.indices;
+
+        this.cacheBits = source.cacheBits;
+        this.cache = new LongIntMap();
+    }
+
+    /**
+     * Clears the cache of this matcher.
+     *
+     * @return this matcher
+     */
+    public PaletteMatcher clearCache() {
+
+        this.cache.clear();
+        return this;
+    }
+
+    /**
+     * Gets the number of swatches in this matcher.
+     *
+     * @return the count
+     */
+    public int length() {
+        return this.count;
+    }
+
+    /**
+     * Finds up to k nearest swatches to a color, ordered from nearest to
+     * farthest. Writes palette indices and distances squared to arrays
+     * supplied by the caller. Returns the number found, which is the least
+     * of k, the number of swatches and the lengths of the arrays.
+     *
+     * @param l       the lightness
+     * @param a       the a component
+     * @param b       the b component
+     * @param k       the number to find
+     * @param indices the palette indices
+     * @param distSqs the distances squared
+     * @return the number found
+     */
+    public int nearest(
+        final float l,
+        final float a,
+        final float b,
+        final int k,
+        final int[] indices,
+        final float[] distSqs) {
+
+        final int kVerif = Math.min(Math.min(k, this.count),
+            Math.min(indices.length, distSqs.length));
+        if (kVerif < 1) {
+            return 0;
+        }
+
+        if (this.heapNodes == null || this.heapNodes.length < kVerif) {
+            this.heapNodes = new int[kVerif];
+            this.heapDistSq = new float[kVerif];
+        }
+        this.heapSize = 0;
+        this.searchK(0, this.count, l, a, b, kVerif);
+
+        /* Pop the max heap from the back to sort in ascending order. */
+        for (int i = kVerif - 1; i > -1; --i) {
+            indices[i] = this.indices[this.heapNodes[0]];
+            distSqs[i] = this.heapDistSq[0];
+            this.heapPop();
+        }
+        return kVerif;
+    }
+
+    /**
+     * Finds the nearest swatch to a color. Returns the palette index, or -1
+     * if the matcher is empty. Does not use the cache.
+     *
+     * @param l the lightness
+     * @param a the a component
+     * @param b the b component
+     * @return the palette index
+     */
+    public int nearestIndex(final float l, final float a, final float b) {
+
+        if (this.count < 1) {
+            return -1;
+        }
+        this.bestDistSq = Float.POSITIVE_INFINITY;
+        this.bestNode = -1;
+        this.search(0, this.count, l, a, b);
+        return this.indices[this.bestNode];
+    }
+
+    /**
+     * Finds the nearest swatch to a color. Returns the palette index, or -1
+     * if the matcher is empty. Does not use the cache.
+     *
+     * @param c the color
+     * @return the palette index
+     */
+    public int nearestIndex(final Lab c) {
+
+        return this.nearestIndex(c.l, c.a, c.b);
+    }
+
+    /**
+     * Finds the nearest swatch to a color in hexadecimal, 0xTTTTLLLLAAAABBBB.
+     * Returns the palette index, or -1 if the matcher is empty. Uses the
+     * cache.
+     *
+     * @param tlab64 the color
+     * @return the palette index
+     */
+    public int nearestIndex(final long tlab64) {
+
+        final int bits = this.cacheBits;
+        final int shift = 16 - bits;
+        final long l16 = tlab64 >> 0x20L & 0xffffL;
+        final long a16 = tlab64 >> 0x10L & 0xffffL;
+        final long b16 = tlab64 & 0xffffL;
+        final long lq = l16 >>> shift;
+        final long aq = a16 >>> shift;
+        final long bq = b16 >>> shift;
+        final long key = lq << bits + bits | aq << bits | bq;
+
+        final int idx = this.cache.indexOf(key);
+        if (idx > -1) {
+            return this.cache.valueAt(idx);
+        }
+
+        /* Search from the center of the quantized cell. */
+        final long half = 1L << shift >> 1;
+        final int result = this.nearestIndex(
+            ((lq << shift) + half) * Lab.L_FROM_SHORT,
+            ((aq << shift) + half - 0x8000L) * Lab.AB_FROM_SHORT,
+            ((bq << shift) + half - 0x8000L) * Lab.AB_FROM_SHORT);
+        this.cache.putAt(idx, key, result);
+        return result;
+    }
+
+    /**
+     * Returns a string representation of this matcher.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+
+        return "{ length: " + this.count
+            + ", cacheBits: " + this.cacheBits
+            + ", cacheSize: " + this.cache.size()
+            + " }";
+    }
+
+    /**
+     * Removes the root from the bounded max heap.
+     */
+    private void heapPop() {
+
+        final int size = --this.heapSize;
+        final int[] nodes = this.heapNodes;
+        final float[] dists = this.heapDistSq;
+        nodes[0] = nodes[size];
+        dists[0] = dists[size];
+        this.siftDown(0, size);
+    }
+
+    /**
+     * Searches a range of the tree for the nearest node.
+     *
+     * @param lo the lower bound, inclusive
+     * @param hi the upper bound, exclusive
+     * @param l  the lightness
+     * @param a  the a component
+     * @param b  the b component
+     */
+    private void search(
+        final int lo,
+        final int hi,
+        final float l,
+        final float a,
+        final float b) {
+
+        if (lo >= hi) {
+            return;
+        }
+
+        final int mid = lo + hi >>> 1;
+        final float[][] cs = this.coords;
+        final float dsq = PaletteMatcher.distSq(cs, mid, l, a, b);
+        if (this.bestNode < 0 || dsq < this.bestDistSq
+            || dsq == this.bestDistSq
+            && this.indices[mid] < this.indices[this.bestNode]) {
+            this.bestDistSq = dsq;
+            this.bestNode = mid;
+        }
+
+        final int axis = this.axes[mid];
+        final float diff = PaletteMatcher.axisValue(axis, l, a, b) - cs[axis][mid];
+        if (diff < 0.0f) {
+            this.search(lo, mid, l, a, b);
+            if (diff * diff <= this.bestDistSq) {
+                this.search(mid + 1, hi, l, a, b);
+            }
+        } else {
+            this.search(mid + 1, hi, l, a, b);
+            if (diff * diff <= this.bestDistSq) {
+                this.search(lo, mid, l, a, b);
+            }
+        }
+    }
+
+    /**
+     * Searches a range of the tree for the k nearest nodes.
+     *
+     * @param lo the lower bound, inclusive
+     * @param hi the upper bound, exclusive
+     * @param l  the lightness
+     * @param a  the a component
+     * @param b  the b component
+     * @param k  the number to find
+     */
+    private void searchK(
+        final int lo,
+        final int hi,
+        final float l,
+        final float a,
+        final float b,
+        final int k) {
+
+        if (lo >= hi) {
+            return;
+        }
+
+        final int mid = lo + hi >>> 1;
+        final float[][] cs = this.coords;
+        final float dsq = PaletteMatcher.distSq(cs, mid, l, a, b);
+        final int[] nodes = this.heapNodes;
+        final float[] dists = this.heapDistSq;
+        if (this.heapSize < k) {
+
+            /* Sift up. */
+            int i = this.heapSize++;
+            while (i > 0) {
+                final int parent = i - 1 >>> 1;
+                if (dists[parent] >= dsq) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                dists[i] = dists[parent];
+                i = parent;
+            }
+            nodes[i] = mid;
+            dists[i] = dsq;
+        } else if (dsq < dists[0]) {
+            nodes[0] = mid;
+            dists[0] = dsq;
+            this.siftDown(0, this.heapSize);
+        }
+
+        final int axis = this.axes[mid];
+        final float diff = PaletteMatcher.axisValue(axis, l, a, b) - cs[axis][mid];
+        final int nearLo = diff < 0.0f ? lo : mid + 1;
+        final int nearHi = diff < 0.0f ? mid : hi;
+        final int farLo = diff < 0.0f ? mid + 1 : lo;
+        final int farHi = diff < 0.0f ? hi : mid;
+
+        this.searchK(nearLo, nearHi, l, a, b, k);
+        if (this.heapSize < k || diff * diff < dists[0]) {
+            this.searchK(farLo, farHi, l, a, b, k);
+        }
+    }
+
+    /**
+     * Moves an element in the bounded max heap down to its place.
+     *
+     * @param start the start index
+     * @param size  the heap size
+     */
+    private void siftDown(final int start, final int size) {
+
+        final int[] nodes = this.heapNodes;
+        final float[] dists = this.heapDistSq;
+        final int node = nodes[start];
+        final float dsq = dists[start];
+        int i = start;
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && dists[child + 1] > dists[child]) {
+                ++child;
+            }
+            if (dists[child] <= dsq) {
+                break;
+            }
+            nodes[i] = nodes[child];
+            dists[i] = dists[child];
+            i = child;
+        }
+        nodes[i] = node;
+        dists[i] = dsq;
+    }
+
+    /**
+     * Gets a query component by axis.
+     *
+     * @param axis the axis
+     * @param l    the lightness
+     * @param a    the a component
+     * @param b    the b component
+     * @return the component
+     */
+    private static float axisValue(
+        final int axis,
+        final float l,
+        final float a,
+        final float b) {
+
+        return switch (axis) {
+            case 1 -> a;
+            case 2 -> b;
+            default -> l;
+        };
+    }
+
+    /**
+     * Arranges a range of nodes into a balanced k-d tree in place. The
+     * median of the range is at its center; nodes before it are less than
+     * or equal to the median on the split axis, nodes after it are greater
+     * than or equal. The split axis is that with the widest extent.
+     *
+     * @param coords  the coordinates by axis
+     * @param indices the palette indices
+     * @param axes    the split axes
+     * @param lo      the lower bound, inclusive
+     * @param hi      the upper bound, exclusive
+     */
+    private static void build(
+        final float[][] coords,
+        final int[] indices,
+        final byte[] axes,
+        final int lo,
+        final int hi) {
+
+        if (hi - lo < 1) {
+            return;
+        }
+
+        int axis = 0;
+        float maxExtent = -1.0f;
+        for (int j = 0; j < 3; ++j) {
+            final float[] c = coords[j];
+            float min = Float.MAX_VALUE;
+            float max = -Float.MAX_VALUE;
+            for (int i = lo; i < hi; ++i) {
+                final float v = c[i];
+                if (v < min) {
+                    min = v;
+                }
+                if (v > max) {
+                    max = v;
+                }
+            }
+            if (max - min > maxExtent) {
+                maxExtent = max - min;
+                axis = j;
+            }
+        }
+
+        final int mid = lo + hi >>> 1;
+        PaletteMatcher.select(coords, indices, axis, lo, hi - 1, mid);
+        axes[mid] = (byte) axis;
+        PaletteMatcher.build(coords, indices, axes, lo, mid);
+        PaletteMatcher.build(coords, indices, axes, mid + 1, hi);
+    }
+
+    /**
+     * Finds the distance squared between a node and a query.
+     *
+     * @param coords the coordinates by axis
+     * @param i      the node
+     * @param l      the lightness
+     * @param a      the a component
+     * @param b      the b component
+     * @return the distance squared
+     */
+    private static float distSq(
+        final float[][] coords,
+        final int i,
+        final float l,
+        final float a,
+        final float b) {
+
+        final float dl = l - coords[0][i];
+        final float da = a - coords[1][i];
+        final float db = b - coords[2][i];
+        return dl * dl + da * da + db * db;
+    }
+
+    /**
+     * Partially sorts a range of nodes on an axis so that the node at the
+     * kth index is in its sorted place (quickselect).
+     *
+     * @param coords  the coordinates by axis
+     * @param indices the palette indices
+     * @param axis    the axis
+     * @param left    the lower bound, inclusive
+     * @param right   the upper bound, inclusive
+     * @param k       the index to place
+     */
+    private static void select(
+        final float[][] coords,
+        final int[] indices,
+        final int axis,
+        final int left,
+        final int right,
+        final int k) {
+
+        final float[] c = coords[axis];
+        int lo = left;
+        int hi = right;
+        while (hi > lo) {
+            final float pivot = c[lo + hi >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (c[i] < pivot) {
+                    ++i;
+                }
+                while (c[j] > pivot) {
+                    --j;
+                }
+                if (i <= j) {
+                    PaletteMatcher.swap(coords, indices, i, j);
+                    ++i;
+                    --j;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Swaps two nodes.
+     *
+     * @param coords  the coordinates by axis
+     * @param indices the palette indices
+     * @param i       the first node
+     * @param j       the second node
+     */
+    private static void swap(
+        final float[][] coords,
+        final int[] indices,
+        final int i,
+        final int j) {
+
+        for (final float[] c : coords) {
+            final float t = c[i];
+            c[i] = c[j];
+            c[j] = t;
+        }
+
+        final int ti = indices[i];
+        indices[i] = indices[j];
+        indices[j] = ti;
+    }
+}
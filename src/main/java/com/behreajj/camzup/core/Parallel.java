@@ -0,0 +1,170 @@
+package com.behreajj.camzup.core;
+
+import java.io.Serial;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits a range of indices into smaller ranges, then runs an action on each
+ * in a {@link ForkJoinPool}. Used by static methods which accept a pool as an
+ * opt-in to multithreading. When the pool is <code>null</code>, or the range
+ * is smaller than the grain, the action is run on the calling thread.
+ * <br>
+ * <br>
+ * Actions are expected to write to disjoint regions of their output, so that
+ * the result is the same regardless of how the range is split.
+ */
+public abstract class Parallel {
+
+    /**
+     * The default number of indices below which a range is not split further.
+     */
+    public static final int DEFAULT_GRAIN = 4096;
+
+    /**
+     * Discourage overriding with a private constructor.
+     */
+    private Parallel() {
+    }
+
+    /**
+     * Runs an action over a range of indices, from start inclusive to end
+     * exclusive.
+     *
+     * @param pool   the fork join pool
+     * @param start  the start index
+     * @param end    the end index
+     * @param grain  the grain
+     * @param action the range action
+     */
+    public static void forRange(
+        final ForkJoinPool pool,
+        final int start,
+        final int end,
+        final int grain,
+        final RangeAction action) {
+
+        if (end <= start) {
+            return;
+        }
+
+        final int grVerif = Math.max(1, grain);
+        if (pool == null || end - start <= grVerif) {
+            action.apply(start, end);
+        } else {
+            pool.invoke(new RangeTask(start, end, grVerif, action));
+        }
+    }
+
+    /**
+     * Runs an action over a range of indices, from zero inclusive to length
+     * exclusive, with the {@link Parallel#DEFAULT_GRAIN}.
+     *
+     * @param pool   the fork join pool
+     * @param len    the length
+     * @param action the range action
+     */
+    public static void forRange(
+        final ForkJoinPool pool,
+        final int len,
+        final RangeAction action) {
+
+        Parallel.forRange(pool, 0, len, Parallel.DEFAULT_GRAIN, action);
+    }
+
+    /**
+     * Finds a grain for a range of rows in an image or grid, such that each
+     * band holds about {@link Parallel#DEFAULT_GRAIN} cells.
+     *
+     * @param width the row width
+     * @return the grain
+     */
+    public static int rowGrain(final int width) {
+
+        return Math.max(1, Parallel.DEFAULT_GRAIN / Math.max(1, width));
+    }
+
+    /**
+     * An action to run over a range of indices.
+     */
+    @FunctionalInterface
+    public interface RangeAction {
+
+        /**
+         * Runs the action from start inclusive to end exclusive.
+         *
+         * @param start the start index
+         * @param end   the end index
+         */
+        void apply(int start, int end);
+    }
+
+    /**
+     * Bisects a range until it is no larger than the grain.
+     */
+    static final class RangeTask extends RecursiveAction {
+
+        /**
+         * The unique identification for serialized classes.
+         */
+        @Serial
+        private static final long serialVersionUID = -3166423590441758427L;
+
+        /**
+         * The range action.
+         */
+        private final transient RangeAction action;
+
+        /**
+         * The end index, exclusive.
+         */
+        private final int end;
+
+        /**
+         * The grain.
+         */
+        private final int grain;
+
+        /**
+         * The start index, inclusive.
+         */
+        private final int start;
+
+        /**
+         * Constructs a task.
+         *
+         * @param start  the start index
+         * @param end    the end index
+         * @param grain  the grain
+         * @param action the range action
+         */
+        RangeTask(
+            final int start,
+            final int end,
+            final int grain,
+            final RangeAction action) {
+
+            this.start = start;
+            this.end = end;
+            this.grain = grain;
+            this.action = action;
+        }
+
+        /**
+         * Runs the action or splits the range in two.
+         */
+        @Override
+        protected void compute() {
+
+            if (this.end - this.start <= this.grain) {
+                this.action.apply(this.start, this.end);
+            } else {
+                final int mid = (this.start + this.end) >>> 1;
+                ForkJoinTask.invokeAll(
+                    new RangeTask(this.start, mid, this.grain, this.action),
+                    new RangeTask(mid, this.end, this.grain, this.action));
+            }
+        }
+    }
+}
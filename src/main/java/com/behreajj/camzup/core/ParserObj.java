@@ -1,8 +1,15 @@
 package com.behreajj.camzup.core;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map.Entry;
@@ -235,33 +242,118 @@ public abstract class ParserObj {
 
         /* Notify if material library was detected. */
         if (mtlLibRef) {
-            final StringBuilder sb = new StringBuilder(512);
-            sb.append("The .obj file refers to the .mtl file \"");
-            sb.append(mtlFileName);
-            sb.append("\".\n");
-
-            if (usesMaterial) {
-                sb.append("Meshes use the following materials:\n");
-                final Iterator<String> matNamesItr = materialNames.iterator();
-                while (matNamesItr.hasNext()) {
-                    sb.append(matNamesItr.next());
-                    if (matNamesItr.hasNext()) {
-                        sb.append(',').append('\n');
-                    }
-                }
-            }
+            ParserObj.notifyMaterials(mtlFileName, usesMaterial, materialNames);
+        }
 
-            System.out.println(sb);
+        final HashMap<String, int[][][]> faceArrs = new HashMap<>(groupCapacity, 0.75f);
+        for (final Entry<String, ArrayList<int[][]>> entry : faceGroups.entrySet()) {
+            faceArrs.put(entry.getKey(), entry.getValue().toArray(new int[0][][]));
         }
+        ParserObj.assemble(result,
+            groupsMissing ? currentIndices.toArray(new int[0][][]) : null,
+            faceArrs, coordArr, texCoordArr, normalArr, poolData);
+
+        return result;
+    }
+
+    /**
+     * Creates a mesh entity from a byte buffer that holds a WaveFront .obj
+     * file with groups, such as a buffer mapped from a file. The buffer is
+     * read from its position to its limit; neither are changed. Numbers are
+     * parsed directly from bytes, and vertex data is held in primitive arrays
+     * until the meshes are assembled.
+     * <br>
+     * <br>
+     * Negative, or relative, indices are supported. As with
+     * {@link ParserObj#load(BufferedReader, boolean)}, errors are printed
+     * rather than thrown, and the data read before an error is returned.
+     *
+     * @param in       the byte buffer
+     * @param poolData whether to share data
+     * @return the mesh entity
+     */
+    public static MeshEntity3 load(final ByteBuffer in, final boolean poolData) {
+
+        final Scanner sc = new Scanner(in.duplicate(), null);
+        return ParserObj.load(sc, poolData);
+    }
+
+    /**
+     * Creates a mesh entity from a channel that reads a WaveFront .obj file
+     * with groups. The channel is read in blocks, but not closed. Numbers are
+     * parsed directly from bytes, and vertex data is held in primitive arrays
+     * until the meshes are assembled.
+     * <br>
+     * <br>
+     * Negative, or relative, indices are supported. As with
+     * {@link ParserObj#load(BufferedReader, boolean)}, errors are printed
+     * rather than thrown, and the data read before an error is returned.
+     *
+     * @param in       the readable channel
+     * @param poolData whether to share data
+     * @return the mesh entity
+     */
+    public static MeshEntity3 load(
+        final ReadableByteChannel in,
+        final boolean poolData) {
 
-        if (groupsMissing) {
+        final ByteBuffer block = ByteBuffer.allocate(Scanner.BLOCK_SIZE);
+        block.limit(0);
+        final Scanner sc = new Scanner(block, in);
+        return ParserObj.load(sc, poolData);
+    }
+
+    /**
+     * Creates a mesh entity from a file name that references a WaveFront .obj
+     * file with groups. In doing so, opens a {@link FileChannel}.
+     *
+     * @param fileName the file name
+     * @param poolData whether to share data
+     * @return the mesh entity
+     * @see ParserObj#load(ReadableByteChannel, boolean)
+     */
+    public static MeshEntity3 load(final String fileName, final boolean poolData) {
+
+        MeshEntity3 result = new MeshEntity3();
+        try (final FileChannel fc = FileChannel.open(Paths.get(fileName),
+            StandardOpenOption.READ)) {
+            result = ParserObj.load(fc, poolData);
+        } catch (final Exception e) {
+            // noinspection CallToPrintStackTrace
+            e.printStackTrace();
+        }
+        return result;
+    }
+
+    /**
+     * Assembles parsed data into meshes, which are appended to an entity. If
+     * there are no groups, one mesh is created from the ungrouped faces.
+     * Otherwise, one mesh is created per group; if data is not pooled, each
+     * mesh receives a copy, then is cleaned.
+     *
+     * @param result      the mesh entity
+     * @param ungrouped   the ungrouped faces, or <code>null</code>
+     * @param faceGroups  the faces by group name
+     * @param coordArr    the coordinates
+     * @param texCoordArr the texture coordinates
+     * @param normalArr   the normals
+     * @param poolData    whether to share data
+     */
+    private static void assemble(
+        final MeshEntity3 result,
+        final int[][][] ungrouped,
+        final HashMap<String, int[][][]> faceGroups,
+        final Vec3[] coordArr,
+        final Vec2[] texCoordArr,
+        final Vec3[] normalArr,
+        final boolean poolData) {
+
+        if (ungrouped != null) {
 
             final Mesh3 mesh = new Mesh3("Mesh3");
             result.append(mesh);
 
-            mesh.faces = new int[currentIndices.size()][][];
-            currentIndices.toArray(mesh.faces);
-
+            mesh.faces = ungrouped;
             mesh.coords = coordArr;
             mesh.texCoords = texCoordArr;
             mesh.normals = normalArr;
@@ -276,13 +368,10 @@ public abstract class ParserObj {
             final int normalLen = normalArr.length;
 
             /* Loop over entries in dictionary. */
-            for (final Entry<String, ArrayList<int[][]>> entry : faceGroups.entrySet()) {
+            for (final Entry<String, int[][][]> entry : faceGroups.entrySet()) {
                 final Mesh3 mesh = new Mesh3();
                 mesh.name = entry.getKey();
-
-                final ArrayList<int[][]> facesList = entry.getValue();
-                mesh.faces = new int[facesList.size()][][];
-                facesList.toArray(mesh.faces);
+                mesh.faces = entry.getValue();
 
                 if (poolData) {
 
@@ -315,30 +404,749 @@ public abstract class ParserObj {
                 result.append(mesh);
             }
         }
+    }
 
-        return result;
+    /**
+     * Prints a notice that an .obj file refers to a material library.
+     *
+     * @param mtlFileName   the material library file name
+     * @param usesMaterial  whether materials are used
+     * @param materialNames the material names
+     */
+    private static void notifyMaterials(
+        final String mtlFileName,
+        final boolean usesMaterial,
+        final ArrayList<String> materialNames) {
+
+        final StringBuilder sb = new StringBuilder(512);
+        sb.append("The .obj file refers to the .mtl file \"");
+        sb.append(mtlFileName);
+        sb.append("\".\n");
+
+        if (usesMaterial) {
+            sb.append("Meshes use the following materials:\n");
+            final Iterator<String> matNamesItr = materialNames.iterator();
+            while (matNamesItr.hasNext()) {
+                sb.append(matNamesItr.next());
+                if (matNamesItr.hasNext()) {
+                    sb.append(',').append('\n');
+                }
+            }
+        }
+
+        System.out.println(sb);
     }
 
     /**
-     * Creates a mesh entity from a file name that references a WaveFront .obj file
-     * with groups. In
-     * doing so, makes a {@link FileReader} that is wrapped in a
-     * {@link BufferedReader}.
+     * Parses a WaveFront .obj file from a scanner. As with
+     * {@link ParserObj#load(BufferedReader, boolean)}, an exception while
+     * reading, such as a malformed number, is printed and ends the parse;
+     * the data read up to that point is assembled.
      *
-     * @param fileName the file name
+     * @param sc       the scanner
      * @param poolData whether to share data
      * @return the mesh entity
-     * @see ParserObj#load(BufferedReader, boolean)
      */
-    public static MeshEntity3 load(final String fileName, final boolean poolData) {
+    private static MeshEntity3 load(
+        final Scanner sc,
+        final boolean poolData) {
 
-        MeshEntity3 result = new MeshEntity3();
-        try (final BufferedReader br = new BufferedReader(new FileReader(fileName))) {
-            result = ParserObj.load(br, poolData);
+        final MeshEntity3 result = new MeshEntity3();
+        final int groupCapacity = 512;
+        final int dataCapacity = 512;
+
+        final HashMap<String, FaceList> faceGroups = new HashMap<>(groupCapacity, 0.75f);
+        final ArrayList<String> materialNames = new ArrayList<>(8);
+        final FaceList ungrouped = new FaceList(dataCapacity);
+        FaceList currentFaces = ungrouped;
+
+        float[] coords = new float[dataCapacity * 3];
+        float[] texCoords = new float[dataCapacity * 2];
+        float[] normals = new float[dataCapacity * 3];
+        int vsLen = 0;
+        int vtsLen = 0;
+        int vnsLen = 0;
+
+        boolean vsMissing = false;
+        boolean vtsMissing = false;
+        boolean vnsMissing = false;
+        boolean groupsMissing = true;
+        boolean mtlLibRef = false;
+        boolean usesMaterial = false;
+        String mtlFileName = "";
+
+        try {
+            while (!sc.atEnd()) {
+                sc.skipSpaces();
+                final int cmd = sc.keyword();
+                switch (cmd) {
+                    case Scanner.CMD_V: {
+                        if (vsLen * 3 + 3 > coords.length) {
+                            coords = Arrays.copyOf(coords, coords.length * 2);
+                        }
+                        final int j = vsLen * 3;
+                        coords[j] = sc.nextFloat();
+                        coords[j + 1] = sc.nextFloat();
+                        coords[j + 2] = sc.nextFloat();
+                        ++vsLen;
+                    }
+                    break;
+
+                    case Scanner.CMD_VT: {
+                        if (vtsLen * 2 + 2 > texCoords.length) {
+                            texCoords = Arrays.copyOf(texCoords, texCoords.length * 2);
+                        }
+                        final int j = vtsLen * 2;
+                        texCoords[j] = sc.nextFloat();
+                        texCoords[j + 1] = sc.nextFloat();
+                        ++vtsLen;
+                    }
+                    break;
+
+                    case Scanner.CMD_VN: {
+                        if (vnsLen * 3 + 3 > normals.length) {
+                            normals = Arrays.copyOf(normals, normals.length * 2);
+                        }
+                        final int j = vnsLen * 3;
+                        normals[j] = sc.nextFloat();
+                        normals[j + 1] = sc.nextFloat();
+                        normals[j + 2] = sc.nextFloat();
+                        ++vnsLen;
+                    }
+                    break;
+
+                    case Scanner.CMD_F: {
+                        final FaceList fl = currentFaces;
+                        int count = 0;
+                        while (sc.skipSpaces()) {
+
+                            /* Indices start at 1, not 0. Negatives are relative. */
+                            int v = 0;
+                            int vt = 0;
+                            int vn = 0;
+
+                            final long vRaw = sc.nextIndex();
+                            if (vRaw == Scanner.NO_INDEX) {
+                                vsMissing = true;
+                            } else {
+                                v = ParserObj.resolveIndex(vRaw, vsLen);
+                            }
+
+                            if (sc.skipSlash()) {
+                                final long vtRaw = sc.nextIndex();
+                                if (vtRaw == Scanner.NO_INDEX) {
+                                    vtsMissing = true;
+                                } else {
+                                    vt = ParserObj.resolveIndex(vtRaw, vtsLen);
+                                }
+
+                                if (sc.skipSlash()) {
+                                    final long vnRaw = sc.nextIndex();
+                                    if (vnRaw == Scanner.NO_INDEX) {
+                                        vnsMissing = true;
+                                    } else {
+                                        vn = ParserObj.resolveIndex(vnRaw, vnsLen);
+                                    }
+                                } else {
+                                    vnsMissing = true;
+                                }
+                            } else {
+                                vtsMissing = true;
+                                vnsMissing = true;
+                            }
+
+                            sc.skipToken();
+                            fl.addVert(v, vt, vn);
+                            ++count;
+                        }
+                        fl.endFace(count);
+                    }
+                    break;
+
+                    case Scanner.CMD_G: {
+                        String gName = sc.skipSpaces() ? sc.nextToken() : "";
+                        if (gName.isEmpty()) {
+                            gName = Long.toHexString(System.currentTimeMillis());
+                        }
+                        currentFaces = faceGroups.computeIfAbsent(gName,
+                            k -> new FaceList(dataCapacity));
+                        groupsMissing = false;
+                    }
+                    break;
+
+                    case Scanner.CMD_MTLLIB:
+                        mtlLibRef = true;
+                        mtlFileName = sc.skipSpaces() ? sc.nextToken() : "";
+                        break;
+
+                    case Scanner.CMD_USEMTL:
+                        usesMaterial = true;
+                        materialNames.add(sc.skipSpaces() ? sc.nextToken() : "");
+                        break;
+
+                    default:
+                }
+                sc.skipLine();
+            }
         } catch (final Exception e) {
             // noinspection CallToPrintStackTrace
             e.printStackTrace();
         }
+
+        /* Convert to fixed-sized array. */
+        Vec3[] coordArr = new Vec3[vsLen];
+        if (vsMissing && vsLen < 1) {
+            coordArr = new Vec3[]{Vec3.zero(new Vec3())};
+        } else {
+            for (int i = 0, j = 0; i < vsLen; ++i, j += 3) {
+                coordArr[i] = new Vec3(coords[j], coords[j + 1], coords[j + 2]);
+            }
+        }
+
+        Vec2[] texCoordArr = new Vec2[vtsLen];
+        if (vtsMissing && vtsLen < 1) {
+            texCoordArr = new Vec2[]{Vec2.uvCenter(new Vec2())};
+        } else {
+            for (int i = 0, j = 0; i < vtsLen; ++i, j += 2) {
+                texCoordArr[i] = new Vec2(texCoords[j], texCoords[j + 1]);
+            }
+        }
+
+        Vec3[] normalArr = new Vec3[vnsLen];
+        if (vnsMissing && vnsLen < 1) {
+            normalArr = new Vec3[]{Vec3.up(new Vec3())};
+        } else {
+            for (int i = 0, j = 0; i < vnsLen; ++i, j += 3) {
+                normalArr[i] = new Vec3(normals[j], normals[j + 1], normals[j + 2]);
+            }
+        }
+
+        /* Notify if material library was detected. */
+        if (mtlLibRef) {
+            ParserObj.notifyMaterials(mtlFileName, usesMaterial, materialNames);
+        }
+
+        final HashMap<String, int[][][]> faceArrs = new HashMap<>(groupCapacity, 0.75f);
+        for (final Entry<String, FaceList> entry : faceGroups.entrySet()) {
+            faceArrs.put(entry.getKey(), entry.getValue().toFaces());
+        }
+        ParserObj.assemble(result,
+            groupsMissing ? ungrouped.toFaces() : null,
+            faceArrs, coordArr, texCoordArr, normalArr, poolData);
+
         return result;
     }
+
+    /**
+     * Converts a one-based or negative, relative index to a zero-based index.
+     *
+     * @param raw the index as written
+     * @param len the number of elements read so far
+     * @return the index
+     */
+    private static int resolveIndex(final long raw, final int len) {
+
+        return (int) (raw < 0L ? len + raw : raw - 1L);
+    }
+
+    /**
+     * Accumulates faces as flat arrays of vertex indices.
+     */
+    private static final class FaceList {
+
+        /**
+         * The number of faces.
+         */
+        int faceCount;
+
+        /**
+         * The number of vertices per face.
+         */
+        int[] faceSizes;
+
+        /**
+         * The coordinate, texture coordinate and normal index per vertex.
+         */
+        int[] indices;
+
+        /**
+         * The number of indices.
+         */
+        int indicesLen;
+
+        /**
+         * Constructs a face list.
+         *
+         * @param capacity the initial face capacity
+         */
+        FaceList(final int capacity) {
+
+            this.faceSizes = new int[capacity];
+            this.indices = new int[capacity * 9];
+        }
+
+        /**
+         * Appends a vertex to the current face.
+         *
+         * @param v  the coordinate index
+         * @param vt the texture coordinate index
+         * @param vn the normal index
+         */
+        void addVert(final int v, final int vt, final int vn) {
+
+            if (this.indicesLen + 3 > this.indices.length) {
+                this.indices = Arrays.copyOf(this.indices, this.indices.length * 2);
+            }
+            final int[] idcs = this.indices;
+            idcs[this.indicesLen] = v;
+            idcs[this.indicesLen + 1] = vt;
+            idcs[this.indicesLen + 2] = vn;
+            this.indicesLen += 3;
+        }
+
+        /**
+         * Ends the current face.
+         *
+         * @param count the number of vertices in the face
+         */
+        void endFace(final int count) {
+
+            if (this.faceCount >= this.faceSizes.length) {
+                this.faceSizes = Arrays.copyOf(this.faceSizes, this.faceSizes.length * 2);
+            }
+            this.faceSizes[this.faceCount] = count;
+            ++this.faceCount;
+        }
+
+        /**
+         * Converts the list to the array of faces used by a mesh.
+         *
+         * @return the faces
+         */
+        int[][][] toFaces() {
+
+            final int len = this.faceCount;
+            final int[][][] faces = new int[len][][];
+            for (int i = 0, k = 0; i < len; ++i) {
+                final int size = this.faceSizes[i];
+                final int[][] face = new int[size][3];
+                for (int j = 0; j < size; ++j, k += 3) {
+                    final int[] vert = face[j];
+                    vert[0] = this.indices[k];
+                    vert[1] = this.indices[k + 1];
+                    vert[2] = this.indices[k + 2];
+                }
+                faces[i] = face;
+            }
+            return faces;
+        }
+    }
+
+    /**
+     * Reads bytes from a buffer, refilled from a channel if one is given,
+     * and parses the tokens of an .obj file from them.
+     */
+    private static final class Scanner {
+
+        /**
+         * The size of a block read from a channel.
+         */
+        static final int BLOCK_SIZE = 1 << 16;
+
+        /**
+         * Code for the "f" keyword.
+         */
+        static final int CMD_F = 1;
+
+        /**
+         * Code for the "g" keyword.
+         */
+        static final int CMD_G = 2;
+
+        /**
+         * Code for the "mtllib" keyword.
+         */
+        static final int CMD_MTLLIB = 3;
+
+        /**
+         * Code for an unrecognized keyword.
+         */
+        static final int CMD_OTHER = 0;
+
+        /**
+         * Code for the "usemtl" keyword.
+         */
+        static final int CMD_USEMTL = 4;
+
+        /**
+         * Code for the "v" keyword.
+         */
+        static final int CMD_V = 5;
+
+        /**
+         * Code for the "vn" keyword.
+         */
+        static final int CMD_VN = 6;
+
+        /**
+         * Code for the "vt" keyword.
+         */
+        static final int CMD_VT = 7;
+
+        /**
+         * The value returned when an index is absent.
+         */
+        static final long NO_INDEX = Long.MIN_VALUE;
+
+        /**
+         * Powers of ten used to scale parsed mantissas.
+         */
+        private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+        /**
+         * The buffer.
+         */
+        private final ByteBuffer buf;
+
+        /**
+         * The channel, or <code>null</code>.
+         */
+        private final ReadableByteChannel ch;
+
+        /**
+         * Whether the channel has reached its end.
+         */
+        private boolean eof;
+
+        /**
+         * Scratch bytes for tokens.
+         */
+        private byte[] token = new byte[64];
+
+        /**
+         * Constructs a scanner.
+         *
+         * @param buf the buffer
+         * @param ch  the channel
+         */
+        Scanner(final ByteBuffer buf, final ReadableByteChannel ch) {
+
+            this.buf = buf;
+            this.ch = ch;
+            this.eof = ch == null;
+        }
+
+        /**
+         * Evaluates whether there are no more bytes.
+         *
+         * @return the evaluation
+         * @throws IOException if the channel cannot be read
+         */
+        boolean atEnd() throws IOException {
+
+            return this.peek() < 0;
+        }
+
+        /**
+         * Reads the keyword at the start of a line, case insensitive.
+         *
+         * @return the keyword code
+         * @throws IOException if the channel cannot be read
+         */
+        int keyword() throws IOException {
+
+            final int len = this.readToken();
+            final byte[] t = this.token;
+            switch (len) {
+                case 1:
+                    switch (t[0] | 0x20) {
+                        case 'f':
+                            return Scanner.CMD_F;
+                        case 'g':
+                            return Scanner.CMD_G;
+                        case 'v':
+                            return Scanner.CMD_V;
+                        default:
+                            return Scanner.CMD_OTHER;
+                    }
+                case 2:
+                    if ((t[0] | 0x20) == 'v') {
+                        switch (t[1] | 0x20) {
+                            case 'n':
+                                return Scanner.CMD_VN;
+                            case 't':
+                                return Scanner.CMD_VT;
+                            default:
+                                return Scanner.CMD_OTHER;
+                        }
+                    }
+                    return Scanner.CMD_OTHER;
+                case 6:
+                    if (this.tokenEquals("mtllib")) {
+                        return Scanner.CMD_MTLLIB;
+                    }
+                    if (this.tokenEquals("usemtl")) {
+                        return Scanner.CMD_USEMTL;
+                    }
+                    return Scanner.CMD_OTHER;
+                default:
+                    return Scanner.CMD_OTHER;
+            }
+        }
+
+        /**
+         * Parses a decimal float. Mantissas with up to 18 significant digits
+         * are scaled by a power of ten in double precision; others fall back
+         * to {@link Float#parseFloat(String)}. Returns zero if there is no
+         * token on the line.
+         *
+         * @return the float
+         * @throws IOException if the channel cannot be read
+         */
+        float nextFloat() throws IOException {
+
+            if (!this.skipSpaces()) {
+                return 0.0f;
+            }
+
+            final int len = this.readToken();
+            final byte[] t = this.token;
+            int i = 0;
+            boolean neg = false;
+            if (i < len && (t[i] == '-' || t[i] == '+')) {
+                neg = t[i] == '-';
+                ++i;
+            }
+
+            long mantissa = 0L;
+            int digits = 0;
+            int exp10 = 0;
+            boolean any = false;
+            for (; i < len && t[i] >= '0' && t[i] <= '9'; ++i) {
+                any = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10L + (t[i] - '0');
+                    if (mantissa != 0L) {
+                        ++digits;
+                    }
+                } else {
+                    ++exp10;
+                }
+            }
+            if (i < len && t[i] == '.') {
+                ++i;
+                for (; i < len && t[i] >= '0' && t[i] <= '9'; ++i) {
+                    any = true;
+                    if (digits < 18) {
+                        mantissa = mantissa * 10L + (t[i] - '0');
+                        --exp10;
+                        if (mantissa != 0L) {
+                            ++digits;
+                        }
+                    }
+                }
+            }
+            if (any && i < len && (t[i] | 0x20) == 'e') {
+                ++i;
+                boolean expNeg = false;
+                if (i < len && (t[i] == '-' || t[i] == '+')) {
+                    expNeg = t[i] == '-';
+                    ++i;
+                }
+                int e = 0;
+                boolean anyExp = false;
+                for (; i < len && t[i] >= '0' && t[i] <= '9'; ++i) {
+                    anyExp = true;
+                    if (e < 10000) {
+                        e = e * 10 + (t[i] - '0');
+                    }
+                }
+                if (!anyExp) {
+                    i = -1;
+                }
+                exp10 += expNeg ? -e : e;
+            }
+
+            if (!any || i != len || digits >= 18
+                || exp10 < -22 || exp10 > 22) {
+                return Float.parseFloat(new String(t, 0, len,
+                    StandardCharsets.US_ASCII));
+            }
+
+            final double m = mantissa;
+            final double v = exp10 < 0
+                ? m / Scanner.POW10[-exp10]
+                : m * Scanner.POW10[exp10];
+            return (float) (neg ? -v : v);
+        }
+
+        /**
+         * Parses a signed integer index. Returns {@link Scanner#NO_INDEX} if
+         * no digits are found.
+         *
+         * @return the index
+         * @throws IOException if the channel cannot be read
+         */
+        long nextIndex() throws IOException {
+
+            int c = this.peek();
+            boolean neg = false;
+            if (c == '-' || c == '+') {
+                neg = c == '-';
+                this.buf.get();
+                c = this.peek();
+            }
+
+            if (c < '0' || c > '9') {
+                return Scanner.NO_INDEX;
+            }
+
+            long v = 0L;
+            while (c >= '0' && c <= '9') {
+                v = v * 10L + (c - '0');
+                this.buf.get();
+                c = this.peek();
+            }
+            return neg ? -v : v;
+        }
+
+        /**
+         * Reads the rest of a token as a string.
+         *
+         * @return the string
+         * @throws IOException if the channel cannot be read
+         */
+        String nextToken() throws IOException {
+
+            final int len = this.readToken();
+            return new String(this.token, 0, len, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Skips to the start of the next line.
+         *
+         * @throws IOException if the channel cannot be read
+         */
+        void skipLine() throws IOException {
+
+            int c;
+            while ((c = this.peek()) >= 0) {
+                this.buf.get();
+                if (c == '\n') {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Skips a forward slash, if it is next.
+         *
+         * @return whether a slash was skipped
+         * @throws IOException if the channel cannot be read
+         */
+        boolean skipSlash() throws IOException {
+
+            if (this.peek() == '/') {
+                this.buf.get();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Skips spaces, tabs and carriage returns. Returns <code>true</code>
+         * if a token follows on the same line.
+         *
+         * @return the evaluation
+         * @throws IOException if the channel cannot be read
+         */
+        boolean skipSpaces() throws IOException {
+
+            int c;
+            while ((c = this.peek()) == ' ' || c == '\t' || c == '\r') {
+                this.buf.get();
+            }
+            return c >= 0 && c != '\n' && c != '#';
+        }
+
+        /**
+         * Skips the rest of a token.
+         *
+         * @throws IOException if the channel cannot be read
+         */
+        void skipToken() throws IOException {
+
+            int c;
+            while ((c = this.peek()) >= 0 && c > ' ') {
+                this.buf.get();
+            }
+        }
+
+        /**
+         * Peeks at the next byte without consuming it. Returns -1 at the end.
+         *
+         * @return the byte
+         * @throws IOException if the channel cannot be read
+         */
+        private int peek() throws IOException {
+
+            final ByteBuffer b = this.buf;
+            if (!b.hasRemaining()) {
+                if (this.eof) {
+                    return -1;
+                }
+                b.clear();
+                int read = 0;
+                while (read == 0) {
+                    read = this.ch.read(b);
+                }
+                b.flip();
+                if (read < 0) {
+                    this.eof = true;
+                    return -1;
+                }
+            }
+            return b.get(b.position()) & 0xff;
+        }
+
+        /**
+         * Reads bytes up to the next white space into the scratch token.
+         *
+         * @return the token length
+         * @throws IOException if the channel cannot be read
+         */
+        private int readToken() throws IOException {
+
+            int len = 0;
+            int c;
+            while ((c = this.peek()) > ' ') {
+                if (len >= this.token.length) {
+                    this.token = Arrays.copyOf(this.token, len * 2);
+                }
+                this.token[len++] = (byte) c;
+                this.buf.get();
+            }
+            return len;
+        }
+
+        /**
+         * Evaluates whether the scratch token equals a lower case keyword,
+         * case insensitive.
+         *
+         * @param kw the keyword
+         * @return the evaluation
+         */
+        private boolean tokenEquals(final String kw) {
+
+            final int len = kw.length();
+            for (int i = 0; i < len; ++i) {
+                if ((this.token[i] | 0x20) != kw.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
@@ -1,6 +1,10 @@
 package com.behreajj.camzup.core;
 
+import java.io.Serial;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Partitions space to improve collision and intersection tests. A quadtree
@@ -134,6 +138,25 @@ public class Quadtree {
         this.insertAll(points);
     }
 
+    /**
+     * Constructs a quadtree from an array of points and a capacity per node.
+     * Inserts the points in bulk with a fork join pool.
+     *
+     * @param points   the points
+     * @param capacity capacity per node
+     * @param pool     the fork join pool
+     * @see Bounds2#fromPoints(Vec2[], Bounds2)
+     * @see Quadtree#insertAll(Vec2[], ForkJoinPool)
+     */
+    public Quadtree(final Vec2[] points, final int capacity, final ForkJoinPool pool) {
+
+        this.bounds = Bounds2.fromPoints(points, new Bounds2());
+        this.capacity = Math.max(capacity, 1);
+        this.level = Quadtree.ROOT_LEVEL;
+        this.points = new TreeSet<>();
+        this.insertAll(points, pool);
+    }
+
     /**
      * The default constructor. Creates a bounds of signed unit size.
      *
@@ -194,6 +217,65 @@ public class Quadtree {
         return results.toArray(new Vec2[0]);
     }
 
+    /**
+     * Finds up to k points in the quadtree nearest to a query point, ordered
+     * from nearest to farthest. Writes the points' coordinates to an array,
+     * with a stride of 2, and their distances squared to another array.
+     * Returns the number of points found. Points at equal distances are all
+     * retained.
+     * <br>
+     * <br>
+     * Uses a bounded max heap held in the output arrays, and skips nodes
+     * whose bounds are farther than the farthest point found so far.
+     *
+     * @param q       the quadtree
+     * @param query   the query point
+     * @param k       the number of points
+     * @param coords  the output coordinates
+     * @param distSqs the output distances squared
+     * @return the number found
+     */
+    public static int nearest(
+        final Quadtree q,
+        final Vec2 query,
+        final int k,
+        final float[] coords,
+        final float[] distSqs) {
+
+        final int kVerif = Math.min(k, Math.min(coords.length / 2, distSqs.length));
+        if (kVerif < 1) {
+            return 0;
+        }
+
+        final int size = Quadtree.nearest(q, query, kVerif, 0, coords, distSqs);
+
+        /* Sort the max heap in place, from nearest to farthest. */
+        for (int end = size - 1; end > 0; --end) {
+            Quadtree.heapSwap(coords, distSqs, 0, end);
+            Quadtree.heapSiftDown(coords, distSqs, 0, end);
+        }
+        return size;
+    }
+
+    /**
+     * Finds the point in the quadtree nearest to a query point. Sets the target
+     * to the point and returns the distance squared. If the quadtree is empty,
+     * returns positive infinity and the target is left unchanged. The query
+     * and target should not be the same object.
+     *
+     * @param q      the quadtree
+     * @param query  the query point
+     * @param target the output point
+     * @return the distance squared
+     */
+    public static float nearestOne(
+        final Quadtree q,
+        final Vec2 query,
+        final Vec2 target) {
+
+        return Quadtree.nearestOne(q, query, Float.POSITIVE_INFINITY, target);
+    }
+
     /**
      * Queries the quadtree with a rectangular range, returning points inside
      * the range.
@@ -249,6 +331,50 @@ public class Quadtree {
         return result;
     }
 
+    /**
+     * Queries the quadtree with a circular range. Writes the coordinates of points
+     * inside the range to an array, with a stride of 2, and their distances
+     * squared to another array. Points are in traversal order, not sorted.
+     * Returns the number of points in range, which may be greater than the
+     * number the arrays could hold.
+     *
+     * @param q       the quadtree
+     * @param center  the circle center
+     * @param radius  the circle radius
+     * @param coords  the output coordinates
+     * @param distSqs the output distances squared
+     * @return the number in range
+     */
+    public static int query(
+        final Quadtree q,
+        final Vec2 center,
+        final float radius,
+        final float[] coords,
+        final float[] distSqs) {
+
+        return Quadtree.query(q, center, radius * radius, coords, distSqs, 0);
+    }
+
+    /**
+     * Queries the quadtree with a circular range. Calls a visitor for each
+     * point inside the range, in traversal order. Returns the number of
+     * points visited.
+     *
+     * @param q       the quadtree
+     * @param center  the circle center
+     * @param radius  the circle radius
+     * @param visitor the visitor
+     * @return the number in range
+     */
+    public static int query(
+        final Quadtree q,
+        final Vec2 center,
+        final float radius,
+        final Visitor visitor) {
+
+        return Quadtree.query(q, center, radius * radius, visitor, 0);
+    }
+
     /**
      * Finds the average center in each leaf node of this quadtree and appends
      * it to an array. If the node is empty, and includeEmpty is true, then the
@@ -378,6 +504,278 @@ public class Quadtree {
         }
     }
 
+    /**
+     * Moves the last element of a bounded max heap of points up to its place.
+     *
+     * @param coords  the coordinates
+     * @param distSqs the distances squared
+     * @param start   the element index
+     */
+    static void heapSiftUp(
+        final float[] coords,
+        final float[] distSqs,
+        final int start) {
+
+        int i = start;
+        while (i > 0) {
+            final int parent = i - 1 >>> 1;
+            if (distSqs[parent] >= distSqs[i]) {
+                return;
+            }
+            Quadtree.heapSwap(coords, distSqs, i, parent);
+            i = parent;
+        }
+    }
+
+    /**
+     * Moves an element of a bounded max heap of points down to its place.
+     *
+     * @param coords  the coordinates
+     * @param distSqs the distances squared
+     * @param start   the element index
+     * @param size    the heap size
+     */
+    static void heapSiftDown(
+        final float[] coords,
+        final float[] distSqs,
+        final int start,
+        final int size) {
+
+        int i = start;
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && distSqs[child + 1] > distSqs[child]) {
+                ++child;
+            }
+            if (distSqs[child] <= distSqs[i]) {
+                return;
+            }
+            Quadtree.heapSwap(coords, distSqs, i, child);
+            i = child;
+        }
+    }
+
+    /**
+     * Swaps two elements in a heap of points.
+     *
+     * @param coords  the coordinates
+     * @param distSqs the distances squared
+     * @param i       the first index
+     * @param j       the second index
+     */
+    static void heapSwap(
+        final float[] coords,
+        final float[] distSqs,
+        final int i,
+        final int j) {
+
+        final float td = distSqs[i];
+        distSqs[i] = distSqs[j];
+        distSqs[j] = td;
+
+        for (int m = i * 2, n = j * 2, end = m + 2; m < end; ++m, ++n) {
+            final float tc = coords[m];
+            coords[m] = coords[n];
+            coords[n] = tc;
+        }
+    }
+
+    /**
+     * Finds up to k points nearest to a query point, placing them in a
+     * bounded max heap. Children whose bounds contain the query are visited
+     * first. Returns the new heap size.
+     *
+     * @param q       the quadtree
+     * @param query   the query point
+     * @param k       the number of points
+     * @param size    the heap size
+     * @param coords  the heap coordinates
+     * @param distSqs the heap distances squared
+     * @return the heap size
+     * @see Bounds2#distSq(Bounds2, Vec2)
+     */
+    static int nearest(
+        final Quadtree q,
+        final Vec2 query,
+        final int k,
+        final int size,
+        final float[] coords,
+        final float[] distSqs) {
+
+        int sz = size;
+        if (q.isLeaf()) {
+            for (final Vec2 point : q.points) {
+                final float dsq = Vec2.distSq(query, point);
+                if (sz < k) {
+                    final int j = sz * 2;
+                    coords[j] = point.x;
+                    coords[j + 1] = point.y;
+                    distSqs[sz] = dsq;
+                    Quadtree.heapSiftUp(coords, distSqs, sz);
+                    ++sz;
+                } else if (dsq < distSqs[0]) {
+                    coords[0] = point.x;
+                    coords[1] = point.y;
+                    distSqs[0] = dsq;
+                    Quadtree.heapSiftDown(coords, distSqs, 0, sz);
+                }
+            }
+            return sz;
+        }
+
+        for (int pass = 0; pass < 2; ++pass) {
+            for (int i = 0; i < Quadtree.CHILD_COUNT; ++i) {
+                final Quadtree child = q.children[i];
+                if (child != null) {
+                    final float bdsq = Bounds2.distSq(child.bounds, query);
+                    final boolean contains = bdsq <= 0.0f;
+                    if (contains == (pass == 0)
+                        && (sz < k || bdsq < distSqs[0])) {
+                        sz = Quadtree.nearest(child, query, k, sz, coords, distSqs);
+                    }
+                }
+            }
+        }
+        return sz;
+    }
+
+    /**
+     * Finds the point nearest to a query point. Children whose bounds
+     * contain the query are visited first. Returns the least distance
+     * squared found.
+     *
+     * @param q      the quadtree
+     * @param query  the query point
+     * @param bestSq the least distance squared so far
+     * @param target the output point
+     * @return the distance squared
+     * @see Bounds2#distSq(Bounds2, Vec2)
+     */
+    static float nearestOne(
+        final Quadtree q,
+        final Vec2 query,
+        final float bestSq,
+        final Vec2 target) {
+
+        float best = bestSq;
+        if (q.isLeaf()) {
+            for (final Vec2 point : q.points) {
+                final float dsq = Vec2.distSq(query, point);
+                if (dsq < best) {
+                    best = dsq;
+                    target.set(point);
+                }
+            }
+            return best;
+        }
+
+        for (int pass = 0; pass < 2; ++pass) {
+            for (int i = 0; i < Quadtree.CHILD_COUNT; ++i) {
+                final Quadtree child = q.children[i];
+                if (child != null) {
+                    final float bdsq = Bounds2.distSq(child.bounds, query);
+                    final boolean contains = bdsq <= 0.0f;
+                    if (contains == (pass == 0) && bdsq < best) {
+                        best = Quadtree.nearestOne(child, query, best, target);
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Queries the quadtree with a circular range. Writes points in range to
+     * arrays until they are full. Returns the count of points in range.
+     *
+     * @param q       the quadtree
+     * @param center  the circle center
+     * @param rsq     the circle radius, squared
+     * @param coords  the output coordinates
+     * @param distSqs the output distances squared
+     * @param count   the count so far
+     * @return the count
+     */
+    static int query(
+        final Quadtree q,
+        final Vec2 center,
+        final float rsq,
+        final float[] coords,
+        final float[] distSqs,
+        final int count) {
+
+        int c = count;
+        if (Bounds2.intersectSq(q.bounds, center, rsq)) {
+            boolean isLeaf = true;
+            for (int i = 0; i < Quadtree.CHILD_COUNT; ++i) {
+                final Quadtree child = q.children[i];
+                if (child != null) {
+                    isLeaf = false;
+                    c = Quadtree.query(child, center, rsq, coords, distSqs, c);
+                }
+            }
+
+            if (isLeaf) {
+                final int cap = Math.min(coords.length / 2, distSqs.length);
+                for (final Vec2 point : q.points) {
+                    final float dsq = Vec2.distSq(center, point);
+                    if (dsq < rsq) {
+                        if (c < cap) {
+                            final int j = c * 2;
+                            coords[j] = point.x;
+                            coords[j + 1] = point.y;
+                            distSqs[c] = dsq;
+                        }
+                        ++c;
+                    }
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Queries the quadtree with a circular range. Calls a visitor for each
+     * point in range. Returns the count of points visited.
+     *
+     * @param q       the quadtree
+     * @param center  the circle center
+     * @param rsq     the circle radius, squared
+     * @param visitor the visitor
+     * @param count   the count so far
+     * @return the count
+     */
+    static int query(
+        final Quadtree q,
+        final Vec2 center,
+        final float rsq,
+        final Visitor visitor,
+        final int count) {
+
+        int c = count;
+        if (Bounds2.intersectSq(q.bounds, center, rsq)) {
+            boolean isLeaf = true;
+            for (int i = 0; i < Quadtree.CHILD_COUNT; ++i) {
+                final Quadtree child = q.children[i];
+                if (child != null) {
+                    isLeaf = false;
+                    c = Quadtree.query(child, center, rsq, visitor, c);
+                }
+            }
+
+            if (isLeaf) {
+                for (final Vec2 point : q.points) {
+                    final float dsq = Vec2.distSq(center, point);
+                    if (dsq < rsq) {
+                        visitor.visit(point, dsq);
+                        ++c;
+                    }
+                }
+            }
+        }
+        return c;
+    }
+
     /**
      * Counts the number of leaves held by this quadtree. Returns 1 if this
      * node is itself a leaf.
@@ -608,6 +1006,43 @@ public class Quadtree {
         return flag;
     }
 
+    /**
+     * Inserts points into the quadtree in bulk. Points are partitioned by
+     * child node, then each child's share is inserted as a separate task in
+     * a fork join pool. The resulting quadtree is the same as that made by
+     * inserting the points one at a time, in order. If the pool is
+     * <code>null</code>, the tasks are run on the calling thread.
+     * <br>
+     * <br>
+     * Returns <code>true</code> if all insertions were successful;
+     * <code>false</code> if at least one was unsuccessful.
+     *
+     * @param pts  the points
+     * @param pool the fork join pool
+     * @return the insertion success
+     * @see Bounds2#contains(Bounds2, Vec2)
+     */
+    public boolean insertAll(final Vec2[] pts, final ForkJoinPool pool) {
+
+        final ArrayList<Vec2> inBounds = new ArrayList<>(pts.length);
+        boolean flag = true;
+        for (final Vec2 pt : pts) {
+            if (Bounds2.contains(this.bounds, pt)) {
+                inBounds.add(pt);
+            } else {
+                flag = false;
+            }
+        }
+
+        final InsertTask task = new InsertTask(this, inBounds);
+        if (pool != null) {
+            pool.invoke(task);
+        } else {
+            task.compute();
+        }
+        return flag;
+    }
+
     /**
      * Evaluates whether this quadtree node has any children. Returns true if
      * no; otherwise false.
@@ -944,4 +1379,172 @@ public class Quadtree {
 
         return this;
     }
+
+    /**
+     * Inserts a list of points into a quadtree node, then forks a task for
+     * each child which receives enough of them.
+     */
+    static final class InsertTask extends RecursiveAction {
+
+        /**
+         * The number of points below which a child's share is inserted on
+         * the same thread.
+         */
+        static final int GRAIN = 1024;
+
+        /**
+         * The unique identification for serialized classes.
+         */
+        @Serial
+        private static final long serialVersionUID = -2914563058103917287L;
+
+        /**
+         * The node.
+         */
+        private final transient Quadtree node;
+
+        /**
+         * The points, all of which are in the node's bounds.
+         */
+        private final transient ArrayList<Vec2> pts;
+
+        /**
+         * Constructs a task.
+         *
+         * @param node the node
+         * @param pts  the points
+         */
+        InsertTask(final Quadtree node, final ArrayList<Vec2> pts) {
+
+            this.node = node;
+            this.pts = pts;
+        }
+
+        /**
+         * Inserts the points into the node.
+         */
+        @Override
+        protected void compute() {
+
+            final Quadtree o = this.node;
+            ArrayList<Vec2> toPlace = this.pts;
+            if (toPlace.isEmpty()) {
+                return;
+            }
+
+            if (o.isLeaf()) {
+
+                /*
+                 * A leaf splits once the number of unique points it holds
+                 * exceeds its capacity, so check the union first.
+                 */
+                final TreeSet<Vec2> union = new TreeSet<>(o.points);
+                for (final Vec2 pt : toPlace) {
+                    union.add(pt);
+                    if (union.size() > o.capacity) {
+                        break;
+                    }
+                }
+
+                if (union.size() <= o.capacity) {
+                    o.points.addAll(toPlace);
+                    return;
+                }
+
+                /* Points held before are placed ahead of new points. */
+                final ArrayList<Vec2> combined = new ArrayList<>(
+                    o.points.size() + toPlace.size());
+                combined.addAll(o.points);
+                combined.addAll(toPlace);
+                o.points.clear();
+                o.split(o.capacity);
+                toPlace = combined;
+            }
+
+            /* Partition points by the first child whose bounds contain them. */
+            @SuppressWarnings({ "rawtypes", "unchecked" })
+            final ArrayList<Vec2>[] shares = new ArrayList[Quadtree.CHILD_COUNT];
+            ArrayList<Vec2> orphans = null;
+            for (final Vec2 pt : toPlace) {
+                final int k = InsertTask.childIndex(o, pt);
+                if (k > -1) {
+                    if (shares[k] == null) {
+                        shares[k] = new ArrayList<>();
+                    }
+                    shares[k].add(pt);
+                } else {
+                    if (orphans == null) {
+                        orphans = new ArrayList<>();
+                    }
+                    orphans.add(pt);
+                }
+            }
+
+            /* Case where a child has been culled. Split again. */
+            if (orphans != null) {
+                o.split(o.capacity);
+                for (final Vec2 pt : orphans) {
+                    final int k = InsertTask.childIndex(o, pt);
+                    if (k > -1) {
+                        if (shares[k] == null) {
+                            shares[k] = new ArrayList<>();
+                        }
+                        shares[k].add(pt);
+                    }
+                }
+            }
+
+            final ArrayList<InsertTask> forks = new ArrayList<>(Quadtree.CHILD_COUNT);
+            for (int k = 0; k < Quadtree.CHILD_COUNT; ++k) {
+                final ArrayList<Vec2> share = shares[k];
+                if (share != null) {
+                    final InsertTask sub = new InsertTask(o.children[k], share);
+                    if (share.size() < InsertTask.GRAIN
+                        || !ForkJoinTask.inForkJoinPool()) {
+                        sub.compute();
+                    } else {
+                        forks.add(sub);
+                    }
+                }
+            }
+            if (!forks.isEmpty()) {
+                ForkJoinTask.invokeAll(forks);
+            }
+        }
+
+        /**
+         * Finds the index of the first child whose bounds contain a point.
+         * Returns -1 if none do.
+         *
+         * @param o  the node
+         * @param pt the point
+         * @return the index
+         */
+        static int childIndex(final Quadtree o, final Vec2 pt) {
+
+            for (int k = 0; k < Quadtree.CHILD_COUNT; ++k) {
+                final Quadtree child = o.children[k];
+                if (child != null && Bounds2.contains(child.bounds, pt)) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Visits points found by a range query.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+
+        /**
+         * Visits a point. The point is held by the quadtree by reference, and
+         * should not be changed.
+         *
+         * @param point  the point
+         * @param distSq the distance squared from the query center
+         */
+        void visit(Vec2 point, float distSq);
+    }
 }
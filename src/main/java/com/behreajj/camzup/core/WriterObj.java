@@ -0,0 +1,365 @@
+package com.behreajj.camzup.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+
+/**
+ * A Wavefront .obj file writer. Writes to a channel in fixed-size blocks, so
+ * a mesh of any size can be written without a string the size of the file.
+ * Real numbers are formatted directly to bytes. The output matches
+ * {@link Mesh3#toObjString()} and {@link MeshEntity3#toObjString()}.
+ */
+public abstract class WriterObj {
+
+    /**
+     * The number of decimal places written for real numbers.
+     */
+    public static final int PLACES = 6;
+
+    /**
+     * Private constructor for abstract class.
+     */
+    private WriterObj() {
+    }
+
+    /**
+     * Writes a mesh to a channel as a group. The channel is not closed.
+     * Returns the number of bytes written, or -1 if the channel could not be
+     * written.
+     *
+     * @param mesh the mesh
+     * @param out  the writable channel
+     * @return the byte count
+     */
+    public static long write(final Mesh3 mesh, final WritableByteChannel out) {
+
+        final ByteSink sink = new ByteSink(out);
+        try {
+            WriterObj.writeMesh(sink, mesh, 1, 1, 1, true, true, true, true);
+            return sink.flush();
+        } catch (final IOException e) {
+            // noinspection CallToPrintStackTrace
+            e.printStackTrace();
+        }
+        return -1L;
+    }
+
+    /**
+     * Writes a mesh to an output stream as a group. The stream is not closed.
+     *
+     * @param mesh the mesh
+     * @param out  the output stream
+     * @return the byte count
+     * @see WriterObj#write(Mesh3, WritableByteChannel)
+     */
+    public static long write(final Mesh3 mesh, final OutputStream out) {
+
+        return WriterObj.write(mesh, Channels.newChannel(out));
+    }
+
+    /**
+     * Writes the meshes of an entity to a channel as an object with a group
+     * per mesh. Index offsets accumulate from one mesh to the next. The
+     * channel is not closed.
+     *
+     * @param entity the mesh entity
+     * @param out    the writable channel
+     * @return the byte count
+     * @see WriterObj#write(MeshEntity3, WritableByteChannel, boolean)
+     */
+    public static long write(
+        final MeshEntity3 entity,
+        final WritableByteChannel out) {
+
+        return WriterObj.write(entity, out, false);
+    }
+
+    /**
+     * Writes the meshes of an entity to a channel as an object with a group
+     * per mesh. Index offsets accumulate from one mesh to the next.
+     * <br>
+     * <br>
+     * If data is shared, then meshes which reference the same coordinate,
+     * texture coordinate or normal array, such as those loaded by
+     * {@link ParserObj} with pooled data, write that array once; later meshes
+     * reuse its index offset. The channel is not closed. Returns the number
+     * of bytes written, or -1 if the channel could not be written.
+     *
+     * @param entity    the mesh entity
+     * @param out       the writable channel
+     * @param shareData whether to write shared arrays once
+     * @return the byte count
+     */
+    public static long write(
+        final MeshEntity3 entity,
+        final WritableByteChannel out,
+        final boolean shareData) {
+
+        /* Count data first, as the comment precedes it. */
+        final IdentityHashMap<Object, Integer> counted = new IdentityHashMap<>();
+        int vsLen = 0;
+        int vtsLen = 0;
+        int vnsLen = 0;
+        int fsLen = 0;
+        for (final Mesh3 mesh : entity.meshes) {
+            if (!shareData || counted.put(mesh.coords, 0) == null) {
+                vsLen += mesh.coords.length;
+            }
+            if (!shareData || counted.put(mesh.texCoords, 0) == null) {
+                vtsLen += mesh.texCoords.length;
+            }
+            if (!shareData || counted.put(mesh.normals, 0) == null) {
+                vnsLen += mesh.normals.length;
+            }
+            fsLen += mesh.faces.length;
+        }
+
+        final ByteSink sink = new ByteSink(out);
+        try {
+            sink.putString("# g: ");
+            sink.putDecimal(entity.meshes.size());
+            sink.putString(", v: ");
+            sink.putDecimal(vsLen);
+            sink.putString(", vt: ");
+            sink.putDecimal(vtsLen);
+            sink.putString(", vn: ");
+            sink.putDecimal(vnsLen);
+            sink.putString(", f: ");
+            sink.putDecimal(fsLen);
+            sink.put('\n');
+
+            sink.put('o');
+            sink.put(' ');
+            sink.putString(entity.name);
+            sink.put('\n');
+
+            /* Map each written array to its index offset. */
+            final IdentityHashMap<Object, Integer> offsets = new IdentityHashMap<>();
+            int vIdx = 1;
+            int vtIdx = 1;
+            int vnIdx = 1;
+            int i = 0;
+            final int last = entity.meshes.size() - 1;
+            for (final Mesh3 mesh : entity.meshes) {
+                final Integer vPrev = shareData ? offsets.get(mesh.coords) : null;
+                final Integer vtPrev = shareData ? offsets.get(mesh.texCoords) : null;
+                final Integer vnPrev = shareData ? offsets.get(mesh.normals) : null;
+                WriterObj.writeMesh(sink, mesh,
+                    vPrev != null ? vPrev : vIdx,
+                    vtPrev != null ? vtPrev : vtIdx,
+                    vnPrev != null ? vnPrev : vnIdx,
+                    vPrev == null, vtPrev == null, vnPrev == null, true);
+                if (i < last) {
+                    sink.put('\n');
+                }
+
+                if (vPrev == null) {
+                    offsets.put(mesh.coords, vIdx);
+                    vIdx += mesh.coords.length;
+                }
+                if (vtPrev == null) {
+                    offsets.put(mesh.texCoords, vtIdx);
+                    vtIdx += mesh.texCoords.length;
+                }
+                if (vnPrev == null) {
+                    offsets.put(mesh.normals, vnIdx);
+                    vnIdx += mesh.normals.length;
+                }
+                ++i;
+            }
+
+            return sink.flush();
+        } catch (final IOException e) {
+            // noinspection CallToPrintStackTrace
+            e.printStackTrace();
+        }
+        return -1L;
+    }
+
+    /**
+     * Writes the meshes of an entity to an output stream. The stream is not
+     * closed.
+     *
+     * @param entity the mesh entity
+     * @param out    the output stream
+     * @return the byte count
+     * @see WriterObj#write(MeshEntity3, WritableByteChannel, boolean)
+     */
+    public static long write(final MeshEntity3 entity, final OutputStream out) {
+
+        return WriterObj.write(entity, Channels.newChannel(out), false);
+    }
+
+    /**
+     * Writes the meshes of an entity to a file. In doing so, opens a
+     * {@link FileChannel}. An existing file is replaced.
+     *
+     * @param entity    the mesh entity
+     * @param fileName  the file name
+     * @param shareData whether to write shared arrays once
+     * @return the byte count
+     * @see WriterObj#write(MeshEntity3, WritableByteChannel, boolean)
+     */
+    public static long write(
+        final MeshEntity3 entity,
+        final String fileName,
+        final boolean shareData) {
+
+        try (final FileChannel fc = FileChannel.open(Paths.get(fileName),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            return WriterObj.write(entity, fc, shareData);
+        } catch (final Exception e) {
+            // noinspection CallToPrintStackTrace
+            e.printStackTrace();
+        }
+        return -1L;
+    }
+
+    /**
+     * Writes a mesh as a group, in the same layout as
+     * {@link Mesh3#toObjString(int, int, int, int, boolean)} with flat
+     * shading. Data which has already been written may be omitted, in which
+     * case the index offsets should refer to it.
+     *
+     * @param sink      the byte sink
+     * @param mesh      the mesh
+     * @param vIdx      coordinate index offset
+     * @param vtIdx     texture coordinate index offset
+     * @param vnIdx     normal index offset
+     * @param writeVs   whether to write coordinates
+     * @param writeVts  whether to write texture coordinates
+     * @param writeVns  whether to write normals
+     * @param flipvs    whether to subtract y from 1.0
+     * @throws IOException if the channel cannot be written
+     */
+    static void writeMesh(
+        final ByteSink sink,
+        final Mesh3 mesh,
+        final int vIdx,
+        final int vtIdx,
+        final int vnIdx,
+        final boolean writeVs,
+        final boolean writeVts,
+        final boolean writeVns,
+        final boolean flipvs) throws IOException {
+
+        final int vsLen = mesh.coords.length;
+        final int vtsLen = mesh.texCoords.length;
+        final int vnsLen = mesh.normals.length;
+
+        sink.putString("\n# v: ");
+        sink.putDecimal(vsLen);
+        sink.putString(", vt: ");
+        sink.putDecimal(vtsLen);
+        sink.putString(", vn: ");
+        sink.putDecimal(vnsLen);
+        sink.putString(", f: ");
+        sink.putDecimal(mesh.faces.length);
+        sink.put('\n');
+
+        sink.put('g');
+        sink.put(' ');
+        sink.putString(mesh.name);
+        sink.put('\n');
+        sink.put('\n');
+
+        if (writeVs) {
+            for (final Vec3 v : mesh.coords) {
+                sink.put('v');
+                sink.put(' ');
+                WriterObj.writeVec3(sink, v);
+                sink.put('\n');
+            }
+            sink.put('\n');
+        }
+
+        /* Matches Vec2#toObjString(StringBuilder, boolean). */
+        if (writeVts) {
+            for (final Vec2 vt : mesh.texCoords) {
+                sink.put('v');
+                sink.put('t');
+                sink.put(' ');
+                sink.putFixed(flipvs ? vt.x : 1.0f - vt.x, WriterObj.PLACES);
+                sink.put(' ');
+                sink.putFixed(flipvs ? 1.0f - vt.y : vt.y, WriterObj.PLACES);
+                sink.put('\n');
+            }
+            sink.put('\n');
+        }
+
+        if (writeVns) {
+            for (final Vec3 vn : mesh.normals) {
+                sink.put('v');
+                sink.put('n');
+                sink.put(' ');
+                WriterObj.writeVec3(sink, vn);
+                sink.put('\n');
+            }
+            sink.put('\n');
+        }
+
+        sink.putString("s off\n\n");
+        WriterObj.writeFaces(sink, mesh.faces, vIdx, vtIdx, vnIdx);
+    }
+
+    /**
+     * Writes face indices. Each face is on its own line, without a line break
+     * after the last.
+     *
+     * @param sink  the byte sink
+     * @param faces the faces
+     * @param vIdx  coordinate index offset
+     * @param vtIdx texture coordinate index offset
+     * @param vnIdx normal index offset
+     * @throws IOException if the channel cannot be written
+     */
+    private static void writeFaces(
+        final ByteSink sink,
+        final int[][][] faces,
+        final int vIdx,
+        final int vtIdx,
+        final int vnIdx) throws IOException {
+
+        final int facesLen = faces.length;
+        final int facesLast = facesLen - 1;
+        for (int i = 0; i < facesLen; ++i) {
+            sink.put('f');
+            sink.put(' ');
+            for (final int[] vert : faces[i]) {
+                sink.putDecimal(vert[0] + vIdx);
+                sink.put('/');
+                sink.putDecimal(vert[1] + vtIdx);
+                sink.put('/');
+                sink.putDecimal(vert[2] + vnIdx);
+                sink.put(' ');
+            }
+            if (i < facesLast) {
+                sink.put('\n');
+            }
+        }
+    }
+
+    /**
+     * Writes the components of a vector separated by spaces.
+     *
+     * @param sink the byte sink
+     * @param v    the vector
+     * @throws IOException if the channel cannot be written
+     */
+    private static void writeVec3(final ByteSink sink, final Vec3 v)
+        throws IOException {
+
+        sink.putFixed(v.x, WriterObj.PLACES);
+        sink.put(' ');
+        sink.putFixed(v.y, WriterObj.PLACES);
+        sink.put(' ');
+        sink.putFixed(v.z, WriterObj.PLACES);
+    }
+}
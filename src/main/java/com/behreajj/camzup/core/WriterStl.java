@@ -0,0 +1,204 @@
+package com.behreajj.camzup.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A binary .stl file writer. Writes to a channel in fixed-size blocks, so a
+ * mesh of any size can be written without an array the size of the file.
+ * Faces are triangulated as fans about their first corner; for meshes of
+ * triangles, the output matches {@link Mesh3#toStlBytes()}.
+ */
+public abstract class WriterStl {
+
+    /**
+     * The number of bytes in the file header.
+     */
+    public static final int HEADER_SIZE = 80;
+
+    /**
+     * Private constructor for abstract class.
+     */
+    private WriterStl() {
+    }
+
+    /**
+     * Writes a mesh to a channel. The channel is not closed. Returns the
+     * number of bytes written, or -1 if the channel could not be written.
+     *
+     * @param mesh the mesh
+     * @param out  the writable channel
+     * @return the byte count
+     */
+    public static long write(final Mesh3 mesh, final WritableByteChannel out) {
+
+        final ByteSink sink = new ByteSink(out);
+        try {
+            sink.putZeros(WriterStl.HEADER_SIZE);
+            sink.putInt(WriterStl.triangleCount(mesh));
+            WriterStl.writeFacets(sink, mesh);
+            return sink.flush();
+        } catch (final IOException e) {
+            // noinspection CallToPrintStackTrace
+            e.printStackTrace();
+        }
+        return -1L;
+    }
+
+    /**
+     * Writes a mesh to an output stream. The stream is not closed.
+     *
+     * @param mesh the mesh
+     * @param out  the output stream
+     * @return the byte count
+     * @see WriterStl#write(Mesh3, WritableByteChannel)
+     */
+    public static long write(final Mesh3 mesh, final OutputStream out) {
+
+        return WriterStl.write(mesh, Channels.newChannel(out));
+    }
+
+    /**
+     * Writes the meshes of an entity to a channel as one solid. The entity's
+     * transform is not applied. The channel is not closed. Returns the number
+     * of bytes written, or -1 if the channel could not be written.
+     *
+     * @param entity the mesh entity
+     * @param out    the writable channel
+     * @return the byte count
+     */
+    public static long write(
+        final MeshEntity3 entity,
+        final WritableByteChannel out) {
+
+        int triCount = 0;
+        for (final Mesh3 mesh : entity.meshes) {
+            triCount += WriterStl.triangleCount(mesh);
+        }
+
+        final ByteSink sink = new ByteSink(out);
+        try {
+            sink.putZeros(WriterStl.HEADER_SIZE);
+            sink.putInt(triCount);
+            for (final Mesh3 mesh : entity.meshes) {
+                WriterStl.writeFacets(sink, mesh);
+            }
+            return sink.flush();
+        } catch (final IOException e) {
+            // noinspection CallToPrintStackTrace
+            e.printStackTrace();
+        }
+        return -1L;
+    }
+
+    /**
+     * Writes the meshes of an entity to an output stream. The stream is not
+     * closed.
+     *
+     * @param entity the mesh entity
+     * @param out    the output stream
+     * @return the byte count
+     * @see WriterStl#write(MeshEntity3, WritableByteChannel)
+     */
+    public static long write(final MeshEntity3 entity, final OutputStream out) {
+
+        return WriterStl.write(entity, Channels.newChannel(out));
+    }
+
+    /**
+     * Writes the meshes of an entity to a file. In doing so, opens a
+     * {@link FileChannel}. An existing file is replaced.
+     *
+     * @param entity   the mesh entity
+     * @param fileName the file name
+     * @return the byte count
+     * @see WriterStl#write(MeshEntity3, WritableByteChannel)
+     */
+    public static long write(final MeshEntity3 entity, final String fileName) {
+
+        try (final FileChannel fc = FileChannel.open(Paths.get(fileName),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            return WriterStl.write(entity, fc);
+        } catch (final Exception e) {
+            // noinspection CallToPrintStackTrace
+            e.printStackTrace();
+        }
+        return -1L;
+    }
+
+    /**
+     * Finds the number of triangles in a mesh once its faces are
+     * triangulated as fans.
+     *
+     * @param mesh the mesh
+     * @return the triangle count
+     */
+    static int triangleCount(final Mesh3 mesh) {
+
+        int count = 0;
+        for (final int[][] face : mesh.faces) {
+            count += Math.max(0, face.length - 2);
+        }
+        return count;
+    }
+
+    /**
+     * Writes the facets of a mesh. Each face is triangulated as a fan; the
+     * normal of each triangle is found as with
+     * {@link Mesh3#toStlBytes(byte[], int)}.
+     *
+     * @param sink the byte sink
+     * @param mesh the mesh
+     * @throws IOException if the channel cannot be written
+     */
+    static void writeFacets(final ByteSink sink, final Mesh3 mesh)
+        throws IOException {
+
+        final Vec3[] vs = mesh.coords;
+        final Vec3[] tri = new Vec3[3];
+        final Vec3 edge0 = new Vec3();
+        final Vec3 edge1 = new Vec3();
+        final Vec3 cross = new Vec3();
+        final Vec3 vn = new Vec3();
+
+        for (final int[][] face : mesh.faces) {
+            final int faceLen = face.length;
+            tri[0] = vs[face[0][0]];
+
+            for (int j = 1; j < faceLen - 1; ++j) {
+                tri[1] = vs[face[j][0]];
+                tri[2] = vs[face[j + 1][0]];
+
+                vn.reset();
+                Vec3 prev = tri[2];
+                for (int k = 0; k < 3; ++k) {
+                    final Vec3 curr = tri[k];
+                    final Vec3 next = tri[(k + 1) % 3];
+                    Vec3.sub(prev, curr, edge0);
+                    Vec3.sub(curr, next, edge1);
+                    Vec3.cross(edge0, edge1, cross);
+                    Vec3.add(vn, cross, vn);
+                    prev = curr;
+                }
+                Vec3.normalize(vn, vn);
+
+                sink.putFloat(vn.x);
+                sink.putFloat(vn.y);
+                sink.putFloat(vn.z);
+                for (final Vec3 v : tri) {
+                    sink.putFloat(v.x);
+                    sink.putFloat(v.y);
+                    sink.putFloat(v.z);
+                }
+                sink.put(0);
+                sink.put(0);
+            }
+        }
+    }
+}
@@ -553,6 +553,36 @@ public abstract class Convert {
         return target;
     }
 
+    /**
+     * Converts a 2D curve to a PShape of line segments. The curve is
+     * flattened such that no point on it is farther than a tolerance from
+     * the polyline, so straight segments use fewer vertices than tight ones.
+     * Returns a {@link PConstants#PATH}.
+     *
+     * @param rndr      the renderer
+     * @param source    the source curve
+     * @param tolerance the tolerance
+     * @return the PShape
+     * @see Curve2#flatten(Curve2, float)
+     */
+    public static PShape toPShape(final PGraphics rndr, final Curve2 source,
+        final float tolerance) {
+
+        final PShape target = new PShape(rndr, PShape.PATH);
+        target.setName(source.name);
+        target.set3D(rndr.is3D());
+
+        /* Vertices are added in reverse to match the Bézier version. */
+        final float[] pts = Curve2.flatten(source, tolerance);
+        target.beginShape(PConstants.POLYGON);
+        for (int j = pts.length - 2; j > -1; j -= 2) {
+            target.vertex(pts[j], pts[j + 1]);
+        }
+        target.endShape(source.closedLoop ? PConstants.CLOSE : PConstants.OPEN);
+
+        return target;
+    }
+
     /**
      * Converts a 2D curve entity to a PShape. The entity's transform is
      * converted to a matrix which is applied to the shape.
@@ -1058,6 +1088,80 @@ public abstract class Convert {
         return shape;
     }
 
+    /**
+     * Converts a packed 2D mesh to a PShape of {@link PConstants#TRIANGLES}.
+     * Faces are triangulated as fans. Coordinates and texture coordinates are
+     * read directly from the interleaved vertex array. Processing does not
+     * accept vertex buffers, so the vertices are still passed to the shape one
+     * at a time; for direct upload, see {@link PackedMesh#getVertexBuffer()}.
+     *
+     * @param rndr   the renderer
+     * @param source the source mesh
+     * @return the PShape
+     * @see PackedMesh#triangleIndices()
+     */
+    public static PShapeOpenGL toPShape(final PGraphicsOpenGL rndr,
+        final PackedMesh2 source) {
+
+        final float[] vs = source.vertices;
+        final int[] tris = source.triangleIndices();
+        final int trisLen = tris.length;
+
+        final PShapeOpenGL target = new PShapeOpenGL(rndr, PShape.GEOMETRY);
+        target.setName(source.name);
+        target.setTextureMode(PConstants.NORMAL);
+        target.set3D(rndr.is3D());
+        target.beginShape(PConstants.TRIANGLES);
+
+        /* Reverse the winding of each triangle, as with other meshes. */
+        for (int i = 0; i < trisLen; i += 3) {
+            for (int j = 2; j >= 0; --j) {
+                final int k = tris[i + j] * PackedMesh2.STRIDE;
+                target.vertex(vs[k], vs[k + 1], vs[k + 2], vs[k + 3]);
+            }
+        }
+        target.endShape(PConstants.CLOSE);
+        return target;
+    }
+
+    /**
+     * Converts a packed 3D mesh to a PShape of {@link PConstants#TRIANGLES}.
+     * Faces are triangulated as fans. Coordinates, texture coordinates and
+     * normals are read directly from the interleaved vertex array. Processing
+     * does not accept vertex buffers, so the vertices are still passed to the
+     * shape one at a time; for direct upload, see
+     * {@link PackedMesh#getVertexBuffer()}.
+     *
+     * @param rndr   the renderer
+     * @param source the source mesh
+     * @return the PShape
+     * @see PackedMesh#triangleIndices()
+     */
+    public static PShapeOpenGL toPShape(final PGraphicsOpenGL rndr,
+        final PackedMesh3 source) {
+
+        final float[] vs = source.vertices;
+        final int[] tris = source.triangleIndices();
+        final int trisLen = tris.length;
+
+        final PShapeOpenGL target = new PShapeOpenGL(rndr, PShape.GEOMETRY);
+        target.setName(source.name);
+        target.setTextureMode(PConstants.NORMAL);
+        target.set3D(rndr.is3D());
+        target.beginShape(PConstants.TRIANGLES);
+
+        /* Reverse the winding of each triangle, as with other meshes. */
+        for (int i = 0; i < trisLen; i += 3) {
+            for (int j = 2; j >= 0; --j) {
+                final int k = tris[i + j] * PackedMesh3.STRIDE;
+                target.normal(vs[k + 5], vs[k + 6], vs[k + 7]);
+                target.vertex(vs[k], vs[k + 1], vs[k + 2], vs[k + 3], vs[k + 4]);
+            }
+        }
+        target.endShape(PConstants.CLOSE);
+        return target;
+    }
+
     /**
      * Converts a 2D mesh to a PShape. Returns a {@link PConstants#GROUP} which
      * contains, as a child, each face of the source mesh. Each child is of the